@@ -0,0 +1,295 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.types.State;
+import com.oltpbenchmark.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop arrivals for the rate-limited phases of some workloads.
+ * <p>
+ * Each workload gets one or more dispatcher threads that share its rate.
+ * A dispatcher precomputes the timestamps of its next arrivals from a
+ * random stream seeded per phase, and hands each piece of work to the
+ * workers at its timestamp: it parks until shortly before and spins for the
+ * rest. Work that is overdue, because the dispatcher fell behind, is still
+ * handed out with its original timestamp, so the schedule never drifts and
+ * the delay shows up in the response times.
+ * <p>
+ * With several dispatchers, each one generates the schedule of the full rate
+ * and keeps every n-th arrival of it, so that their union is the uniform or
+ * Poisson schedule of the full rate. The inter-arrival times are the gaps of
+ * that schedule before the arrivals handed out or dropped while measuring,
+ * whatever the delays of the dispatchers.
+ */
+final class ArrivalScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(ArrivalScheduler.class);
+
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * The longest a dispatcher parks at once, so that it notices phase
+     * changes.
+     */
+    private static final long MAX_PARK_NS = 1_000_000L;
+
+    private final BenchmarkState testState;
+    private final List<Dispatcher> dispatchers = new ArrayList<>();
+    private int streams = 0;
+
+    ArrivalScheduler(BenchmarkState testState) {
+        this.testState = testState;
+    }
+
+    /**
+     * Dispatch the arrivals of the given workload.
+     *
+     * @param seed the seed of the random streams, or -1 for a random one
+     */
+    void add(WorkloadState workState, int numDispatchers, long spinNanos, long seed) {
+        if (seed == -1) {
+            seed = System.nanoTime();
+        }
+        int workload = dispatchers.size();
+        for (int i = 0; i < numDispatchers; i++) {
+            Dispatcher d = new Dispatcher(workState, i, numDispatchers, spinNanos, seed);
+            d.setName(String.format("%s-%d-%d", ArrivalScheduler.class.getSimpleName(), workload, i));
+            dispatchers.add(d);
+        }
+        streams++;
+    }
+
+    void start() {
+        for (Dispatcher d : dispatchers) {
+            d.start();
+        }
+    }
+
+    void stop() throws InterruptedException {
+        for (Dispatcher d : dispatchers) {
+            d.running = false;
+            d.interrupt();
+        }
+        for (Dispatcher d : dispatchers) {
+            d.join();
+        }
+    }
+
+    int getDispatchers() {
+        return dispatchers.size();
+    }
+
+    /**
+     * The number of arrival streams, one per workload whatever the number of
+     * its dispatchers.
+     */
+    int getStreams() {
+        return streams;
+    }
+
+    /**
+     * The number of arrivals handed to the workers while measuring.
+     */
+    long getArrivals() {
+        long arrivals = 0;
+        for (Dispatcher d : dispatchers) {
+            arrivals += d.arrivals;
+        }
+        return arrivals;
+    }
+
+    /**
+     * The number of arrivals dropped while measuring because the work queue
+     * was full.
+     */
+    long getDropped() {
+        long dropped = 0;
+        for (Dispatcher d : dispatchers) {
+            dropped += d.dropped;
+        }
+        return dropped;
+    }
+
+    /**
+     * The time between the scheduled arrivals of each workload, over all of
+     * its dispatchers, in microseconds. Only valid once the dispatchers are
+     * stopped.
+     */
+    LatencyHistogram getInterArrivalTimes() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (Dispatcher d : dispatchers) {
+            h.add(d.interArrivalTimes);
+        }
+        return h;
+    }
+
+    /**
+     * How late each arrival was handed out compared to its timestamp, in
+     * microseconds. Only valid once the dispatchers are stopped.
+     */
+    LatencyHistogram getDispatchLags() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (Dispatcher d : dispatchers) {
+            h.add(d.dispatchLags);
+        }
+        return h;
+    }
+
+    // Not in Dispatcher, where State would be Thread.State
+    private boolean isMeasuring() {
+        return testState.getState() == State.MEASURE;
+    }
+
+    private final class Dispatcher extends Thread {
+        private final WorkloadState workState;
+        private final int shard;
+        private final int shards;
+        private final long spinNanos;
+        private final long seed;
+
+        private volatile boolean running = true;
+
+        // The schedule of the current phase
+        private Phase phase = null;
+        private SplittableRandom arrivalRng;
+        private SplittableRandom rng;
+        private double clock;
+        private final long[] schedule = new long[BATCH_SIZE];
+        // The gap from the previous arrival of any dispatcher, in nanoseconds
+        private final long[] gaps = new long[BATCH_SIZE];
+        private int next = BATCH_SIZE;
+
+        // Statistics of the measured arrivals
+        private final LatencyHistogram interArrivalTimes = new LatencyHistogram();
+        private final LatencyHistogram dispatchLags = new LatencyHistogram();
+        private volatile long arrivals = 0;
+        private volatile long dropped = 0;
+
+        Dispatcher(WorkloadState workState, int shard, int shards, long spinNanos, long seed) {
+            this.workState = workState;
+            this.shard = shard;
+            this.shards = shards;
+            this.spinNanos = spinNanos;
+            this.seed = seed;
+            this.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                Phase current = workState.getCurrentPhase();
+                if (current != phase) {
+                    startPhase(current);
+                }
+                if (phase == null || phase.isDisabled() || !phase.isRateLimited() || phase.isSerial() || phase.getRate() <= 0) {
+                    LockSupport.parkNanos(MAX_PARK_NS);
+                    continue;
+                }
+
+                if (next == BATCH_SIZE) {
+                    fill();
+                }
+                long arrival = schedule[next];
+                if (!waitUntil(arrival)) {
+                    continue;
+                }
+                long gap = gaps[next];
+                next++;
+
+                long now = System.nanoTime();
+                boolean measuring = isMeasuring();
+                boolean offered = workState.offerArrival(phase.chooseTransaction(rng), arrival);
+                if (!measuring) {
+                    continue;
+                }
+                interArrivalTimes.record((gap + 500) / 1000);
+                if (!offered) {
+                    dropped++;
+                } else {
+                    arrivals++;
+                    dispatchLags.record((now - arrival + 500) / 1000);
+                }
+            }
+        }
+
+        private void startPhase(Phase current) {
+            this.phase = current;
+            this.next = BATCH_SIZE;
+            if (current == null) {
+                return;
+            }
+            // The same arrivals for all the dispatchers of the phase, but an
+            // independent stream of transactions for each
+            this.arrivalRng = new SplittableRandom(seed + 0x9E3779B97F4A7C15L * (current.getId() * 1024L));
+            this.rng = new SplittableRandom(seed + 0x9E3779B97F4A7C15L * (current.getId() * 1024L + shard + 1));
+            this.clock = System.nanoTime();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{} dispatching {} of {} requests/second", getName(), current.getArrival(), (double) current.getRate() / shards);
+            }
+        }
+
+        /**
+         * Schedule the next arrivals of this dispatcher: every n-th one of
+         * the schedule of the full rate, starting with the shard-th.
+         */
+        private void fill() {
+            double meanNs = 1e9 / phase.getRate();
+            boolean poisson = phase.getArrival() == Phase.Arrival.POISSON;
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                for (int j = 0; j < shards; j++) {
+                    double gap = poisson ? -Math.log(1 - arrivalRng.nextDouble()) * meanNs : meanNs;
+                    clock += gap;
+                    if (j == shard) {
+                        schedule[i] = (long) clock;
+                        gaps[i] = (long) gap;
+                    }
+                }
+            }
+            next = 0;
+        }
+
+        /**
+         * Park, then spin until the given time.
+         *
+         * @return false if the phase changed or the dispatcher was stopped
+         */
+        private boolean waitUntil(long deadline) {
+            while (true) {
+                long diff = deadline - System.nanoTime();
+                if (diff <= 0) {
+                    return true;
+                }
+                if (!running || workState.getCurrentPhase() != phase) {
+                    return false;
+                }
+                if (diff > spinNanos) {
+                    LockSupport.parkNanos(Math.min(diff - spinNanos, MAX_PARK_NS));
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+}
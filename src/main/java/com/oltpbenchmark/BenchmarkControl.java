@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+/**
+ * Decides when a benchmark run starts, when its warmup ends and when each of
+ * its phases is over. A standalone run follows its own clock, while the
+ * agents of a distributed run follow their coordinator, so that all of them
+ * switch at the same time.
+ * <p>
+ * The methods are polled from the main loop of {@link ThreadBench}, so they
+ * must not block, except for {@link #awaitStart()}, and may be called again
+ * with the same arguments.
+ */
+public interface BenchmarkControl {
+
+    /**
+     * Follow the local clock.
+     */
+    BenchmarkControl LOCAL = new BenchmarkControl() {
+        @Override
+        public void awaitStart() {
+        }
+
+        @Override
+        public boolean isMeasureStarted(long now, long warmupEnd) {
+            return now >= warmupEnd;
+        }
+
+        @Override
+        public boolean isPhaseComplete(int phase, long now, long phaseEnd) {
+            return now >= phaseEnd;
+        }
+
+        @Override
+        public long getPollIntervalNanos() {
+            return Long.MAX_VALUE;
+        }
+    };
+
+    /**
+     * Block until the workers may start, once they have been created.
+     */
+    void awaitStart() throws InterruptedException;
+
+    /**
+     * @param now       the current System.nanoTime()
+     * @param warmupEnd when the warmup ends on the local clock
+     * @return true once the measurements start
+     */
+    boolean isMeasureStarted(long now, long warmupEnd);
+
+    /**
+     * @param phase    the index of the current phase, starting at 0
+     * @param now      the current System.nanoTime()
+     * @param phaseEnd when the current phase ends on the local clock
+     * @return true if the current phase is complete
+     */
+    boolean isPhaseComplete(int phase, long now, long phaseEnd);
+
+    /**
+     * How often the main loop must check for the end of the warmup or of a
+     * phase, even when it would otherwise sleep longer, e.g. in phases with
+     * a low rate.
+     */
+    long getPollIntervalNanos();
+}
@@ -21,17 +21,78 @@ import com.oltpbenchmark.types.State;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumSet;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
-
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The state of the run shared by ThreadBench and all the workers.
+ * <p>
+ * The state and the index of the current phase are published together as an
+ * immutable {@link Snapshot}, so a worker gets a consistent view of both with
+ * a single volatile read and no lock. Each transition replaces the snapshot
+ * with compare-and-set, and is only applied from the states it is valid in:
+ * e.g. a worker that finishes a cold query after the run was stopped cannot
+ * switch the state from DONE back to MEASURE.
+ */
 public final class BenchmarkState {
 
     private static final Logger LOG = LoggerFactory.getLogger(BenchmarkState.class);
 
+    // The states each transition is valid in
+    private static final EnumSet<State> FROM_WARMUP = EnumSet.of(State.WARMUP);
+    private static final EnumSet<State> FROM_WARMUP_OR_MEASURE = EnumSet.of(State.WARMUP, State.MEASURE);
+    private static final EnumSet<State> FROM_COLD_QUERY = EnumSet.of(State.COLD_QUERY);
+    private static final EnumSet<State> FROM_QUERY = EnumSet.of(State.COLD_QUERY, State.MEASURE);
+    private static final EnumSet<State> FROM_LATENCY_COMPLETE = EnumSet.of(State.LATENCY_COMPLETE);
+    private static final EnumSet<State> FROM_RUNNING = EnumSet.of(State.WARMUP, State.MEASURE, State.COLD_QUERY, State.LATENCY_COMPLETE);
+    private static final EnumSet<State> FROM_NOT_EXIT = EnumSet.complementOf(EnumSet.of(State.EXIT));
+
+    /**
+     * An immutable view of the state of the run.
+     */
+    public static final class Snapshot {
+        private final State state;
+        private final int phase;
+        private final long epoch;
+
+        private Snapshot(State state, int phase, long epoch) {
+            this.state = state;
+            this.phase = phase;
+            this.epoch = epoch;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * The index of the current phase, which all the workloads switch at
+         * the same time.
+         */
+        public int getPhase() {
+            return phase;
+        }
+
+        /**
+         * Incremented by every transition, so two snapshots with the same
+         * epoch saw no change in between.
+         */
+        public long getEpoch() {
+            return epoch;
+        }
+
+        @Override
+        public String toString() {
+            return state + "/" + phase + "@" + epoch;
+        }
+    }
+
     private final long testStartNs;
     private final CountDownLatch startBarrier;
     private final AtomicInteger notDoneCount;
-    private volatile State state = State.WARMUP;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(State.WARMUP, 0, 0));
 
     /**
      * @param numThreads number of threads involved in the test: including the
@@ -45,16 +106,16 @@ public final class BenchmarkState {
         testStartNs = System.nanoTime();
     }
 
-    // Protected by this
-
     public long getTestStartNs() {
         return testStartNs;
     }
 
+    public Snapshot getSnapshot() {
+        return snapshot.get();
+    }
+
     public State getState() {
-        synchronized (this) {
-            return state;
-        }
+        return snapshot.get().state;
     }
 
     /**
@@ -72,28 +133,61 @@ public final class BenchmarkState {
         }
     }
 
-    public void startMeasure() {
-        state = State.MEASURE;
+    /**
+     * Switch to the given state if the current one is in <code>from</code>.
+     *
+     * @return whether the state was switched
+     */
+    private boolean transition(EnumSet<State> from, State to) {
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (!from.contains(current.state)) {
+                LOG.debug("Ignoring transition from {} to {}", current, to);
+                return false;
+            }
+            if (snapshot.compareAndSet(current, new Snapshot(to, current.phase, current.epoch + 1))) {
+                return true;
+            }
+        }
+    }
+
+    public boolean startMeasure() {
+        return transition(FROM_WARMUP, State.MEASURE);
+    }
+
+    public boolean startColdQuery() {
+        return transition(FROM_WARMUP_OR_MEASURE, State.COLD_QUERY);
     }
 
-    public void startColdQuery() {
-        state = State.COLD_QUERY;
+    public boolean startHotQuery() {
+        return transition(FROM_COLD_QUERY, State.MEASURE);
     }
 
-    public void startHotQuery() {
-        state = State.MEASURE;
+    public boolean signalLatencyComplete() {
+        return transition(FROM_QUERY, State.LATENCY_COMPLETE);
     }
 
-    public void signalLatencyComplete() {
-        state = State.LATENCY_COMPLETE;
+    public boolean ackLatencyComplete() {
+        return transition(FROM_LATENCY_COMPLETE, State.MEASURE);
     }
 
-    public void ackLatencyComplete() {
-        state = State.MEASURE;
+    /**
+     * Move to the next phase, keeping the current state. Called before the
+     * workloads switch their phase, so a worker that sees the same phase
+     * index before and after a transaction knows the transaction ran
+     * entirely within that phase.
+     */
+    public void nextPhase() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (snapshot.compareAndSet(current, new Snapshot(current.state, current.phase + 1, current.epoch + 1))) {
+                return;
+            }
+        }
     }
 
     public void startCoolDown() {
-        state = State.DONE;
+        transition(FROM_RUNNING, State.DONE);
 
         // The master thread must also signal that it is done
         signalDone();
@@ -112,9 +206,9 @@ public final class BenchmarkState {
         if (current == 0) {
             // We are the last thread to notice that we are done: wake any
             // blocked workers
-            this.state = State.EXIT;
+            transition(FROM_NOT_EXIT, State.EXIT);
         }
         return current;
     }
 
-}
\ No newline at end of file
+}
@@ -19,9 +19,12 @@
 package com.oltpbenchmark;
 
 import com.oltpbenchmark.api.BenchmarkModule;
+import com.oltpbenchmark.api.RetryPolicy;
 import com.oltpbenchmark.api.TransactionType;
 import com.oltpbenchmark.api.TransactionTypes;
 import com.oltpbenchmark.api.Worker;
+import com.oltpbenchmark.distributed.Agent;
+import com.oltpbenchmark.distributed.Coordinator;
 import com.oltpbenchmark.types.DatabaseType;
 import com.oltpbenchmark.util.*;
 import org.apache.commons.cli.*;
@@ -41,6 +44,8 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.net.InetAddress;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -86,6 +91,31 @@ public class DBWorkload {
         if (argsLine.hasOption("im")) {
             intervalMonitor = Integer.parseInt(argsLine.getOptionValue("im"));
         }
+        String intervalMonitorFile = argsLine.getOptionValue("imo");
+
+        // -------------------------------------------------------------------
+        // DISTRIBUTED RUNS
+        // -------------------------------------------------------------------
+
+        Coordinator coordinator = null;
+        Agent agent = null;
+        if (argsLine.hasOption("coordinator") && argsLine.hasOption("agent")) {
+            LOG.error("A process cannot be both the coordinator and an agent");
+            printUsage(options);
+            return;
+        } else if (argsLine.hasOption("coordinator")) {
+            int numAgents = Integer.parseInt(argsLine.getOptionValue("agents", "1"));
+            // Agents on other hosts need an address they can reach
+            InetAddress bindAddress = InetAddress.getByName(argsLine.getOptionValue("coordinator-bind", InetAddress.getLoopbackAddress().getHostAddress()));
+            int timeoutMillis = Coordinator.DEFAULT_READ_TIMEOUT_MS;
+            if (argsLine.hasOption("coordinator-timeout")) {
+                timeoutMillis = Integer.parseInt(argsLine.getOptionValue("coordinator-timeout")) * 1000;
+            }
+            coordinator = new Coordinator(bindAddress, Integer.parseInt(argsLine.getOptionValue("coordinator")), numAgents, timeoutMillis);
+        } else if (argsLine.hasOption("agent")) {
+            // The share of the work of this agent is needed to set up the workloads
+            agent = Agent.connect(argsLine.getOptionValue("agent"));
+        }
 
         // -------------------------------------------------------------------
         // GET PLUGIN LIST
@@ -125,11 +155,26 @@ public class DBWorkload {
             wrkld.setRandomSeed(xmlConfig.getInt("randomSeed", -1));
             wrkld.setBatchSize(xmlConfig.getInt("batchsize", 128));
             wrkld.setMaxRetries(xmlConfig.getInt("retries", 3));
+            wrkld.setRetryPolicy(RetryPolicy.get(
+                    xmlConfig.getString("retryPolicy/type", "immediate"),
+                    xmlConfig.getLong("retryPolicy/baseDelay", 5),
+                    xmlConfig.getLong("retryPolicy/maxDelay", 1000)));
             wrkld.setNewConnectionPerTxn(xmlConfig.getBoolean("newConnectionPerTxn", false));
+            wrkld.setStatementCacheSize(xmlConfig.getInt("statementCacheSize", wrkld.getStatementCacheSize()));
+            wrkld.setVirtualThreads(xmlConfig.getBoolean("virtualThreads", false));
+            wrkld.setStatementStatistics(xmlConfig.getBoolean("statementStatistics", false));
+            wrkld.setArrivalDispatchers(xmlConfig.getInt("arrivals/dispatchers", 0));
+            wrkld.setArrivalSpinMicros(xmlConfig.getLong("arrivals/spin", wrkld.getArrivalSpinMicros()));
+            wrkld.setConnectionPoolSize(xmlConfig.getInt("connectionPool/size", 0));
+            wrkld.setConnectionPoolPrewarm(xmlConfig.getBoolean("connectionPool/prewarm", true));
+            wrkld.setConnectionPoolTimeoutMillis(xmlConfig.getLong("connectionPool/timeout", wrkld.getConnectionPoolTimeoutMillis()));
 
             int terminals = xmlConfig.getInt("terminals[not(@bench)]", 0);
             terminals = xmlConfig.getInt("terminals" + pluginTest, terminals);
             wrkld.setTerminals(terminals);
+            if (agent != null) {
+                wrkld.setAgent(agent.getIndex(), agent.getCount(), agent.getSeed());
+            }
 
             if (xmlConfig.containsKey("loaderThreads")) {
                 int loaderThreads = xmlConfig.getInt("loaderThreads");
@@ -171,7 +216,21 @@ public class DBWorkload {
             initDebug.put("Batch Size", wrkld.getBatchSize());
             initDebug.put("Scale Factor", wrkld.getScaleFactor());
             initDebug.put("Terminals", wrkld.getTerminals());
+            if (agent != null) {
+                initDebug.put("Agent", String.format("%d of %d [terminals %d-%d of %d]", agent.getIndex(), agent.getCount(),
+                        wrkld.getTerminalOffset(), wrkld.getTerminalOffset() + wrkld.getTerminals() - 1, wrkld.getTotalTerminals()));
+            }
             initDebug.put("New Connection Per Txn", wrkld.getNewConnectionPerTxn());
+            initDebug.put("Statement Cache Size", wrkld.getStatementCacheSize());
+            initDebug.put("Virtual Threads", wrkld.getVirtualThreads());
+            initDebug.put("Retry Policy", wrkld.getRetryPolicy());
+            initDebug.put("Statement Statistics", wrkld.getStatementStatistics());
+            if (wrkld.getArrivalDispatchers() > 0) {
+                initDebug.put("Arrival Dispatchers", wrkld.getArrivalDispatchers());
+            }
+            if (wrkld.getConnectionPoolSize() > 0) {
+                initDebug.put("Connection Pool Size", wrkld.getConnectionPoolSize());
+            }
 
             if (selectivity != -1) {
                 initDebug.put("Selectivity", selectivity);
@@ -329,6 +388,19 @@ public class DBWorkload {
                     System.exit(-1);
                 }
 
+                // Each agent of a distributed run takes its share of the
+                // active terminals and of the rate
+                if (wrkld.getAgentCount() > 1) {
+                    activeTerminals = Math.min(wrkld.getAgentShare(activeTerminals), wrkld.getTerminals());
+                    if (rateLimited && !disabled) {
+                        if (rate < wrkld.getAgentCount()) {
+                            LOG.error(String.format("Configuration error in work %d: The rate %d is lower than the number of agents %d", i, rate, wrkld.getAgentCount()));
+                            System.exit(-1);
+                        }
+                        rate = wrkld.getAgentShare(rate);
+                    }
+                }
+
                 int time = work.getInt("/time", 0);
                 int warmup = work.getInt("/warmup", 0);
                 timed = (time > 0);
@@ -456,11 +528,46 @@ public class DBWorkload {
         }
 
         // Execute Workload
-        if (isBooleanOptionSet(argsLine, "execute")) {
+        if (isBooleanOptionSet(argsLine, "execute") && agent != null) {
+            // Run this agent's share and leave the outputs to the coordinator
+            try {
+                Results r = runWorkload(benchList, intervalMonitor, intervalMonitorFile, agent);
+                agent.sendResults(r, benchList.get(0).getWorkloadConfiguration().getTerminalOffset());
+                agent.close();
+            } catch (Throwable ex) {
+                LOG.error("Unexpected error when executing benchmarks.", ex);
+                System.exit(1);
+            }
+        } else if (isBooleanOptionSet(argsLine, "execute")) {
             // Bombs away!
             try {
-                Results r = runWorkload(benchList, intervalMonitor);
-                writeOutputs(r, activeTXTypes, argsLine, xmlConfig);
+                String baseFileName = getBaseFileName(argsLine);
+                SampleLog sampleLog = null;
+                if (isBooleanOptionSet(argsLine, "sample-log")) {
+                    if (coordinator != null) {
+                        LOG.warn("The coordinator runs no workers, the raw samples are written as CSV");
+                    } else {
+                        sampleLog = createSampleLog(argsLine, baseFileName, activeTXTypes, benchList);
+                    }
+                }
+
+                Results r;
+                if (coordinator != null) {
+                    List<WorkloadConfiguration> workConfs = new ArrayList<>();
+                    for (BenchmarkModule bench : benchList) {
+                        workConfs.add(bench.getWorkloadConfiguration());
+                    }
+                    r = coordinator.run(workConfs);
+                    coordinator.close();
+                    LOG.info(SINGLE_LINE);
+                    LOG.info("Rate limited reqs/s: {}", r);
+                } else {
+                    r = runWorkload(benchList, intervalMonitor, intervalMonitorFile, BenchmarkControl.LOCAL);
+                }
+                if (sampleLog != null) {
+                    sampleLog.close();
+                }
+                writeOutputs(r, activeTXTypes, argsLine, xmlConfig, baseFileName, sampleLog);
                 writeHistograms(r);
 
                 if (argsLine.hasOption("json-histograms")) {
@@ -476,6 +583,12 @@ public class DBWorkload {
 
         } else {
             LOG.info("Skipping benchmark workload execution");
+            if (coordinator != null) {
+                coordinator.close();
+            }
+            if (agent != null) {
+                agent.close();
+            }
         }
     }
 
@@ -490,9 +603,16 @@ public class DBWorkload {
         options.addOption("h", "help", false, "Print this help");
         options.addOption("s", "sample", true, "Sampling window");
         options.addOption("im", "interval-monitor", true, "Throughput Monitoring Interval in milliseconds");
+        options.addOption("imo", "interval-monitor-output", true, "Stream per-interval statistics of the monitor to this file (CSV, or JSON lines if it ends with .json/.jsonl)");
         options.addOption("d", "directory", true, "Base directory for the result files, default is current directory");
         options.addOption(null, "dialects-export", true, "Export benchmark SQL to a dialects file");
         options.addOption("jh", "json-histograms", true, "Export histograms to JSON file");
+        options.addOption(null, "sample-log", true, "Stream the raw samples to a compressed binary file (.raw.bin) and compute the windowed results while running, instead of writing them as CSV at the end, see SampleLogReader");
+        options.addOption(null, "coordinator", true, "Coordinate a distributed run, listening for its agents on this port");
+        options.addOption(null, "coordinator-bind", true, "The address the coordinator listens on, default is the loopback address");
+        options.addOption(null, "coordinator-timeout", true, "Fail the run when an agent sends nothing for this many seconds while the coordinator waits for it, default is 300, 0 for no limit");
+        options.addOption(null, "agents", true, "The number of agents the coordinator splits the workload between, default is 1");
+        options.addOption(null, "agent", true, "Run a share of the workload for the coordinator at this host:port");
         return options;
     }
 
@@ -551,35 +671,23 @@ public class DBWorkload {
      * @param xmlConfig
      * @throws Exception
      */
-    private static void writeOutputs(Results r, List<TransactionType> activeTXTypes, CommandLine argsLine, XMLConfiguration xmlConfig) throws Exception {
-
-        // If an output directory is used, store the information
-        String outputDirectory = "results";
-
-        if (argsLine.hasOption("d")) {
-            outputDirectory = argsLine.getOptionValue("d");
-        }
+    private static void writeOutputs(Results r, List<TransactionType> activeTXTypes, CommandLine argsLine, XMLConfiguration xmlConfig,
+                                     String baseFileName, SampleLog sampleLog) throws Exception {
 
+        String outputDirectory = getOutputDirectory(argsLine);
 
         FileUtil.makeDirIfNotExists(outputDirectory);
         ResultWriter rw = new ResultWriter(r, xmlConfig, argsLine);
 
-        String name = StringUtils.join(StringUtils.split(argsLine.getOptionValue("b"), ','), '-');
-
-        String baseFileName = name + "_" + TimeUtil.getCurrentTimeString();
-
         int windowSize = Integer.parseInt(argsLine.getOptionValue("s", "5"));
 
-        String rawFileName = baseFileName + ".raw.csv";
-        try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, rawFileName))) {
-            LOG.info("Output Raw data into file: {}", rawFileName);
-            rw.writeRaw(activeTXTypes, ps);
-        }
-
-        String sampleFileName = baseFileName + ".samples.csv";
-        try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, sampleFileName))) {
-            LOG.info("Output samples into file: {}", sampleFileName);
-            rw.writeSamples(ps);
+        // Otherwise the workers already wrote the raw samples to the sample log
+        if (sampleLog == null) {
+            String rawFileName = baseFileName + ".raw.csv";
+            try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, rawFileName))) {
+                LOG.info("Output Raw data into file: {}", rawFileName);
+                rw.writeRaw(activeTXTypes, ps);
+            }
         }
 
         String summaryFileName = baseFileName + ".summary.json";
@@ -608,19 +716,70 @@ public class DBWorkload {
             rw.writeConfig(ps);
         }
 
+        // The samples and all the results files are written with a single
+        // scan of the samples, or from the windows the sample log computed
+        // while running
+        String sampleFileName = baseFileName + ".samples.csv";
         String resultsFileName = baseFileName + ".results.csv";
-        try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, resultsFileName))) {
+        Map<Integer, PrintStream> resultsByType = new HashMap<>();
+        try (PrintStream samplesPs = new PrintStream(FileUtil.joinPath(outputDirectory, sampleFileName));
+             PrintStream resultsPs = new PrintStream(FileUtil.joinPath(outputDirectory, resultsFileName))) {
+            for (TransactionType t : activeTXTypes) {
+                String fileName = baseFileName + ".results." + t.getName() + ".csv";
+                resultsByType.put(t.getId(), new PrintStream(FileUtil.joinPath(outputDirectory, fileName)));
+            }
+            LOG.info("Output samples into file: {}", sampleFileName);
             LOG.info("Output results into file: {} with window size {}", resultsFileName, windowSize);
-            rw.writeResults(windowSize, ps);
+            if (sampleLog != null) {
+                ResultWriter.writeWindows(sampleLog, samplesPs, resultsPs, resultsByType);
+            } else {
+                rw.writeWindows(samplesPs, windowSize, resultsPs, resultsByType);
+            }
+        } finally {
+            for (PrintStream ps : resultsByType.values()) {
+                ps.close();
+            }
         }
 
-        for (TransactionType t : activeTXTypes) {
-            String fileName = baseFileName + ".results." + t.getName() + ".csv";
-            try (PrintStream ps = new PrintStream(FileUtil.joinPath(outputDirectory, fileName))) {
-                rw.writeResults(windowSize, ps, t);
-            }
+    }
+
+    private static String getOutputDirectory(CommandLine argsLine) {
+        // If an output directory is used, store the information
+        String outputDirectory = "results";
+
+        if (argsLine.hasOption("d")) {
+            outputDirectory = argsLine.getOptionValue("d");
         }
+        return outputDirectory;
+    }
+
+    private static String getBaseFileName(CommandLine argsLine) {
+        String name = StringUtils.join(StringUtils.split(argsLine.getOptionValue("b"), ','), '-');
 
+        return name + "_" + TimeUtil.getCurrentTimeString();
+    }
+
+    /**
+     * Create the binary log the workers stream their samples to, instead of
+     * writing them all as CSV once the run is over.
+     */
+    private static SampleLog createSampleLog(CommandLine argsLine, String baseFileName, List<TransactionType> activeTXTypes, List<BenchmarkModule> benchList) throws IOException {
+        String outputDirectory = getOutputDirectory(argsLine);
+        FileUtil.makeDirIfNotExists(outputDirectory);
+
+        List<String> transactionNames = new ArrayList<>(activeTXTypes.size());
+        for (TransactionType type : activeTXTypes) {
+            transactionNames.add(type.getName());
+        }
+        String sampleLogFileName = baseFileName + ".raw.bin";
+        int windowSize = Integer.parseInt(argsLine.getOptionValue("s", "5"));
+        SampleLog sampleLog = SampleLog.create(Paths.get(outputDirectory, sampleLogFileName), transactionNames, windowSize);
+        LOG.info("Output Raw data into file: {} while running", sampleLogFileName);
+
+        for (BenchmarkModule bench : benchList) {
+            bench.getWorkloadConfiguration().setSampleLog(sampleLog);
+        }
+        return sampleLog;
     }
 
     private static void runCreator(BenchmarkModule bench) throws SQLException, IOException {
@@ -633,7 +792,7 @@ public class DBWorkload {
         bench.loadDatabase();
     }
 
-    private static Results runWorkload(List<BenchmarkModule> benchList, int intervalMonitor) throws IOException {
+    private static Results runWorkload(List<BenchmarkModule> benchList, int intervalMonitor, String intervalMonitorFile, BenchmarkControl control) throws IOException {
         List<Worker<?>> workers = new ArrayList<>();
         List<WorkloadConfiguration> workConfs = new ArrayList<>();
         for (BenchmarkModule bench : benchList) {
@@ -645,7 +804,14 @@ public class DBWorkload {
             workConfs.add(bench.getWorkloadConfiguration());
 
         }
-        Results r = ThreadBench.runRateLimitedBenchmark(workers, workConfs, intervalMonitor);
+        Results r;
+        try {
+            r = ThreadBench.runRateLimitedBenchmark(workers, workConfs, intervalMonitor, intervalMonitorFile, control);
+        } finally {
+            for (BenchmarkModule bench : benchList) {
+                bench.closeConnectionPools();
+            }
+        }
         LOG.info(SINGLE_LINE);
         LOG.info("Rate limited reqs/s: {}", r);
         return r;
@@ -18,6 +18,7 @@
 
 package com.oltpbenchmark;
 
+import com.oltpbenchmark.util.LatencyHistogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,7 +30,7 @@ import java.util.concurrent.TimeUnit;
 public class DistributionStatistics {
     private static final Logger LOG = LoggerFactory.getLogger(DistributionStatistics.class);
 
-    private static final double[] PERCENTILES = {0.0, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 1.0};
+    private static final double[] PERCENTILES = {0.0, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 0.9999, 1.0};
 
     private static final int MINIMUM = 0;
     private static final int PERCENTILE_25TH = 1;
@@ -38,7 +39,9 @@ public class DistributionStatistics {
     private static final int PERCENTILE_90TH = 4;
     private static final int PERCENTILE_95TH = 5;
     private static final int PERCENTILE_99TH = 6;
-    private static final int MAXIMUM = 7;
+    private static final int PERCENTILE_999TH = 7;
+    private static final int PERCENTILE_9999TH = 8;
+    private static final int MAXIMUM = 9;
 
     private final int count;
     private final long[] percentiles;
@@ -97,6 +100,25 @@ public class DistributionStatistics {
         return new DistributionStatistics(valuesAsMicroseconds.length, percentiles, average, standardDeviation);
     }
 
+    /**
+     * Computes distribution statistics from a histogram. Percentiles are
+     * accurate to the precision of the histogram buckets, while the count,
+     * average and standard deviation are exact.
+     */
+    public static DistributionStatistics computeStatistics(LatencyHistogram histogram) {
+        long[] percentiles = new long[PERCENTILES.length];
+        if (histogram.isEmpty()) {
+            Arrays.fill(percentiles, -1);
+            return new DistributionStatistics(0, percentiles, -1, -1);
+        }
+
+        for (int i = 0; i < percentiles.length; ++i) {
+            percentiles[i] = histogram.getValueAtPercentile(PERCENTILES[i]);
+        }
+
+        return new DistributionStatistics((int) histogram.getCount(), percentiles, histogram.getAverage(), histogram.getStandardDeviation());
+    }
+
     public int getCount() {
         return count;
     }
@@ -137,6 +159,14 @@ public class DistributionStatistics {
         return percentiles[PERCENTILE_99TH];
     }
 
+    public double get999thPercentile() {
+        return percentiles[PERCENTILE_999TH];
+    }
+
+    public double get9999thPercentile() {
+        return percentiles[PERCENTILE_9999TH];
+    }
+
     public double getMaximum() {
         return percentiles[MAXIMUM];
     }
@@ -151,6 +181,8 @@ public class DistributionStatistics {
                + "90th=" + TimeUnit.MICROSECONDS.toMillis((long) get90thPercentile()) + ", "
                + "95th=" + TimeUnit.MICROSECONDS.toMillis((long) get95thPercentile()) + ", "
                + "99th=" + TimeUnit.MICROSECONDS.toMillis((long) get99thPercentile()) + ", "
+               + "99.9th=" + TimeUnit.MICROSECONDS.toMillis((long) get999thPercentile()) + ", "
+               + "99.99th=" + TimeUnit.MICROSECONDS.toMillis((long) get9999thPercentile()) + ", "
                + "max=" + TimeUnit.MICROSECONDS.toMillis((long) getMaximum()) + "]";
     }
 
@@ -164,6 +196,8 @@ public class DistributionStatistics {
         distMap.put("90th Percentile Latency (microseconds)", (int) get90thPercentile());
         distMap.put("95th Percentile Latency (microseconds)", (int) get95thPercentile());
         distMap.put("99th Percentile Latency (microseconds)", (int) get99thPercentile());
+        distMap.put("99.9th Percentile Latency (microseconds)", (int) get999thPercentile());
+        distMap.put("99.99th Percentile Latency (microseconds)", (int) get9999thPercentile());
         distMap.put("Maximum Latency (microseconds)", (int) getMaximum());
         return distMap;
     }
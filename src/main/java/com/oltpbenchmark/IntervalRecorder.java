@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+/**
+ * Double-buffered {@link IntervalStatistics} of a single worker, one per
+ * transaction type id.
+ * <p>
+ * The worker brackets every update with {@link #begin(int)} and
+ * {@link #end()}, which only bump a volatile counter. The monitor calls
+ * {@link #swap()} to install the spare buffer and take the one the worker was
+ * filling; if the worker is in the middle of an update, the monitor spins
+ * until it is finished. Neither side takes a lock.
+ * <p>
+ * There must be exactly one writer (the owning worker) and one reader.
+ */
+public final class IntervalRecorder {
+
+    private volatile IntervalStatistics[] active;
+    private IntervalStatistics[] inactive;
+
+    /**
+     * Incremented by the writer before and after each update, so it is odd
+     * while an update is in progress.
+     */
+    private volatile long updates = 0;
+
+    /**
+     * @param numTypes the number of transaction type ids to track. Updates of
+     *                 larger ids are dropped.
+     */
+    public IntervalRecorder(int numTypes) {
+        this.active = create(numTypes);
+        this.inactive = create(numTypes);
+    }
+
+    private static IntervalStatistics[] create(int numTypes) {
+        IntervalStatistics[] stats = new IntervalStatistics[numTypes];
+        for (int i = 0; i < numTypes; i++) {
+            stats[i] = new IntervalStatistics();
+        }
+        return stats;
+    }
+
+    /**
+     * Start an update of the statistics of the given transaction type. Must
+     * be followed by {@link #end()}.
+     *
+     * @return the statistics to update, or null if the type id is not tracked
+     */
+    public IntervalStatistics begin(int typeId) {
+        updates++;
+        IntervalStatistics[] stats = active;
+        return typeId >= 0 && typeId < stats.length ? stats[typeId] : null;
+    }
+
+    public void end() {
+        updates++;
+    }
+
+    /**
+     * Take the statistics recorded since the last swap and start a new
+     * interval. The returned array, indexed by transaction type id, stays
+     * valid until the next call.
+     */
+    public IntervalStatistics[] swap() {
+        IntervalStatistics[] next = inactive;
+        for (IntervalStatistics s : next) {
+            s.reset();
+        }
+
+        IntervalStatistics[] previous = active;
+        active = next;
+
+        // Wait for an update that may still be writing to the previous buffer
+        long u = updates;
+        if ((u & 1) != 0) {
+            while (updates == u) {
+                Thread.onSpinWait();
+            }
+        }
+
+        inactive = previous;
+        return previous;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.util.LatencyHistogram;
+
+/**
+ * What happened to one transaction type during one monitoring interval: the
+ * latency of every completed transaction, and how many were aborted, retried
+ * or failed with an error.
+ */
+public final class IntervalStatistics {
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private long aborts = 0;
+    private long retries = 0;
+    private long errors = 0;
+
+    public void recordLatency(long latencyMicroseconds) {
+        latencies.record(latencyMicroseconds);
+    }
+
+    public void recordAbort() {
+        aborts++;
+    }
+
+    public void recordRetry() {
+        retries++;
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    /**
+     * Add the statistics of <code>other</code> to this one.
+     */
+    public void add(IntervalStatistics other) {
+        latencies.add(other.latencies);
+        aborts += other.aborts;
+        retries += other.retries;
+        errors += other.errors;
+    }
+
+    public void reset() {
+        latencies.reset();
+        aborts = 0;
+        retries = 0;
+        errors = 0;
+    }
+
+    /**
+     * The number of transactions that completed, whatever their outcome.
+     */
+    public long getRequests() {
+        return latencies.getCount();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public long getAborts() {
+        return aborts;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+}
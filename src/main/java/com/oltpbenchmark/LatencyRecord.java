@@ -20,56 +20,72 @@ package com.oltpbenchmark;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 
 /**
  * Efficiently stores a record of (start time, latency) pairs.
+ * <p>
+ * Each worker owns one LatencyRecord. Samples are kept in primitive columns
+ * that are filled chunk by chunk, so recording a transaction does not
+ * allocate. Since a worker executes its transactions one after the other,
+ * the samples of a single record are already ordered by start time, and the
+ * records of all workers can be combined with {@link #merge(List)} without
+ * sorting or copying them.
  */
 public class LatencyRecord implements Iterable<LatencyRecord.Sample> {
     /**
-     * Allocate space for 500k samples at a time
+     * Allocate space for 16k samples at a time
      */
-    static final int ALLOC_SIZE = 500000;
+    static final int ALLOC_SIZE = 16384;
 
     /**
-     * Contains (start time, latency, transactionType, workerid, phaseid) pentiplets
-     * in microsecond form. The start times are "compressed" by encoding them as
-     * increments, starting from startNs. A 32-bit integer provides sufficient resolution
-     * for an interval of 2146 seconds, or 35 minutes.
+     * Contains (start time, latency, response time, transactionType, workerid,
+     * phaseid) tuples. The start times are absolute nanoseconds, latencies and
+     * response times are in microseconds.
      */
-    private final ArrayList<Sample[]> values = new ArrayList<>();
+    private final ArrayList<Chunk> values = new ArrayList<>();
+    private Chunk current;
     private int nextIndex;
 
     private final long startNanosecond;
-    private long lastNanosecond;
 
     public LatencyRecord(long startNanosecond) {
         this.startNanosecond = startNanosecond;
-        this.lastNanosecond = startNanosecond;
         allocateChunk();
 
     }
 
     public void addLatency(int transType, long startNanosecond, long endNanosecond, int workerId, int phaseId) {
+        addLatency(transType, startNanosecond, startNanosecond, endNanosecond, workerId, phaseId);
+    }
 
-
+    /**
+     * @param intendedStartNanosecond when the transaction was scheduled to be
+     *                                dispatched. The difference to
+     *                                startNanosecond is the time the work
+     *                                waited in the queue, which is included
+     *                                in the response time but not in the
+     *                                service time (latency).
+     */
+    public void addLatency(int transType, long intendedStartNanosecond, long startNanosecond, long endNanosecond, int workerId, int phaseId) {
         if (nextIndex == ALLOC_SIZE) {
             allocateChunk();
         }
-        Sample[] chunk = values.get(values.size() - 1);
-
-        long startOffsetNanosecond = (startNanosecond - lastNanosecond + 500);
-
-        int latencyMicroseconds = (int) ((endNanosecond - startNanosecond + 500) / 1000);
 
-
-        chunk[nextIndex] = new Sample(transType, startOffsetNanosecond, latencyMicroseconds, workerId, phaseId);
+        current.startNanoseconds[nextIndex] = startNanosecond;
+        current.latencyMicroseconds[nextIndex] = (int) ((endNanosecond - startNanosecond + 500) / 1000);
+        current.responseMicroseconds[nextIndex] = (int) ((endNanosecond - intendedStartNanosecond + 500) / 1000);
+        current.transactionTypes[nextIndex] = transType;
+        current.workerIds[nextIndex] = workerId;
+        current.phaseIds[nextIndex] = phaseId;
         ++nextIndex;
-
-        lastNanosecond += startOffsetNanosecond;
     }
 
     private void allocateChunk() {
-        values.add(new Sample[ALLOC_SIZE]);
+        current = new Chunk();
+        values.add(current);
         nextIndex = 0;
     }
 
@@ -85,20 +101,54 @@ public class LatencyRecord implements Iterable<LatencyRecord.Sample> {
         return samples;
     }
 
+    /**
+     * Returns the time this record was started at.
+     */
+    public long getStartNanosecond() {
+        return startNanosecond;
+    }
+
+    /**
+     * Combine the samples of several records into a single iteration ordered
+     * by start time. The merge is done lazily while iterating and only keeps
+     * one cursor per record in memory.
+     */
+    public static Iterable<Sample> merge(List<LatencyRecord> records) {
+        return () -> new MergeIterator(records);
+    }
+
+    /**
+     * One block of primitive sample columns.
+     */
+    private static final class Chunk {
+        private final long[] startNanoseconds = new long[ALLOC_SIZE];
+        private final int[] latencyMicroseconds = new int[ALLOC_SIZE];
+        private final int[] responseMicroseconds = new int[ALLOC_SIZE];
+        private final int[] transactionTypes = new int[ALLOC_SIZE];
+        private final int[] workerIds = new int[ALLOC_SIZE];
+        private final int[] phaseIds = new int[ALLOC_SIZE];
+    }
+
     /**
      * Stores the start time and latency for a single sample. Immutable.
      */
     public static final class Sample implements Comparable<Sample> {
         private final int transactionType;
-        private long startNanosecond;
+        private final long startNanosecond;
         private final int latencyMicrosecond;
+        private final int responseMicrosecond;
         private final int workerId;
         private final int phaseId;
 
         public Sample(int transactionType, long startNanosecond, int latencyMicrosecond, int workerId, int phaseId) {
+            this(transactionType, startNanosecond, latencyMicrosecond, latencyMicrosecond, workerId, phaseId);
+        }
+
+        public Sample(int transactionType, long startNanosecond, int latencyMicrosecond, int responseMicrosecond, int workerId, int phaseId) {
             this.transactionType = transactionType;
             this.startNanosecond = startNanosecond;
             this.latencyMicrosecond = latencyMicrosecond;
+            this.responseMicrosecond = responseMicrosecond;
             this.workerId = workerId;
             this.phaseId = phaseId;
         }
@@ -115,6 +165,15 @@ public class LatencyRecord implements Iterable<LatencyRecord.Sample> {
             return latencyMicrosecond;
         }
 
+        /**
+         * Time from when the transaction was scheduled to be dispatched until
+         * it completed, i.e. the latency plus any time spent waiting for a
+         * free worker.
+         */
+        public int getResponseMicrosecond() {
+            return responseMicrosecond;
+        }
+
         public int getWorkerId() {
             return workerId;
         }
@@ -142,20 +201,29 @@ public class LatencyRecord implements Iterable<LatencyRecord.Sample> {
     private final class LatencyRecordIterator implements Iterator<Sample> {
         private int chunkIndex = 0;
         private int subIndex = 0;
-        private long lastIteratorNanosecond = startNanosecond;
 
         @Override
         public boolean hasNext() {
             if (chunkIndex < values.size() - 1) {
                 return true;
             }
-            return subIndex < nextIndex;
+            return chunkIndex == values.size() - 1 && subIndex < nextIndex;
+        }
+
+        /**
+         * Start time of the next sample, without materializing it.
+         */
+        long peekStartNanosecond() {
+            return values.get(chunkIndex).startNanoseconds[subIndex];
         }
 
         @Override
         public Sample next() {
-            Sample[] chunk = values.get(chunkIndex);
-            Sample s = chunk[subIndex];
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Chunk chunk = values.get(chunkIndex);
+            int i = subIndex;
 
             // Iterate in chunk, and wrap to next one
             ++subIndex;
@@ -165,12 +233,8 @@ public class LatencyRecord implements Iterable<LatencyRecord.Sample> {
                 subIndex = 0;
             }
 
-            // Previously, s.startNs was just an offset from the previous
-            // value.  Now we make it an absolute.
-            s.startNanosecond += lastIteratorNanosecond;
-            lastIteratorNanosecond = s.startNanosecond;
-
-            return s;
+            return new Sample(chunk.transactionTypes[i], chunk.startNanoseconds[i], chunk.latencyMicroseconds[i],
+                    chunk.responseMicroseconds[i], chunk.workerIds[i], chunk.phaseIds[i]);
         }
 
         @Override
@@ -179,6 +243,42 @@ public class LatencyRecord implements Iterable<LatencyRecord.Sample> {
         }
     }
 
+    /**
+     * k-way merge over the (already time-ordered) samples of several records.
+     */
+    private static final class MergeIterator implements Iterator<Sample> {
+        private final PriorityQueue<LatencyRecordIterator> cursors;
+
+        MergeIterator(List<LatencyRecord> records) {
+            this.cursors = new PriorityQueue<>(Math.max(1, records.size()),
+                    (a, b) -> Long.compare(a.peekStartNanosecond(), b.peekStartNanosecond()));
+            for (LatencyRecord record : records) {
+                LatencyRecordIterator cursor = record.new LatencyRecordIterator();
+                if (cursor.hasNext()) {
+                    cursors.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public Sample next() {
+            LatencyRecordIterator cursor = cursors.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            Sample s = cursor.next();
+            if (cursor.hasNext()) {
+                cursors.add(cursor);
+            }
+            return s;
+        }
+    }
+
     public Iterator<Sample> iterator() {
         return new LatencyRecordIterator();
     }
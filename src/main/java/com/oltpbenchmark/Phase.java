@@ -21,14 +21,14 @@ import com.oltpbenchmark.util.StringUtil;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class Phase {
     public enum Arrival {
         REGULAR, POISSON,
     }
 
-    private final Random gen = new Random();
     private final String benchmarkName;
     private final int id;
     private final int time;
@@ -43,6 +43,13 @@ public class Phase {
     private final boolean timed;
     private final List<Double> weights;
     private final int weightCount;
+    private final double totalWeight;
+
+    /**
+     * Built once for the phase, null if no transaction has a positive
+     * weight, which is only valid for disabled and serial phases.
+     */
+    private final TransactionMix mix;
     private final int activeTerminals;
     private int nextSerial;
 
@@ -55,6 +62,14 @@ public class Phase {
         this.rate = r;
         this.weights = weights;
         this.weightCount = this.weights.size();
+        double total = 0.0;
+        boolean anyPositive = false;
+        for (Double d : weights) {
+            total += d;
+            anyPositive |= d > 0;
+        }
+        this.totalWeight = total;
+        this.mix = (anyPositive ? new TransactionMix(weights) : null);
         this.rateLimited = rateLimited;
         this.disabled = disabled;
         this.serial = serial;
@@ -132,11 +147,7 @@ public class Phase {
      * @return The total weight
      */
     public double totalWeight() {
-        double total = 0.0;
-        for (Double d : weights) {
-            total += d;
-        }
-        return total;
+        return totalWeight;
     }
 
     /**
@@ -150,6 +161,19 @@ public class Phase {
     }
 
     public int chooseTransaction(boolean isColdQuery) {
+        return chooseTransaction(isColdQuery, ThreadLocalRandom.current());
+    }
+
+    /**
+     * @param rng the random generator of the calling thread, so that the
+     *            threads do not contend on a shared one, and so that each
+     *            worker draws a reproducible mix when it is seeded
+     */
+    public int chooseTransaction(RandomGenerator rng) {
+        return chooseTransaction(false, rng);
+    }
+
+    public int chooseTransaction(boolean isColdQuery, RandomGenerator rng) {
         if (isDisabled()) {
             return -1;
         }
@@ -182,16 +206,10 @@ public class Phase {
             }
             return ret;
         } else {
-            double randomPercentage = gen.nextDouble(totalWeight());
-            double weight = 0.0;
-            int i;
-            for (i = 0; i < this.weightCount; i++) {
-                weight += weights.get(i);
-                if (randomPercentage <= weight) {
-                    return i + 1;
-                }
+            if (mix == null) {
+                throw new IllegalStateException("No transaction type with a positive weight in " + weights);
             }
-            return i;
+            return mix.next(rng);
         }
     }
 
@@ -19,45 +19,98 @@
 package com.oltpbenchmark;
 
 import com.oltpbenchmark.LatencyRecord.Sample;
+import com.oltpbenchmark.api.StatementStatistics;
 import com.oltpbenchmark.api.TransactionType;
 import com.oltpbenchmark.util.Histogram;
+import com.oltpbenchmark.util.LatencyHistogram;
+import com.oltpbenchmark.util.ResultWriter;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public final class Results {
 
     private final long nanoseconds;
     private final int measuredRequests;
     private final DistributionStatistics distributionStatistics;
-    private final List<LatencyRecord.Sample> latencySamples;
+    private final DistributionStatistics responseTimeStatistics;
+    private final Iterable<LatencyRecord.Sample> latencySamples;
     private final Histogram<TransactionType> unknown = new Histogram<>(false);
     private final Histogram<TransactionType> success = new Histogram<>(true);
     private final Histogram<TransactionType> abort = new Histogram<>(false);
     private final Histogram<TransactionType> retry = new Histogram<>(false);
     private final Histogram<TransactionType> error = new Histogram<>(false);
     private final Histogram<TransactionType> retryDifferent = new Histogram<>(false);
+    private final Histogram<TransactionType> attempts = new Histogram<>(false);
     private final Map<TransactionType, Histogram<String>> abortMessages = new HashMap<>();
+    private final Map<TransactionType, LatencyHistogram> latencyHistograms = new HashMap<>();
+    private final Map<TransactionType, LatencyHistogram> responseTimeHistograms = new HashMap<>();
+    private final Map<TransactionType, LatencyHistogram> attemptHistograms = new HashMap<>();
+    private final Map<TransactionType, LatencyHistogram> commitHistograms = new HashMap<>();
+    private final Map<TransactionType, LatencyHistogram> rollbackHistograms = new HashMap<>();
+    private final Map<String, Map<TransactionType, LatencyHistogram>> labelHistograms = new TreeMap<>();
+    private final StatementStatistics statementStatistics = new StatementStatistics();
+    private long statementCacheHits = 0;
+    private long statementCacheMisses = 0;
+    private long statementCacheEvictions = 0;
+    private final LatencyHistogram connectionWaitHistogram = new LatencyHistogram();
+    private int connectionPoolSize = 0;
+    private long connectionsOpened = 0;
+    private long connectionValidationFailures = 0;
+    private long connectionTimeouts = 0;
+    private final LatencyHistogram interArrivalHistogram = new LatencyHistogram();
+    private final LatencyHistogram dispatchLagHistogram = new LatencyHistogram();
+    private int arrivalDispatchers = 0;
+    private int arrivalStreams = 0;
+    private long arrivals = 0;
+    private long droppedArrivals = 0;
+    private final Map<String, Long> counters = new TreeMap<>();
+    private long measureStartNanosecond = ResultWriter.FIRST_SAMPLE;
 
-    public Results(long nanoseconds, int measuredRequests, DistributionStatistics distributionStatistics, final List<LatencyRecord.Sample> latencySamples) {
+    public Results(long nanoseconds, int measuredRequests, DistributionStatistics distributionStatistics, final Iterable<LatencyRecord.Sample> latencySamples) {
+        this(nanoseconds, measuredRequests, distributionStatistics, distributionStatistics, latencySamples);
+    }
+
+    /**
+     * @param distributionStatistics statistics of the service time (latency) of each transaction
+     * @param responseTimeStatistics statistics of the time from the scheduled dispatch of each
+     *                               transaction to its completion
+     */
+    public Results(long nanoseconds, int measuredRequests, DistributionStatistics distributionStatistics, DistributionStatistics responseTimeStatistics, final Iterable<LatencyRecord.Sample> latencySamples) {
         this.nanoseconds = nanoseconds;
         this.measuredRequests = measuredRequests;
         this.distributionStatistics = distributionStatistics;
+        this.responseTimeStatistics = responseTimeStatistics;
 
         if (distributionStatistics == null) {
             this.latencySamples = null;
         } else {
-            // defensive copy
-            this.latencySamples = List.copyOf(latencySamples);
-
+            this.latencySamples = latencySamples;
         }
     }
 
+    /**
+     * @return when the measurements started, in nanoTime, which is where the
+     * windows of the outputs start, or ResultWriter.FIRST_SAMPLE if they
+     * start with the first sample
+     */
+    public long getMeasureStartNanosecond() {
+        return measureStartNanosecond;
+    }
+
+    public void setMeasureStartNanosecond(long measureStartNanosecond) {
+        this.measureStartNanosecond = measureStartNanosecond;
+    }
+
     public DistributionStatistics getDistributionStatistics() {
         return distributionStatistics;
     }
 
+    public DistributionStatistics getResponseTimeStatistics() {
+        return responseTimeStatistics;
+    }
+
     public Histogram<TransactionType> getSuccess() {
         return success;
     }
@@ -82,10 +135,183 @@ public final class Results {
         return retryDifferent;
     }
 
+    /**
+     * The number of attempts made by the measured transactions of each type.
+     */
+    public Histogram<TransactionType> getAttempts() {
+        return attempts;
+    }
+
     public Map<TransactionType, Histogram<String>> getAbortMessages() {
         return abortMessages;
     }
 
+    /**
+     * The latency histograms of each transaction type, merged over all workers.
+     */
+    public Map<TransactionType, LatencyHistogram> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    /**
+     * The response time histograms of each transaction type, merged over all workers.
+     */
+    public Map<TransactionType, LatencyHistogram> getResponseTimeHistograms() {
+        return responseTimeHistograms;
+    }
+
+    /**
+     * The latency histograms of every attempt, including retried ones, of
+     * each transaction type, merged over all workers.
+     */
+    public Map<TransactionType, LatencyHistogram> getAttemptHistograms() {
+        return attemptHistograms;
+    }
+
+    /**
+     * The histograms of the commit time of each transaction type, merged
+     * over all workers.
+     */
+    public Map<TransactionType, LatencyHistogram> getCommitHistograms() {
+        return commitHistograms;
+    }
+
+    public Map<TransactionType, LatencyHistogram> getRollbackHistograms() {
+        return rollbackHistograms;
+    }
+
+    /**
+     * The latency histograms of each transaction type by the label the
+     * workers gave the transactions, merged over all workers. Empty unless
+     * the benchmark labels its transactions.
+     */
+    public Map<String, Map<TransactionType, LatencyHistogram>> getLabelHistograms() {
+        return labelHistograms;
+    }
+
+    /**
+     * The counters of the benchmarks, see
+     * {@link com.oltpbenchmark.api.BenchmarkModule#getCounters()}.
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * The execution times of the SQLStmts of each procedure, merged over all
+     * workers. Empty unless statement statistics were enabled.
+     */
+    public StatementStatistics getStatementStatistics() {
+        return statementStatistics;
+    }
+
+    public void setStatementCacheStatistics(long hits, long misses, long evictions) {
+        this.statementCacheHits = hits;
+        this.statementCacheMisses = misses;
+        this.statementCacheEvictions = evictions;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    /**
+     * The time measured transactions waited for a pooled connection, merged
+     * over all workers.
+     */
+    public LatencyHistogram getConnectionWaitHistogram() {
+        return connectionWaitHistogram;
+    }
+
+    /**
+     * @param size the total size of the connection pools, 0 if pooling was disabled
+     */
+    public void setConnectionPoolStatistics(int size, long opened, long validationFailures, long timeouts) {
+        this.connectionPoolSize = size;
+        this.connectionsOpened = opened;
+        this.connectionValidationFailures = validationFailures;
+        this.connectionTimeouts = timeouts;
+    }
+
+    public int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened;
+    }
+
+    public long getConnectionValidationFailures() {
+        return connectionValidationFailures;
+    }
+
+    public long getConnectionTimeouts() {
+        return connectionTimeouts;
+    }
+
+    /**
+     * @param dispatchers the number of arrival dispatchers, 0 if the arrivals
+     *                    were not dispatched by the ArrivalScheduler
+     * @param streams     the number of arrival streams, one per workload and
+     *                    agent, whose inter-arrival times were measured
+     * @param arrivals    the number of measured arrivals handed to the workers
+     * @param dropped     the number of measured arrivals dropped because the
+     *                    workers could not keep up
+     */
+    public void setArrivalStatistics(int dispatchers, int streams, long arrivals, long dropped) {
+        this.arrivalDispatchers = dispatchers;
+        this.arrivalStreams = streams;
+        this.arrivals = arrivals;
+        this.droppedArrivals = dropped;
+    }
+
+    public int getArrivalDispatchers() {
+        return arrivalDispatchers;
+    }
+
+    public int getArrivalStreams() {
+        return arrivalStreams;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getDroppedArrivals() {
+        return droppedArrivals;
+    }
+
+    /**
+     * The time between consecutive measured arrivals of each arrival stream,
+     * over all the dispatchers of the stream.
+     */
+    public LatencyHistogram getInterArrivalHistogram() {
+        return interArrivalHistogram;
+    }
+
+    /**
+     * How late each measured arrival was handed to the workers.
+     */
+    public LatencyHistogram getDispatchLagHistogram() {
+        return dispatchLagHistogram;
+    }
+
+    /**
+     * The rate at which work arrived while measuring, whether or not the
+     * workers kept up with it.
+     */
+    public double requestsPerSecondOffered() {
+        return (double) (arrivals + droppedArrivals) / (double) nanoseconds * 1e9;
+    }
+
     public double requestsPerSecondThroughput() {
         return (double) measuredRequests / (double) nanoseconds * 1e9;
     }
@@ -94,7 +320,10 @@ public final class Results {
         return (double) success.getSampleCount() / (double) nanoseconds * 1e9;
     }
 
-    public List<Sample> getLatencySamples() {
+    /**
+     * The latency samples of all workers, ordered by start time.
+     */
+    public Iterable<Sample> getLatencySamples() {
         return latencySamples;
     }
 
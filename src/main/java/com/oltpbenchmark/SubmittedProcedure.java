@@ -19,23 +19,33 @@ package com.oltpbenchmark;
 
 /**
  * This class is used for keeping track of the procedures that have been
- * submitted to the system when running a rate-limited benchmark.
+ * submitted to the system when running a rate-limited benchmark. Workers keep
+ * one instance each and have {@link WorkloadState} refill it for every
+ * transaction, so handing out work does not allocate.
  *
  * @author breilly
  */
 public class SubmittedProcedure {
-    private final int type;
-    private final long startTime;
+    private int type;
+    private long startTime;
 
-    SubmittedProcedure(int type) {
+    public SubmittedProcedure() {
+    }
+
+    void set(int type, long startTime) {
         this.type = type;
-        this.startTime = System.nanoTime();
+        this.startTime = startTime;
     }
 
     public int getType() {
         return type;
     }
 
+    /**
+     * The time at which this work was supposed to be dispatched. For
+     * rate-limited phases this is the arrival time computed by ThreadBench,
+     * otherwise it is the time the work was handed out.
+     */
     public long getStartTime() {
         return startTime;
     }
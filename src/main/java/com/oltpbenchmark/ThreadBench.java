@@ -17,52 +17,99 @@
 
 package com.oltpbenchmark;
 
-import com.oltpbenchmark.LatencyRecord.Sample;
 import com.oltpbenchmark.api.BenchmarkModule;
+import com.oltpbenchmark.api.ConnectionPool;
 import com.oltpbenchmark.api.TransactionType;
 import com.oltpbenchmark.api.Worker;
 import com.oltpbenchmark.types.State;
+import com.oltpbenchmark.util.Histogram;
+import com.oltpbenchmark.util.IntervalResultWriter;
+import com.oltpbenchmark.util.LatencyHistogram;
 import com.oltpbenchmark.util.StringUtil;
+import com.oltpbenchmark.util.ThreadUtil;
 import org.apache.commons.collections4.map.ListOrderedMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.*;
 
 public class ThreadBench implements Thread.UncaughtExceptionHandler {
     private static final Logger LOG = LoggerFactory.getLogger(ThreadBench.class);
 
+    /**
+     * How often the main loop checks the phases when the ArrivalScheduler
+     * dispatches all the work.
+     */
+    private static final long CONTROL_INTERVAL_NS = 1_000_000L;
+
     private final BenchmarkState testState;
     private final List<? extends Worker<? extends BenchmarkModule>> workers;
     private final ArrayList<Thread> workerThreads;
     private final List<WorkloadConfiguration> workConfs;
-    private final ArrayList<LatencyRecord.Sample> samples = new ArrayList<>();
     private final int intervalMonitor;
+    private final String intervalMonitorFile;
+    private final BenchmarkControl control;
 
     private ThreadBench(List<? extends Worker<? extends BenchmarkModule>> workers,
-            List<WorkloadConfiguration> workConfs, int intervalMonitoring) {
+            List<WorkloadConfiguration> workConfs, int intervalMonitoring, String intervalMonitorFile,
+            BenchmarkControl control) {
         this.workers = workers;
         this.workConfs = workConfs;
         this.workerThreads = new ArrayList<>(workers.size());
         this.intervalMonitor = intervalMonitoring;
+        this.intervalMonitorFile = intervalMonitorFile;
+        this.control = control;
         this.testState = new BenchmarkState(workers.size() + 1);
     }
 
     public static Results runRateLimitedBenchmark(List<Worker<? extends BenchmarkModule>> workers,
             List<WorkloadConfiguration> workConfs, int intervalMonitoring) {
-        ThreadBench bench = new ThreadBench(workers, workConfs, intervalMonitoring);
+        return runRateLimitedBenchmark(workers, workConfs, intervalMonitoring, null);
+    }
+
+    /**
+     * @param intervalMonitorFile if not null, the monitor streams its
+     *                            per-interval statistics into this file
+     */
+    public static Results runRateLimitedBenchmark(List<Worker<? extends BenchmarkModule>> workers,
+            List<WorkloadConfiguration> workConfs, int intervalMonitoring, String intervalMonitorFile) {
+        return runRateLimitedBenchmark(workers, workConfs, intervalMonitoring, intervalMonitorFile, BenchmarkControl.LOCAL);
+    }
+
+    /**
+     * @param control decides when the warmup and each phase end, e.g. the
+     *                coordinator of a distributed run
+     */
+    public static Results runRateLimitedBenchmark(List<Worker<? extends BenchmarkModule>> workers,
+            List<WorkloadConfiguration> workConfs, int intervalMonitoring, String intervalMonitorFile,
+            BenchmarkControl control) {
+        ThreadBench bench = new ThreadBench(workers, workConfs, intervalMonitoring, intervalMonitorFile, control);
         return bench.runRateLimitedMultiPhase();
     }
 
     private void createWorkerThreads() {
 
+        int virtual = 0;
         for (Worker<?> worker : workers) {
             worker.initializeState();
-            Thread thread = new Thread(worker);
+            boolean useVirtualThread = worker.getWorkloadConfiguration().getVirtualThreads();
+            if (useVirtualThread && ThreadUtil.virtualThreadsAvailable()) {
+                virtual++;
+            }
+            Thread thread = ThreadUtil.newThread(worker, useVirtualThread);
             thread.setUncaughtExceptionHandler(this);
             thread.start();
             this.workerThreads.add(thread);
         }
+
+        if (virtual > 0) {
+            LOG.info("Running {} of {} workers on virtual threads", virtual, workers.size());
+        } else if (workConfs.stream().anyMatch(WorkloadConfiguration::getVirtualThreads)) {
+            LOG.warn("Virtual threads are not supported by this JVM ({}), using platform threads", System.getProperty("java.version"));
+        }
     }
 
     private void interruptWorkers() {
@@ -71,6 +118,18 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
         }
     }
 
+    /**
+     * Start the windows of the outputs of the sample logs at the start of
+     * the measurements, as for the results of the samples kept in memory.
+     */
+    private void startWindows(long measureStart) {
+        for (WorkloadConfiguration workConf : workConfs) {
+            if (workConf.getSampleLog() != null) {
+                workConf.getSampleLog().setWindowStart(measureStart);
+            }
+        }
+    }
+
     private int finalizeWorkers(ArrayList<Thread> workerThreads) throws InterruptedException {
 
         int requests = 0;
@@ -98,22 +157,49 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
             workers.get(i).tearDown();
         }
 
+        Set<BenchmarkModule> benchmarks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Worker<?> w : workers) {
+            benchmarks.add(w.getBenchmark());
+        }
+        for (BenchmarkModule benchmark : benchmarks) {
+            benchmark.workersDone();
+        }
+
         return requests;
     }
 
     private Results runRateLimitedMultiPhase() {
         List<WorkloadState> workStates = new ArrayList<>();
-
-        for (WorkloadConfiguration workState : this.workConfs) {
-            workState.initializeState(testState);
-            workStates.add(workState.getWorkloadState());
+        // The workloads whose arrivals are not dispatched by the scheduler
+        List<WorkloadState> queuedStates = new ArrayList<>();
+        ArrivalScheduler scheduler = new ArrivalScheduler(testState);
+
+        for (WorkloadConfiguration workConf : this.workConfs) {
+            workConf.initializeState(testState);
+            WorkloadState workState = workConf.getWorkloadState();
+            workStates.add(workState);
+            if (workConf.getArrivalDispatchers() > 0) {
+                scheduler.add(workState, workConf.getArrivalDispatchers(), workConf.getArrivalSpinMicros() * 1000, workConf.getRandomSeed());
+            } else {
+                queuedStates.add(workState);
+            }
         }
+        // Without work to queue, the main loop only has to follow the phases
+        boolean controlOnly = queuedStates.isEmpty();
 
         this.createWorkerThreads();
 
+        // Wait for the other agents of a distributed run
+        try {
+            control.awaitStart();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+
         // long measureStart = start;
 
         long start = System.nanoTime();
+        startWindows(start);
         long warmupStart = System.nanoTime();
         long warmup = warmupStart;
         long measureEnd = -1;
@@ -135,42 +221,48 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
         // have a warm-up phase for serial execution but execute a cold and a
         // measured query in sequence.
         if (phase != null && phase.isLatencyRun()) {
-            synchronized (testState) {
-                testState.startColdQuery();
-            }
+            testState.startColdQuery();
         }
 
-        long intervalNs = getInterval(lowestRate, phase.getArrival());
+        long intervalNs = controlOnly ? CONTROL_INTERVAL_NS : getInterval(lowestRate, phase.getArrival());
 
         long nextInterval = start + intervalNs;
+        // The intended dispatch time of the work added in the next iteration
+        long scheduled = start;
         int nextToAdd = 1;
         int rateFactor;
 
         boolean resetQueues = true;
 
         long delta = phase.getTime() * 1000000000L;
+        // The index of the current phase
+        int phaseIndex = 0;
         boolean lastEntry = false;
 
         // Initialize the Monitor
+        MonitorThread monitor = null;
         if (this.intervalMonitor > 0) {
-            new MonitorThread(this.intervalMonitor).start();
+            monitor = new MonitorThread(this.intervalMonitor, this.intervalMonitorFile);
+            monitor.start();
         }
 
         // Allow workers to start work.
         testState.blockForStart();
+        scheduler.start();
 
         // Main Loop
         while (true) {
             // posting new work... and resetting the queue in case we have new
             // portion of the workload...
 
-            for (WorkloadState workState : workStates) {
+            for (WorkloadState workState : queuedStates) {
                 if (workState.getCurrentPhase() != null) {
                     rateFactor = workState.getCurrentPhase().getRate() / lowestRate;
                 } else {
                     rateFactor = 1;
                 }
-                workState.addToQueue(nextToAdd * rateFactor, resetQueues);
+                int amount = nextToAdd * rateFactor;
+                workState.addToQueue(amount, resetQueues, scheduled, intervalNs / Math.max(1, amount));
             }
             resetQueues = false;
 
@@ -181,15 +273,21 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
             }
             long diff = nextInterval - now;
             while (diff > 0) { // this can wake early: sleep multiple times to avoid that
-                long ms = diff / 1000000;
-                diff = diff % 1000000;
+                long sleep = Math.min(diff, control.getPollIntervalNanos());
                 try {
-                    Thread.sleep(ms, (int) diff);
+                    Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
                 } catch (InterruptedException e) {
                     throw new RuntimeException(e);
                 }
                 now = System.nanoTime();
                 diff = nextInterval - now;
+                // Do not wait for the end of the interval to switch
+                State state = testState.getState();
+                if (diff > 0 && phase != null && !phase.isLatencyRun()
+                        && ((state == State.WARMUP && control.isMeasureStarted(now, warmup))
+                        || (state == State.MEASURE && control.isPhaseComplete(phaseIndex, now, start + delta)))) {
+                    break;
+                }
             }
 
             boolean phaseComplete = false;
@@ -201,7 +299,7 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
                     phaseComplete = testState.getState() == State.LATENCY_COMPLETE;
                 } else {
                     phaseComplete = testState.getState() == State.MEASURE
-                            && (start + delta <= now);
+                            && control.isPhaseComplete(phaseIndex, now, start + delta);
                 }
             }
 
@@ -213,69 +311,72 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
                 resetQueues = true;
 
                 // Fetch a new Phase
-                synchronized (testState) {
-                    if (phase.isLatencyRun()) {
-                        testState.ackLatencyComplete();
-                    }
-                    for (WorkloadState workState : workStates) {
-                        synchronized (workState) {
-                            workState.switchToNextPhase();
-                            lowestRate = Integer.MAX_VALUE;
-                            phase = workState.getCurrentPhase();
-                            interruptWorkers();
-                            if (phase == null && !lastEntry) {
-                                // Last phase
-                                lastEntry = true;
-                                testState.startCoolDown();
-                                measureEnd = now;
-                                LOG.info("{} :: Waiting for all terminals to finish ..", StringUtil.bold("TERMINATE"));
-                            } else if (phase != null) {
-                                // Reset serial execution parameters.
-                                if (phase.isLatencyRun()) {
-                                    phase.resetSerial();
-                                    testState.startColdQuery();
-                                }
-                                LOG.info(phase.currentPhaseString());
-                                if (phase.getRate() < lowestRate) {
-                                    lowestRate = phase.getRate();
-                                }
-                            }
+                if (phase.isLatencyRun()) {
+                    testState.ackLatencyComplete();
+                }
+                // Before the workloads switch, so that the transactions that
+                // run across the switch are not measured
+                testState.nextPhase();
+                for (WorkloadState workState : workStates) {
+                    workState.switchToNextPhase();
+                    lowestRate = Integer.MAX_VALUE;
+                    phase = workState.getCurrentPhase();
+                    interruptWorkers();
+                    if (phase == null && !lastEntry) {
+                        // Last phase
+                        lastEntry = true;
+                        testState.startCoolDown();
+                        measureEnd = now;
+                        LOG.info("{} :: Waiting for all terminals to finish ..", StringUtil.bold("TERMINATE"));
+                    } else if (phase != null) {
+                        // Reset serial execution parameters.
+                        if (phase.isLatencyRun()) {
+                            phase.resetSerial();
+                            testState.startColdQuery();
+                        }
+                        LOG.info(phase.currentPhaseString());
+                        if (phase.getRate() < lowestRate) {
+                            lowestRate = phase.getRate();
                         }
-                    }
-                    if (phase != null) {
-                        // update frequency in which we check according to
-                        // wakeup
-                        // speed
-                        // intervalNs = (long) (1000000000. / (double)
-                        // lowestRate + 0.5);
-                        delta += phase.getTime() * 1000000000L;
                     }
                 }
+                if (phase != null) {
+                    // update frequency in which we check according to
+                    // wakeup
+                    // speed
+                    // intervalNs = (long) (1000000000. / (double)
+                    // lowestRate + 0.5);
+                    delta += phase.getTime() * 1000000000L;
+                }
+                phaseIndex++;
             }
 
             // Compute the next interval
             // and how many messages to deliver
-            if (phase != null) {
+            if (phase != null && controlOnly) {
+                scheduled = nextInterval;
+                nextInterval = Math.max(nextInterval, now) + CONTROL_INTERVAL_NS;
+            } else if (phase != null) {
                 intervalNs = 0;
                 nextToAdd = 0;
                 do {
                     intervalNs += getInterval(lowestRate, phase.getArrival());
                     nextToAdd++;
                 } while ((-diff) > intervalNs && !lastEntry);
+                scheduled = nextInterval;
                 nextInterval += intervalNs;
             }
 
             // Update the test state appropriately
             State state = testState.getState();
-            if (state == State.WARMUP && now >= warmup) {
-                synchronized (testState) {
-                    if (phase != null && phase.isLatencyRun()) {
-                        testState.startColdQuery();
-                    } else {
-                        testState.startMeasure();
-                    }
-                    interruptWorkers();
+            if (state == State.WARMUP && control.isMeasureStarted(now, warmup)) {
+                startWindows(now);
+                if (phase != null && phase.isLatencyRun()) {
+                    testState.startColdQuery();
+                } else {
+                    testState.startMeasure();
                 }
+                interruptWorkers();
                 start = now;
                 LOG.info("{} :: Warmup complete, starting measurements.", StringUtil.bold("MEASURE"));
                 // measureEnd = measureStart + measureSeconds * 1000000000L;
@@ -295,25 +396,108 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
         }
 
         try {
+            scheduler.stop();
+
             int requests = finalizeWorkers(this.workerThreads);
 
-            // Combine all the latencies together in the most disgusting way
-            // possible: sorting!
+            // Let the monitor report the last interval and close its file
+            if (monitor != null) {
+                monitor.interrupt();
+                monitor.join();
+            }
+
+            // Each worker's samples are already ordered by start time, so the
+            // combined view is a lazy merge of the per-worker records.
+            List<LatencyRecord> records = new ArrayList<>(workers.size());
             for (Worker<?> w : workers) {
-                for (LatencyRecord.Sample sample : w.getLatencyRecords()) {
-                    samples.add(sample);
-                }
+                records.add(w.getLatencyRecords());
             }
-            Collections.sort(samples);
 
-            // Compute stats on all the latencies
-            int[] latencies = new int[samples.size()];
-            for (int i = 0; i < samples.size(); ++i) {
-                latencies[i] = samples.get(i).getLatencyMicrosecond();
+            // Merge the per-worker histograms by transaction type and compute
+            // the overall stats on the latencies and response times from them
+            Map<TransactionType, LatencyHistogram> latencyHistograms = new HashMap<>();
+            Map<TransactionType, LatencyHistogram> responseTimeHistograms = new HashMap<>();
+            Map<TransactionType, LatencyHistogram> attemptHistograms = new HashMap<>();
+            Map<TransactionType, LatencyHistogram> commitHistograms = new HashMap<>();
+            Map<TransactionType, LatencyHistogram> rollbackHistograms = new HashMap<>();
+            for (Worker<?> w : workers) {
+                mergeHistograms(latencyHistograms, w.getLatencyHistograms());
+                mergeHistograms(responseTimeHistograms, w.getResponseTimeHistograms());
+                mergeHistograms(attemptHistograms, w.getAttemptHistograms());
+                mergeHistograms(commitHistograms, w.getCommitHistograms());
+                mergeHistograms(rollbackHistograms, w.getRollbackHistograms());
             }
+            LatencyHistogram latencies = new LatencyHistogram();
+            latencyHistograms.values().forEach(latencies::add);
+            LatencyHistogram responseTimes = new LatencyHistogram();
+            responseTimeHistograms.values().forEach(responseTimes::add);
+
             DistributionStatistics stats = DistributionStatistics.computeStatistics(latencies);
+            DistributionStatistics responseStats = DistributionStatistics.computeStatistics(responseTimes);
+
+            Results results = new Results(measureEnd - start, requests, stats, responseStats, LatencyRecord.merge(records));
+            results.setMeasureStartNanosecond(start);
+            results.getLatencyHistograms().putAll(latencyHistograms);
+            results.getResponseTimeHistograms().putAll(responseTimeHistograms);
+            results.getAttemptHistograms().putAll(attemptHistograms);
+            results.getCommitHistograms().putAll(commitHistograms);
+            results.getRollbackHistograms().putAll(rollbackHistograms);
+            for (Worker<?> w : workers) {
+                for (Map.Entry<String, Map<TransactionType, LatencyHistogram>> e : w.getLabelHistograms().entrySet()) {
+                    mergeHistograms(results.getLabelHistograms().computeIfAbsent(e.getKey(), k -> new HashMap<>()), e.getValue());
+                }
+            }
+            for (Worker<?> w : workers) {
+                if (w.getStatementStatistics() != null) {
+                    results.getStatementStatistics().add(w.getStatementStatistics());
+                }
+            }
 
-            Results results = new Results(measureEnd - start, requests, stats, samples);
+            long cacheHits = 0;
+            long cacheMisses = 0;
+            long cacheEvictions = 0;
+            for (Worker<?> w : workers) {
+                cacheHits += w.getStatementCacheHits();
+                cacheMisses += w.getStatementCacheMisses();
+                cacheEvictions += w.getStatementCacheEvictions();
+            }
+            results.setStatementCacheStatistics(cacheHits, cacheMisses, cacheEvictions);
+
+            Set<ConnectionPool> pools = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Worker<?> w : workers) {
+                results.getConnectionWaitHistogram().add(w.getConnectionWaitHistogram());
+                pools.addAll(w.getBenchmark().getConnectionPools());
+            }
+            int poolSize = 0;
+            long connectionsOpened = 0;
+            long validationFailures = 0;
+            long connectionTimeouts = 0;
+            for (ConnectionPool pool : pools) {
+                poolSize += pool.getMaxSize();
+                connectionsOpened += pool.getConnectionsOpened();
+                validationFailures += pool.getValidationFailures();
+                connectionTimeouts += pool.getTimeouts();
+            }
+            results.setConnectionPoolStatistics(poolSize, connectionsOpened, validationFailures, connectionTimeouts);
+
+            Set<BenchmarkModule> benchmarks = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Worker<?> w : workers) {
+                benchmarks.add(w.getBenchmark());
+            }
+            for (BenchmarkModule benchmark : benchmarks) {
+                benchmark.getCounters().forEach((name, value) -> results.getCounters().merge(name, value, Long::sum));
+            }
+            for (Worker<?> w : workers) {
+                w.getCounters().forEach((name, value) -> results.getCounters().merge(name, value, Long::sum));
+            }
+
+            results.setArrivalStatistics(scheduler.getDispatchers(), scheduler.getStreams(), scheduler.getArrivals(), scheduler.getDropped());
+            results.getInterArrivalHistogram().add(scheduler.getInterArrivalTimes());
+            results.getDispatchLagHistogram().add(scheduler.getDispatchLags());
+            if (scheduler.getDispatchers() > 0) {
+                LOG.info("Offered load: {} requests/second ({} arrivals, {} dropped)",
+                        String.format("%.2f", results.requestsPerSecondOffered()), scheduler.getArrivals(), scheduler.getDropped());
+            }
 
             // Compute transaction histogram
             Set<TransactionType> txnTypes = new HashSet<>();
@@ -336,6 +520,9 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
                 results.getAbort().putHistogram(w.getTransactionAbortHistogram());
                 results.getError().putHistogram(w.getTransactionErrorHistogram());
                 results.getRetryDifferent().putHistogram(w.getTransactionRetryDifferentHistogram());
+                results.getAttempts().putHistogram(w.getTransactionAttemptHistogram());
+                w.getTransactionAbortMessages().forEach((type, messages) ->
+                        results.getAbortMessages().computeIfAbsent(type, k -> new Histogram<>()).putHistogram(messages));
             }
 
             return (results);
@@ -370,113 +557,9 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
 
     }
 
-    public static final class TimeBucketIterable implements Iterable<DistributionStatistics> {
-        private final Iterable<Sample> samples;
-        private final int windowSizeSeconds;
-        private final TransactionType transactionType;
-
-        /**
-         * @param samples
-         * @param windowSizeSeconds
-         * @param transactionType   Allows to filter transactions by type
-         */
-        public TimeBucketIterable(Iterable<Sample> samples, int windowSizeSeconds, TransactionType transactionType) {
-            this.samples = samples;
-            this.windowSizeSeconds = windowSizeSeconds;
-            this.transactionType = transactionType;
-        }
-
-        @Override
-        public Iterator<DistributionStatistics> iterator() {
-            return new TimeBucketIterator(samples.iterator(), windowSizeSeconds, transactionType);
-        }
-    }
-
-    private static final class TimeBucketIterator implements Iterator<DistributionStatistics> {
-        private final Iterator<Sample> samples;
-        private final int windowSizeSeconds;
-        private final TransactionType txType;
-
-        private Sample sample;
-        private long nextStartNanosecond;
-
-        private DistributionStatistics next;
-
-        /**
-         * @param samples
-         * @param windowSizeSeconds
-         * @param txType            Allows to filter transactions by type
-         */
-        public TimeBucketIterator(Iterator<LatencyRecord.Sample> samples, int windowSizeSeconds,
-                TransactionType txType) {
-            this.samples = samples;
-            this.windowSizeSeconds = windowSizeSeconds;
-            this.txType = txType;
-
-            if (samples.hasNext()) {
-                sample = samples.next();
-                // TODO: To be totally correct, we would want this to be the
-                // timestamp of the start
-                // of the measurement interval. In most cases this won't matter.
-                nextStartNanosecond = sample.getStartNanosecond();
-                calculateNext();
-            }
-        }
-
-        private void calculateNext() {
-
-            // Collect all samples in the time window
-            ArrayList<Integer> latencies = new ArrayList<>();
-            long endNanoseconds = nextStartNanosecond + (windowSizeSeconds * 1000000000L);
-            while (sample != null && sample.getStartNanosecond() < endNanoseconds) {
-
-                // Check if a TX Type filter is set, in the default case,
-                // INVALID TXType means all should be reported, if a filter is
-                // set, only this specific transaction
-                if (txType.equals(TransactionType.INVALID) || txType.getId() == sample.getTransactionType()) {
-                    latencies.add(sample.getLatencyMicrosecond());
-                }
-
-                if (samples.hasNext()) {
-                    sample = samples.next();
-                } else {
-                    sample = null;
-                }
-            }
-
-            // Set up the next time window
-
-            nextStartNanosecond = endNanoseconds;
-
-            int[] l = new int[latencies.size()];
-            for (int i = 0; i < l.length; ++i) {
-                l[i] = latencies.get(i);
-            }
-
-            next = DistributionStatistics.computeStatistics(l);
-        }
-
-        @Override
-        public boolean hasNext() {
-            return next != null;
-        }
-
-        @Override
-        public DistributionStatistics next() {
-            if (next == null) {
-                throw new NoSuchElementException();
-            }
-            DistributionStatistics out = next;
-            next = null;
-            if (sample != null) {
-                calculateNext();
-            }
-            return out;
-        }
-
-        @Override
-        public void remove() {
-            throw new UnsupportedOperationException("unsupported");
+    private static void mergeHistograms(Map<TransactionType, LatencyHistogram> merged, Map<TransactionType, LatencyHistogram> histograms) {
+        for (Map.Entry<TransactionType, LatencyHistogram> e : histograms.entrySet()) {
+            merged.computeIfAbsent(e.getKey(), k -> new LatencyHistogram()).add(e.getValue());
         }
     }
 
@@ -507,38 +590,96 @@ public class ThreadBench implements Thread.UncaughtExceptionHandler {
 
     private class MonitorThread extends Thread {
         private final int intervalMonitor;
+        private final String outputFile;
+
+        // Statistics of the last interval merged over all workers
+        private final Map<TransactionType, IntervalStatistics> typeStatistics = new TreeMap<>();
+        private final IntervalStatistics totalStatistics = new IntervalStatistics();
 
         {
             this.setDaemon(true);
         }
 
         /**
-         * @param interval How long to wait between polling in milliseconds
+         * @param interval   How long to wait between polling in milliseconds
+         * @param outputFile Where to stream the statistics of each interval to,
+         *                   or null to only log the throughput
          */
-        MonitorThread(int interval) {
+        MonitorThread(int interval, String outputFile) {
             this.intervalMonitor = interval;
+            this.outputFile = outputFile;
         }
 
         @Override
         public void run() {
             LOG.info("Starting MonitorThread Interval [{}ms]", this.intervalMonitor);
-            while (true) {
+            if (outputFile == null) {
+                monitor(null);
+                return;
+            }
+
+            LOG.info("Streaming interval statistics into file: {}", outputFile);
+            try (PrintStream ps = new PrintStream(new FileOutputStream(outputFile))) {
+                monitor(new IntervalResultWriter(ps, IntervalResultWriter.isJson(outputFile)));
+            } catch (IOException ex) {
+                LOG.error("Failed to write interval statistics to {}", outputFile, ex);
+            }
+        }
+
+        private void monitor(IntervalResultWriter writer) {
+            long start = System.nanoTime();
+            long intervalStart = start;
+            boolean running = true;
+            while (running) {
                 try {
                     Thread.sleep(this.intervalMonitor);
                 } catch (InterruptedException ex) {
-                    return;
+                    // Report what was done since the last interval, then stop
+                    running = false;
+                }
+
+                long now = System.nanoTime();
+                double seconds = (now - intervalStart) / 1e9;
+                intervalStart = now;
+                collect();
+
+                LatencyHistogram latencies = totalStatistics.getLatencies();
+                double tps = (double) totalStatistics.getRequests() / seconds;
+                LOG.info("Throughput: {} txn/sec, Latency p50/p95/p99: {}/{}/{} us, Aborts: {}, Retries: {}",
+                        tps,
+                        latencies.getValueAtPercentile(0.5),
+                        latencies.getValueAtPercentile(0.95),
+                        latencies.getValueAtPercentile(0.99),
+                        totalStatistics.getAborts(),
+                        totalStatistics.getRetries());
+
+                if (writer != null) {
+                    double time = (now - start) / 1e9;
+                    for (Map.Entry<TransactionType, IntervalStatistics> e : typeStatistics.entrySet()) {
+                        writer.write(time, seconds, e.getKey().getName(), e.getValue());
+                    }
+                    writer.write(time, seconds, "ALL", totalStatistics);
+                    writer.flush();
                 }
+            }
+        }
 
-                // Compute the last throughput
-                long measuredRequests = 0;
-                synchronized (testState) {
-                    for (Worker<?> w : workers) {
-                        measuredRequests += w.getAndResetIntervalRequests();
+        /**
+         * Swap out the interval statistics of every worker and merge them.
+         */
+        private void collect() {
+            typeStatistics.values().forEach(IntervalStatistics::reset);
+            totalStatistics.reset();
+            for (Worker<?> w : workers) {
+                IntervalStatistics[] stats = w.swapIntervalStatistics();
+                for (TransactionType type : w.getWorkloadConfiguration().getTransTypes()) {
+                    int typeId = type.getId();
+                    if (type.equals(TransactionType.INVALID) || typeId < 0 || typeId >= stats.length) {
+                        continue;
                     }
+                    typeStatistics.computeIfAbsent(type, t -> new IntervalStatistics()).add(stats[typeId]);
+                    totalStatistics.add(stats[typeId]);
                 }
-                double seconds = this.intervalMonitor / 1000d;
-                double tps = (double) measuredRequests / seconds;
-                LOG.info("Throughput: {} txn/sec", tps);
             }
         }
     }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws transaction types according to the weights of a phase with Vose's
+ * alias method: the table is built once, and each draw takes a single random
+ * number and constant time, whatever the number of transaction types.
+ * <p>
+ * Immutable, so it can be shared by all the threads; each thread passes its
+ * own random generator.
+ */
+final class TransactionMix {
+
+    /**
+     * The probability of keeping each column rather than taking its alias.
+     */
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * @param weights the weight of each transaction type, ordered by id
+     *                starting at 1. Negative weights count as 0, and at
+     *                least one weight must be positive.
+     */
+    TransactionMix(List<Double> weights) {
+        int n = weights.size();
+        double total = 0;
+        for (Double weight : weights) {
+            total += Math.max(0, weight);
+        }
+        if (n == 0 || !(total > 0)) {
+            throw new IllegalArgumentException("No transaction type with a positive weight in " + weights);
+        }
+
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+
+        // The weights scaled so that their average is 1
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = Math.max(0, weights.get(i)) * n / total;
+            aliases[i] = i;
+            if (scaled[i] < 1.0) {
+                small.push(i);
+            } else {
+                large.push(i);
+            }
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small.push(more);
+            } else {
+                large.push(more);
+            }
+        }
+        // What is left is 1 up to rounding errors, but a type without weight
+        // must never be drawn, even then
+        int anyPositive = 0;
+        while (!(weights.get(anyPositive) > 0)) {
+            anyPositive++;
+        }
+        while (!large.isEmpty()) {
+            probabilities[large.pop()] = 1.0;
+        }
+        while (!small.isEmpty()) {
+            int column = small.pop();
+            if (weights.get(column) > 0) {
+                probabilities[column] = 1.0;
+            } else {
+                probabilities[column] = 0.0;
+                aliases[column] = anyPositive;
+            }
+        }
+    }
+
+    /**
+     * @return the id of the transaction type, starting at 1
+     */
+    int next(RandomGenerator rng) {
+        double u = rng.nextDouble() * probabilities.length;
+        int column = (int) u;
+        if (column >= probabilities.length) {
+            column = probabilities.length - 1;
+        }
+        return (u - column < probabilities[column] ? column : aliases[column]) + 1;
+    }
+
+    int size() {
+        return probabilities.length;
+    }
+}
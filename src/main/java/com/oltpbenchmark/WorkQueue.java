@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer/multi-consumer ring buffer used to hand out the work
+ * of rate-limited phases. Each slot only holds the transaction type id and the
+ * time at which the work was scheduled, so nothing is allocated per transaction.
+ * <p>
+ * Slots are claimed with a CAS on the head/tail counters and published through
+ * a per-slot sequence number (Vyukov's bounded queue). Workers that find the
+ * queue empty park on a semaphore until the producer signals new work.
+ */
+final class WorkQueue {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final int[] types;
+    private final long[] startTimes;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Semaphore doorbell = new Semaphore(0);
+
+    /**
+     * @param capacity minimum number of entries the queue can hold. It is
+     *                 rounded up to the next power of two.
+     */
+    WorkQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.types = new int[size];
+        this.startTimes = new long[size];
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Append a piece of work. Returns false if the queue is full.
+     */
+    boolean offer(int type, long startTime) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    types[index] = type;
+                    startTimes[index] = startTime;
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest piece of work and copy it into the given
+     * SubmittedProcedure. Returns false if the queue is empty.
+     */
+    boolean poll(SubmittedProcedure work) {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    work.set(types[index], startTimes[index]);
+                    sequences.lazySet(index, pos + mask + 1);
+                    return true;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * Park the calling thread until new work is signalled or the timeout
+     * expires. The queue is checked again after registering as a waiter so
+     * that a concurrent {@link #signal(int)} cannot be missed.
+     *
+     * @return true if work was copied into the given SubmittedProcedure
+     */
+    boolean await(SubmittedProcedure work, long timeoutNanos) {
+        waiters.incrementAndGet();
+        try {
+            if (poll(work)) {
+                return true;
+            }
+            doorbell.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            return poll(work);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wake up to <code>amount</code> parked workers after new work was added.
+     */
+    void signal(int amount) {
+        int parked = waiters.get();
+        if (parked > 0 && amount > 0) {
+            doorbell.release(Math.min(amount, parked));
+        }
+    }
+
+    /**
+     * Wake up every parked worker, e.g. so that it can notice a state change.
+     */
+    void signalAll() {
+        signal(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Approximate number of queued entries.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Drop all queued work.
+     */
+    void clear() {
+        SubmittedProcedure discard = new SubmittedProcedure();
+        while (poll(discard)) {
+            // drain
+        }
+    }
+}
@@ -18,14 +18,17 @@
 
 package com.oltpbenchmark;
 
+import com.oltpbenchmark.api.RetryPolicy;
 import com.oltpbenchmark.api.TransactionTypes;
 import com.oltpbenchmark.types.DatabaseType;
+import com.oltpbenchmark.util.SampleLog;
 import com.oltpbenchmark.util.ThreadUtil;
 import org.apache.commons.configuration2.XMLConfiguration;
 
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 public class WorkloadConfiguration {
 
@@ -42,6 +45,7 @@ public class WorkloadConfiguration {
     private double scaleFactor = 1.0;
     private double selectivity = -1.0;
     private int terminals;
+    private int totalTerminals;
     private int loaderThreads = ThreadUtil.availableProcessors();
     private XMLConfiguration xmlConfig = null;
     private WorkloadState workloadState;
@@ -56,6 +60,73 @@ public class WorkloadConfiguration {
      */
     private boolean newConnectionPerTxn = false;
 
+    /**
+     * The number of PreparedStatements each Procedure keeps open across transactions. 0 disables the cache.
+     */
+    private int statementCacheSize = 32;
+
+    /**
+     * If true, run each worker on a virtual thread instead of a platform thread, so that many more terminals can
+     * wait (e.g. keying and think times) without a thread each. Needs a Java runtime with virtual threads (21+).
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * The number of connections shared by the workers of the benchmark. Each worker borrows one for every
+     * transaction, so the number of terminals is no longer bounded by the DBMS connection limit. 0 disables the
+     * pool and gives each worker its own connection.
+     */
+    private int connectionPoolSize = 0;
+
+    /**
+     * If true, open all the pooled connections before the workers start.
+     */
+    private boolean connectionPoolPrewarm = true;
+
+    /**
+     * How long a worker waits for a pooled connection before the attempt fails.
+     */
+    private long connectionPoolTimeoutMillis = 30000;
+
+    /**
+     * How long to wait before retrying a transaction that failed with a retryable error.
+     */
+    private RetryPolicy retryPolicy = RetryPolicy.IMMEDIATE;
+
+    /**
+     * If true, measure the execution time and row count of every SQLStmt executed through a Procedure.
+     */
+    private boolean statementStatistics = false;
+
+    /**
+     * The number of threads that dispatch the open-loop arrivals of rate-limited phases at precomputed times. 0
+     * dispatches them from the main benchmark loop instead.
+     */
+    private int arrivalDispatchers = 0;
+
+    /**
+     * How long before an arrival its dispatcher stops parking and starts spinning.
+     */
+    private long arrivalSpinMicros = 50;
+
+    /**
+     * The binary log the workers append their samples to while running, or null.
+     */
+    private SampleLog sampleLog = null;
+
+    /**
+     * The index of this process among the agents of a distributed run, and the number of agents. A standalone run is
+     * agent 0 of 1.
+     */
+    private int agentIndex = 0;
+    private int agentCount = 1;
+
+    /**
+     * The seed of what all the agents of a distributed run must draw alike, as given by the coordinator.
+     */
+    private long sharedSeed = new Random().nextLong();
+    private boolean sharedSeedSet = false;
+
     public String getBenchmarkName() {
         return benchmarkName;
     }
@@ -141,11 +212,91 @@ public class WorkloadConfiguration {
         this.newConnectionPerTxn = newConnectionPerTxn;
     }
 
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public boolean getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    public void setConnectionPoolSize(int connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
+    public boolean getConnectionPoolPrewarm() {
+        return connectionPoolPrewarm;
+    }
+
+    public void setConnectionPoolPrewarm(boolean connectionPoolPrewarm) {
+        this.connectionPoolPrewarm = connectionPoolPrewarm;
+    }
+
+    public long getConnectionPoolTimeoutMillis() {
+        return connectionPoolTimeoutMillis;
+    }
+
+    public void setConnectionPoolTimeoutMillis(long connectionPoolTimeoutMillis) {
+        this.connectionPoolTimeoutMillis = connectionPoolTimeoutMillis;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public boolean getStatementStatistics() {
+        return statementStatistics;
+    }
+
+    public void setStatementStatistics(boolean statementStatistics) {
+        this.statementStatistics = statementStatistics;
+    }
+
+    public int getArrivalDispatchers() {
+        return arrivalDispatchers;
+    }
+
+    public void setArrivalDispatchers(int arrivalDispatchers) {
+        this.arrivalDispatchers = arrivalDispatchers;
+    }
+
+    public long getArrivalSpinMicros() {
+        return arrivalSpinMicros;
+    }
+
+    public void setArrivalSpinMicros(long arrivalSpinMicros) {
+        this.arrivalSpinMicros = arrivalSpinMicros;
+    }
+
+    public SampleLog getSampleLog() {
+        return sampleLog;
+    }
+
+    public void setSampleLog(SampleLog sampleLog) {
+        this.sampleLog = sampleLog;
+    }
+
     /**
      * Initiate a new benchmark and workload state
      */
     public void initializeState(BenchmarkState benchmarkState) {
-        this.workloadState = new WorkloadState(benchmarkState, phases, terminals);
+        this.workloadState = new WorkloadState(benchmarkState, phases, terminals, randomSeed);
     }
 
     public void addPhase(int id, int time, int warmup, int rate, List<Double> weights, boolean rateLimited, boolean disabled, boolean serial, boolean timed, int active_terminals, Phase.Arrival arrival) {
@@ -168,6 +319,19 @@ public class WorkloadConfiguration {
         this.loaderThreads = loaderThreads;
     }
 
+    /**
+     * The number of connections the loader may open at once, i.e. the number
+     * of loader threads, but no more than the connection pool size if one is
+     * set.
+     */
+    public int getLoaderConnections() {
+        int connections = this.loaderThreads;
+        if (this.connectionPoolSize > 0) {
+            connections = Math.min(connections, this.connectionPoolSize);
+        }
+        return connections;
+    }
+
     public double getSelectivity() {
         return this.selectivity;
     }
@@ -259,12 +423,84 @@ public class WorkloadConfiguration {
         }
     }
 
+    /**
+     * The number of terminals run by this process, i.e. its share of the total in a distributed run.
+     */
     public int getTerminals() {
         return terminals;
     }
 
     public void setTerminals(int terminals) {
         this.terminals = terminals;
+        this.totalTerminals = terminals;
+    }
+
+    /**
+     * The number of terminals over all the agents of a distributed run.
+     */
+    public int getTotalTerminals() {
+        return totalTerminals;
+    }
+
+    /**
+     * The index of the first terminal of this process among all the terminals of a distributed run.
+     */
+    public int getTerminalOffset() {
+        return getAgentOffset(totalTerminals);
+    }
+
+    public int getAgentIndex() {
+        return agentIndex;
+    }
+
+    public int getAgentCount() {
+        return agentCount;
+    }
+
+    /**
+     * Make this process one of several agents that split the terminals between them. Call after
+     * {@link #setTerminals(int)}.
+     */
+    public void setAgent(int agentIndex, int agentCount, long sharedSeed) {
+        if (agentCount < 1 || agentIndex < 0 || agentIndex >= agentCount) {
+            throw new IllegalArgumentException(String.format("Invalid agent %d of %d", agentIndex, agentCount));
+        }
+        this.agentIndex = agentIndex;
+        this.agentCount = agentCount;
+        this.sharedSeed = sharedSeed;
+        this.sharedSeedSet = true;
+        this.terminals = getAgentShare(totalTerminals);
+        // So that the agents do not all draw the same random streams
+        if (this.randomSeed != -1) {
+            this.randomSeed += agentIndex;
+        }
+    }
+
+    /**
+     * The seed of what every agent of a distributed run must draw alike, e.g. the GeoC hotspots. A standalone run uses
+     * its random seed, or a random one if it has none.
+     */
+    public long getSharedSeed() {
+        if (!sharedSeedSet && randomSeed != -1) {
+            return randomSeed;
+        }
+        return sharedSeed;
+    }
+
+    /**
+     * The part of the given total, e.g. of terminals or of a rate, that this agent takes. The shares of all the
+     * agents add up to the total.
+     */
+    public int getAgentShare(int total) {
+        return getAgentOffset(total, agentIndex + 1) - getAgentOffset(total, agentIndex);
+    }
+
+    private int getAgentOffset(int total) {
+        return getAgentOffset(total, agentIndex);
+    }
+
+    private int getAgentOffset(int total, int index) {
+        return (int) ((long) total * index / agentCount);
     }
 
     public TransactionTypes getTransTypes() {
@@ -22,146 +22,177 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
 
 /**
  * This class is used to share a state among the workers of a single
  * workload. Worker use it to ask for work and as interface to the global
  * BenchmarkState
+ * <p>
+ * Workers block on a {@link ReentrantLock} rather than on this object's
+ * monitor, so that waiting workers on virtual threads do not pin their
+ * carrier threads.
  *
  * @author alendit
  */
 public class WorkloadState {
     private static final int RATE_QUEUE_LIMIT = 10000;
+    private static final long PARK_TIMEOUT_NS = 100_000_000L;
     private static final Logger LOG = LoggerFactory.getLogger(WorkloadState.class);
 
     private final BenchmarkState benchmarkState;
-    private final LinkedList<SubmittedProcedure> workQueue = new LinkedList<>();
+    private final WorkQueue workQueue = new WorkQueue(RATE_QUEUE_LIMIT + 1);
     private final int num_terminals;
     private final Iterator<Phase> phaseIterator;
 
-    private int workersWaiting = 0;
-    private int workersWorking = 0;
+    /**
+     * Guards workerNeedSleep and serial phases. phaseChanged is signalled
+     * when the phase or the global state changes.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition phaseChanged = lock.newCondition();
+
     private int workerNeedSleep;
 
-    private Phase currentPhase = null;
+    private volatile Phase currentPhase = null;
+
+    /**
+     * Draws the transactions of the work queue, only used by the ThreadBench
+     * main loop.
+     */
+    private final SplittableRandom queueRng;
 
-    public WorkloadState(BenchmarkState benchmarkState, List<Phase> works, int num_terminals) {
+    /**
+     * @param randomSeed the seed of the transactions added to the work queue,
+     *                   or -1 for a random one
+     */
+    public WorkloadState(BenchmarkState benchmarkState, List<Phase> works, int num_terminals, int randomSeed) {
         this.benchmarkState = benchmarkState;
         this.num_terminals = num_terminals;
         this.workerNeedSleep = num_terminals;
+        this.queueRng = (randomSeed != -1 ? new SplittableRandom(randomSeed) : new SplittableRandom());
 
         phaseIterator = works.iterator();
     }
 
     /**
-     * Add a request to do work.
+     * Add a request to do work. Only called by the ThreadBench main loop.
+     *
+     * @param scheduledNs the time at which the first piece of work was
+     *                    supposed to be dispatched
+     * @param spacingNs   the intended gap between consecutive pieces of work
      */
-    public void addToQueue(int amount, boolean resetQueues) {
+    public void addToQueue(int amount, boolean resetQueues, long scheduledNs, long spacingNs) {
+        if (resetQueues) {
+            workQueue.clear();
+        }
+
+        // Only use the work queue if the phase is enabled and rate limited.
+        Phase phase = currentPhase;
+        if (phase == null || phase.isDisabled()
+                || !phase.isRateLimited() || phase.isSerial()) {
+            return;
+        }
+
+        // Add the specified number of procedures to the end of the queue.
+        // If we can't keep up with current rate, truncate transactions
         int workAdded = 0;
-        
-        synchronized (this) {
-            if (resetQueues) {
-                workQueue.clear();
+        for (int i = 0; i < amount && workQueue.size() <= RATE_QUEUE_LIMIT; ++i) {
+            if (!workQueue.offer(phase.chooseTransaction(queueRng), scheduledNs + i * spacingNs)) {
+                break;
             }
+            workAdded++;
+        }
 
-            // Only use the work queue if the phase is enabled and rate limited.
-            if (currentPhase == null || currentPhase.isDisabled()
-                    || !currentPhase.isRateLimited() || currentPhase.isSerial()) {
-                return;
-            }
-            
-            // Add the specified number of procedures to the end of the queue.
-            // If we can't keep up with current rate, truncate transactions
-            for (int i = 0; i < amount && workQueue.size() <= RATE_QUEUE_LIMIT; ++i) {
-                workQueue.add(new SubmittedProcedure(currentPhase.chooseTransaction()));
-                workAdded++;
-            }
+        // Wake up sleeping workers to deal with the new work.
+        workQueue.signal(workAdded);
+    }
 
-            // Wake up sleeping workers to deal with the new work.
-            int numToWake = Math.min(workAdded, workersWaiting);
-            while (numToWake-- > 0) {
-                this.notify();
-            }
+    /**
+     * Add a single piece of work of the current phase. Called by the
+     * dispatchers of the ArrivalScheduler.
+     *
+     * @return false if the queue is full
+     */
+    public boolean offerArrival(int type, long scheduledNs) {
+        if (workQueue.size() > RATE_QUEUE_LIMIT || !workQueue.offer(type, scheduledNs)) {
+            return false;
         }
+        workQueue.signal(1);
+        return true;
     }
 
     public void signalDone() {
         int current = this.benchmarkState.signalDone();
         if (current == 0) {
-            synchronized (this) {
-                if (workersWaiting > 0) {
-                    this.notifyAll();
-                }
+            workQueue.signalAll();
+            lock.lock();
+            try {
+                phaseChanged.signalAll();
+            } finally {
+                lock.unlock();
             }
         }
     }
 
     /**
-     * Called by ThreadPoolThreads when waiting for work.
+     * Called by ThreadPoolThreads when waiting for work. The next piece of
+     * work is copied into the given SubmittedProcedure, which the caller
+     * reuses across transactions.
+     *
+     * @param rng the random generator of the worker, which draws the
+     *            transactions of the phases that do not use the work queue
+     * @return false if the benchmark is over and there is no more work
      */
-    public SubmittedProcedure fetchWork() {
-        synchronized (this) {
-            if (currentPhase != null && currentPhase.isSerial()) {
-                ++workersWaiting;
-                while (getGlobalState() == State.LATENCY_COMPLETE) {
-                    try {
-                        this.wait();
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
+    public boolean fetchWork(SubmittedProcedure work, RandomGenerator rng) {
+        Phase phase = currentPhase;
+        if (phase != null && phase.isSerial()) {
+            lock.lock();
+            try {
+                State state;
+                while ((state = getGlobalState()) == State.LATENCY_COMPLETE) {
+                    phaseChanged.await();
                 }
-                --workersWaiting;
 
-                if (getGlobalState() == State.EXIT || getGlobalState() == State.DONE) {
-                    return null;
+                if (state == State.EXIT || state == State.DONE) {
+                    return false;
                 }
 
-                ++workersWorking;
-                return new SubmittedProcedure(currentPhase.chooseTransaction(getGlobalState() == State.COLD_QUERY));
+                work.set(phase.chooseTransaction(state == State.COLD_QUERY, rng), System.nanoTime());
+                return true;
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                lock.unlock();
             }
         }
 
         // Unlimited-rate phases don't use the work queue.
-        if (currentPhase != null && !currentPhase.isRateLimited()) {
-            synchronized (this) {
-                ++workersWorking;
-            }
-            return new SubmittedProcedure(currentPhase.chooseTransaction(getGlobalState() == State.COLD_QUERY));
+        if (phase != null && !phase.isRateLimited()) {
+            work.set(phase.chooseTransaction(getGlobalState() == State.COLD_QUERY, rng), System.nanoTime());
+            return true;
         }
 
-        synchronized (this) {
-            // Sleep until work is available.
-            if (workQueue.peek() == null) {
-                workersWaiting += 1;
-                while (workQueue.peek() == null) {
-                    if (this.benchmarkState.getState() == State.EXIT
-                            || this.benchmarkState.getState() == State.DONE) {
-                        return null;
-                    }
-
-                    try {
-                        this.wait();
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-                workersWaiting -= 1;
+        // Park until work is available.
+        while (!workQueue.poll(work)) {
+            State state = this.benchmarkState.getState();
+            if (state == State.EXIT || state == State.DONE) {
+                return false;
+            }
+            if (currentPhase != phase) {
+                // The phase changed while we were parked, e.g. to one that
+                // does not use the queue
+                return fetchWork(work, rng);
+            }
+            if (workQueue.await(work, PARK_TIMEOUT_NS)) {
+                break;
             }
-
-
-            ++workersWorking;
-
-            return workQueue.remove();
-        }
-    }
-
-    public void finishedWork() {
-        synchronized (this) {
-
-            --workersWorking;
         }
+        return true;
     }
 
     public Phase getNextPhase() {
@@ -172,29 +203,31 @@ public class WorkloadState {
     }
 
     public Phase getCurrentPhase() {
-        synchronized (benchmarkState) {
-            return currentPhase;
-        }
+        return currentPhase;
     }
 
     /*
      * Called by workers to ask if they should stay awake in this phase
      */
     public void stayAwake() {
-        synchronized (this) {
+        lock.lock();
+        try {
             while (workerNeedSleep > 0) {
                 workerNeedSleep--;
                 try {
-                    this.wait();
+                    phaseChanged.await();
                 } catch (InterruptedException e) {
                     LOG.error(e.getMessage(), e);
                 }
             }
+        } finally {
+            lock.unlock();
         }
     }
 
     public void switchToNextPhase() {
-        synchronized (this) {
+        lock.lock();
+        try {
             this.currentPhase = this.getNextPhase();
 
             // Clear the work from the previous phase.
@@ -222,8 +255,11 @@ public class WorkloadState {
             }
 
 
-            this.notifyAll();
+            phaseChanged.signalAll();
+        } finally {
+            lock.unlock();
         }
+        workQueue.signalAll();
     }
 
     /**
@@ -243,6 +279,14 @@ public class WorkloadState {
         return benchmarkState.getState();
     }
 
+    /**
+     * Delegates to the benchmark state handler, to read the global state and
+     * the phase index at once
+     */
+    public BenchmarkState.Snapshot getGlobalSnapshot() {
+        return benchmarkState.getSnapshot();
+    }
+
     public void signalLatencyComplete() {
 
         benchmarkState.signalLatencyComplete();
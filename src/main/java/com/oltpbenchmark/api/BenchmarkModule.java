@@ -65,6 +65,12 @@ public abstract class BenchmarkModule {
 
     private AbstractCatalog catalog = null;
 
+    /**
+     * The connections shared by the workers, by URL; empty if every worker has
+     * its own
+     */
+    private final Map<String, ConnectionPool> connectionPools = new LinkedHashMap<>();
+
     /**
      * Constructor!
      * @param workConf
@@ -79,17 +85,84 @@ public abstract class BenchmarkModule {
     // --------------------------------------------------------------------------
 
     public final Connection makeConnection() throws SQLException {
+        return makeConnection(workConf.getUrl());
+    }
+
+    /**
+     * Connect to the given URL rather than the one of the configuration,
+     * e.g. to the node of a distributed DBMS closest to a worker's data.
+     */
+    public final Connection makeConnection(String url) throws SQLException {
 
         if (StringUtils.isEmpty(workConf.getUsername())) {
-            return DriverManager.getConnection(workConf.getUrl());
+            return DriverManager.getConnection(url);
         } else {
             return DriverManager.getConnection(
-                    workConf.getUrl(),
+                    url,
                     workConf.getUsername(),
                     workConf.getPassword());
         }
     }
 
+    /**
+     * Return the connection pool shared by the workers of this benchmark that
+     * connect to the given URL, or null if pooling is disabled. There is one
+     * pool of the configured size for each URL, created the first time a
+     * worker asks for it, i.e. while {@link #makeWorkers()} runs.
+     */
+    public final synchronized ConnectionPool getConnectionPool(String url) {
+        if (this.workConf.getConnectionPoolSize() <= 0) {
+            return null;
+        }
+        ConnectionPool pool = this.connectionPools.get(url);
+        if (pool == null) {
+            pool = new ConnectionPool(this, url);
+            if (this.workConf.getConnectionPoolPrewarm()) {
+                try {
+                    pool.prewarm();
+                } catch (SQLException ex) {
+                    throw new RuntimeException("Failed to open pooled connections", ex);
+                }
+            }
+            this.connectionPools.put(url, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * The connection pools of this benchmark, one for each URL its workers
+     * connect to.
+     */
+    public final synchronized Collection<ConnectionPool> getConnectionPools() {
+        return new ArrayList<>(this.connectionPools.values());
+    }
+
+    /**
+     * Close the connection pools, once the workers are done with them.
+     */
+    public final synchronized void closeConnectionPools() {
+        for (ConnectionPool pool : this.connectionPools.values()) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Called once all the workers of this benchmark are done, e.g. to stop
+     * the threads that {@link #makeWorkersImpl()} started for them.
+     */
+    public void workersDone() {
+    }
+
+    /**
+     * Counters specific to this benchmark, which are added up over the
+     * benchmarks of a run and reported in the summary. Called once the
+     * workers are done. What depends on the outcome of the transactions is
+     * rather counted by the workers, see {@link Worker#count(String, long)}.
+     */
+    public Map<String, Long> getCounters() {
+        return Collections.emptyMap();
+    }
+
     // --------------------------------------------------------------------------
     // IMPLEMENTING CLASS INTERFACE
     // --------------------------------------------------------------------------
@@ -186,6 +259,9 @@ public abstract class BenchmarkModule {
 
 
     public final List<Worker<? extends BenchmarkModule>> makeWorkers() throws IOException {
+        if (this.workConf.getConnectionPoolSize() > 0 && this.workConf.getNewConnectionPerTxn()) {
+            LOG.warn("Ignoring newConnectionPerTxn, the workers borrow pooled connections instead");
+        }
         return (this.makeWorkersImpl());
     }
 
@@ -247,7 +323,9 @@ public abstract class BenchmarkModule {
 
             try {
                 List<LoaderThread> loaderThreads = loader.createLoaderThreads();
-                int maxConcurrent = workConf.getLoaderThreads();
+                // Each running LoaderThread holds a connection, so stay
+                // within the connections the workers may open
+                int maxConcurrent = workConf.getLoaderConnections();
 
                 ThreadUtil.runLoaderThreads(loaderThreads, maxConcurrent);
 
@@ -361,6 +439,7 @@ public abstract class BenchmarkModule {
             for (TransactionType txn : txns) {
                 Procedure proc = ClassUtil.newInstance(txn.getProcedureClass(), new Object[0], new Class<?>[0]);
                 proc.initialize(this.workConf.getDatabaseType());
+                proc.setStatementCacheSize(this.workConf.getStatementCacheSize());
                 proc_xref.put(txn, proc);
                 proc.loadSQLDialect(this.dialects);
             }
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.WorkloadConfiguration;
+import com.oltpbenchmark.catalog.Table;
+import com.oltpbenchmark.types.DatabaseType;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Loads rows into a table with the fastest path the DBMS offers:
+ * <ul>
+ * <li>PostgreSQL and CockroachDB: a COPY FROM STDIN for each buffer of rows,
+ * through the driver's CopyManager</li>
+ * <li>MySQL and MariaDB: LOAD DATA LOCAL INFILE from memory, when the
+ * connection allows local files</li>
+ * <li>Otherwise: INSERT statements of several rows each</li>
+ * </ul>
+ * A row is built like the parameters of an INSERT statement of all the
+ * columns of the table, in the order of the catalog, then added with
+ * {@link #addRow()}. Rows are buffered, so {@link #close()} must be called
+ * for the last ones to be loaded.
+ * <p>
+ * The writers of several tables can be used side by side on the same
+ * connection. As each one loads its rows when its own buffer fills up, a
+ * table whose rows reference the rows of another is linked to the writer of
+ * that table with {@link #loadAfter(BulkWriter)}.
+ * <p>
+ * Not thread-safe: each LoaderThread gets its own from
+ * {@link Loader#getBulkWriter(Connection, String)}.
+ */
+public abstract class BulkWriter implements AutoCloseable {
+
+    // The kinds of values, as set for each column of the current row
+    static final byte UNSET = 0;
+    static final byte NULL = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte BOOLEAN = 4;
+    static final byte STRING = 5;
+    static final byte UTF8 = 6;
+    static final byte DATE = 7;
+    static final byte TIMESTAMP = 8;
+
+    protected final Table table;
+    protected final int columnCount;
+
+    // The current row, by column starting at 0. A DATE is kept in longs as
+    // yyyymmdd, the UTF8 bytes in utf8 with their offset and length packed
+    // in longs, and the type of a NULL in longs.
+    final byte[] kinds;
+    final long[] longs;
+    final double[] doubles;
+    final Object[] objects;
+    byte[] utf8 = new byte[256];
+    int utf8Length = 0;
+
+    private long rowCount = 0;
+
+    private BulkWriter parent;
+
+    protected BulkWriter(Table table) {
+        this.table = table;
+        this.columnCount = table.getColumnCount();
+        this.kinds = new byte[columnCount];
+        this.longs = new long[columnCount];
+        this.doubles = new double[columnCount];
+        this.objects = new Object[columnCount];
+    }
+
+    /**
+     * Pick the writer for the DBMS of the configuration.
+     */
+    static BulkWriter create(Connection conn, Table table, WorkloadConfiguration workConf) throws SQLException {
+        DatabaseType dbType = workConf.getDatabaseType();
+        BulkWriter writer = null;
+        switch (dbType) {
+            case POSTGRES:
+            case COCKROACHDB:
+                writer = CopyBulkWriter.open(conn, table, dbType);
+                break;
+            case MYSQL:
+            case MARIADB:
+                writer = LoadDataBulkWriter.open(conn, table, dbType, workConf.getUrl(), workConf.getBatchSize());
+                break;
+            default:
+                break;
+        }
+        if (writer == null) {
+            writer = new InsertBulkWriter(conn, table, dbType, workConf.getBatchSize());
+        }
+        return writer;
+    }
+
+    private int column(int parameterIndex) {
+        if (parameterIndex < 1 || parameterIndex > columnCount) {
+            throw new IndexOutOfBoundsException(String.format("Parameter %d of %d for table %s", parameterIndex, columnCount, table.getName()));
+        }
+        return parameterIndex - 1;
+    }
+
+    public void setNull(int parameterIndex, int sqlType) {
+        int column = column(parameterIndex);
+        kinds[column] = NULL;
+        longs[column] = sqlType;
+        objects[column] = null;
+    }
+
+    public void setLong(int parameterIndex, long x) {
+        int column = column(parameterIndex);
+        kinds[column] = LONG;
+        longs[column] = x;
+    }
+
+    public void setInt(int parameterIndex, int x) {
+        setLong(parameterIndex, x);
+    }
+
+    public void setDouble(int parameterIndex, double x) {
+        int column = column(parameterIndex);
+        kinds[column] = DOUBLE;
+        doubles[column] = x;
+    }
+
+    public void setBoolean(int parameterIndex, boolean x) {
+        int column = column(parameterIndex);
+        kinds[column] = BOOLEAN;
+        longs[column] = (x ? 1 : 0);
+    }
+
+    public void setString(int parameterIndex, String x) {
+        if (x == null) {
+            setNull(parameterIndex, java.sql.Types.VARCHAR);
+            return;
+        }
+        int column = column(parameterIndex);
+        kinds[column] = STRING;
+        objects[column] = x;
+    }
+
+    /**
+     * Set a string from its UTF-8 bytes, which are copied so that the array
+     * can be reused right away.
+     */
+    public void setUtf8(int parameterIndex, byte[] x, int offset, int length) {
+        int column = column(parameterIndex);
+        if (utf8Length + length > utf8.length) {
+            utf8 = Arrays.copyOf(utf8, Math.max(utf8.length * 2, utf8Length + length));
+        }
+        System.arraycopy(x, offset, utf8, utf8Length, length);
+        kinds[column] = UTF8;
+        longs[column] = ((long) utf8Length << 32) | length;
+        utf8Length += length;
+    }
+
+    public void setDate(int parameterIndex, Date x) {
+        if (x == null) {
+            setNull(parameterIndex, java.sql.Types.DATE);
+            return;
+        }
+        LocalDate date = x.toLocalDate();
+        setDate(parameterIndex, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+    }
+
+    public void setDate(int parameterIndex, int year, int month, int dayOfMonth) {
+        int column = column(parameterIndex);
+        kinds[column] = DATE;
+        longs[column] = year * 10000L + month * 100L + dayOfMonth;
+    }
+
+    public void setTimestamp(int parameterIndex, Timestamp x) {
+        if (x == null) {
+            setNull(parameterIndex, java.sql.Types.TIMESTAMP);
+            return;
+        }
+        int column = column(parameterIndex);
+        kinds[column] = TIMESTAMP;
+        objects[column] = x;
+    }
+
+    /**
+     * Set a column from a value of any of the types the setters take, like
+     * PreparedStatement.setObject does for the loaders that generate their
+     * rows as Object arrays. A number is converted to the type of the column,
+     * and null to a NULL of that type.
+     */
+    public void setObject(int parameterIndex, Object x) {
+        int sqlType = table.getColumn(column(parameterIndex)).getType();
+        if (x == null) {
+            setNull(parameterIndex, sqlType);
+        } else if (x instanceof Number) {
+            Number number = (Number) x;
+            switch (sqlType) {
+                case java.sql.Types.TINYINT:
+                case java.sql.Types.SMALLINT:
+                case java.sql.Types.INTEGER:
+                case java.sql.Types.BIGINT:
+                    setLong(parameterIndex, number.longValue());
+                    break;
+                case java.sql.Types.REAL:
+                case java.sql.Types.FLOAT:
+                case java.sql.Types.DOUBLE:
+                case java.sql.Types.DECIMAL:
+                case java.sql.Types.NUMERIC:
+                    setDouble(parameterIndex, number.doubleValue());
+                    break;
+                default:
+                    if (x instanceof Double || x instanceof Float || x instanceof java.math.BigDecimal) {
+                        setDouble(parameterIndex, number.doubleValue());
+                    } else {
+                        setLong(parameterIndex, number.longValue());
+                    }
+                    break;
+            }
+        } else if (x instanceof String) {
+            setString(parameterIndex, (String) x);
+        } else if (x instanceof Boolean) {
+            setBoolean(parameterIndex, (Boolean) x);
+        } else if (x instanceof Timestamp) {
+            setTimestamp(parameterIndex, (Timestamp) x);
+        } else if (x instanceof Date) {
+            setDate(parameterIndex, (Date) x);
+        } else if (x instanceof java.util.Date) {
+            setTimestamp(parameterIndex, new Timestamp(((java.util.Date) x).getTime()));
+        } else {
+            throw new IllegalArgumentException(String.format("Unsupported %s for column %s of table %s",
+                    x.getClass().getSimpleName(), table.getColumn(parameterIndex - 1).getName(), table.getName()));
+        }
+    }
+
+    /**
+     * Add the current row, once all its columns are set. It may only be
+     * loaded once enough rows are buffered.
+     */
+    public void addRow() throws SQLException {
+        for (int column = 0; column < columnCount; column++) {
+            if (kinds[column] == UNSET) {
+                throw new IllegalStateException(String.format("Column %s of table %s is not set",
+                        table.getColumn(column).getName(), table.getName()));
+            }
+        }
+        writeRow();
+        rowCount++;
+        clearRow();
+    }
+
+    /**
+     * Drop the columns set for the current row.
+     */
+    public void clearRow() {
+        Arrays.fill(kinds, UNSET);
+        Arrays.fill(objects, null);
+        utf8Length = 0;
+    }
+
+    /**
+     * Load the rows added to the parent writer before each load of this one,
+     * so that the rows of this table never reference rows of the parent's
+     * table that are still buffered. The parent must be closed after this
+     * writer, as try-with-resources does when it is declared first.
+     */
+    public void loadAfter(BulkWriter parent) {
+        for (BulkWriter ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+            if (ancestor == this) {
+                throw new IllegalArgumentException("Table " + table.getName() + " would be loaded after itself");
+            }
+        }
+        this.parent = parent;
+    }
+
+    /**
+     * Load the buffered rows of the parent writer, if any. Called by each
+     * writer before it loads its own rows.
+     */
+    protected void loadParent() throws SQLException {
+        if (parent != null) {
+            parent.flush();
+        }
+    }
+
+    /**
+     * @return the number of rows added so far
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Buffer or load the current row.
+     */
+    protected abstract void writeRow() throws SQLException;
+
+    /**
+     * Load the buffered rows now, rather than once enough are buffered.
+     */
+    public abstract void flush() throws SQLException;
+
+    /**
+     * Load the buffered rows, and release the resources of the writer.
+     */
+    @Override
+    public abstract void close() throws SQLException;
+}
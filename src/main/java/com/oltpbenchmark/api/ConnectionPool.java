@@ -0,0 +1,377 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.WorkloadConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of JDBC connections shared by the workers of a
+ * BenchmarkModule.
+ * <p>
+ * Workers borrow a connection for each transaction and hand it back once it
+ * is committed or rolled back, so many terminals can multiplex over a few
+ * connections. A worker may ask for the connection it used last: reusing it
+ * keeps the PreparedStatements its procedures have cached.
+ * <p>
+ * Connections are opened with the auto-commit and isolation settings of the
+ * workload, lazily or all at once with {@link #prewarm()}. A connection that
+ * was idle for a while is validated before it is handed out again, and
+ * replaced if it turns out to be dead.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /**
+     * Idle connections are only validated after this long, so that a busy
+     * pool does not pay a round trip for each borrow.
+     */
+    private static final long VALIDATION_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final BenchmarkModule benchmark;
+    private final String url;
+    private final WorkloadConfiguration workConf;
+    private final int maxSize;
+    private final long timeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    // Protected by lock
+    private final ArrayDeque<Connection> idle = new ArrayDeque<>();
+    private final Map<Connection, Long> idleSince = new IdentityHashMap<>();
+    private int open = 0;
+    private boolean closed = false;
+    private long opened = 0;
+    private long validationFailures = 0;
+    private long timeouts = 0;
+    private long discarded = 0;
+
+    /**
+     * @param url the URL the connections of the pool are opened to
+     */
+    public ConnectionPool(BenchmarkModule benchmark, String url) {
+        this.benchmark = benchmark;
+        this.url = url;
+        this.workConf = benchmark.getWorkloadConfiguration();
+        this.maxSize = workConf.getConnectionPoolSize();
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(workConf.getConnectionPoolTimeoutMillis());
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid connection pool size " + maxSize);
+        }
+    }
+
+    /**
+     * Open connections until the pool is full.
+     */
+    public void prewarm() throws SQLException {
+        long start = System.nanoTime();
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || open >= maxSize) {
+                    break;
+                }
+                open++;
+            } finally {
+                lock.unlock();
+            }
+            release(openConnection());
+        }
+        LOG.info("Opened {} pooled connections in {} ms", maxSize, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Borrow a connection, waiting for one to be released if the pool is
+     * exhausted. It must be handed back with {@link #release(Connection)}.
+     *
+     * @param preferred the connection to return if it is idle, e.g. the one
+     *                  the caller used last. May be null.
+     * @throws SQLTransientConnectionException if no connection became
+     *                                         available in time
+     */
+    public Connection acquire(Connection preferred) throws SQLException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            Connection conn = null;
+            long since = 0;
+            lock.lock();
+            try {
+                while (conn == null) {
+                    if (closed) {
+                        throw new SQLException("The connection pool is closed");
+                    }
+                    if (preferred != null && idleSince.containsKey(preferred)) {
+                        idle.remove(preferred);
+                        conn = preferred;
+                    } else if (!idle.isEmpty()) {
+                        // Most recently used first, the others can time out on the server
+                        conn = idle.pollFirst();
+                    } else if (open < maxSize) {
+                        open++;
+                        break;
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            timeouts++;
+                            throw new SQLTransientConnectionException(String.format("No pooled connection available after %d ms", TimeUnit.NANOSECONDS.toMillis(timeoutNanos)));
+                        }
+                        available.awaitNanos(remaining);
+                    }
+                }
+                if (conn != null) {
+                    since = idleSince.remove(conn);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a pooled connection", ex);
+            } finally {
+                lock.unlock();
+            }
+
+            if (conn == null) {
+                return openConnection();
+            }
+            if (System.nanoTime() - since < VALIDATION_IDLE_NANOS || isValid(conn)) {
+                return conn;
+            }
+
+            LOG.warn("Discarding a dead pooled connection");
+            lock.lock();
+            try {
+                validationFailures++;
+            } finally {
+                lock.unlock();
+            }
+            closeQuietly(conn);
+            freeSlot();
+            preferred = null;
+        }
+    }
+
+    /**
+     * Hand a borrowed connection back to the pool. Its transaction must be
+     * finished. A closed connection frees its slot for a new one.
+     */
+    public void release(Connection conn) {
+        boolean usable;
+        try {
+            usable = !conn.isClosed();
+        } catch (SQLException ex) {
+            usable = false;
+        }
+        if (!usable) {
+            closeQuietly(conn);
+            freeSlot();
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.addFirst(conn);
+                idleSince.put(conn, System.nanoTime());
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(conn);
+        freeSlot();
+    }
+
+    /**
+     * Open a connection for a slot that was already counted in open.
+     */
+    private Connection openConnection() throws SQLException {
+        Connection conn = null;
+        try {
+            conn = benchmark.makeConnection(url);
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(workConf.getIsolationMode());
+        } catch (SQLException ex) {
+            if (conn != null) {
+                closeQuietly(conn);
+            }
+            freeSlot();
+            throw ex;
+        }
+
+        lock.lock();
+        try {
+            opened++;
+        } finally {
+            lock.unlock();
+        }
+        return conn;
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Drop a borrowed connection that must not be used again, e.g. once its
+     * rollback failed or it reported a connection error: it is closed, and
+     * its slot freed for a new one.
+     */
+    public void discard(Connection conn) {
+        closeQuietly(conn);
+        lock.lock();
+        try {
+            discarded++;
+        } finally {
+            lock.unlock();
+        }
+        freeSlot();
+    }
+
+    private void freeSlot() {
+        lock.lock();
+        try {
+            open--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ex) {
+            LOG.debug("Failed to close pooled connection: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Close the idle connections. Borrowed connections are closed when they
+     * are released.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            for (Connection conn : idle) {
+                closeQuietly(conn);
+                open--;
+            }
+            idle.clear();
+            idleSince.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * The number of connections opened over the lifetime of the pool.
+     */
+    public long getConnectionsOpened() {
+        lock.lock();
+        try {
+            return opened;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of idle connections found dead when they were borrowed.
+     */
+    public long getValidationFailures() {
+        lock.lock();
+        try {
+            return validationFailures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of connections that are open, idle or borrowed, or being
+     * opened.
+     */
+    public int getOpenConnections() {
+        lock.lock();
+        try {
+            return open;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of open connections that are not borrowed.
+     */
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of borrowed connections dropped with
+     * {@link #discard(Connection)}.
+     */
+    public long getDiscarded() {
+        lock.lock();
+        try {
+            return discarded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of borrows that gave up waiting for a connection.
+     */
+    public long getTimeouts() {
+        lock.lock();
+        try {
+            return timeouts;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.catalog.Table;
+import com.oltpbenchmark.types.DatabaseType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Loads the rows with a COPY FROM STDIN each time the buffer fills up. Each
+ * COPY is ended before the writer returns, since a connection can only have
+ * one in progress: the writers of several tables can then be used side by
+ * side on the same connection, as the loaders that generate related rows
+ * together do. The PostgreSQL driver is only on the classpath of the builds
+ * for the DBMSs that use it, so its copy API is called through reflection.
+ */
+final class CopyBulkWriter extends TextBulkWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(CopyBulkWriter.class);
+
+    private static final int SEND_BYTES = 1 << 20;
+
+    private final Object copyManager;
+    private final Method copyIn;
+    private final String sql;
+
+    // The methods of the org.postgresql.copy.CopyIn of each COPY
+    private final Method writeToCopy;
+    private final Method endCopy;
+    private final Method cancelCopy;
+
+    // Set once a COPY failed, so that nothing more is sent, and rethrown by
+    // the later rows and close so that the failure cannot go unnoticed
+    private SQLException failure;
+
+    private CopyBulkWriter(Table table, Object copyManager, Method copyIn, String sql) throws NoSuchMethodException {
+        super(table);
+        this.copyManager = copyManager;
+        this.copyIn = copyIn;
+        this.sql = sql;
+        Class<?> copyInClass = copyIn.getReturnType();
+        this.writeToCopy = copyInClass.getMethod("writeToCopy", byte[].class, int.class, int.class);
+        this.endCopy = copyInClass.getMethod("endCopy");
+        this.cancelCopy = copyInClass.getMethod("cancelCopy");
+    }
+
+    /**
+     * @return null if the connection has no copy API
+     */
+    static CopyBulkWriter open(Connection conn, Table table, DatabaseType dbType) throws SQLException {
+        String sql = "COPY " + (dbType.shouldEscapeNames() ? table.getEscapedName() : table.getName())
+                + " " + getColumnList(table, dbType) + " FROM STDIN";
+        try {
+            Class<?> pgConnection = Class.forName("org.postgresql.PGConnection");
+            if (!conn.isWrapperFor(pgConnection)) {
+                return null;
+            }
+            Object copyManager = pgConnection.getMethod("getCopyAPI").invoke(conn.unwrap(pgConnection));
+            Method copyIn = Class.forName("org.postgresql.copy.CopyManager").getMethod("copyIn", String.class);
+            return new CopyBulkWriter(table, copyManager, copyIn, sql);
+        } catch (ReflectiveOperationException ex) {
+            LOG.debug("No copy API in the JDBC driver, inserting the rows of {} instead", table.getName(), ex);
+            return null;
+        }
+    }
+
+    @Override
+    protected void rowEncoded() throws SQLException {
+        checkFailure();
+        if (length >= SEND_BYTES) {
+            send();
+        }
+    }
+
+    private void send() throws SQLException {
+        loadParent();
+        Object operation;
+        try {
+            operation = invoke(copyIn, copyManager, sql);
+        } catch (SQLException ex) {
+            failure = ex;
+            throw ex;
+        }
+        try {
+            invoke(writeToCopy, operation, buffer, 0, length);
+            Object copied = invoke(endCopy, operation);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Copied {} rows into {}", copied, table.getName());
+            }
+        } catch (SQLException ex) {
+            failure = ex;
+            cancel(operation);
+            throw ex;
+        }
+        length = 0;
+    }
+
+    private void cancel(Object operation) {
+        try {
+            invoke(cancelCopy, operation);
+        } catch (SQLException ex) {
+            LOG.debug("Failed to cancel the COPY into {}", table.getName(), ex);
+        }
+    }
+
+    private void checkFailure() throws SQLException {
+        if (failure != null) {
+            throw new SQLException("COPY into " + table.getName() + " failed, " + getRowCount()
+                    + " rows added were not all loaded: " + failure.getMessage(), failure.getSQLState(), failure);
+        }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        checkFailure();
+        if (length > 0) {
+            send();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof SQLException) {
+                throw (SQLException) ex.getCause();
+            }
+            throw new SQLException(ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new SQLException(ex);
+        }
+    }
+}
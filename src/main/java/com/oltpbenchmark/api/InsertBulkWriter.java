@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.catalog.Table;
+import com.oltpbenchmark.types.DatabaseType;
+import com.oltpbenchmark.util.SQLUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Inserts the rows with one INSERT statement of several rows for each batch,
+ * as many as the DBMS takes parameters for. The rows of a batch are kept in
+ * arrays and only bound once it is full.
+ */
+final class InsertBulkWriter extends BulkWriter {
+
+    private final Connection conn;
+    private final DatabaseType dbType;
+    private final int rowsPerStatement;
+
+    // The buffered rows, by row * columnCount + column
+    private final byte[] rowKinds;
+    private final long[] rowLongs;
+    private final double[] rowDoubles;
+    private final Object[] rowObjects;
+    private int rows = 0;
+
+    private PreparedStatement stmt;
+
+    InsertBulkWriter(Connection conn, Table table, DatabaseType dbType, int batchSize) {
+        super(table);
+        this.conn = conn;
+        this.dbType = dbType;
+        this.rowsPerStatement = getRowsPerStatement(dbType, columnCount, batchSize);
+        int size = rowsPerStatement * columnCount;
+        this.rowKinds = new byte[size];
+        this.rowLongs = new long[size];
+        this.rowDoubles = new double[size];
+        this.rowObjects = new Object[size];
+    }
+
+    /**
+     * @return the number of rows of each INSERT, at most batchSize but within
+     * the number of parameters the DBMS takes in a statement
+     */
+    static int getRowsPerStatement(DatabaseType dbType, int columnCount, int batchSize) {
+        int maxParameters;
+        int maxRows = Integer.MAX_VALUE;
+        switch (dbType) {
+            case ORACLE:
+            case PHOENIX:
+            case CASSANDRA:
+            case TIMESTEN:
+                // No INSERT of several rows
+                return 1;
+            case SQLSERVER:
+            case SQLAZURE:
+                maxParameters = 2000;
+                maxRows = 1000;
+                break;
+            case SQLITE:
+                maxParameters = 999;
+                break;
+            default:
+                maxParameters = Short.MAX_VALUE;
+                break;
+        }
+        int rows = Math.min(batchSize, Math.min(maxRows, maxParameters / Math.max(columnCount, 1)));
+        return Math.max(rows, 1);
+    }
+
+    private String getInsertSQL(int rows) {
+        // Without the excluded columns the call would also match the
+        // overload that takes only them
+        return SQLUtil.getInsertSQL(table, dbType, rows, new int[0]);
+    }
+
+    @Override
+    protected void writeRow() throws SQLException {
+        int offset = rows * columnCount;
+        for (int column = 0; column < columnCount; column++) {
+            byte kind = kinds[column];
+            int i = offset + column;
+            if (kind == UTF8) {
+                int start = (int) (longs[column] >>> 32);
+                rowKinds[i] = STRING;
+                rowObjects[i] = new String(utf8, start, (int) longs[column], StandardCharsets.UTF_8);
+            } else {
+                rowKinds[i] = kind;
+                rowLongs[i] = longs[column];
+                rowDoubles[i] = doubles[column];
+                rowObjects[i] = objects[column];
+            }
+        }
+        rows++;
+        if (rows == rowsPerStatement) {
+            if (stmt == null) {
+                stmt = conn.prepareStatement(getInsertSQL(rowsPerStatement));
+            }
+            insert(stmt);
+        }
+    }
+
+    private void insert(PreparedStatement stmt) throws SQLException {
+        loadParent();
+        int count = rows * columnCount;
+        // The rows are dropped even if the INSERT fails
+        rows = 0;
+        for (int i = 0; i < count; i++) {
+            int idx = i + 1;
+            switch (rowKinds[i]) {
+                case NULL:
+                    stmt.setNull(idx, (int) rowLongs[i]);
+                    break;
+                case LONG:
+                    stmt.setLong(idx, rowLongs[i]);
+                    break;
+                case DOUBLE:
+                    stmt.setDouble(idx, rowDoubles[i]);
+                    break;
+                case BOOLEAN:
+                    stmt.setBoolean(idx, rowLongs[i] != 0);
+                    break;
+                case STRING:
+                    stmt.setString(idx, (String) rowObjects[i]);
+                    break;
+                case DATE:
+                    long date = rowLongs[i];
+                    stmt.setDate(idx, Date.valueOf(LocalDate.of((int) (date / 10000), (int) (date / 100 % 100), (int) (date % 100))));
+                    break;
+                case TIMESTAMP:
+                    stmt.setTimestamp(idx, (Timestamp) rowObjects[i]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected kind " + rowKinds[i]);
+            }
+            rowObjects[i] = null;
+        }
+        stmt.executeUpdate();
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (rows > 0) {
+            try (PreparedStatement partial = conn.prepareStatement(getInsertSQL(rows))) {
+                insert(partial);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            if (stmt != null) {
+                stmt.close();
+                stmt = null;
+            }
+        }
+    }
+}
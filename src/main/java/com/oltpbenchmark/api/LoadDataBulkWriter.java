@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.catalog.Table;
+import com.oltpbenchmark.types.DatabaseType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Loads the buffered rows with a LOAD DATA LOCAL INFILE statement each time
+ * a batch is full, the driver reading the "file" from the buffer instead of
+ * the disk. The server and the connection must both allow local files: for
+ * MySQL the URL needs allowLoadLocalInfile=true. The drivers are only on the
+ * classpath of their own builds, so they are called through reflection.
+ */
+final class LoadDataBulkWriter extends TextBulkWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(LoadDataBulkWriter.class);
+
+    // The statement classes with a setLocalInfileInputStream(InputStream)
+    private static final String[] STATEMENT_CLASSES = {
+            "com.mysql.cj.jdbc.JdbcStatement",
+            "org.mariadb.jdbc.Statement",
+            "org.mariadb.jdbc.MariaDbStatement",
+    };
+
+    private static final int LOAD_BYTES = 1 << 22;
+
+    private final Connection conn;
+    private final Class<?> statementClass;
+    private final Method setInputStream;
+    private final String sql;
+    private final int batchSize;
+
+    private int batchRows = 0;
+
+    private LoadDataBulkWriter(Connection conn, Table table, Class<?> statementClass, Method setInputStream, String sql, int batchSize) {
+        super(table);
+        this.conn = conn;
+        this.statementClass = statementClass;
+        this.setInputStream = setInputStream;
+        this.sql = sql;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return null if the connection does not allow local files
+     */
+    static LoadDataBulkWriter open(Connection conn, Table table, DatabaseType dbType, String url, int batchSize) throws SQLException {
+        if (url == null || (dbType == DatabaseType.MYSQL && !url.contains("allowLoadLocalInfile=true"))
+                || url.contains("allowLocalInfile=false")) {
+            LOG.debug("Local files are not allowed by {}, inserting the rows of {} instead", url, table.getName());
+            return null;
+        }
+        for (String className : STATEMENT_CLASSES) {
+            try {
+                Class<?> statementClass = Class.forName(className);
+                Method setInputStream = statementClass.getMethod("setLocalInfileInputStream", InputStream.class);
+                String sql = "LOAD DATA LOCAL INFILE 'bulk' INTO TABLE "
+                        + (dbType.shouldEscapeNames() ? table.getEscapedName() : table.getName())
+                        + " CHARACTER SET utf8mb4"
+                        + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'"
+                        + " LINES TERMINATED BY '\\n' "
+                        + getColumnList(table, dbType);
+                return new LoadDataBulkWriter(conn, table, statementClass, setInputStream, sql, batchSize);
+            } catch (ReflectiveOperationException ex) {
+                // Not this driver
+            }
+        }
+        LOG.debug("No local file support in the JDBC driver, inserting the rows of {} instead", table.getName());
+        return null;
+    }
+
+    @Override
+    protected void rowEncoded() throws SQLException {
+        batchRows++;
+        if (batchRows >= batchSize || length >= LOAD_BYTES) {
+            load();
+        }
+    }
+
+    private void load() throws SQLException {
+        loadParent();
+        try (Statement stmt = conn.createStatement()) {
+            if (!stmt.isWrapperFor(statementClass)) {
+                throw new SQLException("Statement is not a " + statementClass.getName());
+            }
+            setInputStream.invoke(stmt.unwrap(statementClass), new ByteArrayInputStream(buffer, 0, length));
+            stmt.executeUpdate(sql);
+        } catch (InvocationTargetException ex) {
+            throw new SQLException(ex.getCause());
+        } catch (IllegalAccessException ex) {
+            throw new SQLException(ex);
+        } finally {
+            length = 0;
+            batchRows = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws SQLException {
+        if (batchRows > 0) {
+            load();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+    }
+}
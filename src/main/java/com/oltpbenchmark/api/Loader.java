@@ -83,6 +83,21 @@ public abstract class Loader<T extends BenchmarkModule> {
         return (this.workConf.getDatabaseType());
     }
 
+    /**
+     * Get a BulkWriter that loads rows into the given table over the
+     * LoaderThread's connection, with COPY or LOAD DATA where the DBMS has
+     * them. It must be closed for the last rows to be loaded.
+     *
+     * @param conn
+     * @param tableName
+     * @return
+     * @throws SQLException
+     */
+    public BulkWriter getBulkWriter(Connection conn, String tableName) throws SQLException {
+        Table catalog_tbl = this.benchmark.getCatalog().getTable(tableName);
+        return BulkWriter.create(conn, catalog_tbl, this.workConf);
+    }
+
     /**
      * Get the pre-seeded Random generator for this Loader invocation
      *
@@ -18,6 +18,7 @@
 package com.oltpbenchmark.api;
 
 import com.oltpbenchmark.jdbc.AutoIncrementPreparedStatement;
+import com.oltpbenchmark.jdbc.TimedPreparedStatement;
 import com.oltpbenchmark.types.DatabaseType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,14 +31,24 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 public abstract class Procedure {
     private static final Logger LOG = LoggerFactory.getLogger(Procedure.class);
 
+    /**
+     * The name in the statement statistics of the statements that are
+     * neither fields of their Procedure nor named with SQLStmt.setName().
+     */
+    public static final String UNNAMED_STATEMENT = "<unnamed>";
+
     private final String procName;
     private DatabaseType dbType;
     private Map<String, SQLStmt> name_stmt_xref;
+    private StatementCache statementCache = null;
+    private StatementStatistics statementStatistics = null;
+    private Map<SQLStmt, StatementStatistics.Entry> statementEntries = null;
 
     /**
      * Constructor
@@ -65,6 +76,76 @@ public abstract class Procedure {
         return ((T) this);
     }
 
+    /**
+     * Keep up to <code>size</code> PreparedStatements of this Procedure open
+     * across invocations on the same connection. A size of 0 disables the cache.
+     */
+    final void setStatementCacheSize(int size) {
+        if (this.statementCache != null) {
+            this.statementCache.invalidate();
+        }
+        this.statementCache = (size > 0 ? new StatementCache(size) : null);
+    }
+
+    /**
+     * Close all cached PreparedStatements, e.g. before closing the connection
+     * they were prepared on. The statements of a connection that was closed
+     * elsewhere are dropped once the cache is used with a new connection.
+     */
+    public final void clearStatementCache() {
+        if (this.statementCache != null) {
+            this.statementCache.invalidate();
+        }
+    }
+
+    /**
+     * The number of PreparedStatements that were served from the cache.
+     */
+    public final long getStatementCacheHits() {
+        return (this.statementCache != null ? this.statementCache.getHits() : 0);
+    }
+
+    /**
+     * The number of PreparedStatements that had to be prepared.
+     */
+    public final long getStatementCacheMisses() {
+        return (this.statementCache != null ? this.statementCache.getMisses() : 0);
+    }
+
+    /**
+     * The number of cached PreparedStatements closed to stay within the cache size.
+     */
+    public final long getStatementCacheEvictions() {
+        return (this.statementCache != null ? this.statementCache.getEvictions() : 0);
+    }
+
+    /**
+     * Record the execution time and row count of every SQLStmt of this
+     * Procedure in the given statistics while they are enabled.
+     */
+    final void setStatementStatistics(StatementStatistics statistics) {
+        this.statementStatistics = statistics;
+        this.statementEntries = (statistics != null ? new IdentityHashMap<>() : null);
+    }
+
+    private StatementStatistics.Entry getStatementEntry(SQLStmt stmt) {
+        StatementStatistics.Entry entry = this.statementEntries.get(stmt);
+        if (entry == null) {
+            // Statements that are not fields of the Procedure are reported
+            // under the name they were given, if any
+            String stmtName = (stmt.getName() != null ? stmt.getName() : UNNAMED_STATEMENT);
+            for (Map.Entry<String, SQLStmt> e : this.name_stmt_xref.entrySet()) {
+                if (e.getValue() == stmt) {
+                    stmtName = e.getKey();
+                    break;
+                }
+            }
+            entry = this.statementStatistics.get(this.procName, stmtName);
+            this.statementEntries.put(stmt, entry);
+        }
+        return (entry);
+    }
+
     /**
      * Return the name of this Procedure
      */
@@ -72,11 +153,22 @@ public abstract class Procedure {
         return (this.procName);
     }
 
+    /**
+     * Return the type of the DBMS this Procedure was initialized for
+     */
+    protected final DatabaseType getDatabaseType() {
+        return (this.dbType);
+    }
+
     /**
      * Return a PreparedStatement for the given SQLStmt handle
      * The underlying Procedure API will make sure that the proper SQL
      * for the target DBMS is used for this SQLStmt.
      * This will automatically call setObject for all the parameters you pass in
+     * <p>
+     * The statement may come from the statement cache, so it must be closed
+     * before the same SQLStmt is requested again (e.g. with try-with-resources).
+     * Closing a cached statement keeps it open for the next invocation.
      *
      * @param conn
      * @param stmt
@@ -117,10 +209,15 @@ public abstract class Procedure {
             pStmt = conn.prepareStatement(stmt.getSQL(), is);
         }
         // They don't care about keys
-        else {
+        else if (this.statementCache != null) {
+            pStmt = this.statementCache.get(conn, stmt);
+        } else {
             pStmt = conn.prepareStatement(stmt.getSQL());
         }
 
+        if (this.statementStatistics != null && this.statementStatistics.isEnabled()) {
+            pStmt = new TimedPreparedStatement(pStmt, this.getStatementEntry(stmt));
+        }
 
         return (pStmt);
     }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides how long a worker waits before it retries a transaction that
+ * failed with a retryable error, e.g. a serialization failure.
+ * <p>
+ * Retrying right away under contention mostly collides with the same
+ * transactions again; backing off spreads the retries out.
+ */
+public abstract class RetryPolicy {
+
+    /**
+     * Retry right away. This is the default.
+     */
+    public static final RetryPolicy IMMEDIATE = new RetryPolicy() {
+        @Override
+        public long getBackoffMillis(int retry, SQLException ex) {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "immediate";
+        }
+    };
+
+    /**
+     * @param retry the number of the upcoming retry, starting at 1
+     * @param ex    the error that made the previous attempt fail
+     * @return how long to wait before the retry, in milliseconds
+     */
+    public abstract long getBackoffMillis(int retry, SQLException ex);
+
+    /**
+     * Get the policy with the given name: immediate, exponential or hint.
+     *
+     * @param baseMillis the backoff before the first retry
+     * @param maxMillis  the cap of the backoff
+     */
+    public static RetryPolicy get(String name, long baseMillis, long maxMillis) {
+        switch (name.toLowerCase()) {
+            case "immediate":
+                return IMMEDIATE;
+            case "exponential":
+                return new Exponential(baseMillis, maxMillis);
+            case "hint":
+                return new ServerHint(new Exponential(baseMillis, maxMillis));
+            default:
+                throw new IllegalArgumentException("Unknown retry policy '" + name + "'");
+        }
+    }
+
+    /**
+     * Exponential backoff with full jitter: the n-th retry waits a uniformly
+     * random time up to min(max, base * 2^(n-1)).
+     */
+    public static final class Exponential extends RetryPolicy {
+        private final long baseMillis;
+        private final long maxMillis;
+
+        public Exponential(long baseMillis, long maxMillis) {
+            if (baseMillis <= 0 || maxMillis < baseMillis) {
+                throw new IllegalArgumentException(String.format("Invalid backoff range [%d, %d] ms", baseMillis, maxMillis));
+            }
+            this.baseMillis = baseMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        @Override
+        public long getBackoffMillis(int retry, SQLException ex) {
+            int shift = Math.min(Math.max(retry - 1, 0), 30);
+            long cap = Math.min(maxMillis, baseMillis << shift);
+            return ThreadLocalRandom.current().nextLong(cap + 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("exponential [%d, %d] ms", baseMillis, maxMillis);
+        }
+    }
+
+    /**
+     * Wait as long as the DBMS asks for, if the error carries a retry delay,
+     * and otherwise fall back to another policy. Drivers do not share an API
+     * for this, so the cause chain is searched for a
+     * <code>getRetryDelayInMillis()</code> method, as on the exceptions of the
+     * Spanner client.
+     */
+    public static final class ServerHint extends RetryPolicy {
+        private final RetryPolicy fallback;
+
+        public ServerHint(RetryPolicy fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public long getBackoffMillis(int retry, SQLException ex) {
+            for (Throwable t = ex; t != null; t = t.getCause()) {
+                long hint = getRetryDelay(t);
+                if (hint >= 0) {
+                    return hint;
+                }
+                if (t.getCause() == t) {
+                    break;
+                }
+            }
+            return fallback.getBackoffMillis(retry, ex);
+        }
+
+        private static long getRetryDelay(Throwable t) {
+            try {
+                Method m = t.getClass().getMethod("getRetryDelayInMillis");
+                Object delay = m.invoke(t);
+                return delay instanceof Long ? (Long) delay : -1;
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                return -1;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "hint, otherwise " + fallback;
+        }
+    }
+}
@@ -36,6 +36,7 @@ public final class SQLStmt {
 
     private String orig_sql;
     private String sql;
+    private String name = null;
 
     /**
      * For each unique '??' that we encounter in the SQL for this Statement,
@@ -86,6 +87,21 @@ public final class SQLStmt {
         return (this.orig_sql);
     }
 
+    /**
+     * Name a statement that is not a field of its Procedure, e.g. one built
+     * at run time, so that its executions are reported under that name. All
+     * the statements given the same name are reported together.
+     *
+     * @param name
+     */
+    public final void setName(String name) {
+        this.name = name;
+    }
+
+    public final String getName() {
+        return (this.name);
+    }
+
     @Override
     public String toString() {
         return "SQLStmt{" + this.sql + "}";
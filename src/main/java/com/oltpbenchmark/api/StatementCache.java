@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.jdbc.CachedPreparedStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the PreparedStatements of a Procedure open across transactions, so
+ * that they are only prepared once per connection and the DBMS can reuse its
+ * server-side plans.
+ * <p>
+ * Statements are cached per connection and SQLStmt, so a worker that borrows
+ * different pooled connections keeps what it prepared on each of them. The
+ * statements of a connection are only closed once the connection itself is
+ * closed, e.g. because the pool discarded it; they are never closed while
+ * another worker may be using their connection. Each connection holds at most
+ * <code>maxSize</code> statements and evicts the least recently used one that
+ * is not in use.
+ * <p>
+ * A Procedure instance is only used by one worker thread, so this class is
+ * not thread-safe.
+ */
+final class StatementCache {
+    private static final Logger LOG = LoggerFactory.getLogger(StatementCache.class);
+
+    private final int maxSize;
+    private final Map<Connection, LinkedHashMap<SQLStmt, CachedPreparedStatement>> connections = new IdentityHashMap<>();
+    // The connection of the last call, as most calls are for the same one
+    private Connection lastConnection = null;
+    private LinkedHashMap<SQLStmt, CachedPreparedStatement> lastStatements = null;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return an open PreparedStatement for the given SQLStmt. The caller must
+     * close it, which hands it back to the cache.
+     */
+    PreparedStatement get(Connection conn, SQLStmt stmt) throws SQLException {
+        LinkedHashMap<SQLStmt, CachedPreparedStatement> statements = getStatements(conn);
+
+        String sql = stmt.getSQL();
+        CachedPreparedStatement cached = statements.get(stmt);
+        if (cached != null) {
+            if (cached.isInUse()) {
+                // The same SQLStmt is open twice at once, don't share it
+                misses++;
+                return conn.prepareStatement(sql);
+            }
+            if (!cached.isBroken() && cached.getSQL().equals(sql)) {
+                hits++;
+                cached.acquire();
+                return cached;
+            }
+            statements.remove(stmt);
+            closeQuietly(cached);
+        }
+
+        misses++;
+        cached = new CachedPreparedStatement(sql, conn.prepareStatement(sql));
+        cached.acquire();
+        statements.put(stmt, cached);
+        evict(statements);
+        return cached;
+    }
+
+    private LinkedHashMap<SQLStmt, CachedPreparedStatement> getStatements(Connection conn) {
+        if (conn == lastConnection) {
+            return lastStatements;
+        }
+        LinkedHashMap<SQLStmt, CachedPreparedStatement> statements = connections.get(conn);
+        if (statements == null) {
+            // A new connection may replace one that was closed
+            removeClosedConnections();
+            statements = new LinkedHashMap<>(16, 0.75f, true);
+            connections.put(conn, statements);
+        }
+        lastConnection = conn;
+        lastStatements = statements;
+        return statements;
+    }
+
+    private void removeClosedConnections() {
+        Iterator<Map.Entry<Connection, LinkedHashMap<SQLStmt, CachedPreparedStatement>>> it = connections.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Connection, LinkedHashMap<SQLStmt, CachedPreparedStatement>> entry = it.next();
+            boolean closed;
+            try {
+                closed = entry.getKey().isClosed();
+            } catch (SQLException ex) {
+                closed = true;
+            }
+            if (closed) {
+                entry.getValue().values().forEach(StatementCache::closeQuietly);
+                it.remove();
+            }
+        }
+    }
+
+    private void evict(LinkedHashMap<SQLStmt, CachedPreparedStatement> statements) {
+        Iterator<CachedPreparedStatement> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedPreparedStatement cached = it.next();
+            if (!cached.isInUse()) {
+                it.remove();
+                closeQuietly(cached);
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * Close all cached statements, e.g. because the worker closes the
+     * connections they were prepared on. Must not be called while other
+     * workers may use these connections.
+     */
+    void invalidate() {
+        for (LinkedHashMap<SQLStmt, CachedPreparedStatement> statements : connections.values()) {
+            statements.values().forEach(StatementCache::closeQuietly);
+        }
+        connections.clear();
+        lastConnection = null;
+        lastStatements = null;
+    }
+
+    private static void closeQuietly(CachedPreparedStatement cached) {
+        try {
+            cached.closeStatement();
+        } catch (SQLException ex) {
+            LOG.debug("Failed to close cached statement: {}", ex.getMessage());
+        }
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    long getEvictions() {
+        return evictions;
+    }
+}
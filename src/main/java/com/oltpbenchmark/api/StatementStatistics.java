@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.jdbc.TimedPreparedStatement;
+import com.oltpbenchmark.util.LatencyHistogram;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The execution time and row counts of each SQLStmt, per procedure.
+ * <p>
+ * Each worker fills its own instance while the benchmark is measuring, so
+ * this class is not thread-safe; the instances are merged with
+ * {@link #add(StatementStatistics)} at the end of the run.
+ */
+public final class StatementStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The executions of a single SQLStmt.
+     */
+    public static final class Entry implements TimedPreparedStatement.Listener, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final LatencyHistogram executeTimes = new LatencyHistogram();
+        private final LatencyHistogram rows = new LatencyHistogram();
+        private long totalRows = 0;
+
+        @Override
+        public void executed(long nanos, long rows) {
+            this.executeTimes.record((nanos + 500) / 1000);
+            this.rows.record(rows);
+            this.totalRows += rows;
+        }
+
+        /**
+         * The execution times in microseconds.
+         */
+        public LatencyHistogram getExecuteTimes() {
+            return executeTimes;
+        }
+
+        /**
+         * The number of rows returned or modified by each execution.
+         */
+        public LatencyHistogram getRows() {
+            return rows;
+        }
+
+        public long getExecutions() {
+            return executeTimes.getCount();
+        }
+
+        public long getTotalRows() {
+            return totalRows;
+        }
+
+        private void add(Entry other) {
+            this.executeTimes.add(other.executeTimes);
+            this.rows.add(other.rows);
+            this.totalRows += other.totalRows;
+        }
+    }
+
+    // Procedure name -> statement name -> entry
+    private final Map<String, Map<String, Entry>> procedures = new TreeMap<>();
+    private boolean enabled = false;
+
+    /**
+     * Whether the executions are recorded, i.e. the benchmark is measuring.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Entry get(String procedure, String statement) {
+        return procedures.computeIfAbsent(procedure, k -> new TreeMap<>()).computeIfAbsent(statement, k -> new Entry());
+    }
+
+    /**
+     * The entries of each statement, indexed by procedure name and then
+     * statement name.
+     */
+    public Map<String, Map<String, Entry>> getProcedures() {
+        return procedures;
+    }
+
+    public void add(StatementStatistics other) {
+        for (Map.Entry<String, Map<String, Entry>> proc : other.procedures.entrySet()) {
+            for (Map.Entry<String, Entry> stmt : proc.getValue().entrySet()) {
+                get(proc.getKey(), stmt.getKey()).add(stmt.getValue());
+            }
+        }
+    }
+}
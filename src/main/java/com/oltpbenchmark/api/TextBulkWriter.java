@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.catalog.Column;
+import com.oltpbenchmark.catalog.Table;
+import com.oltpbenchmark.types.DatabaseType;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Encodes the rows in the text format shared by PostgreSQL's COPY and
+ * MySQL's LOAD DATA: one line per row, the columns separated by tabs, NULL
+ * as \N, and backslash, tab, newline and carriage return escaped with a
+ * backslash. The rows are encoded as UTF-8 straight into a buffer that is
+ * reused once sent.
+ */
+abstract class TextBulkWriter extends BulkWriter {
+
+    // Used to format the doubles without creating strings
+    private final StringBuilder scratch = new StringBuilder(32);
+
+    byte[] buffer = new byte[1 << 16];
+    int length = 0;
+
+    TextBulkWriter(Table table) {
+        super(table);
+    }
+
+    /**
+     * @return the columns of the table, as listed after its name in COPY or
+     * LOAD DATA
+     */
+    static String getColumnList(Table table, DatabaseType dbType) {
+        StringBuilder sb = new StringBuilder("(");
+        for (Column column : table.getColumns()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(dbType.shouldEscapeNames() ? column.getEscapedName() : column.getName());
+        }
+        return sb.append(")").toString();
+    }
+
+    @Override
+    protected void writeRow() throws SQLException {
+        for (int column = 0; column < columnCount; column++) {
+            if (column > 0) {
+                put((byte) '\t');
+            }
+            switch (kinds[column]) {
+                case NULL:
+                    put((byte) '\\');
+                    put((byte) 'N');
+                    break;
+                case LONG:
+                    putLong(longs[column]);
+                    break;
+                case DOUBLE:
+                    scratch.setLength(0);
+                    scratch.append(doubles[column]);
+                    putEscaped(scratch);
+                    break;
+                case BOOLEAN:
+                    put((byte) (longs[column] != 0 ? '1' : '0'));
+                    break;
+                case STRING:
+                    putEscaped((String) objects[column]);
+                    break;
+                case UTF8:
+                    putEscaped(utf8, (int) (longs[column] >>> 32), (int) longs[column]);
+                    break;
+                case DATE:
+                    putDate(longs[column]);
+                    break;
+                case TIMESTAMP:
+                    putTimestamp((Timestamp) objects[column]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected kind " + kinds[column]);
+            }
+        }
+        put((byte) '\n');
+        rowEncoded();
+    }
+
+    /**
+     * Called once a row is in the buffer, to send the buffer when it is full
+     * enough.
+     */
+    protected abstract void rowEncoded() throws SQLException;
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buffer[length++] = b;
+    }
+
+    private void putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            // Cannot be negated
+            scratch.setLength(0);
+            scratch.append(value);
+            putEscaped(scratch);
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        putDigits(value, digits);
+    }
+
+    private void putDigits(long value, int digits) {
+        ensure(digits);
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void putDate(long yyyymmdd) {
+        putDigits(yyyymmdd / 10000, 4);
+        put((byte) '-');
+        putDigits(yyyymmdd / 100 % 100, 2);
+        put((byte) '-');
+        putDigits(yyyymmdd % 100, 2);
+    }
+
+    private void putTimestamp(Timestamp timestamp) {
+        // In the time zone of the JVM, as the drivers bind a Timestamp
+        LocalDateTime time = timestamp.toLocalDateTime();
+        putDate(time.getYear() * 10000L + time.getMonthValue() * 100L + time.getDayOfMonth());
+        put((byte) ' ');
+        putDigits(time.getHour(), 2);
+        put((byte) ':');
+        putDigits(time.getMinute(), 2);
+        put((byte) ':');
+        putDigits(time.getSecond(), 2);
+        int micros = time.getNano() / 1000;
+        if (micros != 0) {
+            put((byte) '.');
+            putDigits(micros, 6);
+        }
+    }
+
+    private void putEscaped(CharSequence s) {
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                putEscaped((byte) c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer[length++] = (byte) (0xC0 | (c >> 6));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                ensure(4);
+                buffer[length++] = (byte) (0xF0 | (cp >> 18));
+                buffer[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired, as String.getBytes() would encode it
+                put((byte) '?');
+            } else {
+                ensure(3);
+                buffer[length++] = (byte) (0xE0 | (c >> 12));
+                buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[length++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void putEscaped(byte[] bytes, int offset, int count) {
+        ensure(count);
+        for (int i = offset; i < offset + count; i++) {
+            putEscaped(bytes[i]);
+        }
+    }
+
+    private void putEscaped(byte b) {
+        switch (b) {
+            case '\\':
+                put((byte) '\\');
+                put((byte) '\\');
+                break;
+            case '\t':
+                put((byte) '\\');
+                put((byte) 't');
+                break;
+            case '\n':
+                put((byte) '\\');
+                put((byte) 'n');
+                break;
+            case '\r':
+                put((byte) '\\');
+                put((byte) 'r');
+                break;
+            default:
+                put(b);
+                break;
+        }
+    }
+}
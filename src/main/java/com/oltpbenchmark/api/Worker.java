@@ -23,17 +23,22 @@ import com.oltpbenchmark.types.DatabaseType;
 import com.oltpbenchmark.types.State;
 import com.oltpbenchmark.types.TransactionStatus;
 import com.oltpbenchmark.util.Histogram;
+import com.oltpbenchmark.util.LatencyHistogram;
+import com.oltpbenchmark.util.SampleLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.SplittableRandom;
 
 import static com.oltpbenchmark.types.State.MEASURE;
 
@@ -41,16 +46,71 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(Worker.class);
     private static final Logger ABORT_LOG = LoggerFactory.getLogger("com.oltpbenchmark.api.ABORT_LOG");
 
+    /**
+     * The most distinct user abort messages kept per transaction type, since
+     * some include the keys of the rows they are about. The others are
+     * counted together under {@link #OTHER_ABORT_MESSAGES}.
+     */
+    static final int MAX_ABORT_MESSAGES = 100;
+    static final String OTHER_ABORT_MESSAGES = "<other messages>";
+
     private WorkloadState workloadState;
     private LatencyRecord latencies;
+    // Streams the measured samples to disk instead of keeping them in latencies, or null
+    private SampleLog.Appender sampleAppender;
+    private int requests;
+
+    // Latency and response time histograms indexed by transaction type id
+    private LatencyHistogram[] latencyHistograms;
+    private LatencyHistogram[] responseTimeHistograms;
+    // Time spent waiting for a pooled connection by measured transactions
+    private LatencyHistogram connectionWaitHistogram;
+    // Latency of every attempt of measured transactions, indexed by transaction type id
+    private LatencyHistogram[] attemptHistograms;
+    // Commit time of measured transactions, indexed by transaction type id
+    private LatencyHistogram[] commitHistograms;
+    private long commitNanos = -1;
+    private LatencyHistogram[] rollbackHistograms;
+    // Execution times of the SQLStmts, or null if they are not measured
+    private final StatementStatistics statementStatistics;
+    // Durations of the attempts of the current transaction
+    private long[] attemptNanos = new long[4];
+    private int attempts = 0;
+
+    // Durations of the rollbacks of the current transaction
+    private long[] rollbackNanos = new long[4];
+    private int rollbacks = 0;
+    // Latency of measured transactions by the label their procedure gave
+    // them and by transaction type id
+    private Map<String, LatencyHistogram[]> labelHistograms;
+    private String transactionLabel = null;
+    // By counter name: what the current attempt counted, then the total
+    // over the measured transactions that committed
+    private final Map<String, long[]> counts = new HashMap<>();
+    // Actions of the current attempt to run once it commits or once its
+    // procedure aborts it
+    private final List<Runnable> commitActions = new ArrayList<>();
+    private final List<Runnable> userAbortActions = new ArrayList<>();
     private final Statement currStatement;
+    private final SubmittedProcedure pieceOfWork = new SubmittedProcedure();
+
+    // Draws the transactions of the phases without a work queue
+    private final SplittableRandom mixRng;
 
-    // Interval requests used by the monitor
-    private final AtomicInteger intervalRequests = new AtomicInteger(0);
+    // Per transaction type statistics of the current monitoring interval
+    private final IntervalRecorder intervalRecorder;
 
     private final int id;
     private final T benchmark;
+    // The URL this worker connects to
+    private final String url;
     protected Connection conn = null;
+
+    // Shared connections to borrow from for each transaction, or null
+    private final ConnectionPool connectionPool;
+    private Connection lastPooledConnection = null;
+    private long connectionWaitNanos = 0;
+
     protected final WorkloadConfiguration configuration;
     protected final TransactionTypes transactionTypes;
     protected final Map<TransactionType, Procedure> procedures = new HashMap<>();
@@ -63,20 +123,39 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
     private final Histogram<TransactionType> txnRetry = new Histogram<>();
     private final Histogram<TransactionType> txnErrors = new Histogram<>();
     private final Histogram<TransactionType> txtRetryDifferent = new Histogram<>();
+    private final Histogram<TransactionType> txnAttempts = new Histogram<>();
+    private final Map<TransactionType, Histogram<String>> txnAbortMessages = new HashMap<>();
 
     private boolean seenDone = false;
 
     public Worker(T benchmark, int id) {
+        this(benchmark, id, null);
+    }
+
+    /**
+     * @param url the URL this worker connects to, or null for the URL of the
+     *            configuration. With pooling, the worker borrows from the
+     *            pool of that URL.
+     */
+    public Worker(T benchmark, int id, String url) {
         this.id = id;
         this.benchmark = benchmark;
         this.configuration = this.benchmark.getWorkloadConfiguration();
+        this.url = (url != null ? url : this.configuration.getUrl());
         this.workloadState = this.configuration.getWorkloadState();
         this.currStatement = null;
         this.transactionTypes = this.configuration.getTransTypes();
+        this.intervalRecorder = new IntervalRecorder(this.transactionTypes.size() + 1);
 
-        if (!this.configuration.getNewConnectionPerTxn()) {
+        // A stream of its own for each terminal, reproducible when the
+        // workload is seeded
+        int randomSeed = this.configuration.getRandomSeed();
+        this.mixRng = (randomSeed != -1 ? new SplittableRandom(randomSeed + 0x9E3779B97F4A7C15L * (id + 1)) : new SplittableRandom());
+        this.connectionPool = this.benchmark.getConnectionPool(this.url);
+
+        if (this.connectionPool == null && !this.configuration.getNewConnectionPerTxn()) {
             try {
-                this.conn = this.benchmark.makeConnection();
+                this.conn = this.benchmark.makeConnection(this.url);
                 this.conn.setAutoCommit(false);
                 this.conn.setTransactionIsolation(this.configuration.getIsolationMode());
             } catch (SQLException ex) {
@@ -84,10 +163,13 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
             }
         }
 
+        this.statementStatistics = (this.configuration.getStatementStatistics() ? new StatementStatistics() : null);
+
         // Generate all the Procedures that we're going to need
         this.procedures.putAll(this.benchmark.getProcedures());
         for (Entry<TransactionType, Procedure> e : this.procedures.entrySet()) {
             Procedure proc = e.getValue();
+            proc.setStatementStatistics(this.statementStatistics);
             this.name_procedures.put(e.getKey().getName(), proc);
             this.class_procedures.put(proc.getClass(), proc);
         }
@@ -112,6 +194,13 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
         return String.format("%s<%03d>", this.getClass().getSimpleName(), this.getId());
     }
 
+    /**
+     * Get the URL this worker connects to
+     */
+    public final String getUrl() {
+        return this.url;
+    }
+
     public final WorkloadConfiguration getWorkloadConfiguration() {
         return (this.benchmark.getWorkloadConfiguration());
     }
@@ -121,17 +210,103 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
     }
 
     public final int getRequests() {
-        return latencies.size();
+        return requests;
     }
 
-    public final int getAndResetIntervalRequests() {
-        return intervalRequests.getAndSet(0);
+    /**
+     * Take the statistics of the current monitoring interval, indexed by
+     * transaction type id, and start a new one. The returned array stays
+     * valid until the next call. Must only be called by a single thread.
+     */
+    public final IntervalStatistics[] swapIntervalStatistics() {
+        return intervalRecorder.swap();
     }
 
-    public final Iterable<LatencyRecord.Sample> getLatencyRecords() {
+    public final LatencyRecord getLatencyRecords() {
         return latencies;
     }
 
+    /**
+     * Get the histogram of measured latencies (service times) of each
+     * transaction type executed by this worker.
+     */
+    public final Map<TransactionType, LatencyHistogram> getLatencyHistograms() {
+        return toTransactionTypeMap(latencyHistograms);
+    }
+
+    /**
+     * Get the histogram of measured response times of each transaction type
+     * executed by this worker.
+     */
+    public final Map<TransactionType, LatencyHistogram> getResponseTimeHistograms() {
+        return toTransactionTypeMap(responseTimeHistograms);
+    }
+
+    /**
+     * Get the histogram of the time measured transactions waited for a pooled
+     * connection. This is included in the response times but not in the
+     * latencies. Empty if connection pooling is disabled.
+     */
+    public final LatencyHistogram getConnectionWaitHistogram() {
+        return connectionWaitHistogram;
+    }
+
+    /**
+     * Get the histogram of the time it took to commit each transaction type.
+     */
+    public final Map<TransactionType, LatencyHistogram> getCommitHistograms() {
+        return toTransactionTypeMap(commitHistograms);
+    }
+
+    /**
+     * Get the histogram of the time it took to roll back the attempts of
+     * each transaction type that aborted or failed.
+     */
+    public final Map<TransactionType, LatencyHistogram> getRollbackHistograms() {
+        return toTransactionTypeMap(rollbackHistograms);
+    }
+
+    /**
+     * Get the execution times of the SQLStmts run by this worker while
+     * measuring, or null if they are not measured.
+     */
+    public final StatementStatistics getStatementStatistics() {
+        return statementStatistics;
+    }
+
+    /**
+     * Get the histogram of the latency of every single attempt, including
+     * the ones that failed and were retried, of each transaction type.
+     */
+    public final Map<TransactionType, LatencyHistogram> getAttemptHistograms() {
+        return toTransactionTypeMap(attemptHistograms);
+    }
+
+    /**
+     * Get the histogram of measured latencies of each transaction type by
+     * the label given to the transactions with
+     * {@link #setTransactionLabel(String)}. Empty if no transaction was
+     * labelled.
+     */
+    public final Map<String, Map<TransactionType, LatencyHistogram>> getLabelHistograms() {
+        Map<String, Map<TransactionType, LatencyHistogram>> m = new HashMap<>();
+        for (Entry<String, LatencyHistogram[]> e : labelHistograms.entrySet()) {
+            m.put(e.getKey(), toTransactionTypeMap(e.getValue()));
+        }
+        return m;
+    }
+
+    private Map<TransactionType, LatencyHistogram> toTransactionTypeMap(LatencyHistogram[] histograms) {
+        Map<TransactionType, LatencyHistogram> m = new HashMap<>();
+        for (TransactionType type : transactionTypes) {
+            int typeId = type.getId();
+            if (typeId >= 0 && typeId < histograms.length && histograms[typeId] != null) {
+                m.put(type, histograms[typeId]);
+            }
+        }
+        return m;
+    }
+
     public final Procedure getProcedure(TransactionType type) {
         return (this.procedures.get(type));
     }
@@ -170,6 +345,20 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
         return (this.txtRetryDifferent);
     }
 
+    /**
+     * The messages of the user aborts of each transaction type.
+     */
+    public final Map<TransactionType, Histogram<String>> getTransactionAbortMessages() {
+        return (this.txnAbortMessages);
+    }
+
+    /**
+     * The number of attempts made by the measured transactions of each type.
+     */
+    public final Histogram<TransactionType> getTransactionAttemptHistogram() {
+        return (this.txnAttempts);
+    }
+
     /**
      * Stop executing the current statement.
      */
@@ -190,6 +379,16 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
 
         // In case of reuse reset the measurements
         latencies = new LatencyRecord(workloadState.getTestStartNs());
+        requests = 0;
+        latencyHistograms = new LatencyHistogram[transactionTypes.size() + 1];
+        responseTimeHistograms = new LatencyHistogram[transactionTypes.size() + 1];
+        connectionWaitHistogram = new LatencyHistogram();
+        attemptHistograms = new LatencyHistogram[transactionTypes.size() + 1];
+        commitHistograms = new LatencyHistogram[transactionTypes.size() + 1];
+        rollbackHistograms = new LatencyHistogram[transactionTypes.size() + 1];
+        labelHistograms = new HashMap<>();
+        SampleLog sampleLog = configuration.getSampleLog();
+        sampleAppender = (sampleLog != null ? sampleLog.newAppender(this.id) : null);
 
         // Invoke initialize callback
         try {
@@ -231,15 +430,23 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
 
             // Grab some work and update the state, in case it changed while we
             // waited.
+            if (!workloadState.fetchWork(pieceOfWork, mixRng)) {
+                continue;
+            }
 
-            SubmittedProcedure pieceOfWork = workloadState.fetchWork();
+            // How long the work waited past its scheduled dispatch time. This
+            // is part of the response time a user would observe.
+            long queueNanos = Math.max(0, System.nanoTime() - pieceOfWork.getStartTime());
 
+            // The state and the phase index are read at once, before the
+            // phase itself, so that a phase switch in between is noticed
+            BenchmarkState.Snapshot preSnapshot = workloadState.getGlobalSnapshot();
             prePhase = workloadState.getCurrentPhase();
             if (prePhase == null) {
                 continue;
             }
 
-            preState = workloadState.getGlobalState();
+            preState = preSnapshot.getState();
 
             switch (preState) {
                 case DONE, EXIT, LATENCY_COMPLETE -> {
@@ -278,16 +485,37 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
                 }
 
                 long start = System.nanoTime();
+                connectionWaitNanos = 0;
+                attempts = 0;
+                commitNanos = -1;
+                rollbacks = 0;
+                transactionLabel = null;
+                if (statementStatistics != null) {
+                    statementStatistics.setEnabled(preState == MEASURE);
+                }
 
                 doWork(configuration.getDatabaseType(), transactionType);
 
+                if (statementStatistics != null) {
+                    statementStatistics.setEnabled(false);
+                }
+
                 long end = System.nanoTime();
 
                 // PART 4: Record results
 
-                State postState = workloadState.getGlobalState();
+                // Waiting for a pooled connection is not part of the service time
+                long serviceStart = start + connectionWaitNanos;
+
+                IntervalStatistics interval = intervalRecorder.begin(transactionType.getId());
+                if (interval != null) {
+                    interval.recordLatency((end - serviceStart + 500) / 1000);
+                }
+                intervalRecorder.end();
+
+                BenchmarkState.Snapshot postSnapshot = workloadState.getGlobalSnapshot();
 
-                switch (postState) {
+                switch (postSnapshot.getState()) {
                     case MEASURE:
                         // Non-serial measurement. Only measure if the state both
                         // before and after was MEASURE, and the phase hasn't
@@ -303,9 +531,22 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
                             // switch. In this scenario, just break from the switch.
                             break;
                         }
-                        if (preState == MEASURE && postPhase.getId() == prePhase.getId()) {
-                            latencies.addLatency(transactionType.getId(), start, end, this.id, prePhase.getId());
-                            intervalRequests.incrementAndGet();
+                        if (preState == MEASURE && postSnapshot.getPhase() == preSnapshot.getPhase() && postPhase.getId() == prePhase.getId()) {
+                            if (sampleAppender != null) {
+                                sampleAppender.append(transactionType.getId(), start - queueNanos, serviceStart, end, prePhase.getId());
+                            } else {
+                                latencies.addLatency(transactionType.getId(), start - queueNanos, serviceStart, end, this.id, prePhase.getId());
+                            }
+                            requests++;
+                            recordHistograms(transactionType.getId(), start - queueNanos, serviceStart, end);
+                            recordAttempts(transactionType);
+                            recordCommit(transactionType);
+                            recordRollbacks(transactionType);
+                            recordLabel(transactionType.getId(), serviceStart, end);
+                            recordCounts();
+                            if (connectionPool != null) {
+                                connectionWaitHistogram.record((connectionWaitNanos + 500) / 1000);
+                            }
                         }
                         if (prePhase.isLatencyRun()) {
                             workloadState.startColdQuery();
@@ -337,7 +578,10 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
                 }
             }
 
-            workloadState.finishedWork();
+        }
+
+        if (sampleAppender != null) {
+            sampleAppender.flush();
         }
 
         LOG.debug("worker calling teardown");
@@ -345,6 +589,163 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
         tearDown();
     }
 
+    private void recordIntervalStatus(TransactionType transactionType, TransactionStatus status) {
+        IntervalStatistics interval = intervalRecorder.begin(transactionType.getId());
+        if (interval != null) {
+            switch (status) {
+                case USER_ABORTED -> interval.recordAbort();
+                case RETRY -> interval.recordRetry();
+                case ERROR -> interval.recordError();
+                default -> {
+                }
+            }
+        }
+        intervalRecorder.end();
+    }
+
+    private void recordHistograms(int typeId, long intendedStartNanosecond, long startNanosecond, long endNanosecond) {
+        if (typeId >= latencyHistograms.length) {
+            latencyHistograms = Arrays.copyOf(latencyHistograms, typeId + 1);
+            responseTimeHistograms = Arrays.copyOf(responseTimeHistograms, typeId + 1);
+        }
+        LatencyHistogram latency = latencyHistograms[typeId];
+        if (latency == null) {
+            latency = latencyHistograms[typeId] = new LatencyHistogram();
+            responseTimeHistograms[typeId] = new LatencyHistogram();
+        }
+        latency.record((endNanosecond - startNanosecond + 500) / 1000);
+        responseTimeHistograms[typeId].record((endNanosecond - intendedStartNanosecond + 500) / 1000);
+    }
+
+    private void recordAttempts(TransactionType transactionType) {
+        if (attempts == 0) {
+            return;
+        }
+        int typeId = transactionType.getId();
+        if (typeId >= attemptHistograms.length) {
+            attemptHistograms = Arrays.copyOf(attemptHistograms, typeId + 1);
+        }
+        LatencyHistogram histogram = attemptHistograms[typeId];
+        if (histogram == null) {
+            histogram = attemptHistograms[typeId] = new LatencyHistogram();
+        }
+        for (int i = 0; i < attempts; i++) {
+            histogram.record((attemptNanos[i] + 500) / 1000);
+        }
+        txnAttempts.put(transactionType, attempts);
+    }
+
+    private void recordCommit(TransactionType transactionType) {
+        if (commitNanos < 0) {
+            return;
+        }
+        int typeId = transactionType.getId();
+        if (typeId >= commitHistograms.length) {
+            commitHistograms = Arrays.copyOf(commitHistograms, typeId + 1);
+        }
+        LatencyHistogram histogram = commitHistograms[typeId];
+        if (histogram == null) {
+            histogram = commitHistograms[typeId] = new LatencyHistogram();
+        }
+        histogram.record((commitNanos + 500) / 1000);
+    }
+
+    private void recordRollbacks(TransactionType transactionType) {
+        if (rollbacks == 0) {
+            return;
+        }
+        int typeId = transactionType.getId();
+        if (typeId >= rollbackHistograms.length) {
+            rollbackHistograms = Arrays.copyOf(rollbackHistograms, typeId + 1);
+        }
+        LatencyHistogram histogram = rollbackHistograms[typeId];
+        if (histogram == null) {
+            histogram = rollbackHistograms[typeId] = new LatencyHistogram();
+        }
+        for (int i = 0; i < rollbacks; i++) {
+            histogram.record((rollbackNanos[i] + 500) / 1000);
+        }
+    }
+
+    private void recordLabel(int typeId, long startNanosecond, long endNanosecond) {
+        if (transactionLabel == null) {
+            return;
+        }
+        LatencyHistogram[] histograms = labelHistograms.computeIfAbsent(transactionLabel, k -> new LatencyHistogram[transactionTypes.size() + 1]);
+        if (typeId >= histograms.length) {
+            histograms = Arrays.copyOf(histograms, typeId + 1);
+            labelHistograms.put(transactionLabel, histograms);
+        }
+        LatencyHistogram histogram = histograms[typeId];
+        if (histogram == null) {
+            histogram = histograms[typeId] = new LatencyHistogram();
+        }
+        histogram.record((endNanosecond - startNanosecond + 500) / 1000);
+    }
+
+    /**
+     * Label the current transaction, so that its latency is also reported
+     * apart from the transactions with other labels, e.g. by whether it
+     * accessed remote data. The label of the last attempt counts.
+     */
+    protected final void setTransactionLabel(String label) {
+        this.transactionLabel = label;
+    }
+
+    /**
+     * Add to a counter of this worker, e.g. of work the procedure avoided.
+     * Only what the last attempt of a measured transaction counted before it
+     * committed is kept, see {@link #getCounters()}.
+     */
+    public final void count(String counter, long amount) {
+        this.counts.computeIfAbsent(counter, k -> new long[2])[0] += amount;
+    }
+
+    /**
+     * The counters of this worker, added up over the measured transactions
+     * that committed. Only valid once the worker is done.
+     */
+    public final Map<String, Long> getCounters() {
+        Map<String, Long> counters = new HashMap<>();
+        this.counts.forEach((name, count) -> counters.put(name, count[1]));
+        return counters;
+    }
+
+    private void recordCounts() {
+        if (commitNanos < 0) {
+            return;
+        }
+        for (long[] count : counts.values()) {
+            count[1] += count[0];
+        }
+    }
+
+    /**
+     * Run an action once the current transaction has committed, e.g. to
+     * update state kept outside of the database. It is dropped if the
+     * attempt is rolled back, so a retried transaction registers it again.
+     */
+    public final void afterCommit(Runnable action) {
+        this.commitActions.add(action);
+    }
+
+    /**
+     * Run an action once the current transaction has committed or the
+     * procedure has aborted it with a UserAbortException, e.g. to forget
+     * state it found to be stale. It is dropped if the attempt fails.
+     */
+    public final void afterCommitOrUserAbort(Runnable action) {
+        this.commitActions.add(action);
+        this.userAbortActions.add(action);
+    }
+
+    private static void runActions(List<Runnable> actions) {
+        for (int i = 0; i < actions.size(); i++) {
+            actions.get(i).run();
+        }
+        actions.clear();
+    }
+
     private TransactionType getTransactionType(SubmittedProcedure pieceOfWork, Phase phase, State state, WorkloadState workloadState) {
         TransactionType type = TransactionType.INVALID;
 
@@ -385,102 +786,226 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
      */
     protected final void doWork(DatabaseType databaseType, TransactionType transactionType) {
 
-        try {
-            int retryCount = 0;
-            int maxRetryCount = configuration.getMaxRetries();
+        int retryCount = 0;
+        int maxRetryCount = configuration.getMaxRetries();
+        RetryPolicy retryPolicy = configuration.getRetryPolicy();
 
-            while (retryCount < maxRetryCount && this.workloadState.getGlobalState() != State.DONE) {
+        while (retryCount < maxRetryCount && this.workloadState.getGlobalState() != State.DONE) {
 
-                TransactionStatus status = TransactionStatus.UNKNOWN;
+            TransactionStatus status = TransactionStatus.UNKNOWN;
+            SQLException retryCause = null;
+            String abortMessage = null;
+            boolean broken = false;
 
-                if (this.conn == null) {
-                    try {
-                        this.conn = this.benchmark.makeConnection();
-                        this.conn.setAutoCommit(false);
-                        this.conn.setTransactionIsolation(this.configuration.getIsolationMode());
-                    } catch (SQLException ex) {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug(String.format("%s failed to open a connection...", this));
-                        }
-                        retryCount++;
-                        continue;
+            if (this.conn == null) {
+                try {
+                    this.conn = openConnection();
+                } catch (SQLException ex) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug(String.format("%s failed to open a connection...", this));
                     }
+                    retryCount++;
+                    continue;
                 }
+            }
 
-                try {
+            long attemptStart = System.nanoTime();
+            commitActions.clear();
+            userAbortActions.clear();
+            for (long[] count : counts.values()) {
+                count[0] = 0;
+            }
 
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("%s %s attempting...", this, transactionType));
-                    }
+            try {
 
-                    status = this.executeWork(conn, transactionType);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(String.format("%s %s attempting...", this, transactionType));
+                }
 
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("%s %s completed with status [%s]...", this, transactionType, status.name()));
-                    }
+                status = this.executeWork(conn, transactionType);
 
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("%s %s committing...", this, transactionType));
-                    }
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(String.format("%s %s completed with status [%s]...", this, transactionType, status.name()));
+                }
 
-                    conn.commit();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug(String.format("%s %s committing...", this, transactionType));
+                }
 
-                    break;
+                long commitStart = System.nanoTime();
+                conn.commit();
+                commitNanos = System.nanoTime() - commitStart;
 
-                } catch (UserAbortException ex) {
-                    conn.rollback();
+                runActions(commitActions);
 
-                    ABORT_LOG.debug(String.format("%s Aborted", transactionType), ex);
+                break;
 
-                    status = TransactionStatus.USER_ABORTED;
+            } catch (UserAbortException ex) {
+                broken = !rollback();
 
-                    break;
+                ABORT_LOG.debug(String.format("%s Aborted", transactionType), ex);
 
-                } catch (SQLException ex) {
-                    conn.rollback();
+                status = TransactionStatus.USER_ABORTED;
+                abortMessage = ex.getMessage();
 
-                    if (isRetryable(ex)) {
-                        LOG.debug(String.format("Retryable SQLException occurred during [%s]... current retry attempt [%d], max retry attempts [%d], sql state [%s], error code [%d].", transactionType, retryCount, maxRetryCount, ex.getSQLState(), ex.getErrorCode()), ex);
+                runActions(userAbortActions);
 
-                        status = TransactionStatus.RETRY;
+                break;
 
-                        retryCount++;
-                    } else {
-                        LOG.warn(String.format("SQLException occurred during [%s] and will not be retried... sql state [%s], error code [%d].", transactionType, ex.getSQLState(), ex.getErrorCode()), ex);
+            } catch (SQLException ex) {
+                broken = !rollback() || isConnectionError(ex);
 
-                        status = TransactionStatus.ERROR;
+                if (isRetryable(ex)) {
+                    LOG.debug(String.format("Retryable SQLException occurred during [%s]... current retry attempt [%d], max retry attempts [%d], sql state [%s], error code [%d].", transactionType, retryCount, maxRetryCount, ex.getSQLState(), ex.getErrorCode()), ex);
 
-                        break;
-                    }
+                    status = TransactionStatus.RETRY;
+                    retryCause = ex;
 
-                } finally {
-                    if (this.configuration.getNewConnectionPerTxn() && this.conn != null) {
-                        try {
-                            this.conn.close();
-                            this.conn = null;
-                        } catch (SQLException e) {
-                            LOG.error("Connection couldn't be closed.", e);
-                        }
-                    }
+                    retryCount++;
+                } else {
+                    LOG.warn(String.format("SQLException occurred during [%s] and will not be retried... sql state [%s], error code [%d].", transactionType, ex.getSQLState(), ex.getErrorCode()), ex);
+
+                    status = TransactionStatus.ERROR;
+
+                    break;
+                }
 
-                    switch (status) {
-                        case UNKNOWN -> this.txnUnknown.put(transactionType);
-                        case SUCCESS -> this.txnSuccess.put(transactionType);
-                        case USER_ABORTED -> this.txnAbort.put(transactionType);
-                        case RETRY -> this.txnRetry.put(transactionType);
-                        case RETRY_DIFFERENT -> this.txtRetryDifferent.put(transactionType);
-                        case ERROR -> this.txnErrors.put(transactionType);
+            } finally {
+                if (broken && this.conn != null) {
+                    discardConnection();
+                } else if (this.connectionPool != null && this.conn != null) {
+                    this.connectionPool.release(this.conn);
+                    this.lastPooledConnection = this.conn;
+                    this.conn = null;
+                } else if (this.configuration.getNewConnectionPerTxn() && this.conn != null) {
+                    clearStatementCaches();
+                    try {
+                        this.conn.close();
+                        this.conn = null;
+                    } catch (SQLException e) {
+                        LOG.error("Connection couldn't be closed.", e);
                     }
+                }
 
+                switch (status) {
+                    case UNKNOWN -> this.txnUnknown.put(transactionType);
+                    case SUCCESS -> this.txnSuccess.put(transactionType);
+                    case USER_ABORTED -> {
+                        this.txnAbort.put(transactionType);
+                        recordAbortMessage(transactionType, abortMessage);
+                    }
+                    case RETRY -> this.txnRetry.put(transactionType);
+                    case RETRY_DIFFERENT -> this.txtRetryDifferent.put(transactionType);
+                    case ERROR -> this.txnErrors.put(transactionType);
                 }
+                recordIntervalStatus(transactionType, status);
+                recordAttempt(System.nanoTime() - attemptStart);
+
+            }
 
+            if (status == TransactionStatus.RETRY && retryCount < maxRetryCount) {
+                backoff(retryPolicy.getBackoffMillis(retryCount, retryCause));
             }
+
+        }
+
+    }
+
+    private void recordAbortMessage(TransactionType transactionType, String message) {
+        Histogram<String> messages = this.txnAbortMessages.computeIfAbsent(transactionType, k -> new Histogram<>());
+        String key = String.valueOf(message);
+        if (!messages.contains(key) && messages.getValueCount() >= MAX_ABORT_MESSAGES) {
+            key = OTHER_ABORT_MESSAGES;
+        }
+        messages.put(key);
+    }
+
+    /**
+     * Roll back the current transaction.
+     *
+     * @return false if the rollback failed, in which case the connection
+     * must not be used again
+     */
+    private boolean rollback() {
+        long rollbackStart = System.nanoTime();
+        try {
+            conn.rollback();
         } catch (SQLException ex) {
-            String msg = String.format("Unexpected SQLException in '%s' when executing '%s' on [%s]", this, transactionType, databaseType.name());
+            LOG.warn(String.format("%s failed to roll back... sql state [%s], error code [%d].", this, ex.getSQLState(), ex.getErrorCode()), ex);
+            return false;
+        }
+        if (rollbacks == rollbackNanos.length) {
+            rollbackNanos = Arrays.copyOf(rollbackNanos, rollbacks * 2);
+        }
+        rollbackNanos[rollbacks++] = System.nanoTime() - rollbackStart;
+        return true;
+    }
+
+    /**
+     * Close the connection once it must not be used again, and hand its slot
+     * back to the pool if it is pooled. The next attempt gets a new one.
+     */
+    private void discardConnection() {
+        if (this.connectionPool != null) {
+            this.connectionPool.discard(this.conn);
+            this.lastPooledConnection = null;
+        } else {
+            clearStatementCaches();
+            try {
+                this.conn.close();
+            } catch (SQLException e) {
+                LOG.debug("Broken connection couldn't be closed: {}", e.getMessage());
+            }
+        }
+        this.conn = null;
+    }
+
+    private void recordAttempt(long nanos) {
+        if (attempts == attemptNanos.length) {
+            attemptNanos = Arrays.copyOf(attemptNanos, attempts * 2);
+        }
+        attemptNanos[attempts++] = nanos;
+    }
+
+    private void backoff(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // Interrupted by a phase change, retry right away
+            LOG.debug("Retry backoff interrupted");
+        }
+    }
 
-            throw new RuntimeException(msg, ex);
+    /**
+     * Borrow a connection from the pool, preferably the one used last so that
+     * the cached PreparedStatements stay valid, or open a new one.
+     */
+    private Connection openConnection() throws SQLException {
+        if (this.connectionPool != null) {
+            long start = System.nanoTime();
+            try {
+                return this.connectionPool.acquire(this.lastPooledConnection);
+            } finally {
+                this.connectionWaitNanos += System.nanoTime() - start;
+            }
         }
 
+        Connection connection = this.benchmark.makeConnection(this.url);
+        connection.setAutoCommit(false);
+        connection.setTransactionIsolation(this.configuration.getIsolationMode());
+        return connection;
+    }
+
+    /**
+     * Whether the error is a connection exception (SQLSTATE class 08), after
+     * which the connection must not be used again.
+     */
+    static boolean isConnectionError(SQLException ex) {
+        String sqlState = ex.getSQLState();
+        return sqlState != null && sqlState.startsWith("08");
     }
 
     private boolean isRetryable(SQLException ex) {
@@ -535,7 +1060,15 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
      * Called at the end of the test to do any clean up that may be required.
      */
     public void tearDown() {
-        if (!this.configuration.getNewConnectionPerTxn() && this.conn != null) {
+        if (this.connectionPool != null) {
+            // The pooled connections may still be used by other workers, their
+            // statements are closed with them when the pool is closed
+            if (this.conn != null) {
+                this.connectionPool.release(this.conn);
+                this.conn = null;
+            }
+        } else if (!this.configuration.getNewConnectionPerTxn() && this.conn != null) {
+            clearStatementCaches();
             try {
                 conn.close();
             } catch (SQLException e) {
@@ -544,6 +1077,40 @@ public abstract class Worker<T extends BenchmarkModule> implements Runnable {
         }
     }
 
+    /**
+     * Close the cached PreparedStatements of all procedures, which are only
+     * valid for the connection they were prepared on.
+     */
+    protected final void clearStatementCaches() {
+        for (Procedure proc : this.procedures.values()) {
+            proc.clearStatementCache();
+        }
+    }
+
+    public final long getStatementCacheHits() {
+        long hits = 0;
+        for (Procedure proc : this.procedures.values()) {
+            hits += proc.getStatementCacheHits();
+        }
+        return hits;
+    }
+
+    public final long getStatementCacheMisses() {
+        long misses = 0;
+        for (Procedure proc : this.procedures.values()) {
+            misses += proc.getStatementCacheMisses();
+        }
+        return misses;
+    }
+
+    public final long getStatementCacheEvictions() {
+        long evictions = 0;
+        for (Procedure proc : this.procedures.values()) {
+            evictions += proc.getStatementCacheEvictions();
+        }
+        return evictions;
+    }
+
     public void initializeState() {
         this.workloadState = this.configuration.getWorkloadState();
     }
@@ -18,6 +18,7 @@
 package com.oltpbenchmark.benchmarks.auctionmark;
 
 import com.oltpbenchmark.api.BenchmarkModule;
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.auctionmark.util.*;
@@ -31,7 +32,6 @@ import org.apache.commons.collections4.map.ListOrderedMap;
 
 import java.lang.reflect.Field;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.*;
@@ -209,40 +209,29 @@ public class AuctionMarkLoader extends Loader<AuctionMarkBenchmark> {
         final Table catalog_tbl = benchmark.getCatalog().getTable(tableName);
 
         final List<Object[]> volt_table = generator.getVoltTable();
-        final String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        boolean shouldExecuteBatch = false;
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            final int[] types = catalog_tbl.getColumnTypes();
-
-            while (generator.hasMore()) {
-                generator.generateBatch();
-
-                for (Object[] row : volt_table) {
-                    for (int i = 0; i < row.length; i++) {
-                        if (row[i] != null) {
-                            stmt.setObject(i + 1, row[i]);
-                        } else {
-                            stmt.setNull(i + 1, types[i]);
+        while (generator.hasMore()) {
+            generator.generateBatch();
+
+            // Each batch is loaded by a writer of its own, so that its rows
+            // are in the table before the sub-generators get them
+            if (!volt_table.isEmpty()) {
+                try (BulkWriter writer = this.getBulkWriter(conn, catalog_tbl.getName())) {
+                    for (Object[] row : volt_table) {
+                        for (int i = 0; i < row.length; i++) {
+                            writer.setObject(i + 1, row[i]);
                         }
+                        writer.addRow();
                     }
-                    stmt.addBatch();
-                    shouldExecuteBatch = true;
-                }
-
-                if (shouldExecuteBatch) {
-                    stmt.executeBatch();
-                    stmt.clearBatch();
-                    shouldExecuteBatch = false;
                 }
+            }
 
 
-                this.tableSizes.put(tableName, volt_table.size());
+            this.tableSizes.put(tableName, volt_table.size());
 
-                // Release anything to the sub-generators if we have it
-                // We have to do this to ensure that all of the parent tuples get
-                // insert first for foreign-key relationships
-                generator.releaseHoldsToSubTableGenerators();
-            }
+            // Release anything to the sub-generators if we have it
+            // We have to do this to ensure that all of the parent tuples get
+            // insert first for foreign-key relationships
+            generator.releaseHoldsToSubTableGenerators();
         }
 
 
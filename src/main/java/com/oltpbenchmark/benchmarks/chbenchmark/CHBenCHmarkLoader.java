@@ -18,6 +18,7 @@
 package com.oltpbenchmark.benchmarks.chbenchmark;
 
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.chbenchmark.pojo.Nation;
@@ -31,7 +32,6 @@ import java.io.File;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
@@ -71,10 +71,7 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
         threads.add(new LoaderThread(this.benchmark) {
             @Override
             public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = conn.prepareStatement("INSERT INTO region " + " (r_regionkey, r_name, r_comment) " + "VALUES (?, ?, ?)")) {
-
-                    loadRegions(conn, statement);
-                }
+                loadRegions(conn);
             }
 
             @Override
@@ -88,11 +85,7 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
         threads.add(new LoaderThread(this.benchmark) {
             @Override
             public void load(Connection conn) throws SQLException {
-
-                try (PreparedStatement statement = conn.prepareStatement("INSERT INTO nation " + " (n_nationkey, n_name, n_regionkey, n_comment) " + "VALUES (?, ?, ?, ?)")) {
-
-                    loadNations(conn, statement);
-                }
+                loadNations(conn);
             }
 
             @Override
@@ -113,10 +106,7 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
         threads.add(new LoaderThread(this.benchmark) {
             @Override
             public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = conn.prepareStatement("INSERT INTO supplier " + " (su_suppkey, su_name, su_address, su_nationkey, su_phone, su_acctbal, su_comment) " + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
-
-                    loadSuppliers(conn, statement);
-                }
+                loadSuppliers(conn);
             }
 
             @Override
@@ -142,7 +132,7 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
         }
     }
 
-    private int loadRegions(Connection conn, PreparedStatement statement) throws SQLException {
+    private int loadRegions(Connection conn) throws SQLException {
 
         int k = 0;
         int t = 0;
@@ -157,7 +147,8 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
 
         final String path = "/benchmarks/" + this.benchmark.getBenchmarkName() + "/region_gen.tbl";
 
-        try (InputStream resourceAsStream = this.getClass().getResourceAsStream(path)) {
+        try (InputStream resourceAsStream = this.getClass().getResourceAsStream(path);
+             BulkWriter writer = getBulkWriter(conn, "region")) {
 
             List<String> lines = IOUtils.readLines(resourceAsStream, Charset.defaultCharset());
 
@@ -181,22 +172,11 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
 
                 k++;
 
-                statement.setLong(1, region.r_regionkey);
-                statement.setString(2, region.r_name);
-                statement.setString(3, region.r_comment);
-                statement.addBatch();
-
-                if ((k % workConf.getBatchSize()) == 0) {
-
-                    statement.executeBatch();
-                    statement.clearBatch();
-                }
-
+                writer.setLong(1, region.r_regionkey);
+                writer.setString(2, region.r_name);
+                writer.setString(3, region.r_comment);
+                writer.addRow();
             }
-
-            statement.executeBatch();
-            statement.clearBatch();
-
         } catch (SQLException se) {
             LOG.debug(se.getMessage());
         } catch (Exception e) {
@@ -207,7 +187,7 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
 
     }
 
-    private int loadNations(Connection conn, PreparedStatement statement) {
+    private int loadNations(Connection conn) {
 
         int k = 0;
         int t = 0;
@@ -216,7 +196,8 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
 
         final String path = "/benchmarks/" + this.benchmark.getBenchmarkName() + "/nation_gen.tbl";
 
-        try (final InputStream resourceAsStream = this.getClass().getResourceAsStream(path)) {
+        try (final InputStream resourceAsStream = this.getClass().getResourceAsStream(path);
+             BulkWriter writer = getBulkWriter(conn, "nation")) {
 
             List<String> lines = IOUtils.readLines(resourceAsStream, Charset.defaultCharset());
 
@@ -244,25 +225,12 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
 
                 k++;
 
-                statement.setLong(1, nation.n_nationkey);
-                statement.setString(2, nation.n_name);
-                statement.setLong(3, nation.n_regionkey);
-                statement.setString(4, nation.n_comment);
-                statement.addBatch();
-
-                if ((k % workConf.getBatchSize()) == 0) {
-
-                    statement.executeBatch();
-                    statement.clearBatch();
-                }
-
+                writer.setLong(1, nation.n_nationkey);
+                writer.setString(2, nation.n_name);
+                writer.setLong(3, nation.n_regionkey);
+                writer.setString(4, nation.n_comment);
+                writer.addRow();
             }
-
-
-            statement.executeBatch();
-            statement.clearBatch();
-
-
         } catch (SQLException se) {
             LOG.debug(se.getMessage());
         } catch (Exception e) {
@@ -273,12 +241,12 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
 
     }
 
-    private int loadSuppliers(Connection conn, PreparedStatement statement) {
+    private int loadSuppliers(Connection conn) {
 
         int k = 0;
         int t = 0;
 
-        try {
+        try (BulkWriter writer = getBulkWriter(conn, "supplier")) {
 
             Supplier supplier = new Supplier();
 
@@ -293,27 +261,15 @@ public class CHBenCHmarkLoader extends Loader<CHBenCHmark> {
 
                 k++;
 
-                statement.setLong(1, supplier.su_suppkey);
-                statement.setString(2, supplier.su_name);
-                statement.setString(3, supplier.su_address);
-                statement.setLong(4, supplier.su_nationkey);
-                statement.setString(5, supplier.su_phone);
-                statement.setDouble(6, supplier.su_acctbal);
-                statement.setString(7, supplier.su_comment);
-                statement.addBatch();
-
-                if ((k % workConf.getBatchSize()) == 0) {
-
-                    statement.executeBatch();
-                    statement.clearBatch();
-                }
+                writer.setLong(1, supplier.su_suppkey);
+                writer.setString(2, supplier.su_name);
+                writer.setString(3, supplier.su_address);
+                writer.setLong(4, supplier.su_nationkey);
+                writer.setString(5, supplier.su_phone);
+                writer.setDouble(6, supplier.su_acctbal);
+                writer.setString(7, supplier.su_comment);
+                writer.addRow();
             }
-
-
-            statement.executeBatch();
-            statement.clearBatch();
-
-
         } catch (SQLException se) {
             LOG.debug(se.getMessage());
         } catch (Exception e) {
@@ -17,16 +17,14 @@
 
 package com.oltpbenchmark.benchmarks.epinions;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
-import com.oltpbenchmark.catalog.Table;
 import com.oltpbenchmark.distributions.ScrambledZipfianGenerator;
 import com.oltpbenchmark.distributions.ZipfianGenerator;
-import com.oltpbenchmark.util.SQLUtil;
 import com.oltpbenchmark.util.TextGenerator;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.*;
@@ -156,37 +154,24 @@ public class EpinionsLoader extends Loader<EpinionsBenchmark> {
      * @author Djellel Load num_users users.
      */
     private void loadUsers(Connection conn, int lo, int hi) throws SQLException {
-        Table catalog_tbl = this.benchmark.getCatalog().getTable("useracct");
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-
         int total = 0;
-        int batch = 0;
-        try (PreparedStatement userInsert = conn.prepareStatement(sql)) {
+        try (BulkWriter userWriter = getBulkWriter(conn, "useracct")) {
             long timestamp = System.currentTimeMillis();
             for (int i = lo; i < hi; i++) {
                 String name = TextGenerator.randomStr(rng(), EpinionsConstants.NAME_LENGTH);
                 String email = TextGenerator.randomStr(rng(), EpinionsConstants.EMAIL_LENGTH);
 
-                userInsert.setInt(1, i);
-                userInsert.setString(2, name);
-                userInsert.setString(3, email);
-                userInsert.setTimestamp(4, new Timestamp(timestamp));
-                userInsert.addBatch();
+                userWriter.setInt(1, i);
+                userWriter.setString(2, name);
+                userWriter.setString(3, email);
+                userWriter.setTimestamp(4, new Timestamp(timestamp));
+                userWriter.addRow();
                 total++;
 
-                if ((++batch % workConf.getBatchSize()) == 0) {
-                    userInsert.executeBatch();
-                    batch = 0;
-                    userInsert.clearBatch();
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("Users %d / %d", total, num_users));
-                    }
+                if (LOG.isDebugEnabled() && (total % workConf.getBatchSize()) == 0) {
+                    LOG.debug(String.format("Users %d / %d", total, num_users));
                 }
             }
-            if (batch > 0) {
-                userInsert.executeBatch();
-                userInsert.clearBatch();
-            }
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug(String.format("Users Loaded [%d]", total));
@@ -198,12 +183,8 @@ public class EpinionsLoader extends Loader<EpinionsBenchmark> {
      * @author Djellel Load num_items items.
      */
     private void loadItems(Connection conn, int lo, int hi) throws SQLException {
-        Table catalog_tbl = this.benchmark.getCatalog().getTable("item");
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-
         int total = 0;
-        int batch = 0;
-        try (PreparedStatement itemInsert = conn.prepareStatement(sql)) {
+        try (BulkWriter itemWriter = getBulkWriter(conn, "item")) {
             ZipfianGenerator descLength = new ZipfianGenerator(rng(), EpinionsConstants.DESCRIPTION_LENGTH);
             long timestamp = System.currentTimeMillis();
 
@@ -211,26 +192,17 @@ public class EpinionsLoader extends Loader<EpinionsBenchmark> {
                 String title = TextGenerator.randomStr(rng(), EpinionsConstants.TITLE_LENGTH);
                 String desc = TextGenerator.randomStr(rng(), descLength.nextInt());
 
-                itemInsert.setInt(1, i);
-                itemInsert.setString(2, title);
-                itemInsert.setString(3, desc);
-                itemInsert.setTimestamp(4, new Timestamp(timestamp));
-                itemInsert.addBatch();
+                itemWriter.setInt(1, i);
+                itemWriter.setString(2, title);
+                itemWriter.setString(3, desc);
+                itemWriter.setTimestamp(4, new Timestamp(timestamp));
+                itemWriter.addRow();
                 total++;
 
-                if ((++batch % workConf.getBatchSize()) == 0) {
-                    itemInsert.executeBatch();
-                    batch = 0;
-                    itemInsert.clearBatch();
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("Items %d / %d", total, num_items));
-                    }
+                if (LOG.isDebugEnabled() && (total % workConf.getBatchSize()) == 0) {
+                    LOG.debug(String.format("Items %d / %d", total, num_items));
                 }
             }
-            if (batch > 0) {
-                itemInsert.executeBatch();
-                itemInsert.clearBatch();
-            }
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug(String.format("Items Loaded [%d]", total));
@@ -246,13 +218,9 @@ public class EpinionsLoader extends Loader<EpinionsBenchmark> {
      * based on Zipfian distribution.
      */
     private void loadReviews(Connection conn, int lo, int hi) throws SQLException {
-        Table catalog_tbl = this.benchmark.getCatalog().getTable("review");
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-
         int total = 0;
-        int batch = 0;
 
-        try (PreparedStatement reviewInsert = conn.prepareStatement(sql)) {
+        try (BulkWriter reviewWriter = getBulkWriter(conn, "review")) {
             ZipfianGenerator numReviews = new ZipfianGenerator(rng(), num_reviews, 1.8);
             ZipfianGenerator reviewer = new ZipfianGenerator(rng(), num_users);
             ZipfianGenerator commentLength = new ZipfianGenerator(rng(), EpinionsConstants.COMMENT_LENGTH - EpinionsConstants.COMMENT_MIN_LENGTH);
@@ -267,33 +235,24 @@ public class EpinionsLoader extends Loader<EpinionsBenchmark> {
                     int u_id = reviewer.nextInt();
                     if (!reviewers.contains(u_id)) {
                         String comment = TextGenerator.randomStr(rng(), commentLength.nextInt() + EpinionsConstants.COMMENT_MIN_LENGTH);
-                        reviewInsert.setInt(1, total);
-                        reviewInsert.setInt(2, u_id);
-                        reviewInsert.setInt(3, i);
-                        reviewInsert.setInt(4, rng().nextInt(5));// rating
-                        reviewInsert.setNull(5, java.sql.Types.INTEGER);
-                        reviewInsert.setString(6, comment);
-                        reviewInsert.setTimestamp(7, new Timestamp(timestamp));
-                        reviewInsert.addBatch();
+                        reviewWriter.setInt(1, total);
+                        reviewWriter.setInt(2, u_id);
+                        reviewWriter.setInt(3, i);
+                        reviewWriter.setInt(4, rng().nextInt(5));// rating
+                        reviewWriter.setNull(5, java.sql.Types.INTEGER);
+                        reviewWriter.setString(6, comment);
+                        reviewWriter.setTimestamp(7, new Timestamp(timestamp));
+                        reviewWriter.addRow();
                         reviewers.add(u_id);
                         total++;
                         rc++;
-                        if ((++batch % workConf.getBatchSize()) == 0) {
-                            reviewInsert.executeBatch();
-                            batch = 0;
-                            reviewInsert.clearBatch();
-                            if (LOG.isDebugEnabled()) {
-                                LOG.debug("Reviewed items  % {}", (int) (((double) i / (double) this.num_items) * 100));
-                            }
+                        if (LOG.isDebugEnabled() && (total % workConf.getBatchSize()) == 0) {
+                            LOG.debug("Reviewed items  % {}", (int) (((double) i / (double) this.num_items) * 100));
                         }
                     }
                 }
                 reviewers.clear();
             }
-            if (batch > 0) {
-                reviewInsert.executeBatch();
-                reviewInsert.clearBatch();
-            }
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug(String.format("Reviews Loaded [%d]", total));
@@ -310,13 +269,9 @@ public class EpinionsLoader extends Loader<EpinionsBenchmark> {
      * reviewers (drawn using a scrambled distribution)
      */
     public void loadTrust(Connection conn, int lo, int hi) throws SQLException {
-        Table catalog_tbl = this.benchmark.getCatalog().getTable("trust");
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-
         int total = 0;
-        int batch = 0;
 
-        try (PreparedStatement trustInsert = conn.prepareStatement(sql)) {
+        try (BulkWriter trustWriter = getBulkWriter(conn, "trust")) {
             ZipfianGenerator numTrust = new ZipfianGenerator(rng(), num_trust, 1.95);
             ScrambledZipfianGenerator reviewed = new ScrambledZipfianGenerator(num_users);
             Set<Integer> trusted = new HashSet<>();
@@ -328,31 +283,21 @@ public class EpinionsLoader extends Loader<EpinionsBenchmark> {
                     int u_id = reviewed.nextInt();
                     if (!trusted.contains(u_id)) {
                         tc++;
-                        trustInsert.setInt(1, i);
-                        trustInsert.setInt(2, u_id);
-                        trustInsert.setInt(3, rng().nextInt(2));
-                        trustInsert.setDate(4, new java.sql.Date(timestamp));
-                        trustInsert.addBatch();
+                        trustWriter.setInt(1, i);
+                        trustWriter.setInt(2, u_id);
+                        trustWriter.setInt(3, rng().nextInt(2));
+                        trustWriter.setDate(4, new java.sql.Date(timestamp));
+                        trustWriter.addRow();
                         trusted.add(u_id);
                         total++;
 
-                        if ((++batch % workConf.getBatchSize()) == 0) {
-                            trustInsert.executeBatch();
-                            batch = 0;
-                            trustInsert.clearBatch();
-                            if (LOG.isDebugEnabled()) {
-                                LOG.debug("Rated users  % {}", (int) (((double) i / (double) this.num_users) * 100));
-                            }
-
+                        if (LOG.isDebugEnabled() && (total % workConf.getBatchSize()) == 0) {
+                            LOG.debug("Rated users  % {}", (int) (((double) i / (double) this.num_users) * 100));
                         }
                     }
                 }
                 trusted.clear();
             }
-            if (batch > 0) {
-                trustInsert.executeBatch();
-                trustInsert.clearBatch();
-            }
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug(String.format("Trust Loaded [%d]", total));
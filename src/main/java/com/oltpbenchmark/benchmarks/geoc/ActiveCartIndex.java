@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.geoc;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Client-side index of the customers that have a non-empty shopping cart,
+ * per (warehouse, district). It lets ApproveCart and DecreaseCartLine pick a
+ * random cart in O(1) instead of asking the DBMS to sort every cart line of
+ * the terminal's districts.
+ * <p>
+ * The index is shared by all the terminals of a benchmark. The procedures
+ * update it once the transaction that modified a cart has committed, so a
+ * rolled back or retried transaction leaves it as it was. Between the commit
+ * and the update another terminal may still see the old entry; the
+ * procedures drop the entries of the carts they find empty.
+ */
+public final class ActiveCartIndex {
+
+    /**
+     * The carts of one district: a dense array of customer ids, for sampling,
+     * plus the position of each customer id in it, for removal.
+     */
+    private static final class District {
+        private int[] customers = new int[16];
+        /** Position of each customer id in customers, plus one; 0 if absent. */
+        private int[] positions = new int[GeoCConfig.configCustPerDist + 1];
+        private int size = 0;
+
+        void add(int c_id) {
+            if (c_id >= positions.length) {
+                positions = Arrays.copyOf(positions, c_id + 1);
+            }
+            if (positions[c_id] != 0) {
+                return;
+            }
+            if (size == customers.length) {
+                customers = Arrays.copyOf(customers, size * 2);
+            }
+            customers[size++] = c_id;
+            positions[c_id] = size;
+        }
+
+        void remove(int c_id) {
+            if (c_id >= positions.length || positions[c_id] == 0) {
+                return;
+            }
+            // Move the last customer into the hole
+            int pos = positions[c_id] - 1;
+            int last = customers[--size];
+            customers[pos] = last;
+            positions[last] = pos + 1;
+            positions[c_id] = 0;
+        }
+    }
+
+    /**
+     * Indexed by warehouse id - 1, then district id - 1. The districts of a
+     * warehouse share its lock, as they are sampled together.
+     */
+    private final District[][] warehouses;
+
+    public ActiveCartIndex(int numWarehouses) {
+        this.warehouses = new District[numWarehouses][GeoCConfig.configDistPerWhse];
+        for (District[] districts : warehouses) {
+            for (int d = 0; d < districts.length; d++) {
+                districts[d] = new District();
+            }
+        }
+    }
+
+    public void add(int w_id, int d_id, int c_id) {
+        District[] districts = warehouses[w_id - 1];
+        synchronized (districts) {
+            districts[d_id - 1].add(c_id);
+        }
+    }
+
+    public void remove(int w_id, int d_id, int c_id) {
+        District[] districts = warehouses[w_id - 1];
+        synchronized (districts) {
+            districts[d_id - 1].remove(c_id);
+        }
+    }
+
+    /**
+     * Pick an active cart uniformly at random among the districts
+     * [d_lower, d_upper] of the given warehouse.
+     *
+     * @return {d_id, c_id} of the cart, or null if there is none
+     */
+    public int[] choose(int w_id, int d_lower, int d_upper, Random gen) {
+        District[] districts = warehouses[w_id - 1];
+        synchronized (districts) {
+            int total = 0;
+            for (int d = d_lower; d <= d_upper; d++) {
+                total += districts[d - 1].size;
+            }
+            if (total == 0) {
+                return null;
+            }
+
+            int pick = gen.nextInt(total);
+            for (int d = d_lower; d <= d_upper; d++) {
+                District district = districts[d - 1];
+                if (pick < district.size) {
+                    return new int[]{d, district.customers[pick]};
+                }
+                pick -= district.size;
+            }
+            throw new IllegalStateException("Cart " + pick + " not found in W_ID=" + w_id);
+        }
+    }
+
+    /**
+     * The number of active carts in the given warehouse.
+     */
+    public int size(int w_id) {
+        District[] districts = warehouses[w_id - 1];
+        synchronized (districts) {
+            int total = 0;
+            for (District district : districts) {
+                total += district.size;
+            }
+            return total;
+        }
+    }
+}
@@ -23,10 +23,14 @@ import com.oltpbenchmark.api.BenchmarkModule;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.Worker;
 import com.oltpbenchmark.benchmarks.geoc.procedures.ApproveCart;
+import org.apache.commons.configuration2.XMLConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -34,8 +38,90 @@ import java.util.List;
 public class GeoCBenchmark extends BenchmarkModule {
     private static final Logger LOG = LoggerFactory.getLogger(GeoCBenchmark.class);
 
+    /**
+     * Whether ApproveCart and DecreaseCartLine pick carts from the client-side
+     * {@link ActiveCartIndex} rather than with ORDER BY RANDOM() in the DBMS.
+     */
+    private final boolean useCartIndex;
+
+    private ActiveCartIndex cartIndex = null;
+
+    /**
+     * Whether the cart procedures read the items, warehouse taxes and
+     * customers from the client-side {@link ReferenceDataCache} rather than
+     * from the DBMS. Off by default, as the specification requires the
+     * lookups.
+     */
+    private final boolean useReferenceCache;
+
+    private ReferenceDataCache referenceCache = null;
+
+    /**
+     * How long a set of item hotspots lasts, which fraction of the items
+     * are hotspots, and whether each warehouse has its own hotspots.
+     */
+    private final long hotspotCycleMillis;
+    private final double hotspotFraction;
+    private final boolean hotspotsPerWarehouse;
+
+    private HotspotGenerator hotspots = null;
+
+    /**
+     * The region of each warehouse, and the URL its terminals connect to.
+     */
+    private final GeoCRegions regions;
+
     public GeoCBenchmark(WorkloadConfiguration workConf) {
         super(workConf);
+
+        XMLConfiguration xmlConfig = workConf.getXmlConfig();
+        if (xmlConfig != null) {
+            this.useCartIndex = xmlConfig.getBoolean("cartIndex", true);
+            this.useReferenceCache = xmlConfig.getBoolean("referenceCache", false);
+            this.hotspotCycleMillis = xmlConfig.getLong("hotspotCycle", GeoCConfig.configHotspotCycleMillis);
+            this.hotspotFraction = xmlConfig.getDouble("hotspotFraction", GeoCConfig.configHotspotFraction);
+            this.hotspotsPerWarehouse = xmlConfig.getBoolean("hotspotsPerWarehouse", GeoCConfig.configHotspotsPerWarehouse);
+        } else {
+            this.useCartIndex = true;
+            this.useReferenceCache = false;
+            this.hotspotCycleMillis = GeoCConfig.configHotspotCycleMillis;
+            this.hotspotFraction = GeoCConfig.configHotspotFraction;
+            this.hotspotsPerWarehouse = GeoCConfig.configHotspotsPerWarehouse;
+        }
+
+        this.regions = GeoCRegions.parse(xmlConfig, Math.max(1, (int) workConf.getScaleFactor()), workConf.getUrl());
+    }
+
+    /**
+     * The index of active shopping carts, or null if carts should be chosen
+     * by the DBMS.
+     */
+    public ActiveCartIndex getCartIndex() {
+        return cartIndex;
+    }
+
+    /**
+     * The cache of the data the procedures never modify, or null if they
+     * should read it from the DBMS.
+     */
+    public ReferenceDataCache getReferenceCache() {
+        return referenceCache;
+    }
+
+    @Override
+    public void workersDone() {
+        // The hotspots change until the last terminal is done
+        if (hotspots != null) {
+            hotspots.stop();
+        }
+    }
+
+    public HotspotGenerator getHotspots() {
+        return hotspots;
+    }
+
+    public GeoCRegions getRegions() {
+        return regions;
     }
 
     @Override
@@ -71,7 +157,25 @@ public class GeoCBenchmark extends BenchmarkModule {
             numWarehouses = 1;
         }
 
-        int numTerminals = workConf.getTerminals();
+        // In a distributed run, this agent only runs the terminals from
+        // firstTerminal on, and thus only the warehouses they belong to
+        int numTerminals = workConf.getTotalTerminals();
+        int firstTerminal = workConf.getTerminalOffset();
+        int lastTerminal = firstTerminal + workConf.getTerminals();
+
+        if (useCartIndex) {
+            cartIndex = loadCartIndex(numWarehouses);
+        }
+
+        if (useReferenceCache) {
+            try (Connection conn = makeConnection()) {
+                referenceCache = ReferenceDataCache.load(conn, numWarehouses);
+            }
+            LOG.info("Cached {} items for the cart procedures", referenceCache.getItemCount());
+        }
+
+        hotspots = new HotspotGenerator(numWarehouses, hotspotCycleMillis, hotspotFraction, hotspotsPerWarehouse, workConf.getSharedSeed());
+        hotspots.start();
 
         // We distribute terminals evenly across the warehouses
         // Eg. if there are 10 terminals across 7 warehouses, they
@@ -104,8 +208,16 @@ public class GeoCBenchmark extends BenchmarkModule {
                 }
                 lowerDistrictId += 1;
 
+                int globalTerminalId = lowerTerminalId + terminalId;
+                if (globalTerminalId < firstTerminal || globalTerminalId >= lastTerminal) {
+                    continue;
+                }
+
                 GeoCWorker terminal = new GeoCWorker(this, workerId++, w_id, lowerDistrictId, upperDistrictId, numWarehouses);
-                terminals[lowerTerminalId + terminalId] = terminal;
+                if (!regions.isEmpty() && LOG.isDebugEnabled()) {
+                    LOG.debug("{} w_id {} in region {} connects to {}", terminal, w_id, regions.getName(w_id), terminal.getUrl());
+                }
+                terminals[globalTerminalId - firstTerminal] = terminal;
             }
 
         }
@@ -114,5 +226,28 @@ public class GeoCBenchmark extends BenchmarkModule {
         return Arrays.asList(terminals);
     }
 
+    /**
+     * Build the index of active carts from the carts already in the database.
+     */
+    private ActiveCartIndex loadCartIndex(int numWarehouses) throws SQLException {
+        ActiveCartIndex index = new ActiveCartIndex(numWarehouses);
+        String sql = "SELECT DISTINCT _SCL_W_ID, _SCL_D_ID, _SCL_C_ID FROM " + GeoCConstants.TABLENAME_SHOPPING_CART_LINE;
+
+        int carts = 0;
+        try (Connection conn = makeConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                int w_id = rs.getInt(1);
+                if (w_id >= 1 && w_id <= numWarehouses) {
+                    index.add(w_id, rs.getInt(2), rs.getInt(3));
+                    carts++;
+                }
+            }
+        }
+        LOG.info("Loaded {} active shopping carts", carts);
+        return index;
+    }
+
 
 }
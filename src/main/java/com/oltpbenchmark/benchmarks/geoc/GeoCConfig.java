@@ -41,6 +41,11 @@ public final class GeoCConfig {
     public final static int configStockThreshold = 10;
     public final static int configRestockQuantity = 91;
 
+    // Default item hotspots, see HotspotGenerator
+    public final static long configHotspotCycleMillis = 500;
+    public final static double configHotspotFraction = 0.2;
+    public final static boolean configHotspotsPerWarehouse = false;
+
 
     /**
      * An invalid item id used to rollback a new order transaction.
@@ -18,11 +18,10 @@
 
 package com.oltpbenchmark.benchmarks.geoc;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.geoc.pojo.*;
-import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -37,6 +36,11 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
 
     private static final int FIRST_UNPROCESSED_O_ID = 2101;
 
+    /**
+     * The number of ITEM and STOCK rows loaded by one thread.
+     */
+    private static final int ITEMS_PER_UNIT = 10000;
+
     private final long numWarehouses;
 
     public GeoCLoader(GeoCBenchmark benchmark) {
@@ -46,125 +50,168 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
 
     @Override
     public List<LoaderThread> createLoaderThreads() {
+        // Every unit only waits for the units that load the rows its foreign
+        // keys refer to. The units are listed after their dependencies, so
+        // the pool always runs the ones they are waiting for first.
         List<LoaderThread> threads = new ArrayList<>();
-        final CountDownLatch itemLatch = new CountDownLatch(1);
 
         // ITEM
-        // This will be invoked first and executed in a single thread.
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) {
-                loadItems(conn, GeoCConfig.configItemCount);
-            }
-
-            @Override
-            public void afterLoad() {
-                itemLatch.countDown();
-            }
-        });
+        List<LoadUnit> items = new ArrayList<>();
+        for (int first = 1; first <= GeoCConfig.configItemCount; first += ITEMS_PER_UNIT) {
+            final int firstItem = first;
+            final int lastItem = Math.min(first + ITEMS_PER_UNIT - 1, GeoCConfig.configItemCount);
+            items.add(new LoadUnit("ITEM " + firstItem + "-" + lastItem) {
+                @Override
+                public void load(Connection conn) {
+                    loadItems(conn, firstItem, lastItem);
+                }
+            });
+        }
+        threads.addAll(items);
 
-        // WAREHOUSES
-        // We use a separate thread per warehouse. Each thread will load
-        // all of the tables that depend on that warehouse. They all have
-        // to wait until the ITEM table is loaded first though.
+        // WAREHOUSE, DISTRICT
+        List<LoadUnit> districts = new ArrayList<>();
         for (int w = 1; w <= numWarehouses; w++) {
             final int w_id = w;
-            LoaderThread t = new LoaderThread(this.benchmark) {
+            LoadUnit warehouse = new LoadUnit("WAREHOUSE " + w_id) {
                 @Override
                 public void load(Connection conn) {
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load WAREHOUSE {}", w_id);
-                    }
-                    // WAREHOUSE
                     loadWarehouse(conn, w_id);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load STOCK {}", w_id);
-                    }
-                    // STOCK
-                    loadStock(conn, w_id, GeoCConfig.configItemCount, numWarehouses, GeoCConfig.configWhseSpecificItems);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load DISTRICT {}", w_id);
-                    }
-                    // DISTRICT
+                }
+            };
+            threads.add(warehouse);
+            districts.add(new LoadUnit("DISTRICT " + w_id, warehouse) {
+                @Override
+                public void load(Connection conn) {
                     loadDistricts(conn, w_id, GeoCConfig.configDistPerWhse);
+                }
+            });
+        }
+        threads.addAll(districts);
 
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load CUSTOMER {}", w_id);
+        // STOCK
+        List<List<LoadUnit>> stocks = new ArrayList<>();
+        for (int w = 1; w <= numWarehouses; w++) {
+            final int w_id = w;
+            List<LoadUnit> stock = new ArrayList<>();
+            for (LoadUnit item : items) {
+                final int firstItem = stock.size() * ITEMS_PER_UNIT + 1;
+                final int lastItem = Math.min(firstItem + ITEMS_PER_UNIT - 1, GeoCConfig.configItemCount);
+                // DISTRICT implies WAREHOUSE
+                stock.add(new LoadUnit("STOCK " + w_id + " " + firstItem + "-" + lastItem, item, districts.get(w - 1)) {
+                    @Override
+                    public void load(Connection conn) {
+                        loadStock(conn, w_id, firstItem, lastItem, numWarehouses, GeoCConfig.configWhseSpecificItems);
                     }
-                    // CUSTOMER
-                    loadCustomers(conn, w_id, GeoCConfig.configDistPerWhse, GeoCConfig.configCustPerDist);
+                });
+            }
+            stocks.add(stock);
+            threads.addAll(stock);
+        }
 
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load _INDIVIDUAL {}", w_id);
+        // Everything else is loaded per district
+        List<LoadUnit> orderLines = new ArrayList<>();
+        for (int w = 1; w <= numWarehouses; w++) {
+            final int w_id = w;
+            for (int d = 1; d <= GeoCConfig.configDistPerWhse; d++) {
+                final int d_id = d;
+                final String name = w_id + "/" + d_id;
+
+                LoadUnit customers = new LoadUnit("CUSTOMER " + name, districts.get(w - 1)) {
+                    @Override
+                    public void load(Connection conn) {
+                        loadCustomers(conn, w_id, d_id, GeoCConfig.configCustPerDist);
                     }
-                    // _INDIVIDUAL
-                    loadIndividuals(conn, w_id, GeoCConfig.configDistPerWhse, GeoCConfig.configCustPerDist, GeoCConfig.configIndPerCust);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to update CUSTOMER with supervisors {}", w_id);
+                };
+                LoadUnit individuals = new LoadUnit("_INDIVIDUAL " + name, customers) {
+                    @Override
+                    public void load(Connection conn) {
+                        loadIndividuals(conn, w_id, d_id, GeoCConfig.configCustPerDist, GeoCConfig.configIndPerCust);
                     }
-                    // _INDIVIDUAL
-                    updateCustomersWithSupervisors(conn, w_id, GeoCConfig.configDistPerWhse, GeoCConfig.configCustPerDist);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load CUSTOMER HISTORY {}", w_id);
+                };
+                LoadUnit supervisors = new LoadUnit("CUSTOMER supervisors " + name, individuals) {
+                    @Override
+                    public void load(Connection conn) {
+                        updateCustomersWithSupervisors(conn, w_id, d_id, GeoCConfig.configCustPerDist);
                     }
-                    // CUSTOMER HISTORY
-                    loadCustomerHistory(conn, w_id, GeoCConfig.configDistPerWhse, GeoCConfig.configCustPerDist);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load ORDERS {}", w_id);
+                };
+                LoadUnit history = new LoadUnit("CUSTOMER HISTORY " + name, customers) {
+                    @Override
+                    public void load(Connection conn) {
+                        loadCustomerHistory(conn, w_id, d_id, GeoCConfig.configCustPerDist);
                     }
-                    // ORDERS
-                    loadOpenOrders(conn, w_id, GeoCConfig.configDistPerWhse, GeoCConfig.configCustPerDist);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load NEW ORDERS {}", w_id);
+                };
+                LoadUnit orders = new LoadUnit("ORDERS " + name, customers) {
+                    @Override
+                    public void load(Connection conn) {
+                        loadOpenOrders(conn, w_id, d_id, GeoCConfig.configCustPerDist);
                     }
-                    // NEW ORDERS
-                    loadNewOrders(conn, w_id, GeoCConfig.configDistPerWhse, GeoCConfig.configCustPerDist);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Starting to load ORDER LINES {}", w_id);
+                };
+                LoadUnit newOrders = new LoadUnit("NEW ORDERS " + name, orders) {
+                    @Override
+                    public void load(Connection conn) {
+                        loadNewOrders(conn, w_id, d_id, GeoCConfig.configCustPerDist);
                     }
-                    // ORDER LINES
-                    loadOrderLines(conn, w_id, GeoCConfig.configDistPerWhse, GeoCConfig.configCustPerDist, GeoCConfig.configWhseSpecificItems);
-
-                }
+                };
+                threads.addAll(List.of(customers, individuals, supervisors, history, orders, newOrders));
+
+                // Order lines refer to the stock of any item of their warehouse
+                List<LoadUnit> dependencies = new ArrayList<>(stocks.get(w - 1));
+                dependencies.add(orders);
+                orderLines.add(new LoadUnit("ORDER LINES " + name, dependencies.toArray(new LoadUnit[0])) {
+                    @Override
+                    public void load(Connection conn) {
+                        loadOrderLines(conn, w_id, d_id, GeoCConfig.configCustPerDist, GeoCConfig.configWhseSpecificItems);
+                    }
+                });
+            }
+        }
+        threads.addAll(orderLines);
 
-                @Override
-                public void beforeLoad() {
+        return (threads);
+    }
 
-                    // Make sure that we load the ITEM table first
+    /**
+     * A part of the database that can be loaded once the parts it depends on
+     * are loaded.
+     */
+    private abstract class LoadUnit extends LoaderThread {
+        private final String name;
+        private final LoadUnit[] dependencies;
+        private final CountDownLatch loaded = new CountDownLatch(1);
+
+        LoadUnit(String name, LoadUnit... dependencies) {
+            super(GeoCLoader.this.benchmark);
+            this.name = name;
+            this.dependencies = dependencies;
+        }
 
-                    try {
-                        itemLatch.await();
-                    } catch (InterruptedException ex) {
-                        throw new RuntimeException(ex);
-                    }
+        @Override
+        public void beforeLoad() {
+            try {
+                for (LoadUnit dependency : dependencies) {
+                    dependency.loaded.await();
                 }
-            };
-            threads.add(t);
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Starting to load {}", name);
+            }
         }
-        return (threads);
-    }
 
-    private PreparedStatement getInsertStatement(Connection conn, String tableName) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(tableName);
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        return conn.prepareStatement(sql);
+        @Override
+        public void afterLoad() {
+            loaded.countDown();
+        }
     }
 
 
-    protected void loadItems(Connection conn, int itemCount) {
+    protected void loadItems(Connection conn, int firstItem, int lastItem) {
 
-        try (PreparedStatement itemPrepStmt = getInsertStatement(conn, GeoCConstants.TABLENAME_ITEM)) {
+        try (BulkWriter itemWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_ITEM)) {
 
-            int batchSize = 0;
-            for (int i = 1; i <= itemCount; i++) {
+            for (int i = firstItem; i <= lastItem; i++) {
 
                 Item item = new Item();
                 item.i_id = i;
@@ -187,25 +234,12 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
                 item.i_im_id = GeoCUtil.randomNumber(1, 10000, benchmark.rng());
 
                 int idx = 1;
-                itemPrepStmt.setLong(idx++, item.i_id);
-                itemPrepStmt.setString(idx++, item.i_name);
-                itemPrepStmt.setDouble(idx++, item.i_price);
-                itemPrepStmt.setString(idx++, item.i_data);
-                itemPrepStmt.setLong(idx, item.i_im_id);
-                itemPrepStmt.addBatch();
-                batchSize++;
-
-                if (batchSize == workConf.getBatchSize()) {
-                    itemPrepStmt.executeBatch();
-                    itemPrepStmt.clearBatch();
-                    batchSize = 0;
-                }
-            }
-
-
-            if (batchSize > 0) {
-                itemPrepStmt.executeBatch();
-                itemPrepStmt.clearBatch();
+                itemWriter.setLong(idx++, item.i_id);
+                itemWriter.setString(idx++, item.i_name);
+                itemWriter.setDouble(idx++, item.i_price);
+                itemWriter.setString(idx++, item.i_data);
+                itemWriter.setLong(idx, item.i_im_id);
+                itemWriter.addRow();
             }
 
         } catch (SQLException se) {
@@ -217,7 +251,7 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
 
     protected void loadWarehouse(Connection conn, int w_id) {
 
-        try (PreparedStatement whsePrepStmt = getInsertStatement(conn, GeoCConstants.TABLENAME_WAREHOUSE)) {
+        try (BulkWriter whseWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_WAREHOUSE)) {
             Warehouse warehouse = new Warehouse();
 
             warehouse.w_id = w_id;
@@ -233,16 +267,16 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
             warehouse.w_zip = "123456789";
 
             int idx = 1;
-            whsePrepStmt.setLong(idx++, warehouse.w_id);
-            whsePrepStmt.setDouble(idx++, warehouse.w_ytd);
-            whsePrepStmt.setDouble(idx++, warehouse.w_tax);
-            whsePrepStmt.setString(idx++, warehouse.w_name);
-            whsePrepStmt.setString(idx++, warehouse.w_street_1);
-            whsePrepStmt.setString(idx++, warehouse.w_street_2);
-            whsePrepStmt.setString(idx++, warehouse.w_city);
-            whsePrepStmt.setString(idx++, warehouse.w_state);
-            whsePrepStmt.setString(idx, warehouse.w_zip);
-            whsePrepStmt.execute();
+            whseWriter.setLong(idx++, warehouse.w_id);
+            whseWriter.setDouble(idx++, warehouse.w_ytd);
+            whseWriter.setDouble(idx++, warehouse.w_tax);
+            whseWriter.setString(idx++, warehouse.w_name);
+            whseWriter.setString(idx++, warehouse.w_street_1);
+            whseWriter.setString(idx++, warehouse.w_street_2);
+            whseWriter.setString(idx++, warehouse.w_city);
+            whseWriter.setString(idx++, warehouse.w_state);
+            whseWriter.setString(idx, warehouse.w_zip);
+            whseWriter.addRow();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage());
@@ -250,13 +284,11 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
 
     }
 
-    protected void loadStock(Connection conn, int w_id, int numItems, long numWarehouses, int whseSpecificItems) {
-
-        int k = 0;
+    protected void loadStock(Connection conn, int w_id, int firstItem, int lastItem, long numWarehouses, int whseSpecificItems) {
 
-        try (PreparedStatement stockPreparedStatement = getInsertStatement(conn, GeoCConstants.TABLENAME_STOCK)) {
+        try (BulkWriter stockWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_STOCK)) {
 
-            for (int i = 1; i <= numItems; i++) {
+            for (int i = firstItem; i <= lastItem; i++) {
                 if (i <= whseSpecificItems && (i % numWarehouses) + 1 != w_id) {
                     // Items below `whseSpecificItems` are unique to one warehouse,
                     // so their stock should only be added to that warehouse.
@@ -286,36 +318,26 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
                 }
 
                 int idx = 1;
-                stockPreparedStatement.setLong(idx++, stock.s_w_id);
-                stockPreparedStatement.setLong(idx++, stock.s_i_id);
-                stockPreparedStatement.setLong(idx++, stock.s_quantity);
-                stockPreparedStatement.setDouble(idx++, stock.s_ytd);
-                stockPreparedStatement.setLong(idx++, stock.s_order_cnt);
-                stockPreparedStatement.setLong(idx++, stock.s_remote_cnt);
-                stockPreparedStatement.setString(idx++, stock.s_data);
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, GeoCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx, GeoCUtil.randomStr(24));
-                stockPreparedStatement.addBatch();
-
-                k++;
-
-                if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                    stockPreparedStatement.executeBatch();
-                    stockPreparedStatement.clearBatch();
-                }
+                stockWriter.setLong(idx++, stock.s_w_id);
+                stockWriter.setLong(idx++, stock.s_i_id);
+                stockWriter.setLong(idx++, stock.s_quantity);
+                stockWriter.setDouble(idx++, stock.s_ytd);
+                stockWriter.setLong(idx++, stock.s_order_cnt);
+                stockWriter.setLong(idx++, stock.s_remote_cnt);
+                stockWriter.setString(idx++, stock.s_data);
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx++, GeoCUtil.randomStr(24));
+                stockWriter.setString(idx, GeoCUtil.randomStr(24));
+                stockWriter.addRow();
             }
 
-            stockPreparedStatement.executeBatch();
-            stockPreparedStatement.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage());
         }
@@ -324,7 +346,7 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
 
     protected void loadDistricts(Connection conn, int w_id, int districtsPerWarehouse) {
 
-        try (PreparedStatement distPrepStmt = getInsertStatement(conn, GeoCConstants.TABLENAME_DISTRICT)) {
+        try (BulkWriter distWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_DISTRICT)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 District district = new District();
@@ -344,18 +366,18 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
                 district.d_zip = "123456789";
 
                 int idx = 1;
-                distPrepStmt.setLong(idx++, district.d_w_id);
-                distPrepStmt.setLong(idx++, district.d_id);
-                distPrepStmt.setDouble(idx++, district.d_ytd);
-                distPrepStmt.setDouble(idx++, district.d_tax);
-                distPrepStmt.setLong(idx++, district.d_next_o_id);
-                distPrepStmt.setString(idx++, district.d_name);
-                distPrepStmt.setString(idx++, district.d_street_1);
-                distPrepStmt.setString(idx++, district.d_street_2);
-                distPrepStmt.setString(idx++, district.d_city);
-                distPrepStmt.setString(idx++, district.d_state);
-                distPrepStmt.setString(idx, district.d_zip);
-                distPrepStmt.executeUpdate();
+                distWriter.setLong(idx++, district.d_w_id);
+                distWriter.setLong(idx++, district.d_id);
+                distWriter.setDouble(idx++, district.d_ytd);
+                distWriter.setDouble(idx++, district.d_tax);
+                distWriter.setLong(idx++, district.d_next_o_id);
+                distWriter.setString(idx++, district.d_name);
+                distWriter.setString(idx++, district.d_street_1);
+                distWriter.setString(idx++, district.d_street_2);
+                distWriter.setString(idx++, district.d_city);
+                distWriter.setString(idx++, district.d_state);
+                distWriter.setString(idx, district.d_zip);
+                distWriter.addRow();
             }
 
         } catch (SQLException se) {
@@ -364,89 +386,75 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
 
     }
 
-    protected void loadCustomers(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
-
-        int k = 0;
+    protected void loadCustomers(Connection conn, int w_id, int d_id, int customersPerDistrict) {
 
-        try (PreparedStatement custPrepStmt = getInsertStatement(conn, GeoCConstants.TABLENAME_CUSTOMER)) {
+        try (BulkWriter custWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_CUSTOMER)) {
 
-            for (int d = 1; d <= districtsPerWarehouse; d++) {
-                for (int c = 1; c <= customersPerDistrict; c++) {
-                    Timestamp sysdate = new Timestamp(System.currentTimeMillis());
+            for (int c = 1; c <= customersPerDistrict; c++) {
+                Timestamp sysdate = new Timestamp(System.currentTimeMillis());
 
-                    Customer customer = new Customer();
-                    customer.c_id = c;
-                    customer.c_d_id = d;
-                    customer.c_w_id = w_id;
+                Customer customer = new Customer();
+                customer.c_id = c;
+                customer.c_d_id = d_id;
+                customer.c_w_id = w_id;
 
-                    // discount is random between [0.0000 ... 0.5000]
-                    customer.c_discount = (float) (GeoCUtil.randomNumber(1, 5000, benchmark.rng()) / 10000.0);
+                // discount is random between [0.0000 ... 0.5000]
+                customer.c_discount = (float) (GeoCUtil.randomNumber(1, 5000, benchmark.rng()) / 10000.0);
 
-                    if (GeoCUtil.randomNumber(1, 100, benchmark.rng()) <= 10) {
-                        customer.c_credit = "BC"; // 10% Bad Credit
-                    } else {
-                        customer.c_credit = "GC"; // 90% Good Credit
-                    }
-                    if (c <= 1000) {
-                        customer.c_last = GeoCUtil.getLastName(c - 1);
-                    } else {
-                        customer.c_last = GeoCUtil.getNonUniformRandomLastNameForLoad(benchmark.rng());
-                    }
-                    customer.c_first = GeoCUtil.randomStr(GeoCUtil.randomNumber(8, 16, benchmark.rng()));
-                    customer.c_credit_lim = 50000;
-
-                    customer.c_balance = -10;
-                    customer.c_ytd_payment = 10;
-                    customer.c_payment_cnt = 1;
-                    customer.c_delivery_cnt = 0;
-
-                    customer.c_street_1 = GeoCUtil.randomStr(GeoCUtil.randomNumber(10, 20, benchmark.rng()));
-                    customer.c_street_2 = GeoCUtil.randomStr(GeoCUtil.randomNumber(10, 20, benchmark.rng()));
-                    customer.c_city = GeoCUtil.randomStr(GeoCUtil.randomNumber(10, 20, benchmark.rng()));
-                    customer.c_state = GeoCUtil.randomStr(3).toUpperCase();
-                    // TPC-C 4.3.2.7: 4 random digits + "11111"
-                    customer.c_zip = GeoCUtil.randomNStr(4) + "11111";
-                    customer.c_phone = GeoCUtil.randomNStr(16);
-                    customer.c_since = sysdate;
-                    customer.c_middle = "OE";
-                    customer.c_data = GeoCUtil.randomStr(GeoCUtil.randomNumber(300, 500, benchmark.rng()));
-
-                    int idx = 1;
-                    custPrepStmt.setLong(idx++, customer.c_w_id);
-                    custPrepStmt.setLong(idx++, customer.c_d_id);
-                    custPrepStmt.setLong(idx++, customer.c_id);
-                    custPrepStmt.setDouble(idx++, customer.c_discount);
-                    custPrepStmt.setString(idx++, customer.c_credit);
-                    custPrepStmt.setString(idx++, customer.c_last);
-                    custPrepStmt.setString(idx++, customer.c_first);
-                    custPrepStmt.setDouble(idx++, customer.c_credit_lim);
-                    custPrepStmt.setDouble(idx++, customer.c_balance);
-                    custPrepStmt.setDouble(idx++, customer.c_ytd_payment);
-                    custPrepStmt.setLong(idx++, customer.c_payment_cnt);
-                    custPrepStmt.setLong(idx++, customer.c_delivery_cnt);
-                    custPrepStmt.setString(idx++, customer.c_street_1);
-                    custPrepStmt.setString(idx++, customer.c_street_2);
-                    custPrepStmt.setString(idx++, customer.c_city);
-                    custPrepStmt.setString(idx++, customer.c_state);
-                    custPrepStmt.setString(idx++, customer.c_zip);
-                    custPrepStmt.setString(idx++, customer.c_phone);
-                    custPrepStmt.setTimestamp(idx++, customer.c_since);
-                    custPrepStmt.setString(idx++, customer.c_middle);
-                    custPrepStmt.setString(idx++, customer.c_data);
-                    custPrepStmt.setNull(idx, java.sql.Types.NULL);
-                    custPrepStmt.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        custPrepStmt.executeBatch();
-                        custPrepStmt.clearBatch();
-                    }
+                if (GeoCUtil.randomNumber(1, 100, benchmark.rng()) <= 10) {
+                    customer.c_credit = "BC"; // 10% Bad Credit
+                } else {
+                    customer.c_credit = "GC"; // 90% Good Credit
                 }
-            }
+                if (c <= 1000) {
+                    customer.c_last = GeoCUtil.getLastName(c - 1);
+                } else {
+                    customer.c_last = GeoCUtil.getNonUniformRandomLastNameForLoad(benchmark.rng());
+                }
+                customer.c_first = GeoCUtil.randomStr(GeoCUtil.randomNumber(8, 16, benchmark.rng()));
+                customer.c_credit_lim = 50000;
+
+                customer.c_balance = -10;
+                customer.c_ytd_payment = 10;
+                customer.c_payment_cnt = 1;
+                customer.c_delivery_cnt = 0;
+
+                customer.c_street_1 = GeoCUtil.randomStr(GeoCUtil.randomNumber(10, 20, benchmark.rng()));
+                customer.c_street_2 = GeoCUtil.randomStr(GeoCUtil.randomNumber(10, 20, benchmark.rng()));
+                customer.c_city = GeoCUtil.randomStr(GeoCUtil.randomNumber(10, 20, benchmark.rng()));
+                customer.c_state = GeoCUtil.randomStr(3).toUpperCase();
+                // TPC-C 4.3.2.7: 4 random digits + "11111"
+                customer.c_zip = GeoCUtil.randomNStr(4) + "11111";
+                customer.c_phone = GeoCUtil.randomNStr(16);
+                customer.c_since = sysdate;
+                customer.c_middle = "OE";
+                customer.c_data = GeoCUtil.randomStr(GeoCUtil.randomNumber(300, 500, benchmark.rng()));
 
-            custPrepStmt.executeBatch();
-            custPrepStmt.clearBatch();
+                int idx = 1;
+                custWriter.setLong(idx++, customer.c_w_id);
+                custWriter.setLong(idx++, customer.c_d_id);
+                custWriter.setLong(idx++, customer.c_id);
+                custWriter.setDouble(idx++, customer.c_discount);
+                custWriter.setString(idx++, customer.c_credit);
+                custWriter.setString(idx++, customer.c_last);
+                custWriter.setString(idx++, customer.c_first);
+                custWriter.setDouble(idx++, customer.c_credit_lim);
+                custWriter.setDouble(idx++, customer.c_balance);
+                custWriter.setDouble(idx++, customer.c_ytd_payment);
+                custWriter.setLong(idx++, customer.c_payment_cnt);
+                custWriter.setLong(idx++, customer.c_delivery_cnt);
+                custWriter.setString(idx++, customer.c_street_1);
+                custWriter.setString(idx++, customer.c_street_2);
+                custWriter.setString(idx++, customer.c_city);
+                custWriter.setString(idx++, customer.c_state);
+                custWriter.setString(idx++, customer.c_zip);
+                custWriter.setString(idx++, customer.c_phone);
+                custWriter.setTimestamp(idx++, customer.c_since);
+                custWriter.setString(idx++, customer.c_middle);
+                custWriter.setString(idx++, customer.c_data);
+                custWriter.setNull(idx, java.sql.Types.NULL);
+                custWriter.addRow();
+            }
 
         } catch (SQLException se) {
             LOG.error(se.getMessage());
@@ -454,67 +462,52 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
 
     }
 
-    protected void loadIndividuals(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict, int individualsPerCustomer) {
-        int k = 0;
+    protected void loadIndividuals(Connection conn, int w_id, int d_id, int customersPerDistrict, int individualsPerCustomer) {
+        try (BulkWriter indWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_INDIVIDUAL)) {
+            for (int c = 1; c <= customersPerDistrict; c++) {
+                for (int i = 1; i <= individualsPerCustomer; i++) {
+                    Individual individual = new Individual();
 
-        try (PreparedStatement indPrepStmt = getInsertStatement(conn, GeoCConstants.TABLENAME_INDIVIDUAL)) {
-            for (int d = 1; d <= districtsPerWarehouse; d++) {
-                for (int c = 1; c <= customersPerDistrict; c++) {
-                    for (int i = 1; i <= individualsPerCustomer; i++) {
-                        Individual individual = new Individual();
-
-                        individual._ind_id = i;
-                        individual._ind_name = GeoCUtil.randomStr(GeoCUtil.randomNumber(16, 32, benchmark.rng()));
-                        individual._ind_c_id = c;
-                        individual._ind_d_id = d;
-                        individual._ind_w_id = w_id;
-
-                        int idx = 1;
-                        indPrepStmt.setInt(idx++, individual._ind_id);
-                        indPrepStmt.setString(idx++, individual._ind_name);
-                        indPrepStmt.setInt(idx++, individual._ind_c_id);
-                        indPrepStmt.setInt(idx++, individual._ind_d_id);
-                        indPrepStmt.setInt(idx, individual._ind_w_id);
-                        indPrepStmt.addBatch();
-
-                        k++;
-
-                        if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                            indPrepStmt.executeBatch();
-                            indPrepStmt.clearBatch();
-                        }
-                    }
+                    individual._ind_id = i;
+                    individual._ind_name = GeoCUtil.randomStr(GeoCUtil.randomNumber(16, 32, benchmark.rng()));
+                    individual._ind_c_id = c;
+                    individual._ind_d_id = d_id;
+                    individual._ind_w_id = w_id;
+
+                    int idx = 1;
+                    indWriter.setInt(idx++, individual._ind_id);
+                    indWriter.setString(idx++, individual._ind_name);
+                    indWriter.setInt(idx++, individual._ind_c_id);
+                    indWriter.setInt(idx++, individual._ind_d_id);
+                    indWriter.setInt(idx, individual._ind_w_id);
+                    indWriter.addRow();
                 }
             }
 
-            indPrepStmt.executeBatch();
-            indPrepStmt.clearBatch();
         } catch (SQLException se) {
             LOG.error(se.getMessage());
         }
     }
     
-    protected void updateCustomersWithSupervisors(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
+    protected void updateCustomersWithSupervisors(Connection conn, int w_id, int d_id, int customersPerDistrict) {
         int k = 0;
 
         try (PreparedStatement custPrepStmt = conn.prepareStatement(
                 "UPDATE " + GeoCConstants.TABLENAME_CUSTOMER + " SET _C_IND_ID = ?" 
                     + " WHERE C_W_ID = ? AND C_D_ID = ? AND C_ID = ?")) {
-            for (int d = 1; d <= districtsPerWarehouse; d++) {
-                for (int c = 1; c <= customersPerDistrict; c++) {
-                    int idx = 1;
-                    custPrepStmt.setInt(idx++, 1);
-                    custPrepStmt.setInt(idx++, w_id);
-                    custPrepStmt.setInt(idx++, d);
-                    custPrepStmt.setInt(idx, c);
-                    custPrepStmt.addBatch();
+            for (int c = 1; c <= customersPerDistrict; c++) {
+                int idx = 1;
+                custPrepStmt.setInt(idx++, 1);
+                custPrepStmt.setInt(idx++, w_id);
+                custPrepStmt.setInt(idx++, d_id);
+                custPrepStmt.setInt(idx, c);
+                custPrepStmt.addBatch();
 
-                    k++;
+                k++;
 
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        custPrepStmt.executeBatch();
-                        custPrepStmt.clearBatch();
-                    }
+                if (k != 0 && (k % workConf.getBatchSize()) == 0) {
+                    custPrepStmt.executeBatch();
+                    custPrepStmt.clearBatch();
                 }
             }
 
@@ -525,127 +518,95 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
         }
     }
 
-    protected void loadCustomerHistory(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
+    protected void loadCustomerHistory(Connection conn, int w_id, int d_id, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement histPrepStmt = getInsertStatement(conn, GeoCConstants.TABLENAME_HISTORY)) {
+        try (BulkWriter histWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_HISTORY)) {
 
-            for (int d = 1; d <= districtsPerWarehouse; d++) {
-                for (int c = 1; c <= customersPerDistrict; c++) {
-                    Timestamp sysdate = new Timestamp(System.currentTimeMillis());
+            for (int c = 1; c <= customersPerDistrict; c++) {
+                Timestamp sysdate = new Timestamp(System.currentTimeMillis());
 
-                    History history = new History();
-                    history.h_c_id = c;
-                    history.h_c_d_id = d;
-                    history.h_c_w_id = w_id;
-                    history.h_d_id = d;
-                    history.h_w_id = w_id;
-                    history.h_date = sysdate;
-                    history.h_amount = 10;
-                    history.h_data = GeoCUtil.randomStr(GeoCUtil.randomNumber(10, 24, benchmark.rng()));
+                History history = new History();
+                history.h_c_id = c;
+                history.h_c_d_id = d_id;
+                history.h_c_w_id = w_id;
+                history.h_d_id = d_id;
+                history.h_w_id = w_id;
+                history.h_date = sysdate;
+                history.h_amount = 10;
+                history.h_data = GeoCUtil.randomStr(GeoCUtil.randomNumber(10, 24, benchmark.rng()));
 
-
-                    int idx = 1;
-                    histPrepStmt.setInt(idx++, history.h_c_id);
-                    histPrepStmt.setInt(idx++, history.h_c_d_id);
-                    histPrepStmt.setInt(idx++, history.h_c_w_id);
-                    histPrepStmt.setInt(idx++, history.h_d_id);
-                    histPrepStmt.setInt(idx++, history.h_w_id);
-                    histPrepStmt.setTimestamp(idx++, history.h_date);
-                    histPrepStmt.setDouble(idx++, history.h_amount);
-                    histPrepStmt.setString(idx, history.h_data);
-                    histPrepStmt.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        histPrepStmt.executeBatch();
-                        histPrepStmt.clearBatch();
-                    }
-                }
+                int idx = 1;
+                histWriter.setInt(idx++, history.h_c_id);
+                histWriter.setInt(idx++, history.h_c_d_id);
+                histWriter.setInt(idx++, history.h_c_w_id);
+                histWriter.setInt(idx++, history.h_d_id);
+                histWriter.setInt(idx++, history.h_w_id);
+                histWriter.setTimestamp(idx++, history.h_date);
+                histWriter.setDouble(idx++, history.h_amount);
+                histWriter.setString(idx, history.h_data);
+                histWriter.addRow();
             }
 
-            histPrepStmt.executeBatch();
-            histPrepStmt.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage());
         }
 
     }
 
-    protected void loadOpenOrders(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
+    protected void loadOpenOrders(Connection conn, int w_id, int d_id, int customersPerDistrict) {
 
-        int k = 0;
+        try (BulkWriter openOrderWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_OPENORDER)) {
 
-        try (PreparedStatement openOrderStatement = getInsertStatement(conn, GeoCConstants.TABLENAME_OPENORDER)) {
+            // TPC-C 4.3.3.1: o_c_id must be a permutation of [1, 3000]
+            int[] c_ids = new int[customersPerDistrict];
+            for (int i = 0; i < customersPerDistrict; ++i) {
+                c_ids[i] = i + 1;
+            }
+            // Collections.shuffle exists, but there is no
+            // Arrays.shuffle
+            for (int i = 0; i < c_ids.length - 1; ++i) {
+                int remaining = c_ids.length - i - 1;
+                int swapIndex = benchmark.rng().nextInt(remaining) + i + 1;
+
+                int temp = c_ids[swapIndex];
+                c_ids[swapIndex] = c_ids[i];
+                c_ids[i] = temp;
+            }
 
-            for (int d = 1; d <= districtsPerWarehouse; d++) {
-                // TPC-C 4.3.3.1: o_c_id must be a permutation of [1, 3000]
-                int[] c_ids = new int[customersPerDistrict];
-                for (int i = 0; i < customersPerDistrict; ++i) {
-                    c_ids[i] = i + 1;
-                }
-                // Collections.shuffle exists, but there is no
-                // Arrays.shuffle
-                for (int i = 0; i < c_ids.length - 1; ++i) {
-                    int remaining = c_ids.length - i - 1;
-                    int swapIndex = benchmark.rng().nextInt(remaining) + i + 1;
-
-                    int temp = c_ids[swapIndex];
-                    c_ids[swapIndex] = c_ids[i];
-                    c_ids[i] = temp;
+            for (int c = 1; c <= customersPerDistrict; c++) {
+
+                Oorder oorder = new Oorder();
+                oorder.o_id = c;
+                oorder.o_w_id = w_id;
+                oorder.o_d_id = d_id;
+                oorder.o_c_id = c_ids[c - 1];
+                // o_carrier_id is set *only* for orders with ids < 2101
+                // [4.3.3.1]
+                if (oorder.o_id < FIRST_UNPROCESSED_O_ID) {
+                    oorder.o_carrier_id = GeoCUtil.randomNumber(1, 10, benchmark.rng());
+                } else {
+                    oorder.o_carrier_id = null;
                 }
+                oorder.o_ol_cnt = getRandomCount(w_id, c, d_id);
+                oorder.o_all_local = 1;
+                oorder.o_entry_d = new Timestamp(System.currentTimeMillis());
 
-                for (int c = 1; c <= customersPerDistrict; c++) {
-
-                    Oorder oorder = new Oorder();
-                    oorder.o_id = c;
-                    oorder.o_w_id = w_id;
-                    oorder.o_d_id = d;
-                    oorder.o_c_id = c_ids[c - 1];
-                    // o_carrier_id is set *only* for orders with ids < 2101
-                    // [4.3.3.1]
-                    if (oorder.o_id < FIRST_UNPROCESSED_O_ID) {
-                        oorder.o_carrier_id = GeoCUtil.randomNumber(1, 10, benchmark.rng());
-                    } else {
-                        oorder.o_carrier_id = null;
-                    }
-                    oorder.o_ol_cnt = getRandomCount(w_id, c, d);
-                    oorder.o_all_local = 1;
-                    oorder.o_entry_d = new Timestamp(System.currentTimeMillis());
-
-
-                    int idx = 1;
-                    openOrderStatement.setInt(idx++, oorder.o_w_id);
-                    openOrderStatement.setInt(idx++, oorder.o_d_id);
-                    openOrderStatement.setInt(idx++, oorder.o_id);
-                    openOrderStatement.setInt(idx++, oorder.o_c_id);
-                    if (oorder.o_carrier_id != null) {
-                        openOrderStatement.setInt(idx++, oorder.o_carrier_id);
-                    } else {
-                        openOrderStatement.setNull(idx++, Types.INTEGER);
-                    }
-                    openOrderStatement.setInt(idx++, oorder.o_ol_cnt);
-                    openOrderStatement.setInt(idx++, oorder.o_all_local);
-                    openOrderStatement.setTimestamp(idx, oorder.o_entry_d);
-                    openOrderStatement.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        openOrderStatement.executeBatch();
-                        openOrderStatement.clearBatch();
-                    }
-
+                int idx = 1;
+                openOrderWriter.setInt(idx++, oorder.o_w_id);
+                openOrderWriter.setInt(idx++, oorder.o_d_id);
+                openOrderWriter.setInt(idx++, oorder.o_id);
+                openOrderWriter.setInt(idx++, oorder.o_c_id);
+                if (oorder.o_carrier_id != null) {
+                    openOrderWriter.setInt(idx++, oorder.o_carrier_id);
+                } else {
+                    openOrderWriter.setNull(idx++, Types.INTEGER);
                 }
-
+                openOrderWriter.setInt(idx++, oorder.o_ol_cnt);
+                openOrderWriter.setInt(idx++, oorder.o_all_local);
+                openOrderWriter.setTimestamp(idx, oorder.o_entry_d);
+                openOrderWriter.addRow();
             }
 
-            openOrderStatement.executeBatch();
-            openOrderStatement.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
         }
@@ -663,122 +624,89 @@ public class GeoCLoader extends Loader<GeoCBenchmark> {
         return GeoCUtil.randomNumber(5, 15, random);
     }
 
-    protected void loadNewOrders(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
-
-        int k = 0;
-
-        try (PreparedStatement newOrderStatement = getInsertStatement(conn, GeoCConstants.TABLENAME_NEWORDER)) {
-
-            for (int d = 1; d <= districtsPerWarehouse; d++) {
+    protected void loadNewOrders(Connection conn, int w_id, int d_id, int customersPerDistrict) {
 
-                for (int c = 1; c <= customersPerDistrict; c++) {
+        try (BulkWriter newOrderWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_NEWORDER)) {
 
-                    // 900 rows in the NEW-ORDER table corresponding to the last
-                    // 900 rows in the ORDER table for that district (i.e.,
-                    // with NO_O_ID between 2,101 and 3,000)
-                    if (c >= FIRST_UNPROCESSED_O_ID) {
-                        NewOrder new_order = new NewOrder();
-                        new_order.no_w_id = w_id;
-                        new_order.no_d_id = d;
-                        new_order.no_o_id = c;
+            for (int c = 1; c <= customersPerDistrict; c++) {
 
-                        int idx = 1;
-                        newOrderStatement.setInt(idx++, new_order.no_w_id);
-                        newOrderStatement.setInt(idx++, new_order.no_d_id);
-                        newOrderStatement.setInt(idx, new_order.no_o_id);
-                        newOrderStatement.addBatch();
-
-                        k++;
-                    }
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        newOrderStatement.executeBatch();
-                        newOrderStatement.clearBatch();
-                    }
+                // 900 rows in the NEW-ORDER table corresponding to the last
+                // 900 rows in the ORDER table for that district (i.e.,
+                // with NO_O_ID between 2,101 and 3,000)
+                if (c >= FIRST_UNPROCESSED_O_ID) {
+                    NewOrder new_order = new NewOrder();
+                    new_order.no_w_id = w_id;
+                    new_order.no_d_id = d_id;
+                    new_order.no_o_id = c;
 
+                    int idx = 1;
+                    newOrderWriter.setInt(idx++, new_order.no_w_id);
+                    newOrderWriter.setInt(idx++, new_order.no_d_id);
+                    newOrderWriter.setInt(idx, new_order.no_o_id);
+                    newOrderWriter.addRow();
                 }
 
             }
 
-            newOrderStatement.executeBatch();
-            newOrderStatement.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
         }
 
     }
 
-    protected void loadOrderLines(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict, int whseSpecificItems) {
-
-        int k = 0;
+    protected void loadOrderLines(Connection conn, int w_id, int d_id, int customersPerDistrict, int whseSpecificItems) {
 
-        try (PreparedStatement orderLineStatement = getInsertStatement(conn, GeoCConstants.TABLENAME_ORDERLINE)) {
+        try (BulkWriter orderLineWriter = getBulkWriter(conn, GeoCConstants.TABLENAME_ORDERLINE)) {
 
-            for (int d = 1; d <= districtsPerWarehouse; d++) {
+            for (int c = 1; c <= customersPerDistrict; c++) {
 
-                for (int c = 1; c <= customersPerDistrict; c++) {
+                int count = getRandomCount(w_id, c, d_id);
 
-                    int count = getRandomCount(w_id, c, d);
-
-                    for (int l = 1; l <= count; l++) {
-                        OrderLine order_line = new OrderLine();
-                        order_line.ol_w_id = w_id;
-                        order_line.ol_d_id = d;
-                        order_line.ol_o_id = c;
-                        order_line.ol_number = l; // ol_number
+                for (int l = 1; l <= count; l++) {
+                    OrderLine order_line = new OrderLine();
+                    order_line.ol_w_id = w_id;
+                    order_line.ol_d_id = d_id;
+                    order_line.ol_o_id = c;
+                    order_line.ol_number = l; // ol_number
+                    order_line.ol_i_id = GeoCUtil.randomNumber(1, GeoCConfig.configItemCount, benchmark.rng());
+                    
+                    // Keep generating an item ID while the item is specific to a different warehouse.
+                    while (order_line.ol_i_id <= whseSpecificItems && (order_line.ol_i_id % numWarehouses) + 1 != w_id) {
                         order_line.ol_i_id = GeoCUtil.randomNumber(1, GeoCConfig.configItemCount, benchmark.rng());
-                        
-                        // Keep generating an item ID while the item is specific to a different warehouse.
-                        while (order_line.ol_i_id <= whseSpecificItems && (order_line.ol_i_id % numWarehouses) + 1 != w_id) {
-                            order_line.ol_i_id = GeoCUtil.randomNumber(1, GeoCConfig.configItemCount, benchmark.rng());
-                        }
-                        
-                        if (order_line.ol_o_id < FIRST_UNPROCESSED_O_ID) {
-                            order_line.ol_delivery_d = new Timestamp(System.currentTimeMillis());
-                            order_line.ol_amount = 0;
-                        } else {
-                            order_line.ol_delivery_d = null;
-                            // random within [0.01 .. 9,999.99]
-                            order_line.ol_amount = (float) (GeoCUtil.randomNumber(1, 999999, benchmark.rng()) / 100.0);
-                        }
-                        order_line.ol_supply_w_id = order_line.ol_w_id;
-                        order_line.ol_quantity = 5;
-                        order_line.ol_dist_info = GeoCUtil.randomStr(24);
-
-                        int idx = 1;
-                        orderLineStatement.setInt(idx++, order_line.ol_w_id);
-                        orderLineStatement.setInt(idx++, order_line.ol_d_id);
-                        orderLineStatement.setInt(idx++, order_line.ol_o_id);
-                        orderLineStatement.setInt(idx++, order_line.ol_number);
-                        orderLineStatement.setLong(idx++, order_line.ol_i_id);
-                        if (order_line.ol_delivery_d != null) {
-                            orderLineStatement.setTimestamp(idx++, order_line.ol_delivery_d);
-                        } else {
-                            orderLineStatement.setNull(idx++, 0);
-                        }
-                        orderLineStatement.setDouble(idx++, order_line.ol_amount);
-                        orderLineStatement.setLong(idx++, order_line.ol_supply_w_id);
-                        orderLineStatement.setDouble(idx++, order_line.ol_quantity);
-                        orderLineStatement.setString(idx, order_line.ol_dist_info);
-                        orderLineStatement.addBatch();
-
-                        k++;
-
-                        if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                            orderLineStatement.executeBatch();
-                            orderLineStatement.clearBatch();
-                        }
-
                     }
+                    
+                    if (order_line.ol_o_id < FIRST_UNPROCESSED_O_ID) {
+                        order_line.ol_delivery_d = new Timestamp(System.currentTimeMillis());
+                        order_line.ol_amount = 0;
+                    } else {
+                        order_line.ol_delivery_d = null;
+                        // random within [0.01 .. 9,999.99]
+                        order_line.ol_amount = (float) (GeoCUtil.randomNumber(1, 999999, benchmark.rng()) / 100.0);
+                    }
+                    order_line.ol_supply_w_id = order_line.ol_w_id;
+                    order_line.ol_quantity = 5;
+                    order_line.ol_dist_info = GeoCUtil.randomStr(24);
 
+                    int idx = 1;
+                    orderLineWriter.setInt(idx++, order_line.ol_w_id);
+                    orderLineWriter.setInt(idx++, order_line.ol_d_id);
+                    orderLineWriter.setInt(idx++, order_line.ol_o_id);
+                    orderLineWriter.setInt(idx++, order_line.ol_number);
+                    orderLineWriter.setLong(idx++, order_line.ol_i_id);
+                    if (order_line.ol_delivery_d != null) {
+                        orderLineWriter.setTimestamp(idx++, order_line.ol_delivery_d);
+                    } else {
+                        orderLineWriter.setNull(idx++, 0);
+                    }
+                    orderLineWriter.setDouble(idx++, order_line.ol_amount);
+                    orderLineWriter.setLong(idx++, order_line.ol_supply_w_id);
+                    orderLineWriter.setDouble(idx++, order_line.ol_quantity);
+                    orderLineWriter.setString(idx, order_line.ol_dist_info);
+                    orderLineWriter.addRow();
                 }
 
             }
 
-            orderLineStatement.executeBatch();
-            orderLineStatement.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
         }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.geoc;
+
+import org.apache.commons.configuration2.HierarchicalConfiguration;
+import org.apache.commons.configuration2.XMLConfiguration;
+import org.apache.commons.configuration2.tree.ImmutableNode;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The region each warehouse's data lives in, for geo-distributed
+ * deployments. A region lists its warehouses and, optionally, the URL of the
+ * gateway node closest to them, which the terminals of these warehouses
+ * connect to:
+ *
+ * <pre>
+ * &lt;regions&gt;
+ *     &lt;region&gt;
+ *         &lt;name&gt;eu&lt;/name&gt;
+ *         &lt;warehouses&gt;1-4,9&lt;/warehouses&gt;
+ *         &lt;url&gt;jdbc:postgresql://eu-gateway:26257/benchbase&lt;/url&gt;
+ *     &lt;/region&gt;
+ * &lt;/regions&gt;
+ * </pre>
+ * <p>
+ * A region without a URL is only a locality hint: its terminals use the
+ * default URL, but accesses to the warehouses of other regions are still
+ * reported as cross-region. The warehouses that are not listed belong to a
+ * default region, which uses the default URL.
+ * <p>
+ * Region names must be unique, each warehouse belongs to at most one region,
+ * and the default URL must be set if any terminal would use it.
+ */
+public final class GeoCRegions {
+
+    private static final int DEFAULT_REGION = -1;
+
+    private final String[] names;
+    private final String[] urls;
+
+    /**
+     * The index of the region of each warehouse, indexed by warehouse id - 1.
+     */
+    private final int[] warehouseRegions;
+
+    private GeoCRegions(String[] names, String[] urls, int[] warehouseRegions) {
+        this.names = names;
+        this.urls = urls;
+        this.warehouseRegions = warehouseRegions;
+    }
+
+    /**
+     * Read the regions of the configuration, if any.
+     *
+     * @param defaultUrl the URL of the workload, which the terminals of the
+     *                   warehouses without a region URL connect to
+     */
+    public static GeoCRegions parse(XMLConfiguration xmlConfig, int numWarehouses, String defaultUrl) {
+        int[] warehouseRegions = new int[numWarehouses];
+        Arrays.fill(warehouseRegions, DEFAULT_REGION);
+        if (xmlConfig == null) {
+            return new GeoCRegions(new String[0], new String[0], warehouseRegions);
+        }
+
+        List<HierarchicalConfiguration<ImmutableNode>> regions = xmlConfig.configurationsAt("regions/region");
+        String[] names = new String[regions.size()];
+        String[] urls = new String[regions.size()];
+        for (int r = 0; r < regions.size(); r++) {
+            HierarchicalConfiguration<ImmutableNode> region = regions.get(r);
+            names[r] = region.getString("name", "region" + r);
+            for (int other = 0; other < r; other++) {
+                if (names[other].equals(names[r])) {
+                    throw new IllegalArgumentException("Region " + names[r] + " is defined twice");
+                }
+            }
+            urls[r] = region.getString("url", null);
+            if (urls[r] != null && urls[r].isBlank()) {
+                urls[r] = null;
+            }
+
+            String warehouses = region.getString("warehouses", "");
+            for (String range : warehouses.split(",")) {
+                range = range.trim();
+                if (range.isEmpty()) {
+                    continue;
+                }
+                int dash = range.indexOf('-');
+                int lower;
+                int upper;
+                try {
+                    lower = Integer.parseInt(range.substring(0, dash < 0 ? range.length() : dash).trim());
+                    upper = (dash < 0 ? lower : Integer.parseInt(range.substring(dash + 1).trim()));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid warehouse range '" + range + "' in region " + names[r], ex);
+                }
+                if (lower < 1 || upper < lower) {
+                    throw new IllegalArgumentException("Invalid warehouse range '" + range + "' in region " + names[r]);
+                }
+                // Ignore the warehouses beyond the scale factor, so that the
+                // same regions can be used at smaller scales
+                for (int w_id = lower; w_id <= Math.min(upper, numWarehouses); w_id++) {
+                    if (warehouseRegions[w_id - 1] != DEFAULT_REGION) {
+                        throw new IllegalArgumentException("Warehouse " + w_id + " is in regions " + names[warehouseRegions[w_id - 1]] + " and " + names[r]);
+                    }
+                    warehouseRegions[w_id - 1] = r;
+                }
+            }
+        }
+
+        if (names.length > 0 && (defaultUrl == null || defaultUrl.isBlank())) {
+            for (int w_id = 1; w_id <= numWarehouses; w_id++) {
+                int r = warehouseRegions[w_id - 1];
+                if (r == DEFAULT_REGION || urls[r] == null) {
+                    throw new IllegalArgumentException("Warehouse " + w_id + " uses the default URL, which is not set");
+                }
+            }
+        }
+        return new GeoCRegions(names, urls, warehouseRegions);
+    }
+
+    /**
+     * Whether any region was configured.
+     */
+    public boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    /**
+     * Whether the terminals of some region connect to their own URL.
+     */
+    public boolean hasUrls() {
+        for (String url : urls) {
+            if (url != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the name of the region of the warehouse, or null for the
+     * default region
+     */
+    public String getName(int w_id) {
+        int region = warehouseRegions[w_id - 1];
+        return (region == DEFAULT_REGION ? null : names[region]);
+    }
+
+    /**
+     * @return the URL the terminals of the warehouse connect to, or null for
+     * the default URL
+     */
+    public String getUrl(int w_id) {
+        int region = warehouseRegions[w_id - 1];
+        return (region == DEFAULT_REGION ? null : urls[region]);
+    }
+
+    public boolean isSameRegion(int w_id, int other_w_id) {
+        return warehouseRegions[w_id - 1] == warehouseRegions[other_w_id - 1];
+    }
+}
@@ -23,11 +23,6 @@ import com.oltpbenchmark.util.RandomGenerator;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 import org.slf4j.Logger;
@@ -109,40 +104,19 @@ public class GeoCUtil {
     private static final int C_LAST_LOAD_C = 157; // in range [0, 255]
     private static final int C_LAST_RUN_C = 223; // in range [0, 255]
 
-    private static LocalDateTime current_cycle = LocalDateTime.now();
-    private static long cycle_duration_milis = 500;
-    private static List<Integer> hotspots = new ArrayList<>();
-
-    public static int getItemID(Random r) {
-        LocalDateTime now = LocalDateTime.now();
-        int number_hotspots = GeoCConfig.configItemCount / 5;
-
-        //warehouse unique items
-        int number_wui = number_hotspots / 10;
-        if (hotspots.isEmpty() || now.isAfter(GeoCUtil.current_cycle.plus(GeoCUtil.cycle_duration_milis, ChronoUnit.MILLIS))){
-            GeoCUtil.current_cycle = now;
-            List<Integer> newHotspots = new ArrayList<>();
-            while (number_hotspots > number_wui) {
-                //bound is exclusive -> ]GeoCConfig.configWhseSpecificItems,GeoCConfig.configItemCount]
-                newHotspots.add(r.nextInt(GeoCConfig.configWhseSpecificItems + 1, GeoCConfig.configItemCount + 1));
-                number_hotspots--;
-            }
-            while (number_wui > 0) {
-                //bound is exclusive -> [1,GeoCConfig.configWhseSpecificItems]
-                newHotspots.add(r.nextInt(1, GeoCConfig.configWhseSpecificItems + 1));
-                number_wui--;
-            }
-
-            GeoCUtil.hotspots = newHotspots;
-            LOG.debug("Generated new hotspots, took " + Duration.between(GeoCUtil.current_cycle, LocalDateTime.now()));
-        }
-
+    /**
+     * Pick an item: 80% of the time one of the current hotspots, otherwise a
+     * non-uniform random item.
+     *
+     * @param hotspots the current hotspots, see {@link HotspotGenerator}
+     */
+    public static int getItemID(int[] hotspots, Random r) {
         int prob = r.nextInt(1,101);
         int id;
 
         // chosing 80% of the time 20% of products
         if(prob <= 80){
-            id = GeoCUtil.hotspots.get(r.nextInt(GeoCUtil.hotspots.size()));
+            id = hotspots[r.nextInt(hotspots.length)];
         } else {
             id = nonUniformRandom(8191, OL_I_ID_C, 1, configItemCount, r);
         }
@@ -34,6 +34,17 @@ public class GeoCWorker extends Worker<GeoCBenchmark> {
 
     private static final Logger LOG = LoggerFactory.getLogger(GeoCWorker.class);
 
+    // Latency labels by where the supply warehouses of an order are
+    public static final String LABEL_LOCAL = "local";
+    public static final String LABEL_REMOTE = "remote";
+    public static final String LABEL_CROSS_REGION = "cross-region";
+
+    /**
+     * The lookups the {@link ReferenceDataCache} answered instead of the
+     * DBMS, in the measured transactions that committed.
+     */
+    public static final String COUNTER_SAVED_ROUND_TRIPS = "Round Trips Saved By Reference Cache";
+
     private final int terminalWarehouseID;
     /**
      * Forms a range [lower, upper] (inclusive).
@@ -47,7 +58,8 @@ public class GeoCWorker extends Worker<GeoCBenchmark> {
     public GeoCWorker(GeoCBenchmark benchmarkModule, int id,
                       int terminalWarehouseID, int terminalDistrictLowerID,
                       int terminalDistrictUpperID, int numWarehouses) {
-        super(benchmarkModule, id);
+        // Connect to the gateway of the home warehouse's region
+        super(benchmarkModule, id, benchmarkModule.getRegions().getUrl(terminalWarehouseID));
 
         this.terminalWarehouseID = terminalWarehouseID;
         this.terminalDistrictLowerID = terminalDistrictLowerID;
@@ -74,6 +86,38 @@ public class GeoCWorker extends Worker<GeoCBenchmark> {
         return (TransactionStatus.SUCCESS);
     }
 
+    /**
+     * Whether the warehouse is in the same region as this terminal's home
+     * warehouse.
+     */
+    public boolean isInHomeRegion(int w_id) {
+        return this.getBenchmark().getRegions().isSameRegion(terminalWarehouseID, w_id);
+    }
+
+    /**
+     * Report the latency of the current transaction apart by whether all its
+     * order lines are supplied by the home warehouse (o_all_local), by
+     * remote warehouses of the home region only, or also by warehouses of
+     * other regions.
+     */
+    public void labelSupply(boolean allLocal, boolean allInHomeRegion) {
+        if (allLocal) {
+            setTransactionLabel(LABEL_LOCAL);
+        } else if (allInHomeRegion) {
+            setTransactionLabel(LABEL_REMOTE);
+        } else {
+            setTransactionLabel(LABEL_CROSS_REGION);
+        }
+    }
+
+    /**
+     * Count a lookup of the current transaction that the
+     * {@link ReferenceDataCache} answered.
+     */
+    public void countCacheLookup() {
+        count(COUNTER_SAVED_ROUND_TRIPS, 1);
+    }
+
     @Override
     protected long getPreExecutionWaitInMillis(TransactionType type) {
         // TPC-C 5.2.5.2: For keying times for each type of transaction.
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.geoc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The items that are currently popular. Every cycle a background thread
+ * draws a new set of hotspot item ids and publishes it, so the terminals
+ * only read a plain int array when they pick an item.
+ * <p>
+ * A tenth of the hotspots are warehouse-specific items
+ * (<code>[1, configWhseSpecificItems]</code>), the rest are regular items.
+ * The hotspots are either shared by all warehouses or drawn separately for
+ * each of them.
+ * <p>
+ * The cycles follow the wall clock and the hotspots of a cycle are drawn
+ * from the seed and the cycle number alone, so the agents of a distributed
+ * run, which share the seed, all have the same hotspots at the same time.
+ */
+public final class HotspotGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(HotspotGenerator.class);
+
+    private final long cycleMillis;
+    private final int numHotspots;
+    private final boolean perWarehouse;
+    private final long seed;
+
+    /**
+     * The current hotspots, indexed by warehouse id - 1, or a single set
+     * shared by all warehouses.
+     */
+    private final AtomicReferenceArray<int[]> hotspots;
+
+    private final Thread clock;
+
+    /**
+     * @param cycleMillis   how long a set of hotspots lasts
+     * @param fraction      the fraction of all items that are hotspots
+     * @param perWarehouse  draw separate hotspots for each warehouse
+     * @param seed          the seed the hotspots of every cycle are drawn from
+     */
+    public HotspotGenerator(int numWarehouses, long cycleMillis, double fraction, boolean perWarehouse, long seed) {
+        if (cycleMillis <= 0) {
+            throw new IllegalArgumentException("Invalid hotspot cycle length " + cycleMillis + " ms");
+        }
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("Invalid hotspot fraction " + fraction);
+        }
+        this.cycleMillis = cycleMillis;
+        this.numHotspots = Math.max(1, (int) (GeoCConfig.configItemCount * fraction));
+        this.perWarehouse = perWarehouse;
+        this.seed = seed;
+        this.hotspots = new AtomicReferenceArray<>(perWarehouse ? numWarehouses : 1);
+        nextCycle(System.currentTimeMillis() / cycleMillis);
+
+        this.clock = new Thread(this::tick, HotspotGenerator.class.getSimpleName());
+        this.clock.setDaemon(true);
+    }
+
+    /**
+     * Start changing the hotspots every cycle.
+     */
+    public void start() {
+        clock.start();
+    }
+
+    /**
+     * Stop changing the hotspots. The current ones remain valid.
+     */
+    public void stop() {
+        clock.interrupt();
+    }
+
+    private void tick() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long cycle = System.currentTimeMillis() / cycleMillis + 1;
+                Thread.sleep(Math.max(cycle * cycleMillis - System.currentTimeMillis(), 0));
+                nextCycle(cycle);
+            }
+        } catch (InterruptedException ex) {
+            // Stopped
+        }
+    }
+
+    private void nextCycle(long cycle) {
+        long start = System.nanoTime();
+        Random rand = new Random(seed + 0x9E3779B97F4A7C15L * cycle);
+        for (int i = 0; i < hotspots.length(); i++) {
+            hotspots.set(i, generate(rand));
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Generated new hotspots, took {} us", (System.nanoTime() - start) / 1000);
+        }
+    }
+
+    private int[] generate(Random rand) {
+        int[] ids = new int[numHotspots];
+        int numWarehouseSpecific = numHotspots / 10;
+        int i = 0;
+        while (i < numHotspots - numWarehouseSpecific) {
+            // bound is exclusive -> ]GeoCConfig.configWhseSpecificItems,GeoCConfig.configItemCount]
+            ids[i++] = rand.nextInt(GeoCConfig.configWhseSpecificItems + 1, GeoCConfig.configItemCount + 1);
+        }
+        while (i < numHotspots) {
+            // bound is exclusive -> [1,GeoCConfig.configWhseSpecificItems]
+            ids[i++] = rand.nextInt(1, GeoCConfig.configWhseSpecificItems + 1);
+        }
+        return ids;
+    }
+
+    /**
+     * The current hotspots of the given warehouse. The array must not be
+     * modified.
+     */
+    public int[] getHotspots(int w_id) {
+        return hotspots.get(perWarehouse ? w_id - 1 : 0);
+    }
+}
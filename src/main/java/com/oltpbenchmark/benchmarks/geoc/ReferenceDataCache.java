@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.geoc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Client-side copy of the data the cart procedures look up but never modify:
+ * the item prices, the warehouse taxes and the customers' discount
+ * supervisors. With it, IncreaseCartLine, DecreaseCartLine and ApproveCart
+ * only send the DBMS the statements that touch contended rows.
+ * <p>
+ * This departs from the specification, which requires every lookup to be
+ * made by the DBMS, so it is disabled by default. The cache is filled once
+ * before the terminals start and is only read afterwards. The procedures
+ * count the lookups it answers with {@link GeoCWorker#countCacheLookup()}.
+ */
+public final class ReferenceDataCache {
+
+    /**
+     * The supervisor of the customers that do not exist.
+     */
+    public static final int NO_CUSTOMER = Integer.MIN_VALUE;
+
+    /**
+     * Indexed by item id, NaN for the ids without an item.
+     */
+    private final float[] itemPrices;
+
+    /**
+     * Indexed by warehouse id, NaN for the ids without a warehouse.
+     */
+    private final float[] warehouseTaxes;
+
+    /**
+     * The supervisor (_C_IND_ID) of each customer, indexed by
+     * {@link #customerIndex(int, int, int)}.
+     */
+    private final int[] customerSupervisors;
+
+    private ReferenceDataCache(float[] itemPrices, float[] warehouseTaxes, int[] customerSupervisors) {
+        this.itemPrices = itemPrices;
+        this.warehouseTaxes = warehouseTaxes;
+        this.customerSupervisors = customerSupervisors;
+    }
+
+    /**
+     * Read the reference data from the database.
+     */
+    public static ReferenceDataCache load(Connection conn, int numWarehouses) throws SQLException {
+        float[] itemPrices = new float[GeoCConfig.configItemCount + 1];
+        Arrays.fill(itemPrices, Float.NaN);
+        float[] warehouseTaxes = new float[numWarehouses + 1];
+        Arrays.fill(warehouseTaxes, Float.NaN);
+        int[] customerSupervisors = new int[numWarehouses * GeoCConfig.configDistPerWhse * GeoCConfig.configCustPerDist];
+        Arrays.fill(customerSupervisors, NO_CUSTOMER);
+
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT I_ID, I_PRICE FROM " + GeoCConstants.TABLENAME_ITEM)) {
+                while (rs.next()) {
+                    int i_id = rs.getInt(1);
+                    if (i_id < 1) {
+                        continue;
+                    }
+                    if (i_id >= itemPrices.length) {
+                        int size = itemPrices.length;
+                        itemPrices = Arrays.copyOf(itemPrices, Math.max(i_id + 1, size * 2));
+                        Arrays.fill(itemPrices, size, itemPrices.length, Float.NaN);
+                    }
+                    itemPrices[i_id] = rs.getFloat(2);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT W_ID, W_TAX FROM " + GeoCConstants.TABLENAME_WAREHOUSE)) {
+                while (rs.next()) {
+                    int w_id = rs.getInt(1);
+                    if (w_id >= 1 && w_id <= numWarehouses) {
+                        warehouseTaxes[w_id] = rs.getFloat(2);
+                    }
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT C_W_ID, C_D_ID, C_ID, _C_IND_ID FROM " + GeoCConstants.TABLENAME_CUSTOMER)) {
+                while (rs.next()) {
+                    int index = customerIndex(numWarehouses, rs.getInt(1), rs.getInt(2), rs.getInt(3));
+                    if (index >= 0) {
+                        customerSupervisors[index] = rs.getInt(4);
+                    }
+                }
+            }
+        }
+        return new ReferenceDataCache(itemPrices, warehouseTaxes, customerSupervisors);
+    }
+
+    private static int customerIndex(int numWarehouses, int w_id, int d_id, int c_id) {
+        if (w_id < 1 || w_id > numWarehouses || d_id < 1 || d_id > GeoCConfig.configDistPerWhse
+                || c_id < 1 || c_id > GeoCConfig.configCustPerDist) {
+            return -1;
+        }
+        return ((w_id - 1) * GeoCConfig.configDistPerWhse + (d_id - 1)) * GeoCConfig.configCustPerDist + (c_id - 1);
+    }
+
+    private int customerIndex(int w_id, int d_id, int c_id) {
+        return customerIndex(warehouseTaxes.length - 1, w_id, d_id, c_id);
+    }
+
+    /**
+     * @return the price of the item, or NaN if there is no such item
+     */
+    public float getItemPrice(int i_id) {
+        return (i_id >= 1 && i_id < itemPrices.length ? itemPrices[i_id] : Float.NaN);
+    }
+
+    /**
+     * @return the tax of the warehouse, or NaN if there is no such warehouse
+     */
+    public float getWarehouseTax(int w_id) {
+        return (w_id >= 1 && w_id < warehouseTaxes.length ? warehouseTaxes[w_id] : Float.NaN);
+    }
+
+    public boolean hasCustomer(int w_id, int d_id, int c_id) {
+        return getCustomerSupervisor(w_id, d_id, c_id) != NO_CUSTOMER;
+    }
+
+    /**
+     * @return the supervisor (_C_IND_ID) of the customer, or
+     * {@link #NO_CUSTOMER} if there is no such customer
+     */
+    public int getCustomerSupervisor(int w_id, int d_id, int c_id) {
+        int index = customerIndex(w_id, d_id, c_id);
+        return (index >= 0 ? customerSupervisors[index] : NO_CUSTOMER);
+    }
+
+    public int getItemCount() {
+        int count = 0;
+        for (float price : itemPrices) {
+            if (!Float.isNaN(price)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -18,19 +18,26 @@
 package com.oltpbenchmark.benchmarks.geoc.procedures;
 
 import com.oltpbenchmark.api.SQLStmt;
+import com.oltpbenchmark.benchmarks.geoc.ActiveCartIndex;
 import com.oltpbenchmark.benchmarks.geoc.GeoCConstants;
 import com.oltpbenchmark.benchmarks.geoc.GeoCUtil;
 import com.oltpbenchmark.benchmarks.geoc.GeoCWorker;
+import com.oltpbenchmark.benchmarks.geoc.ReferenceDataCache;
 import com.oltpbenchmark.benchmarks.geoc.pojo.ShoppingCartLine;
 import com.oltpbenchmark.benchmarks.geoc.pojo.Stock;
+import com.oltpbenchmark.types.DatabaseType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class ApproveCart extends GeoCProcedure {
 
@@ -77,12 +84,25 @@ public class ApproveCart extends GeoCProcedure {
                     " (O_ID, O_D_ID, O_W_ID, O_C_ID, O_ENTRY_D, O_OL_CNT, O_ALL_LOCAL)" +
                     " VALUES (?, ?, ?, ?, ?, ?, ?)");
 
-    public final SQLStmt stmtGetStockSQL = new SQLStmt(
-            "SELECT S_QUANTITY, S_YTD, S_ORDER_CNT, S_REMOTE_CNT, S_DIST_01, S_DIST_02, S_DIST_03, S_DIST_04, S_DIST_05, " +
+    private static final String GET_STOCKS =
+            "SELECT S_W_ID, S_I_ID, S_QUANTITY, S_YTD, S_ORDER_CNT, S_REMOTE_CNT, S_DIST_01, S_DIST_02, S_DIST_03, S_DIST_04, S_DIST_05, " +
             "       S_DIST_06, S_DIST_07, S_DIST_08, S_DIST_09, S_DIST_10" +
-                    "  FROM " + GeoCConstants.TABLENAME_STOCK +
-                    " WHERE S_I_ID = ? " +
-                    "   AND S_W_ID = ?");
+                    "  FROM " + GeoCConstants.TABLENAME_STOCK;
+
+    /**
+     * Fetches the stock of all the items of a cart at once, for the DBMSs
+     * that support array parameters.
+     */
+    public final SQLStmt stmtGetStocksArraySQL = new SQLStmt(
+            GET_STOCKS +
+                    " WHERE S_W_ID = ANY(?) " +
+                    "   AND S_I_ID = ANY(?)");
+
+    /**
+     * The same for the other DBMSs, with as many parameters in each IN list
+     * as the key, a power of two. Lists are padded by repeating the last id.
+     */
+    private final Map<Integer, SQLStmt> stmtGetStocksInSQL = new HashMap<>();
 
     public final SQLStmt stmtUpdateStockSQL = new SQLStmt(
             "UPDATE " + GeoCConstants.TABLENAME_STOCK +
@@ -112,19 +132,30 @@ public class ApproveCart extends GeoCProcedure {
     public void run(Connection conn, Random gen, int terminalWarehouseID, int numWarehouses,
             int terminalDistrictLowerID, int terminalDistrictUpperID, GeoCWorker w) throws SQLException {
 
+        ActiveCartIndex cartIndex = w.getBenchmark().getCartIndex();
+
         int districtID;
         int customerID;
 
-        try (PreparedStatement stmtChooseCart = this.getPreparedStatement(conn, stmtChooseCartSQL);) {
-            stmtChooseCart.setInt(1, terminalWarehouseID);
-            stmtChooseCart.setInt(2, terminalDistrictLowerID);
-            stmtChooseCart.setInt(3, terminalDistrictUpperID);
-            try (ResultSet rs = stmtChooseCart.executeQuery()){
-                if (!rs.next()) {
-                    throw new UserAbortException("No shopping carts found in warehouse W_ID=" + terminalWarehouseID + "!");
+        if (cartIndex != null) {
+            int[] cart = cartIndex.choose(terminalWarehouseID, terminalDistrictLowerID, terminalDistrictUpperID, gen);
+            if (cart == null) {
+                throw new UserAbortException("No shopping carts found in warehouse W_ID=" + terminalWarehouseID + "!");
+            }
+            districtID = cart[0];
+            customerID = cart[1];
+        } else {
+            try (PreparedStatement stmtChooseCart = this.getPreparedStatement(conn, stmtChooseCartSQL);) {
+                stmtChooseCart.setInt(1, terminalWarehouseID);
+                stmtChooseCart.setInt(2, terminalDistrictLowerID);
+                stmtChooseCart.setInt(3, terminalDistrictUpperID);
+                try (ResultSet rs = stmtChooseCart.executeQuery()){
+                    if (!rs.next()) {
+                        throw new UserAbortException("No shopping carts found in warehouse W_ID=" + terminalWarehouseID + "!");
+                    }
+                    customerID = rs.getInt("_SCL_C_ID");
+                    districtID = rs.getInt("_SCL_D_ID");
                 }
-                customerID = rs.getInt("_SCL_C_ID");
-                districtID = rs.getInt("_SCL_D_ID");
             }
         }
 
@@ -133,30 +164,42 @@ public class ApproveCart extends GeoCProcedure {
         int _ind_id = 1;
         Timestamp o_entry_d = Timestamp.valueOf(LocalDateTime.now());
 
-        approveCartTransaction(terminalWarehouseID, districtID, customerID, _ind_id, o_entry_d, conn);
+        approveCartTransaction(terminalWarehouseID, districtID, customerID, _ind_id, o_entry_d, conn, cartIndex, w);
 
     }
 
     private void approveCartTransaction(int w_id, int d_id, int c_id,
-            int _ind_id, Timestamp o_entry_d, Connection conn) throws SQLException {
+            int _ind_id, Timestamp o_entry_d, Connection conn, ActiveCartIndex cartIndex, GeoCWorker w) throws SQLException {
+
+        ReferenceDataCache cache = w.getBenchmark().getReferenceCache();
 
-        getCustomer(conn, w_id, d_id, c_id);
+        getCustomer(conn, cache, w_id, d_id, c_id, w);
 
-        getWarehouse(conn, w_id);
+        getWarehouse(conn, cache, w_id, w);
 
         int d_next_o_id = getDistrict(conn, w_id, d_id);
 
-        int _c_ind_id = getSupervisorFromCustomer(conn, w_id, d_id, c_id);
+        int _c_ind_id = getSupervisorFromCustomer(conn, cache, w_id, d_id, c_id, w);
 
         if (_ind_id != _c_ind_id){
             throw new UserAbortException("_IND_ID " + _ind_id + " is not a supervisor!");
         }
 
-        List<ShoppingCartLine> cartLines = getShoppingCartLines(conn, w_id, d_id, c_id);
+        List<ShoppingCartLine> cartLines;
+        try {
+            cartLines = getShoppingCartLines(conn, w_id, d_id, c_id);
+        } catch (UserAbortException ex) {
+            if (cartIndex != null) {
+                // The index was out of date, the cart has been emptied meanwhile
+                w.afterCommitOrUserAbort(() -> cartIndex.remove(w_id, d_id, c_id));
+            }
+            throw ex;
+        }
 
         int o_ol_cnt = cartLines.size();
 
         boolean o_all_local = cartLines.stream().map(c -> c._scl_supply_w_id).allMatch(ol_supply_w_id -> ol_supply_w_id == w_id);
+        w.labelSupply(o_all_local, o_all_local || cartLines.stream().allMatch(c -> w.isInHomeRegion(c._scl_supply_w_id)));
 
         updateDistrict(conn, w_id, d_id);
 
@@ -164,6 +207,8 @@ public class ApproveCart extends GeoCProcedure {
 
         insertNewOrder(conn, w_id, d_id, d_next_o_id);
 
+        Map<Long, Stock> stocks = getStocks(conn, cartLines);
+
         try (PreparedStatement stmtUpdateStock = this.getPreparedStatement(conn, stmtUpdateStockSQL);
                 PreparedStatement stmtInsertOrderLine = this.getPreparedStatement(conn, stmtInsertOrderLineSQL);
                 PreparedStatement stmtClearShoppingCart = this.getPreparedStatement(conn, stmtClearShoppingCartSQL)) {
@@ -176,7 +221,10 @@ public class ApproveCart extends GeoCProcedure {
                 ol_number += 1;
                 float ol_amount = cartLine._scl_amount;
 
-                Stock s = getStock(conn, ol_supply_w_id, ol_i_id);
+                Stock s = stocks.get(stockKey(ol_supply_w_id, ol_i_id));
+                if (s == null) {
+                    throw new RuntimeException("S_I_ID=" + ol_i_id + " not found!");
+                }
 
                 String ol_dist_info = getDistInfo(d_id, s);
 
@@ -225,6 +273,10 @@ public class ApproveCart extends GeoCProcedure {
             stmtClearShoppingCart.execute();
         }
 
+        if (cartIndex != null) {
+            w.afterCommit(() -> cartIndex.remove(w_id, d_id, c_id));
+        }
+
     }
 
     private String getDistInfo(int d_id, Stock s) {
@@ -243,33 +295,85 @@ public class ApproveCart extends GeoCProcedure {
         };
     }
 
-    private Stock getStock(Connection conn, int ol_supply_w_id, int ol_i_id) throws SQLException {
-        try (PreparedStatement stmtGetStock = this.getPreparedStatement(conn, stmtGetStockSQL)) {
-            stmtGetStock.setInt(1, ol_i_id);
-            stmtGetStock.setInt(2, ol_supply_w_id);
-            try (ResultSet rs = stmtGetStock.executeQuery()) {
-                if (!rs.next()) {
-                    throw new RuntimeException("S_I_ID=" + ol_i_id + " not found!");
+    private static void setPadded(PreparedStatement stmt, int first, Set<Integer> ids, int size) throws SQLException {
+        int i = 0;
+        int id = 0;
+        for (int next : ids) {
+            id = next;
+            stmt.setInt(first + i++, id);
+        }
+        while (i < size) {
+            stmt.setInt(first + i++, id);
+        }
+    }
+
+    private static long stockKey(int s_w_id, int s_i_id) {
+        return ((long) s_w_id << 32) | s_i_id;
+    }
+
+    /**
+     * Fetch the stock of every item in the cart in a single statement.
+     *
+     * @return the stock rows by {@link #stockKey(int, int)}
+     */
+    private Map<Long, Stock> getStocks(Connection conn, List<ShoppingCartLine> cartLines) throws SQLException {
+        Set<Integer> warehouseIds = new TreeSet<>();
+        Set<Integer> itemIds = new TreeSet<>();
+        for (ShoppingCartLine cartLine : cartLines) {
+            warehouseIds.add(cartLine._scl_supply_w_id);
+            itemIds.add(cartLine._scl_i_id);
+        }
+
+        boolean arrays = getDatabaseType() == DatabaseType.POSTGRES || getDatabaseType() == DatabaseType.COCKROACHDB;
+        int size = 0;
+        SQLStmt stmt;
+        if (arrays) {
+            stmt = stmtGetStocksArraySQL;
+        } else {
+            size = Math.max(1, Integer.highestOneBit(Math.max(warehouseIds.size(), itemIds.size()) - 1) << 1);
+            stmt = stmtGetStocksInSQL.computeIfAbsent(size, n -> {
+                SQLStmt padded = new SQLStmt(GET_STOCKS + " WHERE S_W_ID IN (??) AND S_I_ID IN (??)", n, n);
+                padded.setName("stmtGetStocksInSQL");
+                return padded;
+            });
+        }
+
+        // The lists may select a few extra rows (other items of a supply
+        // warehouse), which are simply not looked up
+        Map<Long, Stock> stocks = new HashMap<>();
+        try (PreparedStatement stmtGetStocks = this.getPreparedStatement(conn, stmt)) {
+            if (arrays) {
+                stmtGetStocks.setArray(1, conn.createArrayOf("INTEGER", warehouseIds.toArray()));
+                stmtGetStocks.setArray(2, conn.createArrayOf("INTEGER", itemIds.toArray()));
+            } else {
+                setPadded(stmtGetStocks, 1, warehouseIds, size);
+                setPadded(stmtGetStocks, size + 1, itemIds, size);
+            }
+            try (ResultSet rs = stmtGetStocks.executeQuery()) {
+                while (rs.next()) {
+                    Stock s = new Stock();
+                    s.s_w_id = rs.getInt("S_W_ID");
+                    s.s_i_id = rs.getInt("S_I_ID");
+                    s.s_quantity = rs.getInt("S_QUANTITY");
+                    s.s_ytd = rs.getFloat("S_YTD");
+                    s.s_order_cnt = rs.getInt("S_ORDER_CNT");
+                    s.s_remote_cnt = rs.getInt("S_REMOTE_CNT");
+                    s.s_dist_01 = rs.getString("S_DIST_01");
+                    s.s_dist_02 = rs.getString("S_DIST_02");
+                    s.s_dist_03 = rs.getString("S_DIST_03");
+                    s.s_dist_04 = rs.getString("S_DIST_04");
+                    s.s_dist_05 = rs.getString("S_DIST_05");
+                    s.s_dist_06 = rs.getString("S_DIST_06");
+                    s.s_dist_07 = rs.getString("S_DIST_07");
+                    s.s_dist_08 = rs.getString("S_DIST_08");
+                    s.s_dist_09 = rs.getString("S_DIST_09");
+                    s.s_dist_10 = rs.getString("S_DIST_10");
+
+                    stocks.put(stockKey(s.s_w_id, s.s_i_id), s);
                 }
-                Stock s = new Stock();
-                s.s_quantity = rs.getInt("S_QUANTITY");
-                s.s_ytd = rs.getFloat("S_YTD");
-                s.s_order_cnt = rs.getInt("S_ORDER_CNT");
-                s.s_remote_cnt = rs.getInt("S_REMOTE_CNT");
-                s.s_dist_01 = rs.getString("S_DIST_01");
-                s.s_dist_02 = rs.getString("S_DIST_02");
-                s.s_dist_03 = rs.getString("S_DIST_03");
-                s.s_dist_04 = rs.getString("S_DIST_04");
-                s.s_dist_05 = rs.getString("S_DIST_05");
-                s.s_dist_06 = rs.getString("S_DIST_06");
-                s.s_dist_07 = rs.getString("S_DIST_07");
-                s.s_dist_08 = rs.getString("S_DIST_08");
-                s.s_dist_09 = rs.getString("S_DIST_09");
-                s.s_dist_10 = rs.getString("S_DIST_10");
-
-                return s;
             }
         }
+        return stocks;
     }
 
     private void insertNewOrder(Connection conn, int w_id, int d_id, int o_id) throws SQLException {
@@ -329,7 +433,14 @@ public class ApproveCart extends GeoCProcedure {
         }
     }
 
-    private void getWarehouse(Connection conn, int w_id) throws SQLException {
+    private void getWarehouse(Connection conn, ReferenceDataCache cache, int w_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            if (Float.isNaN(cache.getWarehouseTax(w_id))) {
+                throw new RuntimeException("W_ID=" + w_id + " not found!");
+            }
+            return;
+        }
         try (PreparedStatement stmtGetWhse = this.getPreparedStatement(conn, stmtGetWhseSQL)) {
             stmtGetWhse.setInt(1, w_id);
             try (ResultSet rs = stmtGetWhse.executeQuery()) {
@@ -340,7 +451,14 @@ public class ApproveCart extends GeoCProcedure {
         }
     }
 
-    private void getCustomer(Connection conn, int w_id, int d_id, int c_id) throws SQLException {
+    private void getCustomer(Connection conn, ReferenceDataCache cache, int w_id, int d_id, int c_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            if (!cache.hasCustomer(w_id, d_id, c_id)) {
+                throw new RuntimeException("C_D_ID=" + d_id + " C_ID=" + c_id + " not found!");
+            }
+            return;
+        }
         try (PreparedStatement stmtGetCust = this.getPreparedStatement(conn, stmtGetCustSQL)) {
             stmtGetCust.setInt(1, w_id);
             stmtGetCust.setInt(2, d_id);
@@ -353,7 +471,15 @@ public class ApproveCart extends GeoCProcedure {
         }
     }
 
-    private int getSupervisorFromCustomer(Connection conn, int w_id, int d_id, int c_id) throws SQLException {
+    private int getSupervisorFromCustomer(Connection conn, ReferenceDataCache cache, int w_id, int d_id, int c_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            int supervisor = cache.getCustomerSupervisor(w_id, d_id, c_id);
+            if (supervisor == ReferenceDataCache.NO_CUSTOMER) {
+                throw new RuntimeException("W_ID=" + w_id + " D_ID=" + d_id + " C_ID=" + c_id + " not found!");
+            }
+            return supervisor;
+        }
         try (PreparedStatement stmtGetSupervisorFromCustomer = this.getPreparedStatement(conn,
                 stmtGetSupervisorFromCustomerSQL)) {
             stmtGetSupervisorFromCustomer.setInt(1, w_id);
@@ -18,9 +18,11 @@
 package com.oltpbenchmark.benchmarks.geoc.procedures;
 
 import com.oltpbenchmark.api.SQLStmt;
+import com.oltpbenchmark.benchmarks.geoc.ActiveCartIndex;
 import com.oltpbenchmark.benchmarks.geoc.GeoCConstants;
 import com.oltpbenchmark.benchmarks.geoc.GeoCUtil;
 import com.oltpbenchmark.benchmarks.geoc.GeoCWorker;
+import com.oltpbenchmark.benchmarks.geoc.ReferenceDataCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,22 +82,34 @@ public class DecreaseCartLine extends GeoCProcedure {
     public void run(Connection conn, Random gen, int terminalWarehouseID, int numWarehouses,
             int terminalDistrictLowerID, int terminalDistrictUpperID, GeoCWorker w) throws SQLException {
 
+        ActiveCartIndex cartIndex = w.getBenchmark().getCartIndex();
+
         int districtID;
         int customerID;
 
-        try (PreparedStatement stmtChooseCartLine = this.getPreparedStatement(conn, stmtChooseCartLineSQL)) {
-            stmtChooseCartLine.setInt(1, terminalWarehouseID);
-            stmtChooseCartLine.setInt(2, terminalDistrictLowerID);
-            stmtChooseCartLine.setInt(3, terminalDistrictUpperID);
-
-            try (ResultSet rs = stmtChooseCartLine.executeQuery()) {
-                if (!rs.next()) {
-                    throw new UserAbortException("No shopping cart lines found in W_ID=" + terminalWarehouseID + 
-                        " and " + terminalDistrictLowerID + " <= D_ID <= " + terminalDistrictUpperID + "!");
+        if (cartIndex != null) {
+            int[] cart = cartIndex.choose(terminalWarehouseID, terminalDistrictLowerID, terminalDistrictUpperID, gen);
+            if (cart == null) {
+                throw new UserAbortException("No shopping cart lines found in W_ID=" + terminalWarehouseID +
+                    " and " + terminalDistrictLowerID + " <= D_ID <= " + terminalDistrictUpperID + "!");
+            }
+            districtID = cart[0];
+            customerID = cart[1];
+        } else {
+            try (PreparedStatement stmtChooseCartLine = this.getPreparedStatement(conn, stmtChooseCartLineSQL)) {
+                stmtChooseCartLine.setInt(1, terminalWarehouseID);
+                stmtChooseCartLine.setInt(2, terminalDistrictLowerID);
+                stmtChooseCartLine.setInt(3, terminalDistrictUpperID);
+
+                try (ResultSet rs = stmtChooseCartLine.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new UserAbortException("No shopping cart lines found in W_ID=" + terminalWarehouseID + 
+                            " and " + terminalDistrictLowerID + " <= D_ID <= " + terminalDistrictUpperID + "!");
+                    }
+
+                    customerID = rs.getInt("_SCL_C_ID");
+                    districtID = rs.getInt("_SCL_D_ID");
                 }
-
-                customerID = rs.getInt("_SCL_C_ID");
-                districtID = rs.getInt("_SCL_D_ID");
             }
         }
 
@@ -103,32 +117,48 @@ public class DecreaseCartLine extends GeoCProcedure {
         int removeQuantity = GeoCUtil.randomNumber(1, 10, gen);
 
         decreaseCartLineTransaction(terminalWarehouseID, districtID, customerID, item,
-                removeQuantity, conn);
+                removeQuantity, conn, cartIndex, w);
 
     }
 
     private void decreaseCartLineTransaction(int w_id, int d_id, int c_id,
-            int item, int removeQuantity, Connection conn) throws SQLException {
+            int item, int removeQuantity, Connection conn, ActiveCartIndex cartIndex, GeoCWorker w) throws SQLException {
 
-        getCustomer(conn, w_id, d_id, c_id);
+        ReferenceDataCache cache = w.getBenchmark().getReferenceCache();
 
-        getWarehouse(conn, w_id);
+        getCustomer(conn, cache, w_id, d_id, c_id, w);
+
+        getWarehouse(conn, cache, w_id, w);
 
         getDistrict(conn, w_id, d_id);
 
-        int _scl_i_id = getItemToDecrease(conn, w_id, d_id, c_id, item);
+        List<Integer> scl_ids = getItemsInCart(conn, w_id, d_id, c_id);
+        if (scl_ids.isEmpty()) {
+            if (cartIndex != null) {
+                // The index was out of date, the cart has been emptied meanwhile
+                w.afterCommitOrUserAbort(() -> cartIndex.remove(w_id, d_id, c_id));
+            }
+            throw new UserAbortException("EXPECTED Decrease Cart Line rollback: Cart Line for W_ID=" + w_id
+                    + "D_ID=" + d_id + "C_ID=" + c_id + " not found!");
+        }
+
+        int _scl_i_id = scl_ids.get(item % scl_ids.size());
 
         int inCartQnty = getItemInCartQuantity(conn, w_id, d_id, c_id, _scl_i_id);
         int _scl_quantity = inCartQnty - removeQuantity;
 
         // this may occasionally error and that's ok!
-        float i_price = getItemPrice(conn, _scl_i_id);
+        float i_price = getItemPrice(conn, cache, _scl_i_id, w);
         float _scl_amount = _scl_quantity * i_price;
 
         if (_scl_quantity > 0) {
             executeUpdateCartLine(conn, _scl_quantity, _scl_amount, w_id, d_id, c_id, _scl_i_id);
         } else {
             executeRemoveCartLine(conn, w_id, d_id, c_id, _scl_i_id);
+            if (scl_ids.size() == 1 && cartIndex != null) {
+                // That was the last line of the cart
+                w.afterCommit(() -> cartIndex.remove(w_id, d_id, c_id));
+            }
         }
 
     }
@@ -157,26 +187,17 @@ public class DecreaseCartLine extends GeoCProcedure {
         }
     }
 
-    private int getItemToDecrease(Connection conn, int w_id, int d_id, int c_id, int number) throws SQLException {
+    private List<Integer> getItemsInCart(Connection conn, int w_id, int d_id, int c_id) throws SQLException {
         try (PreparedStatement stmtCheckItemInCart = this.getPreparedStatement(conn, this.stmtGetItemIdCartLineSQL)) {
             stmtCheckItemInCart.setInt(1, w_id);
             stmtCheckItemInCart.setInt(2, d_id);
             stmtCheckItemInCart.setInt(3, c_id);
             try (ResultSet rs = stmtCheckItemInCart.executeQuery()) {
-                if (!rs.next()) {
-                    throw new UserAbortException("EXPECTED Decrease Cart Line rollback: Cart Line for W_ID=" + w_id
-                            + "D_ID=" + d_id + "C_ID=" + c_id + " not found!");
-                }
-
                 List<Integer> scl_ids = new ArrayList<>();
-                scl_ids.add(rs.getInt("_SCL_I_ID"));
-
                 while (rs.next()) {
                     scl_ids.add(rs.getInt("_SCL_I_ID"));
                 }
-
-                int idx = number % scl_ids.size();
-                return scl_ids.get(idx);
+                return scl_ids;
             }
         }
     }
@@ -200,7 +221,16 @@ public class DecreaseCartLine extends GeoCProcedure {
     }
 
 
-    private float getItemPrice(Connection conn, int ol_i_id) throws SQLException {
+    private float getItemPrice(Connection conn, ReferenceDataCache cache, int ol_i_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            float price = cache.getItemPrice(ol_i_id);
+            if (Float.isNaN(price)) {
+                throw new UserAbortException(
+                        "EXPECTED Decrease Cart Line rollback: I_ID=" + ol_i_id + " not found!");
+            }
+            return price;
+        }
         try (PreparedStatement stmtGetItem = this.getPreparedStatement(conn, stmtGetItemSQL)) {
             stmtGetItem.setInt(1, ol_i_id);
             try (ResultSet rs = stmtGetItem.executeQuery()) {
@@ -228,7 +258,14 @@ public class DecreaseCartLine extends GeoCProcedure {
         }
     }
 
-    private void getWarehouse(Connection conn, int w_id) throws SQLException {
+    private void getWarehouse(Connection conn, ReferenceDataCache cache, int w_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            if (Float.isNaN(cache.getWarehouseTax(w_id))) {
+                throw new RuntimeException("W_ID=" + w_id + " not found!");
+            }
+            return;
+        }
         try (PreparedStatement stmtGetWhse = this.getPreparedStatement(conn, stmtGetWhseSQL)) {
             stmtGetWhse.setInt(1, w_id);
             try (ResultSet rs = stmtGetWhse.executeQuery()) {
@@ -239,7 +276,14 @@ public class DecreaseCartLine extends GeoCProcedure {
         }
     }
 
-    private void getCustomer(Connection conn, int w_id, int d_id, int c_id) throws SQLException {
+    private void getCustomer(Connection conn, ReferenceDataCache cache, int w_id, int d_id, int c_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            if (!cache.hasCustomer(w_id, d_id, c_id)) {
+                throw new RuntimeException("C_D_ID=" + d_id + " C_ID=" + c_id + " not found!");
+            }
+            return;
+        }
         try (PreparedStatement stmtGetCust = this.getPreparedStatement(conn, stmtGetCustSQL)) {
             stmtGetCust.setInt(1, w_id);
             stmtGetCust.setInt(2, d_id);
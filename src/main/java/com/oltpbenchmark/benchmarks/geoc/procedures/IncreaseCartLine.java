@@ -18,10 +18,12 @@
 package com.oltpbenchmark.benchmarks.geoc.procedures;
 
 import com.oltpbenchmark.api.SQLStmt;
+import com.oltpbenchmark.benchmarks.geoc.ActiveCartIndex;
 import com.oltpbenchmark.benchmarks.geoc.GeoCConfig;
 import com.oltpbenchmark.benchmarks.geoc.GeoCConstants;
 import com.oltpbenchmark.benchmarks.geoc.GeoCUtil;
 import com.oltpbenchmark.benchmarks.geoc.GeoCWorker;
+import com.oltpbenchmark.benchmarks.geoc.ReferenceDataCache;
 import com.oltpbenchmark.benchmarks.geoc.pojo.Stock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,7 +86,7 @@ public class IncreaseCartLine extends GeoCProcedure {
         int districtID = GeoCUtil.randomNumber(terminalDistrictLowerID, terminalDistrictUpperID, gen);
         int customerID = GeoCUtil.getCustomerID(gen);
 
-        int itemID = GeoCUtil.getItemID(gen);
+        int itemID = GeoCUtil.getItemID(w.getBenchmark().getHotspots().getHotspots(terminalWarehouseID), gen);
         int supplierWarehouseID;
         int orderQuantity = GeoCUtil.randomNumber(1, 10, gen);
         int allLocal = 1;
@@ -105,18 +107,26 @@ public class IncreaseCartLine extends GeoCProcedure {
             itemID = GeoCConfig.INVALID_ITEM_ID;
         }
 
+        w.labelSupply(allLocal == 1, w.isInHomeRegion(supplierWarehouseID));
+
         increaseCartLineTransaction(terminalWarehouseID, districtID, customerID, allLocal, itemID,
-                supplierWarehouseID, orderQuantity, conn);
+                supplierWarehouseID, orderQuantity, conn, w.getBenchmark().getReferenceCache(), w);
+
+        ActiveCartIndex cartIndex = w.getBenchmark().getCartIndex();
+        if (cartIndex != null) {
+            // Also done when an existing line was updated, in case the index lost the cart
+            w.afterCommit(() -> cartIndex.add(terminalWarehouseID, districtID, customerID));
+        }
 
     }
 
     private void increaseCartLineTransaction(int w_id, int d_id, int c_id,
             int o_all_local, int itemID,
-            int supplierWarehouseID, int orderQuantity, Connection conn) throws SQLException {
+            int supplierWarehouseID, int orderQuantity, Connection conn, ReferenceDataCache cache, GeoCWorker w) throws SQLException {
 
-        getCustomer(conn, w_id, d_id, c_id);
+        getCustomer(conn, cache, w_id, d_id, c_id, w);
 
-        getWarehouse(conn, w_id);
+        getWarehouse(conn, cache, w_id, w);
 
         getDistrict(conn, w_id, d_id);
 
@@ -131,7 +141,7 @@ public class IncreaseCartLine extends GeoCProcedure {
             _scl_quantity += inCartQnty;
 
             // this may occasionally error and that's ok!
-            float i_price = getItemPrice(conn, _scl_i_id);
+            float i_price = getItemPrice(conn, cache, _scl_i_id, w);
             float _scl_amount = _scl_quantity * i_price;
 
             Stock s = getStock(conn, _scl_supply_w_id, _scl_i_id, _scl_quantity);
@@ -236,7 +246,16 @@ public class IncreaseCartLine extends GeoCProcedure {
         }
     }
 
-    private float getItemPrice(Connection conn, int ol_i_id) throws SQLException {
+    private float getItemPrice(Connection conn, ReferenceDataCache cache, int ol_i_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            float price = cache.getItemPrice(ol_i_id);
+            if (Float.isNaN(price)) {
+                throw new UserAbortException(
+                        "EXPECTED Increase Cart Line rollback: I_ID=" + ol_i_id + " not found!");
+            }
+            return price;
+        }
         try (PreparedStatement stmtGetItem = this.getPreparedStatement(conn, stmtGetItemSQL)) {
             stmtGetItem.setInt(1, ol_i_id);
             try (ResultSet rs = stmtGetItem.executeQuery()) {
@@ -264,7 +283,14 @@ public class IncreaseCartLine extends GeoCProcedure {
         }
     }
 
-    private void getWarehouse(Connection conn, int w_id) throws SQLException {
+    private void getWarehouse(Connection conn, ReferenceDataCache cache, int w_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            if (Float.isNaN(cache.getWarehouseTax(w_id))) {
+                throw new RuntimeException("W_ID=" + w_id + " not found!");
+            }
+            return;
+        }
         try (PreparedStatement stmtGetWhse = this.getPreparedStatement(conn, stmtGetWhseSQL)) {
             stmtGetWhse.setInt(1, w_id);
             try (ResultSet rs = stmtGetWhse.executeQuery()) {
@@ -275,7 +301,14 @@ public class IncreaseCartLine extends GeoCProcedure {
         }
     }
 
-    private void getCustomer(Connection conn, int w_id, int d_id, int c_id) throws SQLException {
+    private void getCustomer(Connection conn, ReferenceDataCache cache, int w_id, int d_id, int c_id, GeoCWorker w) throws SQLException {
+        if (cache != null) {
+            w.countCacheLookup();
+            if (!cache.hasCustomer(w_id, d_id, c_id)) {
+                throw new RuntimeException("C_D_ID=" + d_id + " C_ID=" + c_id + " not found!");
+            }
+            return;
+        }
         try (PreparedStatement stmtGetCust = this.getPreparedStatement(conn, stmtGetCustSQL)) {
             stmtGetCust.setInt(1, w_id);
             stmtGetCust.setInt(2, d_id);
@@ -17,13 +17,11 @@
 
 package com.oltpbenchmark.benchmarks.hyadapt;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
-import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -64,35 +62,21 @@ public class HYADAPTLoader extends Loader<HYADAPTBenchmark> {
         threads.add(new LoaderThread(this.benchmark) {
             @Override
             public void load(Connection conn) throws SQLException {
-                Table catalog_tbl = benchmark.getCatalog().getTable("HTABLE");
-
-
-                String sql = SQLUtil.getInsertSQL(catalog_tbl, getDatabaseType());
-
-
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                try (BulkWriter writer = getBulkWriter(conn, "HTABLE")) {
                     long total = 0;
-                    int batch = 0;
                     for (int i = 0; i < num_record; i++) {
-                        stmt.setInt(1, i);
+                        writer.setInt(1, i);
                         for (int j = 2; j <= HYADAPTConstants.FIELD_COUNT + 1; j++) {
-                            stmt.setInt(j, getRandInt());
+                            writer.setInt(j, getRandInt());
                         }
-                        stmt.addBatch();
+                        writer.addRow();
                         total++;
-                        if (++batch >= workConf.getBatchSize()) {
-                            int[] result = stmt.executeBatch();
-
-                            batch = 0;
+                        if ((total % workConf.getBatchSize()) == 0 || total == num_record) {
                             LOG.info(String.format("Records Loaded %d / %d", total, num_record));
                         }
                     }
-                    if (batch > 0) {
-                        stmt.executeBatch();
-                        LOG.info(String.format("Records Loaded %d / %d", total, num_record));
-                    }
                 }
-                LOG.info("Finished loading {}", catalog_tbl.getName());
+                LOG.info("Finished loading HTABLE");
             }
         });
 
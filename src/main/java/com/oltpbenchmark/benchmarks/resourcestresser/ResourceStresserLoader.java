@@ -17,14 +17,13 @@
 
 package com.oltpbenchmark.benchmarks.resourcestresser;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 import com.oltpbenchmark.util.TextGenerator;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -78,36 +77,22 @@ public class ResourceStresserLoader extends Loader<ResourceStresserBenchmark> {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Start loading {}", tableName);
         }
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            int batch = 0;
-            int i;
-            for (i = 0; i < this.numEmployees; ++i) {
-                stmt.setInt(1, i);
+        try (BulkWriter writer = getBulkWriter(conn, tableName)) {
+            for (int i = 0; i < this.numEmployees; ++i) {
+                writer.setInt(1, i);
                 if (tableName.equals(ResourceStresserConstants.TABLENAME_CPUTABLE)) {
-                    stmt.setString(2, TextGenerator.randomStr(rng(), ResourceStresserConstants.STRING_LENGTH));
+                    writer.setString(2, TextGenerator.randomStr(rng(), ResourceStresserConstants.STRING_LENGTH));
                 } else if (tableName.equals(ResourceStresserConstants.TABLENAME_IOTABLE)) {
                     for (int j = 2; j <= catalog_tbl.getColumnCount(); ++j) {
-                        stmt.setString(j, TextGenerator.randomStr(rng(), ResourceStresserConstants.STRING_LENGTH));
+                        writer.setString(j, TextGenerator.randomStr(rng(), ResourceStresserConstants.STRING_LENGTH));
                     }
                 } else {
-                    stmt.setInt(2, rng().nextInt());
+                    writer.setInt(2, rng().nextInt());
                 }
 
-                stmt.addBatch();
-                if (++batch >= workConf.getBatchSize()) {
-                    int[] result = stmt.executeBatch();
-
-                    batch = 0;
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("Records Loaded %d / %d", i + 1, this.numEmployees));
-                    }
-                }
-            }
-            if (batch > 0) {
-                stmt.executeBatch();
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(String.format("Records Loaded %d / %d", i, this.numEmployees));
+                writer.addRow();
+                if (LOG.isDebugEnabled() && ((i + 1) % workConf.getBatchSize() == 0 || i + 1 == this.numEmployees)) {
+                    LOG.debug(String.format("Records Loaded %d / %d", i + 1, this.numEmployees));
                 }
             }
         }
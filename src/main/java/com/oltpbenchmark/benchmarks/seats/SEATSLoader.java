@@ -17,6 +17,7 @@
 
 package com.oltpbenchmark.benchmarks.seats;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.seats.util.*;
@@ -539,12 +540,8 @@ public class SEATSLoader extends Loader<SEATSBenchmark> {
         }
 
         int row_idx = 0;
-        int row_batch = 0;
-
-        String insert_sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        try (PreparedStatement insert_stmt = conn.prepareStatement(insert_sql)) {
-            int[] sqlTypes = catalog_tbl.getColumnTypes();
 
+        try (BulkWriter writer = this.getBulkWriter(conn, catalog_tbl.getName())) {
             for (Object[] tuple : iterable) {
                 // AIRPORT
                 if (is_airport) {
@@ -611,30 +608,14 @@ public class SEATSLoader extends Loader<SEATSBenchmark> {
 
                 for (int i = 0; i < tuple.length; i++) {
                     try {
-                        if (tuple[i] != null) {
-                            insert_stmt.setObject(i + 1, tuple[i]);
-                        } else {
-                            insert_stmt.setNull(i + 1, sqlTypes[i]);
-                        }
-                    } catch (SQLDataException ex) {
+                        writer.setObject(i + 1, tuple[i]);
+                    } catch (IllegalArgumentException ex) {
                         LOG.error("INVALID {} TUPLE: {}", catalog_tbl.getName().toLowerCase(), Arrays.toString(tuple));
                         throw new RuntimeException("Failed to set value for " + catalog_tbl.getColumn(i).getName().toLowerCase(), ex);
                     }
                 }
-                insert_stmt.addBatch();
+                writer.addRow();
                 row_idx++;
-
-                if (++row_batch >= batch_size) {
-                    LOG.trace(String.format("Loading %s batch [total=%d]", catalog_tbl.getName().toLowerCase(), row_idx));
-                    insert_stmt.executeBatch();
-                    insert_stmt.clearBatch();
-                    row_batch = 0;
-                }
-
-            }
-
-            if (row_batch > 0) {
-                insert_stmt.executeBatch();
             }
 
         } catch (Exception ex) {
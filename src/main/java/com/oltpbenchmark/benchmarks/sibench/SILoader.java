@@ -17,13 +17,11 @@
 
 package com.oltpbenchmark.benchmarks.sibench;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
-import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -65,25 +63,11 @@ public class SILoader extends Loader<SIBenchmark> {
 
     private void loadSITest(Connection conn, int lo, int hi) throws SQLException {
         Random rand = this.benchmark.rng();
-        Table catalog_tbl = this.benchmark.getCatalog().getTable("SITEST");
-
-
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            int batch = 0;
+        try (BulkWriter writer = getBulkWriter(conn, "SITEST")) {
             for (int i = lo; i <= hi; i++) {
-                stmt.setInt(1, i);
-                stmt.setInt(2, rand.nextInt(Integer.MAX_VALUE));
-                stmt.addBatch();
-
-                if (++batch >= workConf.getBatchSize()) {
-                    int[] result = stmt.executeBatch();
-
-                    batch = 0;
-                }
-            }
-            if (batch > 0) {
-                stmt.executeBatch();
+                writer.setInt(1, i);
+                writer.setInt(2, rand.nextInt(Integer.MAX_VALUE));
+                writer.addRow();
             }
         }
     }
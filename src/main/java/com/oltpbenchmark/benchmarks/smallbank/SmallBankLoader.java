@@ -17,15 +17,14 @@
 
 package com.oltpbenchmark.benchmarks.smallbank;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.catalog.Table;
 import com.oltpbenchmark.util.RandomDistribution.DiscreteRNG;
 import com.oltpbenchmark.util.RandomDistribution.Gaussian;
-import com.oltpbenchmark.util.SQLUtil;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,12 +36,6 @@ import java.util.List;
  */
 public class SmallBankLoader extends Loader<SmallBankBenchmark> {
     private final Table catalogAccts;
-    private final Table catalogSavings;
-    private final Table catalogChecking;
-
-    private final String sqlAccts;
-    private final String sqlSavings;
-    private final String sqlChecking;
 
     private final long numAccounts;
     private final int custNameLength;
@@ -51,12 +44,6 @@ public class SmallBankLoader extends Loader<SmallBankBenchmark> {
         super(benchmark);
 
         this.catalogAccts = this.benchmark.getCatalog().getTable(SmallBankConstants.TABLENAME_ACCOUNTS);
-        this.catalogSavings = this.benchmark.getCatalog().getTable(SmallBankConstants.TABLENAME_SAVINGS);
-        this.catalogChecking = this.benchmark.getCatalog().getTable(SmallBankConstants.TABLENAME_CHECKING);
-
-        this.sqlAccts = SQLUtil.getInsertSQL(this.catalogAccts, this.getDatabaseType());
-        this.sqlSavings = SQLUtil.getInsertSQL(this.catalogSavings, this.getDatabaseType());
-        this.sqlChecking = SQLUtil.getInsertSQL(this.catalogChecking, this.getDatabaseType());
 
         this.numAccounts = benchmark.numAccounts;
         this.custNameLength = SmallBankBenchmark.getCustomerNameLength(this.catalogAccts);
@@ -83,10 +70,6 @@ public class SmallBankLoader extends Loader<SmallBankBenchmark> {
         private final long stop;
         private final DiscreteRNG randBalance;
 
-        PreparedStatement stmtAccts;
-        PreparedStatement stmtSavings;
-        PreparedStatement stmtChecking;
-
         public Generator(long start, long stop) {
             super(benchmark);
             this.start = start;
@@ -98,50 +81,36 @@ public class SmallBankLoader extends Loader<SmallBankBenchmark> {
 
         @Override
         public void load(Connection conn) {
-            try {
-                this.stmtAccts = conn.prepareStatement(SmallBankLoader.this.sqlAccts);
-                this.stmtSavings = conn.prepareStatement(SmallBankLoader.this.sqlSavings);
-                this.stmtChecking = conn.prepareStatement(SmallBankLoader.this.sqlChecking);
+            // The savings and checking rows reference the accounts
+            try (BulkWriter acctsWriter = getBulkWriter(conn, SmallBankConstants.TABLENAME_ACCOUNTS);
+                 BulkWriter savingsWriter = getBulkWriter(conn, SmallBankConstants.TABLENAME_SAVINGS);
+                 BulkWriter checkingWriter = getBulkWriter(conn, SmallBankConstants.TABLENAME_CHECKING)) {
+                savingsWriter.loadAfter(acctsWriter);
+                checkingWriter.loadAfter(acctsWriter);
 
                 final String acctNameFormat = "%0" + custNameLength + "d";
-                int batchSize = 0;
                 for (long acctId = this.start; acctId < this.stop; acctId++) {
                     // ACCOUNT
                     String acctName = String.format(acctNameFormat, acctId);
-                    stmtAccts.setLong(1, acctId);
-                    stmtAccts.setString(2, acctName);
-                    stmtAccts.addBatch();
+                    acctsWriter.setLong(1, acctId);
+                    acctsWriter.setString(2, acctName);
+                    acctsWriter.addRow();
 
                     // CHECKINGS
-                    stmtChecking.setLong(1, acctId);
-                    stmtChecking.setInt(2, this.randBalance.nextInt());
-                    stmtChecking.addBatch();
+                    checkingWriter.setLong(1, acctId);
+                    checkingWriter.setInt(2, this.randBalance.nextInt());
+                    checkingWriter.addRow();
 
                     // SAVINGS
-                    stmtSavings.setLong(1, acctId);
-                    stmtSavings.setInt(2, this.randBalance.nextInt());
-                    stmtSavings.addBatch();
-
-                    if (++batchSize >= workConf.getBatchSize()) {
-                        this.loadTables(conn);
-                        batchSize = 0;
-                    }
-                }
-                if (batchSize > 0) {
-                    this.loadTables(conn);
+                    savingsWriter.setLong(1, acctId);
+                    savingsWriter.setInt(2, this.randBalance.nextInt());
+                    savingsWriter.addRow();
                 }
             } catch (SQLException ex) {
                 LOG.error("Failed to load data", ex);
                 throw new RuntimeException(ex);
             }
         }
-
-        private void loadTables(Connection conn) throws SQLException {
-            this.stmtAccts.executeBatch();
-            this.stmtSavings.executeBatch();
-            this.stmtChecking.executeBatch();
-
-        }
     }
 
 }
@@ -18,13 +18,11 @@
 
 package com.oltpbenchmark.benchmarks.tatp;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
-import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -110,56 +108,39 @@ public class TATPLoader extends Loader<TATPBenchmark> {
      * Populate Subscriber table per benchmark spec.
      */
     void genSubscriber(Connection conn, long lo, long hi) throws SQLException {
-        // Create a prepared statement
-        Table catalog_tbl = benchmark.getCatalog().getTable(TATPConstants.TABLENAME_SUBSCRIBER);
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (BulkWriter writer = getBulkWriter(conn, TATPConstants.TABLENAME_SUBSCRIBER)) {
 
             long total = 0;
-            int batch = 0;
 
             for (long s_id = lo; s_id <= hi; s_id++) {
                 int col = 0;
 
-                pstmt.setLong(++col, s_id);
-                pstmt.setString(++col, TATPUtil.padWithZero(s_id));
+                writer.setLong(++col, s_id);
+                writer.setString(++col, TATPUtil.padWithZero(s_id));
 
                 // BIT_##
                 for (int j = 0; j < 10; j++) {
-                    pstmt.setByte(++col, TATPUtil.number(0, 1).byteValue());
+                    writer.setInt(++col, TATPUtil.number(0, 1).byteValue());
                 }
                 // HEX_##
                 for (int j = 0; j < 10; j++) {
-                    pstmt.setByte(++col, TATPUtil.number(0, 15).byteValue());
+                    writer.setInt(++col, TATPUtil.number(0, 15).byteValue());
                 }
                 // BYTE2_##
                 for (int j = 0; j < 10; j++) {
-                    pstmt.setShort(++col, TATPUtil.number(0, 255).shortValue());
+                    writer.setInt(++col, TATPUtil.number(0, 255).shortValue());
                 }
                 // msc_location + vlr_location
                 for (int j = 0; j < 2; j++) {
-                    pstmt.setInt(++col, TATPUtil.number(0, Integer.MAX_VALUE).intValue());
+                    writer.setInt(++col, TATPUtil.number(0, Integer.MAX_VALUE).intValue());
                 }
                 total++;
-                pstmt.addBatch();
+                writer.addRow();
 
-                if (++batch >= workConf.getBatchSize()) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("%s: %6d / %d", catalog_tbl.getName(), total, subscriberSize));
-                    }
-                    int[] results = pstmt.executeBatch();
-
-                    batch = 0;
+                if (LOG.isDebugEnabled() && (total % workConf.getBatchSize() == 0 || s_id == hi)) {
+                    LOG.debug(String.format("%s: %6d / %d", TATPConstants.TABLENAME_SUBSCRIBER, total, subscriberSize));
                 }
             }
-            if (batch > 0) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(String.format("%s: %6d / %d", catalog_tbl.getName(), total, subscriberSize));
-                }
-                int[] results = pstmt.executeBatch();
-
-            }
-
         }
     }
 
@@ -167,45 +148,28 @@ public class TATPLoader extends Loader<TATPBenchmark> {
      * Populate Access_Info table per benchmark spec.
      */
     void genAccessInfo(Connection conn) throws SQLException {
-        // Create a prepared statement
-        Table catalog_tbl = benchmark.getCatalog().getTable(TATPConstants.TABLENAME_ACCESS_INFO);
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (BulkWriter writer = getBulkWriter(conn, TATPConstants.TABLENAME_ACCESS_INFO)) {
 
             int s_id = 0;
             int[] arr = {1, 2, 3, 4};
 
             int[] ai_types = TATPUtil.subArr(arr, 1, 4);
             long total = 0;
-            int batch = 0;
             while (s_id++ < subscriberSize) {
                 for (int ai_type : ai_types) {
                     int col = 0;
-                    pstmt.setLong(++col, s_id);
-                    pstmt.setByte(++col, (byte) ai_type);
-                    pstmt.setShort(++col, TATPUtil.number(0, 255).shortValue());
-                    pstmt.setShort(++col, TATPUtil.number(0, 255).shortValue());
-                    pstmt.setString(++col, TATPUtil.astring(3, 3));
-                    pstmt.setString(++col, TATPUtil.astring(5, 5));
-                    pstmt.addBatch();
-                    batch++;
+                    writer.setLong(++col, s_id);
+                    writer.setInt(++col, (byte) ai_type);
+                    writer.setInt(++col, TATPUtil.number(0, 255).shortValue());
+                    writer.setInt(++col, TATPUtil.number(0, 255).shortValue());
+                    writer.setString(++col, TATPUtil.astring(3, 3));
+                    writer.setString(++col, TATPUtil.astring(5, 5));
+                    writer.addRow();
                     total++;
                 }
-                if (batch >= workConf.getBatchSize()) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("%s: %6d / %d", TATPConstants.TABLENAME_ACCESS_INFO, total, ai_types.length * subscriberSize));
-                    }
-                    int[] results = pstmt.executeBatch();
-
-                    batch = 0;
-                }
-            }
-            if (batch > 0) {
-                if (LOG.isDebugEnabled()) {
+                if (LOG.isDebugEnabled() && (s_id % workConf.getBatchSize() == 0 || s_id == subscriberSize)) {
                     LOG.debug(String.format("%s: %6d / %d", TATPConstants.TABLENAME_ACCESS_INFO, total, ai_types.length * subscriberSize));
                 }
-                int[] results = pstmt.executeBatch();
-
             }
         }
     }
@@ -215,16 +179,7 @@ public class TATPLoader extends Loader<TATPBenchmark> {
      * spec.
      */
     void genSpeAndCal(Connection conn) throws SQLException {
-        // Create a prepared statement
-        Table catalog_spe = benchmark.getCatalog().getTable(TATPConstants.TABLENAME_SPECIAL_FACILITY);
-        Table catalog_cal = benchmark.getCatalog().getTable(TATPConstants.TABLENAME_CALL_FORWARDING);
-        String spe_sql = SQLUtil.getInsertSQL(catalog_spe, this.getDatabaseType());
-
-        int spe_batch = 0;
         long spe_total = 0;
-
-        String cal_sql = SQLUtil.getInsertSQL(catalog_cal, this.getDatabaseType());
-
         long cal_total = 0;
 
         int s_id = 0;
@@ -233,75 +188,43 @@ public class TATPLoader extends Loader<TATPBenchmark> {
         if (LOG.isDebugEnabled()) {
             LOG.debug("subscriberSize = {}", subscriberSize);
         }
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("batchSize = {}", workConf.getBatchSize());
-        }
 
-        try (PreparedStatement cal_pstmt = conn.prepareStatement(cal_sql);
-             PreparedStatement spe_pstmt = conn.prepareStatement(spe_sql)) {
-            boolean cal_added = false;
+        try (BulkWriter spe_writer = getBulkWriter(conn, TATPConstants.TABLENAME_SPECIAL_FACILITY);
+             BulkWriter cal_writer = getBulkWriter(conn, TATPConstants.TABLENAME_CALL_FORWARDING)) {
+            // The call forwardings reference the special facilities
+            cal_writer.loadAfter(spe_writer);
             while (s_id++ < subscriberSize) {
                 int[] sf_types = TATPUtil.subArr(spe_arr, 1, 4);
                 for (int sf_type : sf_types) {
                     int spe_col = 0;
-                    spe_pstmt.setLong(++spe_col, s_id);
-                    spe_pstmt.setByte(++spe_col, (byte) sf_type);
-                    spe_pstmt.setByte(++spe_col, TATPUtil.isActive());
-                    spe_pstmt.setShort(++spe_col, TATPUtil.number(0, 255).shortValue());
-                    spe_pstmt.setShort(++spe_col, TATPUtil.number(0, 255).shortValue());
-                    spe_pstmt.setString(++spe_col, TATPUtil.astring(5, 5));
-                    spe_pstmt.addBatch();
-                    spe_batch++;
+                    spe_writer.setLong(++spe_col, s_id);
+                    spe_writer.setInt(++spe_col, (byte) sf_type);
+                    spe_writer.setInt(++spe_col, TATPUtil.isActive());
+                    spe_writer.setInt(++spe_col, TATPUtil.number(0, 255).shortValue());
+                    spe_writer.setInt(++spe_col, TATPUtil.number(0, 255).shortValue());
+                    spe_writer.setString(++spe_col, TATPUtil.astring(5, 5));
+                    spe_writer.addRow();
                     spe_total++;
 
                     // now call_forwarding
                     int[] start_times = TATPUtil.subArr(cal_arr, 0, 3);
                     for (int start_time : start_times) {
                         int cal_col = 0;
-                        cal_pstmt.setLong(++cal_col, s_id);
-                        cal_pstmt.setByte(++cal_col, (byte) sf_type);
-                        cal_pstmt.setByte(++cal_col, (byte) start_time);
-                        cal_pstmt.setByte(++cal_col, (byte) (start_time + TATPUtil.number(1, 8)));
-                        cal_pstmt.setString(++cal_col, TATPUtil.nstring(15, 15));
-                        cal_pstmt.addBatch();
-                        cal_added = true;
+                        cal_writer.setLong(++cal_col, s_id);
+                        cal_writer.setInt(++cal_col, (byte) sf_type);
+                        cal_writer.setInt(++cal_col, (byte) start_time);
+                        cal_writer.setInt(++cal_col, (byte) (start_time + TATPUtil.number(1, 8)));
+                        cal_writer.setString(++cal_col, TATPUtil.nstring(15, 15));
+                        cal_writer.addRow();
                         cal_total++;
                     }
                 }
 
-                if (spe_batch > workConf.getBatchSize()) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("%s: %d (%s %d / %d)", TATPConstants.TABLENAME_SPECIAL_FACILITY, spe_total, TATPConstants.TABLENAME_SUBSCRIBER, s_id, subscriberSize));
-                    }
-                    int[] results = spe_pstmt.executeBatch();
-
-                    if (cal_added) {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug(String.format("%s: %d (%s %d / %d)", TATPConstants.TABLENAME_CALL_FORWARDING, cal_total, TATPConstants.TABLENAME_SUBSCRIBER, s_id, subscriberSize));
-                        }
-                        results = cal_pstmt.executeBatch();
-                        cal_added = false;
-                    }
-
-                    spe_batch = 0;
+                if (LOG.isDebugEnabled() && (s_id % workConf.getBatchSize() == 0 || s_id == subscriberSize)) {
+                    LOG.debug(String.format("%s: %d (%s %d / %d)", TATPConstants.TABLENAME_SPECIAL_FACILITY, spe_total, TATPConstants.TABLENAME_SUBSCRIBER, s_id, subscriberSize));
+                    LOG.debug(String.format("%s: %d (%s %d / %d)", TATPConstants.TABLENAME_CALL_FORWARDING, cal_total, TATPConstants.TABLENAME_SUBSCRIBER, s_id, subscriberSize));
                 }
             }
-            LOG.debug("spe_batch = {}", spe_batch);
-            if (spe_batch > 0) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(String.format("%s: %d", TATPConstants.TABLENAME_SPECIAL_FACILITY, spe_total));
-                }
-                int[] results = spe_pstmt.executeBatch();
-
-                if (cal_added) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("%s: %d", TATPConstants.TABLENAME_CALL_FORWARDING, cal_total));
-                    }
-                    results = cal_pstmt.executeBatch();
-                    cal_added = false;
-                }
-
-            }
         }
     }
 }
@@ -18,11 +18,10 @@
 
 package com.oltpbenchmark.benchmarks.tpcc;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.tpcc.pojo.*;
-import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -120,7 +119,6 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     }
                     // ORDER LINES
                     loadOrderLines(conn, w_id, TPCCConfig.configDistPerWhse, TPCCConfig.configCustPerDist);
-
                 }
 
                 @Override
@@ -140,18 +138,11 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
         return (threads);
     }
 
-    private PreparedStatement getInsertStatement(Connection conn, String tableName) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(tableName);
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        return conn.prepareStatement(sql);
-    }
-
 
     protected void loadItems(Connection conn, int itemCount) {
 
-        try (PreparedStatement itemPrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_ITEM)) {
+        try (BulkWriter itemWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_ITEM)) {
 
-            int batchSize = 0;
             for (int i = 1; i <= itemCount; i++) {
 
                 Item item = new Item();
@@ -175,25 +166,12 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 item.i_im_id = TPCCUtil.randomNumber(1, 10000, benchmark.rng());
 
                 int idx = 1;
-                itemPrepStmt.setLong(idx++, item.i_id);
-                itemPrepStmt.setString(idx++, item.i_name);
-                itemPrepStmt.setDouble(idx++, item.i_price);
-                itemPrepStmt.setString(idx++, item.i_data);
-                itemPrepStmt.setLong(idx, item.i_im_id);
-                itemPrepStmt.addBatch();
-                batchSize++;
-
-                if (batchSize == workConf.getBatchSize()) {
-                    itemPrepStmt.executeBatch();
-                    itemPrepStmt.clearBatch();
-                    batchSize = 0;
-                }
-            }
-
-
-            if (batchSize > 0) {
-                itemPrepStmt.executeBatch();
-                itemPrepStmt.clearBatch();
+                itemWriter.setLong(idx++, item.i_id);
+                itemWriter.setString(idx++, item.i_name);
+                itemWriter.setDouble(idx++, item.i_price);
+                itemWriter.setString(idx++, item.i_data);
+                itemWriter.setLong(idx, item.i_im_id);
+                itemWriter.addRow();
             }
 
         } catch (SQLException se) {
@@ -205,7 +183,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadWarehouse(Connection conn, int w_id) {
 
-        try (PreparedStatement whsePrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_WAREHOUSE)) {
+        try (BulkWriter whseWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_WAREHOUSE)) {
             Warehouse warehouse = new Warehouse();
 
             warehouse.w_id = w_id;
@@ -221,16 +199,16 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
             warehouse.w_zip = "123456789";
 
             int idx = 1;
-            whsePrepStmt.setLong(idx++, warehouse.w_id);
-            whsePrepStmt.setDouble(idx++, warehouse.w_ytd);
-            whsePrepStmt.setDouble(idx++, warehouse.w_tax);
-            whsePrepStmt.setString(idx++, warehouse.w_name);
-            whsePrepStmt.setString(idx++, warehouse.w_street_1);
-            whsePrepStmt.setString(idx++, warehouse.w_street_2);
-            whsePrepStmt.setString(idx++, warehouse.w_city);
-            whsePrepStmt.setString(idx++, warehouse.w_state);
-            whsePrepStmt.setString(idx, warehouse.w_zip);
-            whsePrepStmt.execute();
+            whseWriter.setLong(idx++, warehouse.w_id);
+            whseWriter.setDouble(idx++, warehouse.w_ytd);
+            whseWriter.setDouble(idx++, warehouse.w_tax);
+            whseWriter.setString(idx++, warehouse.w_name);
+            whseWriter.setString(idx++, warehouse.w_street_1);
+            whseWriter.setString(idx++, warehouse.w_street_2);
+            whseWriter.setString(idx++, warehouse.w_city);
+            whseWriter.setString(idx++, warehouse.w_state);
+            whseWriter.setString(idx, warehouse.w_zip);
+            whseWriter.addRow();
 
         } catch (SQLException se) {
             LOG.error(se.getMessage());
@@ -240,9 +218,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadStock(Connection conn, int w_id, int numItems) {
 
-        int k = 0;
-
-        try (PreparedStatement stockPreparedStatement = getInsertStatement(conn, TPCCConstants.TABLENAME_STOCK)) {
+        try (BulkWriter stockWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_STOCK)) {
 
             for (int i = 1; i <= numItems; i++) {
                 Stock stock = new Stock();
@@ -268,36 +244,26 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 }
 
                 int idx = 1;
-                stockPreparedStatement.setLong(idx++, stock.s_w_id);
-                stockPreparedStatement.setLong(idx++, stock.s_i_id);
-                stockPreparedStatement.setLong(idx++, stock.s_quantity);
-                stockPreparedStatement.setDouble(idx++, stock.s_ytd);
-                stockPreparedStatement.setLong(idx++, stock.s_order_cnt);
-                stockPreparedStatement.setLong(idx++, stock.s_remote_cnt);
-                stockPreparedStatement.setString(idx++, stock.s_data);
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx++, TPCCUtil.randomStr(24));
-                stockPreparedStatement.setString(idx, TPCCUtil.randomStr(24));
-                stockPreparedStatement.addBatch();
-
-                k++;
-
-                if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                    stockPreparedStatement.executeBatch();
-                    stockPreparedStatement.clearBatch();
-                }
+                stockWriter.setLong(idx++, stock.s_w_id);
+                stockWriter.setLong(idx++, stock.s_i_id);
+                stockWriter.setLong(idx++, stock.s_quantity);
+                stockWriter.setDouble(idx++, stock.s_ytd);
+                stockWriter.setLong(idx++, stock.s_order_cnt);
+                stockWriter.setLong(idx++, stock.s_remote_cnt);
+                stockWriter.setString(idx++, stock.s_data);
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx++, TPCCUtil.randomStr(24));
+                stockWriter.setString(idx, TPCCUtil.randomStr(24));
+                stockWriter.addRow();
             }
 
-            stockPreparedStatement.executeBatch();
-            stockPreparedStatement.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage());
         }
@@ -306,7 +272,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadDistricts(Connection conn, int w_id, int districtsPerWarehouse) {
 
-        try (PreparedStatement distPrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_DISTRICT)) {
+        try (BulkWriter distWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_DISTRICT)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 District district = new District();
@@ -326,18 +292,18 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                 district.d_zip = "123456789";
 
                 int idx = 1;
-                distPrepStmt.setLong(idx++, district.d_w_id);
-                distPrepStmt.setLong(idx++, district.d_id);
-                distPrepStmt.setDouble(idx++, district.d_ytd);
-                distPrepStmt.setDouble(idx++, district.d_tax);
-                distPrepStmt.setLong(idx++, district.d_next_o_id);
-                distPrepStmt.setString(idx++, district.d_name);
-                distPrepStmt.setString(idx++, district.d_street_1);
-                distPrepStmt.setString(idx++, district.d_street_2);
-                distPrepStmt.setString(idx++, district.d_city);
-                distPrepStmt.setString(idx++, district.d_state);
-                distPrepStmt.setString(idx, district.d_zip);
-                distPrepStmt.executeUpdate();
+                distWriter.setLong(idx++, district.d_w_id);
+                distWriter.setLong(idx++, district.d_id);
+                distWriter.setDouble(idx++, district.d_ytd);
+                distWriter.setDouble(idx++, district.d_tax);
+                distWriter.setLong(idx++, district.d_next_o_id);
+                distWriter.setString(idx++, district.d_name);
+                distWriter.setString(idx++, district.d_street_1);
+                distWriter.setString(idx++, district.d_street_2);
+                distWriter.setString(idx++, district.d_city);
+                distWriter.setString(idx++, district.d_state);
+                distWriter.setString(idx, district.d_zip);
+                distWriter.addRow();
             }
 
         } catch (SQLException se) {
@@ -348,9 +314,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadCustomers(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement custPrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_CUSTOMER)) {
+        try (BulkWriter custWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_CUSTOMER)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 for (int c = 1; c <= customersPerDistrict; c++) {
@@ -394,41 +358,31 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     customer.c_data = TPCCUtil.randomStr(TPCCUtil.randomNumber(300, 500, benchmark.rng()));
 
                     int idx = 1;
-                    custPrepStmt.setLong(idx++, customer.c_w_id);
-                    custPrepStmt.setLong(idx++, customer.c_d_id);
-                    custPrepStmt.setLong(idx++, customer.c_id);
-                    custPrepStmt.setDouble(idx++, customer.c_discount);
-                    custPrepStmt.setString(idx++, customer.c_credit);
-                    custPrepStmt.setString(idx++, customer.c_last);
-                    custPrepStmt.setString(idx++, customer.c_first);
-                    custPrepStmt.setDouble(idx++, customer.c_credit_lim);
-                    custPrepStmt.setDouble(idx++, customer.c_balance);
-                    custPrepStmt.setDouble(idx++, customer.c_ytd_payment);
-                    custPrepStmt.setLong(idx++, customer.c_payment_cnt);
-                    custPrepStmt.setLong(idx++, customer.c_delivery_cnt);
-                    custPrepStmt.setString(idx++, customer.c_street_1);
-                    custPrepStmt.setString(idx++, customer.c_street_2);
-                    custPrepStmt.setString(idx++, customer.c_city);
-                    custPrepStmt.setString(idx++, customer.c_state);
-                    custPrepStmt.setString(idx++, customer.c_zip);
-                    custPrepStmt.setString(idx++, customer.c_phone);
-                    custPrepStmt.setTimestamp(idx++, customer.c_since);
-                    custPrepStmt.setString(idx++, customer.c_middle);
-                    custPrepStmt.setString(idx, customer.c_data);
-                    custPrepStmt.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        custPrepStmt.executeBatch();
-                        custPrepStmt.clearBatch();
-                    }
+                    custWriter.setLong(idx++, customer.c_w_id);
+                    custWriter.setLong(idx++, customer.c_d_id);
+                    custWriter.setLong(idx++, customer.c_id);
+                    custWriter.setDouble(idx++, customer.c_discount);
+                    custWriter.setString(idx++, customer.c_credit);
+                    custWriter.setString(idx++, customer.c_last);
+                    custWriter.setString(idx++, customer.c_first);
+                    custWriter.setDouble(idx++, customer.c_credit_lim);
+                    custWriter.setDouble(idx++, customer.c_balance);
+                    custWriter.setDouble(idx++, customer.c_ytd_payment);
+                    custWriter.setLong(idx++, customer.c_payment_cnt);
+                    custWriter.setLong(idx++, customer.c_delivery_cnt);
+                    custWriter.setString(idx++, customer.c_street_1);
+                    custWriter.setString(idx++, customer.c_street_2);
+                    custWriter.setString(idx++, customer.c_city);
+                    custWriter.setString(idx++, customer.c_state);
+                    custWriter.setString(idx++, customer.c_zip);
+                    custWriter.setString(idx++, customer.c_phone);
+                    custWriter.setTimestamp(idx++, customer.c_since);
+                    custWriter.setString(idx++, customer.c_middle);
+                    custWriter.setString(idx, customer.c_data);
+                    custWriter.addRow();
                 }
             }
 
-            custPrepStmt.executeBatch();
-            custPrepStmt.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage());
         }
@@ -437,9 +391,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadCustomerHistory(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement histPrepStmt = getInsertStatement(conn, TPCCConstants.TABLENAME_HISTORY)) {
+        try (BulkWriter histWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_HISTORY)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 for (int c = 1; c <= customersPerDistrict; c++) {
@@ -455,30 +407,19 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     history.h_amount = 10;
                     history.h_data = TPCCUtil.randomStr(TPCCUtil.randomNumber(10, 24, benchmark.rng()));
 
-
                     int idx = 1;
-                    histPrepStmt.setInt(idx++, history.h_c_id);
-                    histPrepStmt.setInt(idx++, history.h_c_d_id);
-                    histPrepStmt.setInt(idx++, history.h_c_w_id);
-                    histPrepStmt.setInt(idx++, history.h_d_id);
-                    histPrepStmt.setInt(idx++, history.h_w_id);
-                    histPrepStmt.setTimestamp(idx++, history.h_date);
-                    histPrepStmt.setDouble(idx++, history.h_amount);
-                    histPrepStmt.setString(idx, history.h_data);
-                    histPrepStmt.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        histPrepStmt.executeBatch();
-                        histPrepStmt.clearBatch();
-                    }
+                    histWriter.setInt(idx++, history.h_c_id);
+                    histWriter.setInt(idx++, history.h_c_d_id);
+                    histWriter.setInt(idx++, history.h_c_w_id);
+                    histWriter.setInt(idx++, history.h_d_id);
+                    histWriter.setInt(idx++, history.h_w_id);
+                    histWriter.setTimestamp(idx++, history.h_date);
+                    histWriter.setDouble(idx++, history.h_amount);
+                    histWriter.setString(idx, history.h_data);
+                    histWriter.addRow();
                 }
             }
 
-            histPrepStmt.executeBatch();
-            histPrepStmt.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage());
         }
@@ -487,9 +428,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadOpenOrders(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement openOrderStatement = getInsertStatement(conn, TPCCConstants.TABLENAME_OPENORDER)) {
+        try (BulkWriter openOrderWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_OPENORDER)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
                 // TPC-C 4.3.3.1: o_c_id must be a permutation of [1, 3000]
@@ -526,36 +465,24 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                     oorder.o_all_local = 1;
                     oorder.o_entry_d = new Timestamp(System.currentTimeMillis());
 
-
                     int idx = 1;
-                    openOrderStatement.setInt(idx++, oorder.o_w_id);
-                    openOrderStatement.setInt(idx++, oorder.o_d_id);
-                    openOrderStatement.setInt(idx++, oorder.o_id);
-                    openOrderStatement.setInt(idx++, oorder.o_c_id);
+                    openOrderWriter.setInt(idx++, oorder.o_w_id);
+                    openOrderWriter.setInt(idx++, oorder.o_d_id);
+                    openOrderWriter.setInt(idx++, oorder.o_id);
+                    openOrderWriter.setInt(idx++, oorder.o_c_id);
                     if (oorder.o_carrier_id != null) {
-                        openOrderStatement.setInt(idx++, oorder.o_carrier_id);
+                        openOrderWriter.setInt(idx++, oorder.o_carrier_id);
                     } else {
-                        openOrderStatement.setNull(idx++, Types.INTEGER);
+                        openOrderWriter.setNull(idx++, Types.INTEGER);
                     }
-                    openOrderStatement.setInt(idx++, oorder.o_ol_cnt);
-                    openOrderStatement.setInt(idx++, oorder.o_all_local);
-                    openOrderStatement.setTimestamp(idx, oorder.o_entry_d);
-                    openOrderStatement.addBatch();
-
-                    k++;
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        openOrderStatement.executeBatch();
-                        openOrderStatement.clearBatch();
-                    }
-
+                    openOrderWriter.setInt(idx++, oorder.o_ol_cnt);
+                    openOrderWriter.setInt(idx++, oorder.o_all_local);
+                    openOrderWriter.setTimestamp(idx, oorder.o_entry_d);
+                    openOrderWriter.addRow();
                 }
 
             }
 
-            openOrderStatement.executeBatch();
-            openOrderStatement.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
         }
@@ -575,9 +502,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadNewOrders(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement newOrderStatement = getInsertStatement(conn, TPCCConstants.TABLENAME_NEWORDER)) {
+        try (BulkWriter newOrderWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_NEWORDER)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
 
@@ -593,26 +518,16 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                         new_order.no_o_id = c;
 
                         int idx = 1;
-                        newOrderStatement.setInt(idx++, new_order.no_w_id);
-                        newOrderStatement.setInt(idx++, new_order.no_d_id);
-                        newOrderStatement.setInt(idx, new_order.no_o_id);
-                        newOrderStatement.addBatch();
-
-                        k++;
-                    }
-
-                    if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                        newOrderStatement.executeBatch();
-                        newOrderStatement.clearBatch();
+                        newOrderWriter.setInt(idx++, new_order.no_w_id);
+                        newOrderWriter.setInt(idx++, new_order.no_d_id);
+                        newOrderWriter.setInt(idx, new_order.no_o_id);
+                        newOrderWriter.addRow();
                     }
 
                 }
 
             }
 
-            newOrderStatement.executeBatch();
-            newOrderStatement.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
         }
@@ -621,9 +536,7 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
 
     protected void loadOrderLines(Connection conn, int w_id, int districtsPerWarehouse, int customersPerDistrict) {
 
-        int k = 0;
-
-        try (PreparedStatement orderLineStatement = getInsertStatement(conn, TPCCConstants.TABLENAME_ORDERLINE)) {
+        try (BulkWriter orderLineWriter = getBulkWriter(conn, TPCCConstants.TABLENAME_ORDERLINE)) {
 
             for (int d = 1; d <= districtsPerWarehouse; d++) {
 
@@ -651,38 +564,26 @@ public class TPCCLoader extends Loader<TPCCBenchmark> {
                         order_line.ol_dist_info = TPCCUtil.randomStr(24);
 
                         int idx = 1;
-                        orderLineStatement.setInt(idx++, order_line.ol_w_id);
-                        orderLineStatement.setInt(idx++, order_line.ol_d_id);
-                        orderLineStatement.setInt(idx++, order_line.ol_o_id);
-                        orderLineStatement.setInt(idx++, order_line.ol_number);
-                        orderLineStatement.setLong(idx++, order_line.ol_i_id);
+                        orderLineWriter.setInt(idx++, order_line.ol_w_id);
+                        orderLineWriter.setInt(idx++, order_line.ol_d_id);
+                        orderLineWriter.setInt(idx++, order_line.ol_o_id);
+                        orderLineWriter.setInt(idx++, order_line.ol_number);
+                        orderLineWriter.setLong(idx++, order_line.ol_i_id);
                         if (order_line.ol_delivery_d != null) {
-                            orderLineStatement.setTimestamp(idx++, order_line.ol_delivery_d);
+                            orderLineWriter.setTimestamp(idx++, order_line.ol_delivery_d);
                         } else {
-                            orderLineStatement.setNull(idx++, 0);
+                            orderLineWriter.setNull(idx++, 0);
                         }
-                        orderLineStatement.setDouble(idx++, order_line.ol_amount);
-                        orderLineStatement.setLong(idx++, order_line.ol_supply_w_id);
-                        orderLineStatement.setDouble(idx++, order_line.ol_quantity);
-                        orderLineStatement.setString(idx, order_line.ol_dist_info);
-                        orderLineStatement.addBatch();
-
-                        k++;
-
-                        if (k != 0 && (k % workConf.getBatchSize()) == 0) {
-                            orderLineStatement.executeBatch();
-                            orderLineStatement.clearBatch();
-                        }
-
+                        orderLineWriter.setDouble(idx++, order_line.ol_amount);
+                        orderLineWriter.setLong(idx++, order_line.ol_supply_w_id);
+                        orderLineWriter.setDouble(idx++, order_line.ol_quantity);
+                        orderLineWriter.setString(idx, order_line.ol_dist_info);
+                        orderLineWriter.addRow();
                     }
 
                 }
-
             }
 
-            orderLineStatement.executeBatch();
-            orderLineStatement.clearBatch();
-
         } catch (SQLException se) {
             LOG.error(se.getMessage(), se);
         }
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.tpcds;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the fields of a memory-mapped chunk of a flat file, one line at a
+ * time, without copying the lines or matching them with regular
+ * expressions. Two formats are supported:
+ * <ul>
+ * <li>csv: comma separated, with the blanks before a field and the double
+ * quotes around it dropped</li>
+ * <li>tbl/dat (as written by dsdgen): each field is followed by a '|'</li>
+ * </ul>
+ * Not thread-safe: each chunk is read by a single thread.
+ */
+final class FlatFileScanner {
+
+    /**
+     * A file is not split into chunks smaller than this.
+     */
+    static final long MIN_CHUNK_BYTES = 32L << 20;
+
+    /**
+     * Nor into chunks larger than this, as a chunk is mapped at once.
+     */
+    static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    /**
+     * The powers of ten that are exact doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ByteBuffer buffer;
+    private final byte delimiter;
+    private final boolean csv;
+
+    // The current line, without its line break
+    private int lineStart;
+    private int lineEnd;
+    private int nextLine = 0;
+
+    // Where the next field starts, past the end of the line if there is none
+    private int cursor;
+
+    // The current field
+    private int fieldStart;
+    private int fieldEnd;
+
+    private byte[] scratch = new byte[256];
+
+    FlatFileScanner(ByteBuffer buffer, boolean csv) {
+        this.buffer = buffer;
+        this.csv = csv;
+        this.delimiter = (byte) (csv ? ',' : '|');
+    }
+
+    /**
+     * Map a file as chunks that end on line boundaries.
+     *
+     * @param maxChunks the number of chunks to split the file into, if they
+     *                  are large enough
+     */
+    static List<ByteBuffer> map(Path path, int maxChunks) throws IOException {
+        return map(path, maxChunks, MIN_CHUNK_BYTES);
+    }
+
+    static List<ByteBuffer> map(Path path, int maxChunks, long minChunkBytes) throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long count = Math.max(1, Math.min(maxChunks, size / minChunkBytes));
+            count = Math.max(count, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+
+            long start = 0;
+            for (long i = 1; i <= count && start < size; i++) {
+                long end = (i == count ? size : nextLineStart(channel, Math.max(start, size / count * i)));
+                if (end > start) {
+                    // The mapping stays valid once the channel is closed
+                    chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+                }
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the position after the first line break at or after position
+     */
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(1 << 16);
+        while (true) {
+            block.clear();
+            int read = channel.read(block, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (block.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Move to the next non-empty line.
+     *
+     * @return false at the end of the chunk
+     */
+    boolean nextLine() {
+        int limit = buffer.limit();
+        while (nextLine < limit) {
+            int start = nextLine;
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            nextLine = end + 1;
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end > start) {
+                lineStart = start;
+                lineEnd = end;
+                cursor = start;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Move to the next field of the current line.
+     *
+     * @return false if the line has no more fields
+     */
+    boolean nextField() {
+        if (cursor > lineEnd) {
+            return false;
+        }
+        int position = cursor;
+        if (csv) {
+            while (position < lineEnd && (buffer.get(position) == ' ' || buffer.get(position) == '\t')) {
+                position++;
+            }
+        }
+        if (position < lineEnd && buffer.get(position) == '"') {
+            int close = position + 1;
+            while (close < lineEnd && buffer.get(close) != '"') {
+                close++;
+            }
+            fieldStart = position + 1;
+            fieldEnd = close;
+            position = Math.min(close + 1, lineEnd);
+            while (position < lineEnd && buffer.get(position) != delimiter) {
+                position++;
+            }
+        } else {
+            fieldStart = position;
+            while (position < lineEnd && buffer.get(position) != delimiter) {
+                position++;
+            }
+            fieldEnd = position;
+        }
+        cursor = position + 1;
+        return true;
+    }
+
+    /**
+     * The current line, for error messages.
+     */
+    String getLine() {
+        return decode(lineStart, lineEnd);
+    }
+
+    boolean isEmpty() {
+        return fieldEnd == fieldStart;
+    }
+
+    String getString() {
+        return decode(fieldStart, fieldEnd);
+    }
+
+    long getLong() {
+        int position = fieldStart;
+        int end = fieldEnd;
+        while (position < end && buffer.get(position) == ' ') {
+            position++;
+        }
+        while (end > position && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        boolean negative = false;
+        if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+        if (position == end) {
+            throw new NumberFormatException("Invalid number \"" + getString() + "\"");
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid number \"" + getString() + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return (negative ? -value : value);
+    }
+
+    /**
+     * Parse a decimal number, e.g. 1234.56 or -1.5E3. The numbers of at most
+     * 15 significant digits with a small exponent, such as the ones dsdgen
+     * writes, are computed from their digits with a single correctly rounded
+     * operation, so without a String and with the same result as
+     * Double.parseDouble(). Only the other ones are parsed from a String.
+     */
+    double getDouble() {
+        int position = fieldStart;
+        int end = fieldEnd;
+        while (position < end && buffer.get(position) == ' ') {
+            position++;
+        }
+        while (end > position && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        boolean negative = false;
+        if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position) == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        boolean digits = false;
+        boolean point = false;
+        for (; position < end; position++) {
+            int b = buffer.get(position);
+            if (b >= '0' && b <= '9') {
+                digits = true;
+                if (mantissa != 0 || b != '0') {
+                    if (++significant > 15) {
+                        return parseDouble();
+                    }
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (point) {
+                    scale++;
+                }
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        int exponent = 0;
+        if (digits && position < end && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                negativeExponent = buffer.get(position) == '-';
+                position++;
+            }
+            int start = position;
+            for (; position < end && position - start < 4; position++) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                exponent = exponent * 10 + digit;
+            }
+            if (position == start) {
+                return parseDouble();
+            }
+            exponent = (negativeExponent ? -exponent : exponent);
+        }
+        if (!digits || position != end) {
+            return parseDouble();
+        }
+
+        double value = mantissa;
+        int power = exponent - scale;
+        if (mantissa != 0 && power != 0) {
+            if (power > 0 && power < POWERS_OF_TEN.length) {
+                value *= POWERS_OF_TEN[power];
+            } else if (power < 0 && -power < POWERS_OF_TEN.length) {
+                value /= POWERS_OF_TEN[-power];
+            } else {
+                return parseDouble();
+            }
+        }
+        return (negative ? -value : value);
+    }
+
+    private double parseDouble() {
+        try {
+            return Double.parseDouble(getString().trim());
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Invalid number \"" + getString() + "\"");
+        }
+    }
+
+    /**
+     * Parse a date in one of the formats yyyy-mm-dd, yyyymmdd, mm/dd/yyyy or
+     * dd.mm.yyyy.
+     *
+     * @return the date as the number yyyymmdd
+     */
+    int getDate() {
+        int position = fieldStart;
+        int end = fieldEnd;
+        while (position < end && buffer.get(position) == ' ') {
+            position++;
+        }
+        while (end > position && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        int length = end - position;
+        if (length == 10 && buffer.get(position + 4) == '-' && buffer.get(position + 7) == '-') {
+            return digits(position, 4) * 10000 + digits(position + 5, 2) * 100 + digits(position + 8, 2);
+        } else if (length == 8) {
+            return digits(position, 8);
+        } else if (length == 10 && buffer.get(position + 2) == '/' && buffer.get(position + 5) == '/') {
+            return digits(position + 6, 4) * 10000 + digits(position, 2) * 100 + digits(position + 3, 2);
+        } else if (length == 10 && buffer.get(position + 2) == '.' && buffer.get(position + 5) == '.') {
+            return digits(position + 6, 4) * 10000 + digits(position + 3, 2) * 100 + digits(position, 2);
+        }
+        throw new IllegalArgumentException("Unrecognized date \"" + getString() + "\"");
+    }
+
+    private int digits(int position, int count) {
+        int value = 0;
+        for (int i = position; i < position + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Unrecognized date \"" + getString() + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Copy the bytes of the current field.
+     *
+     * @return the position in <code>target</code> after them
+     */
+    int copyField(byte[] target, int offset) {
+        int length = fieldEnd - fieldStart;
+        buffer.get(fieldStart, target, offset, length);
+        return offset + length;
+    }
+
+    int getFieldLength() {
+        return fieldEnd - fieldStart;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
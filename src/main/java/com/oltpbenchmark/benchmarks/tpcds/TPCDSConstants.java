@@ -71,7 +71,6 @@ public abstract class TPCDSConstants {
             CastTypes.STRING, // cc_street_type
             CastTypes.STRING, // cc_suite_number
             CastTypes.STRING, // cc_city
-            CastTypes.STRING, // s_state
             CastTypes.STRING, // cc_county
             CastTypes.STRING, // cc_state
             CastTypes.STRING, // cc_zip_text
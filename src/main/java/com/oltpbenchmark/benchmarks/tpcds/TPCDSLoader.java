@@ -17,412 +17,162 @@
 
 package com.oltpbenchmark.benchmarks.tpcds;
 
+import com.oltpbenchmark.WorkloadConfiguration;
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
-import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Loads the flat files generated by dsdgen. Each file is memory-mapped and
+ * split into chunks on line boundaries, which are loaded in parallel over
+ * their own connections, each through a {@link BulkWriter}.
+ * <p>
+ * The table's LoaderThread and the chunk threads share the connections the
+ * loader may open ({@link WorkloadConfiguration#getLoaderConnections()}):
+ * the chunks of a table are loaded by its LoaderThread and by as many chunk
+ * threads as there are connections left.
+ */
 public class TPCDSLoader extends Loader<TPCDSBenchmark> {
+
+    /**
+     * Loads the chunks of the tables along with the table's LoaderThread.
+     */
+    private final ThreadPoolExecutor chunkPool;
+
+    /**
+     * The connections that are not open, by the LoaderThreads or the chunk
+     * threads.
+     */
+    private final Semaphore connections;
+
     public TPCDSLoader(TPCDSBenchmark benchmark) {
         super(benchmark);
+        int threads = Math.max(1, workConf.getLoaderConnections());
+        this.connections = new Semaphore(threads);
+        this.chunkPool = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, TPCDSLoader.class.getSimpleName() + "-chunk");
+            t.setDaemon(true);
+            return t;
+        });
+        this.chunkPool.allowCoreThreadTimeOut(true);
     }
 
     @Override
     public List<LoaderThread> createLoaderThreads() {
         List<LoaderThread> threads = new ArrayList<>();
-        final CountDownLatch custAddrLatch = new CountDownLatch(1);
-        final CountDownLatch custDemLatch = new CountDownLatch(1);
-        final CountDownLatch dateLatch = new CountDownLatch(1);
-        final CountDownLatch incomeLatch = new CountDownLatch(1);
-        final CountDownLatch itemLatch = new CountDownLatch(1);
-        final CountDownLatch reasonLatch = new CountDownLatch(1);
-        final CountDownLatch shipModeLatch = new CountDownLatch(1);
-        final CountDownLatch timeLatch = new CountDownLatch(1);
-        final CountDownLatch warehouseLatch = new CountDownLatch(1);
-        final CountDownLatch promoLatch = new CountDownLatch(1);
-        final CountDownLatch householdLatch = new CountDownLatch(1);
-        final CountDownLatch storeLatch = new CountDownLatch(1);
-        final CountDownLatch customerLatch = new CountDownLatch(1);
-        final CountDownLatch webPageLatch = new CountDownLatch(1);
-        final CountDownLatch webSiteLatch = new CountDownLatch(1);
-        final CountDownLatch callCenterLatch = new CountDownLatch(1);
-        final CountDownLatch catalogPageLatch = new CountDownLatch(1);
-        final CountDownLatch storeSalesLatch = new CountDownLatch(1);
-        final CountDownLatch catalogSalesLatch = new CountDownLatch(1);
-        final CountDownLatch webSalesLatch = new CountDownLatch(1);
-
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_CALLCENTER, TPCDSConstants.callcenterTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    callCenterLatch.countDown();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_CATALOGPAGE, TPCDSConstants.catalogpageTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    catalogPageLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_STORE, TPCDSConstants.storeTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    storeLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_WEBSITE, TPCDSConstants.websiteTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    webSiteLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_HOUSEHOLDDEM, TPCDSConstants.householddemTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    incomeLatch.await();
-                    householdLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_PROMOTION, TPCDSConstants.promotionTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    itemLatch.await();
-                    promoLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_INVENTORY, TPCDSConstants.inventoryTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    itemLatch.await();
-                    warehouseLatch.await();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.customerTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    householdLatch.await();
-                    customerLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-                loadTable(conn, TPCDSConstants.TABLENAME_WEBPAGE, TPCDSConstants.webpageTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    customerLatch.await();
-                    webPageLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_STORESALES, TPCDSConstants.storesalesTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    promoLatch.await();
-                    timeLatch.await();
-                    storeLatch.await();
-                    storeSalesLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_STORERETURNS, TPCDSConstants.storereturnsTypes);
-            }
+        Map<String, CountDownLatch> latches = new HashMap<>();
+
+        // The tables without dependencies first, so that they are not queued
+        // behind the ones waiting for them
+        addTable(threads, latches, TPCDSConstants.TABLENAME_CUSTOMERADDRESS, TPCDSConstants.customeraddressTypes);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_CUSTOMERDEM, TPCDSConstants.customerdemTypes);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.datedimTypes);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_INCOMEBAND, TPCDSConstants.incomebandTypes);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_ITEM, TPCDSConstants.itemTypes);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_REASON, TPCDSConstants.reasonTypes);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_SHIPMODE, TPCDSConstants.shipmodeTypes);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_TIMEDIM, TPCDSConstants.timedimTypes);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_WAREHOUSE, TPCDSConstants.warehouseTypes);
+
+        addTable(threads, latches, TPCDSConstants.TABLENAME_CALLCENTER, TPCDSConstants.callcenterTypes,
+                TPCDSConstants.TABLENAME_DATEDIM);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_CATALOGPAGE, TPCDSConstants.catalogpageTypes,
+                TPCDSConstants.TABLENAME_DATEDIM);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_STORE, TPCDSConstants.storeTypes,
+                TPCDSConstants.TABLENAME_DATEDIM);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_WEBSITE, TPCDSConstants.websiteTypes,
+                TPCDSConstants.TABLENAME_DATEDIM);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_HOUSEHOLDDEM, TPCDSConstants.householddemTypes,
+                TPCDSConstants.TABLENAME_INCOMEBAND);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_PROMOTION, TPCDSConstants.promotionTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_ITEM);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_INVENTORY, TPCDSConstants.inventoryTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_ITEM, TPCDSConstants.TABLENAME_WAREHOUSE);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.customerTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_CUSTOMERADDRESS, TPCDSConstants.TABLENAME_CUSTOMERDEM,
+                TPCDSConstants.TABLENAME_HOUSEHOLDDEM);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_WEBPAGE, TPCDSConstants.webpageTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_CUSTOMER);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_STORESALES, TPCDSConstants.storesalesTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_CUSTOMERADDRESS, TPCDSConstants.TABLENAME_CUSTOMERDEM,
+                TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.TABLENAME_HOUSEHOLDDEM, TPCDSConstants.TABLENAME_ITEM,
+                TPCDSConstants.TABLENAME_PROMOTION, TPCDSConstants.TABLENAME_TIMEDIM, TPCDSConstants.TABLENAME_STORE);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_STORERETURNS, TPCDSConstants.storereturnsTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_CUSTOMERADDRESS, TPCDSConstants.TABLENAME_CUSTOMERDEM,
+                TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.TABLENAME_HOUSEHOLDDEM, TPCDSConstants.TABLENAME_ITEM,
+                TPCDSConstants.TABLENAME_REASON, TPCDSConstants.TABLENAME_TIMEDIM, TPCDSConstants.TABLENAME_STORE,
+                TPCDSConstants.TABLENAME_STORESALES);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_WEBSALES, TPCDSConstants.websalesTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_CUSTOMERADDRESS, TPCDSConstants.TABLENAME_CUSTOMERDEM,
+                TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.TABLENAME_HOUSEHOLDDEM, TPCDSConstants.TABLENAME_ITEM,
+                TPCDSConstants.TABLENAME_PROMOTION, TPCDSConstants.TABLENAME_TIMEDIM, TPCDSConstants.TABLENAME_WEBPAGE,
+                TPCDSConstants.TABLENAME_SHIPMODE, TPCDSConstants.TABLENAME_WAREHOUSE, TPCDSConstants.TABLENAME_WEBSITE);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_WEBRETURNS, TPCDSConstants.webreturnsTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_CUSTOMERADDRESS, TPCDSConstants.TABLENAME_CUSTOMERDEM,
+                TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.TABLENAME_HOUSEHOLDDEM, TPCDSConstants.TABLENAME_ITEM,
+                TPCDSConstants.TABLENAME_REASON, TPCDSConstants.TABLENAME_TIMEDIM, TPCDSConstants.TABLENAME_WEBPAGE,
+                TPCDSConstants.TABLENAME_WEBSALES);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_CATALOGSALES, TPCDSConstants.catalogsalesTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_CUSTOMERADDRESS, TPCDSConstants.TABLENAME_CUSTOMERDEM,
+                TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.TABLENAME_CALLCENTER, TPCDSConstants.TABLENAME_HOUSEHOLDDEM,
+                TPCDSConstants.TABLENAME_ITEM, TPCDSConstants.TABLENAME_PROMOTION, TPCDSConstants.TABLENAME_TIMEDIM,
+                TPCDSConstants.TABLENAME_SHIPMODE, TPCDSConstants.TABLENAME_WAREHOUSE, TPCDSConstants.TABLENAME_CATALOGPAGE);
+        addTable(threads, latches, TPCDSConstants.TABLENAME_CATALOGRETURNS, TPCDSConstants.catalogreturnsTypes,
+                TPCDSConstants.TABLENAME_DATEDIM, TPCDSConstants.TABLENAME_CUSTOMERADDRESS, TPCDSConstants.TABLENAME_CUSTOMERDEM,
+                TPCDSConstants.TABLENAME_CUSTOMER, TPCDSConstants.TABLENAME_CALLCENTER, TPCDSConstants.TABLENAME_HOUSEHOLDDEM,
+                TPCDSConstants.TABLENAME_ITEM, TPCDSConstants.TABLENAME_REASON, TPCDSConstants.TABLENAME_TIMEDIM,
+                TPCDSConstants.TABLENAME_SHIPMODE, TPCDSConstants.TABLENAME_WAREHOUSE, TPCDSConstants.TABLENAME_CATALOGPAGE,
+                TPCDSConstants.TABLENAME_CATALOGSALES);
 
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    reasonLatch.await();
-                    timeLatch.await();
-                    storeLatch.await();
-                    storeSalesLatch.await();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_WEBSALES, TPCDSConstants.websalesTypes);
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    promoLatch.await();
-                    timeLatch.await();
-                    webPageLatch.await();
-                    shipModeLatch.await();
-                    warehouseLatch.await();
-                    webSiteLatch.await();
-                    webSalesLatch.countDown();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-
-
-                loadTable(conn, TPCDSConstants.TABLENAME_WEBRETURNS, TPCDSConstants.webreturnsTypes);
-            }
+        return threads;
+    }
 
-            @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    reasonLatch.await();
-                    timeLatch.await();
-                    webPageLatch.await();
-                    webSalesLatch.await();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
-            }
-        });
+    /**
+     * Add the thread that loads a table once the tables it depends on have
+     * started loading.
+     */
+    private void addTable(List<LoaderThread> threads, Map<String, CountDownLatch> latches, String tableName,
+                          TPCDSConstants.CastTypes[] types, String... dependencies) {
+        CountDownLatch started = latches.computeIfAbsent(tableName, k -> new CountDownLatch(1));
+        List<CountDownLatch> awaited = new ArrayList<>();
+        for (String dependency : dependencies) {
+            awaited.add(latches.computeIfAbsent(dependency, k -> new CountDownLatch(1)));
+        }
 
         threads.add(new LoaderThread(this.benchmark) {
             @Override
             public void load(Connection conn) throws SQLException {
-                loadTable(conn, TPCDSConstants.TABLENAME_CATALOGSALES, TPCDSConstants.catalogsalesTypes);
+                loadTable(conn, tableName, types);
             }
 
             @Override
             public void beforeLoad() {
                 try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    callCenterLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    promoLatch.await();
-                    timeLatch.await();
-                    shipModeLatch.await();
-                    warehouseLatch.await();
-                    catalogPageLatch.await();
-                    catalogSalesLatch.countDown();
+                    for (CountDownLatch latch : awaited) {
+                        latch.await();
+                    }
+                    started.countDown();
+                    connections.acquire();
                 } catch (InterruptedException e) {
-                    e.printStackTrace();
                     throw new RuntimeException(e);
                 }
-
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                loadTable(conn, TPCDSConstants.TABLENAME_CATALOGRETURNS, TPCDSConstants.catalogreturnsTypes);
             }
 
             @Override
-            public void beforeLoad() {
-                try {
-                    dateLatch.await();
-                    custAddrLatch.await();
-                    custDemLatch.await();
-                    customerLatch.await();
-                    callCenterLatch.await();
-                    householdLatch.await();
-                    itemLatch.await();
-                    reasonLatch.await();
-                    timeLatch.await();
-                    shipModeLatch.await();
-                    warehouseLatch.await();
-                    catalogPageLatch.await();
-                    catalogSalesLatch.await();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    throw new RuntimeException(e);
-                }
+            public void afterLoad() {
+                connections.release();
             }
         });
-
-        return threads;
     }
 
     private String getFileFormat() {
@@ -442,158 +192,135 @@ public class TPCDSLoader extends Loader<TPCDSBenchmark> {
         return format;
     }
 
-    private Pattern getFormatPattern(String format) {
-
-        if ("csv".equals(format)) {
-            // The following pattern parses the lines by commas, except for
-            // ones surrounded by double-quotes. Further, strings that are
-            // double-quoted have the quotes dropped (we don't need them).
-            return Pattern.compile("\\s*(\"[^\"]*\"|[^,]*)\\s*,?");
-        } else {
-            return Pattern.compile("[^\\|]*\\|");
+    private void loadTable(Connection conn, String tableName, TPCDSConstants.CastTypes[] types) throws SQLException {
+        String format = getFileFormat();
+        boolean csv = "csv".equals(format);
+        Path path = Paths.get(workConf.getDataDir(), tableName + "." + format);
+
+        List<ByteBuffer> chunks;
+        try {
+            chunks = FlatFileScanner.map(path, chunkPool.getMaximumPoolSize());
+        } catch (IOException e) {
+            LOG.error("Failed to read {}", path, e);
+            return;
+        }
+        LOG.debug("Loading {} from {} in {} chunks", tableName, path, chunks.size());
+
+        // This thread loads chunks on its own connection, helped by a chunk
+        // thread for each connection left
+        Queue<ByteBuffer> pending = new ConcurrentLinkedQueue<>(chunks);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i < chunks.size() && connections.tryAcquire(); i++) {
+            futures.add(chunkPool.submit(() -> {
+                try (Connection chunkConn = benchmark.makeConnection()) {
+                    loadChunks(chunkConn, tableName, types, pending, csv, path);
+                } finally {
+                    connections.release();
+                }
+                return null;
+            }));
+        }
+        // A failed chunk fails the table, once the other chunks are done
+        SQLException failure = null;
+        try {
+            loadChunks(conn, tableName, types, pending, csv, path);
+        } catch (SQLException e) {
+            failure = e;
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof SQLException
+                            ? (SQLException) e.getCause()
+                            : new SQLException("Failed to load a chunk of " + path, e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} loaded", tableName);
         }
     }
 
-    private int getFormatGroup(String format) {
-        if ("csv".equals(format)) {
-            return 1;
-        } else {
-            return 0;
+    /**
+     * Load the chunks left, until there are none or one fails.
+     */
+    private void loadChunks(Connection conn, String tableName, TPCDSConstants.CastTypes[] types, Queue<ByteBuffer> pending,
+                            boolean csv, Path path) throws SQLException {
+        ByteBuffer chunk;
+        while ((chunk = pending.poll()) != null) {
+            loadChunk(conn, tableName, types, new FlatFileScanner(chunk, csv), path);
         }
     }
 
-
-    private void loadData(Connection conn, String table, PreparedStatement ps, TPCDSConstants.CastTypes[] types) {
-
-        int batchSize = 0;
-        String line = "";
-        String field = "";
-        String format = getFileFormat();
-        File file = new File(workConf.getDataDir()
-                , table + "."
-                + format);
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            Pattern pattern = getFormatPattern(format);
-            int group = getFormatGroup(format);
-            Matcher matcher;
-            while ((line = br.readLine()) != null) {
-                matcher = pattern.matcher(line);
+    /**
+     * Load the rows of a chunk. The empty numbers and dates are loaded as
+     * NULL, and a line that cannot be parsed fails the chunk.
+     */
+    private void loadChunk(Connection conn, String tableName, TPCDSConstants.CastTypes[] types, FlatFileScanner scanner,
+                           Path path) throws SQLException {
+        byte[] field = new byte[256];
+        try (BulkWriter writer = getBulkWriter(conn, tableName)) {
+            while (scanner.nextLine()) {
                 try {
                     for (int i = 0; i < types.length; ++i) {
-                        matcher.find();
-                        field = matcher.group(group);
-                        if (field.charAt(0) == '\"') {
-                            field = field.substring(1, field.length() - 1);
-                        }
-
-                        if (group == 0) {
-                            field = field.substring(0, field.length() - 1);
+                        if (!scanner.nextField()) {
+                            throw new IllegalArgumentException("Expected " + types.length + " fields");
                         }
-                        //LOG.error(field + " " + i);
                         switch (types[i]) {
                             case DOUBLE:
-                                if ("".equals(field)) {
-                                    ps.setDouble(i + 1, Double.NaN);
+                                if (scanner.isEmpty()) {
+                                    writer.setNull(i + 1, Types.DOUBLE);
                                 } else {
-                                    ps.setDouble(i + 1, Double.parseDouble(field));
+                                    writer.setDouble(i + 1, scanner.getDouble());
                                 }
                                 break;
                             case LONG:
-                                if ("".equals(field)) {
-                                    ps.setLong(i + 1, Long.MIN_VALUE);
+                                if (scanner.isEmpty()) {
+                                    writer.setNull(i + 1, Types.BIGINT);
                                 } else {
-                                    ps.setLong(i + 1, Long.parseLong(field));
+                                    writer.setLong(i + 1, scanner.getLong());
                                 }
                                 break;
                             case STRING:
-                                ps.setString(i + 1, field);
+                                if (field.length < scanner.getFieldLength()) {
+                                    field = new byte[Math.max(scanner.getFieldLength(), field.length * 2)];
+                                }
+                                writer.setUtf8(i + 1, field, 0, scanner.copyField(field, 0));
                                 break;
                             case DATE:
-                                // Four possible formats for date
-                                // yyyy-mm-dd
-                                Pattern isoFmt = Pattern.compile("^\\s*(\\d{4})-(\\d{2})-(\\d{2})\\s*$");
-                                Matcher isoMatcher = isoFmt.matcher(field);
-                                // yyyymmdd
-                                Pattern nondelimFmt = Pattern.compile("^\\s*(\\d{4})(\\d{2})(\\d{2})\\s*$");
-                                Matcher nondelimMatcher = nondelimFmt.matcher(field);
-                                // mm/dd/yyyy
-                                Pattern usaFmt = Pattern.compile("^\\s*(\\d{2})/(\\d{2})/(\\d{4})\\s*$");
-                                Matcher usaMatcher = usaFmt.matcher(field);
-                                // dd.mm.yyyy
-                                Pattern eurFmt = Pattern.compile("^\\s*(\\d{2})\\.(\\d{2})\\.(\\d{4})\\s*$");
-                                Matcher eurMatcher = eurFmt.matcher(field);
-
-                                String isoFmtDate = "";
-                                java.sql.Date fieldAsDate;
-                                if (isoMatcher.find()) {
-                                    isoFmtDate = field;
-                                } else if (nondelimMatcher.find()) {
-                                    isoFmtDate = nondelimMatcher.group(1) + "-"
-                                            + nondelimMatcher.group(2) + "-"
-                                            + nondelimMatcher.group(3);
-                                } else if (usaMatcher.find()) {
-                                    isoFmtDate = usaMatcher.group(3) + "-"
-                                            + usaMatcher.group(1) + "-"
-                                            + usaMatcher.group(2);
-                                } else if (eurMatcher.find()) {
-                                    isoFmtDate = eurMatcher.group(3) + "-"
-                                            + eurMatcher.group(2) + "-"
-                                            + eurMatcher.group(1);
-                                } else if (!"".equals(field)) {
-                                    throw new RuntimeException("Unrecognized date \""
-                                            + field + "\" in file: "
-                                            + file.getPath());
+                                if (scanner.isEmpty()) {
+                                    writer.setNull(i + 1, Types.DATE);
+                                } else {
+                                    int date = scanner.getDate();
+                                    writer.setDate(i + 1, date / 10000, date / 100 % 100, date % 100);
                                 }
-                                fieldAsDate = "".equals(field) ? null : java.sql.Date.valueOf(isoFmtDate);
-                                ps.setDate(i + 1, fieldAsDate, null);
                                 break;
                             default:
                                 throw new RuntimeException("Unrecognized type for prepared statement");
                         }
-
                     }
-
-                    ps.addBatch();
-                    if (++batchSize % workConf.getBatchSize() == 0) {
-                        ps.executeBatch();
-                        ps.clearBatch();
-                        this.addToTableCount(table, batchSize);
-                        batchSize = 0;
-                    }
-
-                } catch (IllegalStateException e) {
-                    // This happens if there wasn't a match against the regex.
-                    LOG.error("Invalid file: {}", file.getPath());
+                } catch (RuntimeException e) {
+                    throw new SQLException(String.format("Invalid line in %s: %s (%s)", path, scanner.getLine(), e.getMessage()), e);
                 }
+                writer.addRow();
             }
-
-            if (batchSize > 0) {
-                this.addToTableCount(table, batchSize);
-                ps.executeBatch();
-                ps.clearBatch();
-            }
-            ps.close();
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("{} loaded", table);
-            }
-
+            this.addToTableCount(tableName, (int) writer.getRowCount());
         } catch (SQLException se) {
-            LOG.error("Failed to load data for TPC-DS: {}, LINE {}", field, line, se);
-            se = se.getNextException();
-            if (se != null) {
-                LOG.error("{} Cause => {}", se.getClass().getSimpleName(), se.getMessage());
+            LOG.error("Failed to load data for TPC-DS: {}", path, se);
+            SQLException next = se.getNextException();
+            if (next != null) {
+                LOG.error("{} Cause => {}", next.getClass().getSimpleName(), next.getMessage());
             }
-        } catch (Exception e) {
-            LOG.error(e.getMessage(), e);
+            throw se;
         }
     }
-
-    private void loadTable(Connection conn, String tableName, TPCDSConstants.CastTypes[] types) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(tableName);
-
-
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        PreparedStatement prepStmt = conn.prepareStatement(sql);
-        loadData(conn, tableName, prepStmt, types);
-    }
 }
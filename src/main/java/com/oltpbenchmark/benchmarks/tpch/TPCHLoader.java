@@ -25,6 +25,7 @@
 
 package com.oltpbenchmark.benchmarks.tpch;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import static com.oltpbenchmark.benchmarks.tpch.TPCHConstants.*;
@@ -36,13 +37,13 @@ import com.oltpbenchmark.benchmarks.tpch.util.OrderGenerator;
 import com.oltpbenchmark.benchmarks.tpch.util.CustomerGenerator;
 import com.oltpbenchmark.benchmarks.tpch.util.LineItemGenerator;
 import com.oltpbenchmark.benchmarks.tpch.util.SupplierGenerator;
-import com.oltpbenchmark.util.SQLUtil;
-import com.oltpbenchmark.catalog.Table;
+import com.oltpbenchmark.benchmarks.tpch.util.TPCHRow;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.IntFunction;
 
 public class TPCHLoader extends Loader<TPCHBenchmark> {
     public TPCHLoader(TPCHBenchmark benchmark) {
@@ -130,257 +131,111 @@ public class TPCHLoader extends Loader<TPCHBenchmark> {
             CastTypes.STRING, // s_comment
     };
 
-    private PreparedStatement getInsertStatement(Connection conn, String tableName) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(tableName);
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        return conn.prepareStatement(sql);
-    }
-
     @Override
     public List<LoaderThread> createLoaderThreads() {
         List<LoaderThread> threads = new ArrayList<>();
 
-        final CountDownLatch regionLatch = new CountDownLatch(1);
-        final CountDownLatch nationLatch = new CountDownLatch(1);
-        final CountDownLatch ordersLatch = new CountDownLatch(1);
-        final CountDownLatch customerLatch = new CountDownLatch(1);
-        final CountDownLatch partsLatch = new CountDownLatch(1);
-        final CountDownLatch supplierLatch = new CountDownLatch(1);
-        final CountDownLatch partsSuppLatch = new CountDownLatch(1);
-
         final double scaleFactor = this.workConf.getScaleFactor();
 
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = getInsertStatement(conn, TABLENAME_REGION)) {
-                    List<Iterable<List<Object>>> regionGenerators = new ArrayList<>();
-                    regionGenerators.add(new RegionGenerator());
-
-                    genTable(conn, statement, regionGenerators, regionTypes, TABLENAME_REGION);
-                }
-            }
-
-            @Override
-            public void afterLoad() {
-                regionLatch.countDown();
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = getInsertStatement(conn, TABLENAME_PART)) {
-                    List<Iterable<List<Object>>> partGenerators = new ArrayList<>();
-                    partGenerators.add(new PartGenerator(scaleFactor, 1, 1));
-
-                    genTable(conn, statement, partGenerators, partTypes, TABLENAME_PART);
-                }
-            }
-
-            @Override
-            public void afterLoad() {
-                partsLatch.countDown();
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = getInsertStatement(conn, TABLENAME_NATION)) {
-                    List<Iterable<List<Object>>> nationGenerators = new ArrayList<>();
-                    nationGenerators.add(new NationGenerator());
-
-                    genTable(conn, statement, nationGenerators, nationTypes, TABLENAME_NATION);
-                }
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    regionLatch.await();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-
-            @Override
-            public void afterLoad() {
-                nationLatch.countDown();
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = getInsertStatement(conn, TABLENAME_SUPPLIER)) {
-                    List<Iterable<List<Object>>> supplierGenerators = new ArrayList<>();
-                    supplierGenerators.add(new SupplierGenerator(scaleFactor, 1, 1));
-
-                    genTable(conn, statement, supplierGenerators, supplierTypes, TABLENAME_SUPPLIER);
-                }
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    nationLatch.await();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-
-            @Override
-            public void afterLoad() {
-                supplierLatch.countDown();
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = getInsertStatement(conn, TABLENAME_CUSTOMER)) {
-                    List<Iterable<List<Object>>> customerGenerators = new ArrayList<>();
-                    customerGenerators.add(new CustomerGenerator(scaleFactor, 1, 1));
-
-                    genTable(conn, statement, customerGenerators, customerTypes, TABLENAME_CUSTOMER);
-                }
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    nationLatch.await();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-
-            @Override
-            public void afterLoad() {
-                customerLatch.countDown();
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = getInsertStatement(conn, TABLENAME_ORDER)) {
-                    List<Iterable<List<Object>>> orderGenerators = new ArrayList<>();
-                    orderGenerators.add(new OrderGenerator(scaleFactor, 1, 1));
+        // The tables that grow with the scale factor are generated in parts,
+        // each loaded by its own thread over its own connection
+        final int partCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), workConf.getLoaderThreads()));
 
-                    genTable(conn, statement, orderGenerators, ordersTypes, TABLENAME_ORDER);
-                }
-            }
-
-            @Override
-            public void beforeLoad() {
-                try {
-                    customerLatch.await();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-
-            @Override
-            public void afterLoad() {
-                ordersLatch.countDown();
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = getInsertStatement(conn, TABLENAME_PARTSUPP)) {
-                    List<Iterable<List<Object>>> partSuppGenerators = new ArrayList<>();
-                    partSuppGenerators.add(new PartSupplierGenerator(scaleFactor, 1, 1));
+        final CountDownLatch regionLatch = new CountDownLatch(1);
+        final CountDownLatch nationLatch = new CountDownLatch(1);
+        final CountDownLatch ordersLatch = new CountDownLatch(partCount);
+        final CountDownLatch customerLatch = new CountDownLatch(partCount);
+        final CountDownLatch partsLatch = new CountDownLatch(partCount);
+        final CountDownLatch supplierLatch = new CountDownLatch(partCount);
+        final CountDownLatch partsSuppLatch = new CountDownLatch(partCount);
+
+        // The threads are queued in the order of their dependencies, so that
+        // those waiting never hold all the slots of the loader pool
+        addTable(threads, TABLENAME_REGION, regionTypes, 1, part -> new RegionGenerator(),
+                List.of(), regionLatch);
+        addTable(threads, TABLENAME_PART, partTypes, partCount, part -> new PartGenerator(scaleFactor, part, partCount),
+                List.of(), partsLatch);
+        addTable(threads, TABLENAME_NATION, nationTypes, 1, part -> new NationGenerator(),
+                List.of(regionLatch), nationLatch);
+        addTable(threads, TABLENAME_SUPPLIER, supplierTypes, partCount, part -> new SupplierGenerator(scaleFactor, part, partCount),
+                List.of(nationLatch), supplierLatch);
+        addTable(threads, TABLENAME_CUSTOMER, customerTypes, partCount, part -> new CustomerGenerator(scaleFactor, part, partCount),
+                List.of(nationLatch), customerLatch);
+        addTable(threads, TABLENAME_ORDER, ordersTypes, partCount, part -> new OrderGenerator(scaleFactor, part, partCount),
+                List.of(customerLatch), ordersLatch);
+        addTable(threads, TABLENAME_PARTSUPP, partsuppTypes, partCount, part -> new PartSupplierGenerator(scaleFactor, part, partCount),
+                List.of(partsLatch, supplierLatch), partsSuppLatch);
+        addTable(threads, TABLENAME_LINEITEM, lineitemTypes, partCount, part -> new LineItemGenerator(scaleFactor, part, partCount),
+                List.of(ordersLatch, partsSuppLatch), null);
 
-                    genTable(conn, statement, partSuppGenerators, partsuppTypes, TABLENAME_PARTSUPP);
-                }
-            }
+        return threads;
+    }
 
-            @Override
-            public void beforeLoad() {
-                try {
-                    partsLatch.await();
-                    supplierLatch.await();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
+    /**
+     * Add a thread for each part of a table.
+     *
+     * @param generators the generator of each part, numbered from 1
+     * @param awaited    the latches of the tables this one depends on
+     * @param done       counted down by each part once loaded, or null
+     */
+    private void addTable(List<LoaderThread> threads, String tableName, CastTypes[] types, int partCount,
+                          IntFunction<Iterable<TPCHRow>> generators, List<CountDownLatch> awaited, CountDownLatch done) {
+        for (int part = 1; part <= partCount; part++) {
+            final Iterable<TPCHRow> generator = generators.apply(part);
+            threads.add(new LoaderThread(this.benchmark) {
+                @Override
+                public void load(Connection conn) throws SQLException {
+                    genTable(conn, generator, types, tableName);
                 }
-            }
-
-            @Override
-            public void afterLoad() {
-                partsSuppLatch.countDown();
-            }
-        });
-
-        threads.add(new LoaderThread(this.benchmark) {
-            @Override
-            public void load(Connection conn) throws SQLException {
-                try (PreparedStatement statement = getInsertStatement(conn, TABLENAME_LINEITEM)) {
-                    List<Iterable<List<Object>>> lineItemGenerators = new ArrayList<>();
-                    lineItemGenerators.add(new LineItemGenerator(scaleFactor, 1, 1));
 
-                    genTable(conn, statement, lineItemGenerators, lineitemTypes, TABLENAME_LINEITEM);
+                @Override
+                public void beforeLoad() {
+                    try {
+                        for (CountDownLatch latch : awaited) {
+                            latch.await();
+                        }
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
                 }
-            }
 
-            @Override
-            public void beforeLoad() {
-                try {
-                    ordersLatch.await();
-                    partsSuppLatch.await();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
+                @Override
+                public void afterLoad() {
+                    if (done != null) {
+                        done.countDown();
+                    }
                 }
-            }
-        });
-
-        return threads;
+            });
+        }
     }
 
-    private void genTable(Connection conn, PreparedStatement prepStmt, List<Iterable<List<Object>>> generators,
-            CastTypes[] types, String tableName) {
-        for (Iterable<List<Object>> generator : generators) {
-            try {
-                int recordsRead = 0;
-                for (List<Object> elems : generator) {
-                    for (int idx = 0; idx < types.length; idx++) {
-                        final CastTypes type = types[idx];
-                        switch (type) {
-                            case DOUBLE:
-                                prepStmt.setDouble(idx + 1, (Double) elems.get(idx));
-                                break;
-                            case LONG:
-                                prepStmt.setLong(idx + 1, (Long) elems.get(idx));
-                                break;
-                            case STRING:
-                                prepStmt.setString(idx + 1, (String) elems.get(idx));
-                                break;
-                            case DATE:
-                                prepStmt.setDate(idx + 1, (Date) elems.get(idx));
-                                break;
-                            default:
-                                throw new RuntimeException("Unrecognized type for prepared statement");
-                        }
-                    }
-
-                    ++recordsRead;
-                    prepStmt.addBatch();
-                    if ((recordsRead % workConf.getBatchSize()) == 0) {
-
-                        LOG.debug("writing batch {} for table {}", recordsRead, tableName);
-
-                        prepStmt.executeBatch();
-                        prepStmt.clearBatch();
+    private void genTable(Connection conn, Iterable<TPCHRow> generator, CastTypes[] types, String tableName) {
+        try (BulkWriter writer = getBulkWriter(conn, tableName)) {
+            for (TPCHRow row : generator) {
+                for (int idx = 0; idx < types.length; idx++) {
+                    final CastTypes type = types[idx];
+                    switch (type) {
+                        case DOUBLE:
+                            writer.setDouble(idx + 1, row.getDouble(idx));
+                            break;
+                        case LONG:
+                            writer.setLong(idx + 1, row.getLong(idx));
+                            break;
+                        case STRING:
+                            writer.setString(idx + 1, row.getString(idx));
+                            break;
+                        case DATE:
+                            writer.setDate(idx + 1, row.getDate(idx));
+                            break;
+                        default:
+                            throw new RuntimeException("Unrecognized type for prepared statement");
                     }
                 }
-
-                prepStmt.executeBatch();
-            } catch (Exception e) {
-                LOG.error(e.getMessage(), e);
+                writer.addRow();
             }
+            LOG.debug("wrote {} rows for table {}", writer.getRowCount(), tableName);
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
         }
     }
 }
@@ -16,8 +16,6 @@
 package com.oltpbenchmark.benchmarks.tpch.util;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
 
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 
@@ -26,7 +24,7 @@ import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateStar
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
-public class CustomerGenerator implements Iterable<List<Object>> {
+public class CustomerGenerator implements Iterable<TPCHRow> {
     public static final int SCALE_BASE = 150_000;
     private static final int ACCOUNT_BALANCE_MIN = -99999;
     private static final int ACCOUNT_BALANCE_MAX = 999999;
@@ -55,7 +53,7 @@ public class CustomerGenerator implements Iterable<List<Object>> {
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public Iterator<TPCHRow> iterator() {
         return new CustomerGeneratorIterator(
                 distributions,
                 textPool,
@@ -64,7 +62,9 @@ public class CustomerGenerator implements Iterable<List<Object>> {
     }
 
     private static class CustomerGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements Iterator<TPCHRow> {
+        private final TPCHRow row = new TPCHRow(8);
+
         private final TPCHRandomAlphaNumeric addressRandom = new TPCHRandomAlphaNumeric(881155353L,
                 ADDRESS_AVERAGE_LENGTH);
         private final RowRandomBoundedInt nationKeyRandom;
@@ -102,8 +102,8 @@ public class CustomerGenerator implements Iterable<List<Object>> {
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> customer = makeCustomer(startIndex + index + 1);
+        public TPCHRow next() {
+            TPCHRow customer = makeCustomer(startIndex + index + 1);
 
             addressRandom.rowFinished();
             nationKeyRandom.rowFinished();
@@ -117,21 +117,20 @@ public class CustomerGenerator implements Iterable<List<Object>> {
             return customer;
         }
 
-        private List<Object> makeCustomer(long customerKey) {
+        private TPCHRow makeCustomer(long customerKey) {
             long nationKey = nationKeyRandom.nextValue();
 
-            List<Object> customer = new ArrayList<>();
 
-            customer.add(customerKey);
-            customer.add(String.format(ENGLISH, "Customer#%09d", customerKey));
-            customer.add(addressRandom.nextValue());
-            customer.add(nationKey);
-            customer.add(phoneRandom.nextValue(nationKey));
-            customer.add((double) accountBalanceRandom.nextValue() / 100.);
-            customer.add(marketSegmentRandom.nextValue());
-            customer.add(commentRandom.nextValue());
+            row.setLong(0, customerKey);
+            row.setString(1, String.format(ENGLISH, "Customer#%09d", customerKey));
+            row.setString(2, addressRandom.nextValue());
+            row.setLong(3, nationKey);
+            row.setString(4, phoneRandom.nextValue(nationKey));
+            row.setDouble(5, (double) accountBalanceRandom.nextValue() / 100.);
+            row.setString(6, marketSegmentRandom.nextValue());
+            row.setString(7, commentRandom.nextValue());
 
-            return customer;
+            return row;
         }
     }
 }
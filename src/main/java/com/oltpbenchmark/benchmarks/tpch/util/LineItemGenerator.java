@@ -16,15 +16,12 @@
 package com.oltpbenchmark.benchmarks.tpch.util;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
 
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 import com.oltpbenchmark.util.RowRandomBoundedLong;
 
 import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateRowCount;
 import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateStartIndex;
-import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.toEpochDate;
 import static com.oltpbenchmark.benchmarks.tpch.util.OrderGenerator.LINE_COUNT_MAX;
 import static com.oltpbenchmark.benchmarks.tpch.util.OrderGenerator.createLineCountRandom;
 import static com.oltpbenchmark.benchmarks.tpch.util.OrderGenerator.createOrderDateRandom;
@@ -33,7 +30,7 @@ import static com.oltpbenchmark.benchmarks.tpch.util.PartSupplierGenerator.selec
 import static java.util.Objects.requireNonNull;
 
 public class LineItemGenerator
-        implements Iterable<List<Object>> {
+        implements Iterable<TPCHRow> {
     private static final int QUANTITY_MIN = 1;
     private static final int QUANTITY_MAX = 50;
     private static final int TAX_MIN = 0;
@@ -75,7 +72,7 @@ public class LineItemGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public Iterator<TPCHRow> iterator() {
         return new LineItemGeneratorIterator(
                 distributions,
                 textPool,
@@ -85,7 +82,9 @@ public class LineItemGenerator
     }
 
     private static class LineItemGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements Iterator<TPCHRow> {
+        private final TPCHRow row = new TPCHRow(16);
+
         private final RowRandomBoundedInt orderDateRandom = createOrderDateRandom();
         private final RowRandomBoundedInt lineCountRandom = createLineCountRandom();
 
@@ -166,8 +165,8 @@ public class LineItemGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> lineitem = makeLineitem(startIndex + index + 1);
+        public TPCHRow next() {
+            TPCHRow lineitem = makeLineitem(startIndex + index + 1);
             lineNumber++;
 
             // advance next row only when all lines for the order have been produced
@@ -204,7 +203,7 @@ public class LineItemGenerator
             return lineitem;
         }
 
-        private List<Object> makeLineitem(long orderIndex) {
+        private TPCHRow makeLineitem(long orderIndex) {
             long orderKey = makeOrderKey(orderIndex);
 
             int quantity = quantityRandom.nextValue();
@@ -244,25 +243,24 @@ public class LineItemGenerator
             String shipMode = shipModeRandom.nextValue();
             String comment = commentRandom.nextValue();
 
-            List<Object> lineItem = new ArrayList<>();
-            lineItem.add(orderKey);
-            lineItem.add(partKey);
-            lineItem.add(supplierKey);
-            lineItem.add((long) (lineNumber + 1));
-            lineItem.add((double) quantity);
-            lineItem.add((double) extendedPrice / 100.);
-            lineItem.add((double) discount / 100.);
-            lineItem.add((double) tax / 100.);
-            lineItem.add(returnedFlag);
-            lineItem.add(status);
-            lineItem.add(toEpochDate(shipDate));
-            lineItem.add(toEpochDate(commitDate));
-            lineItem.add(toEpochDate(receiptDate));
-            lineItem.add(shipInstructions);
-            lineItem.add(shipMode);
-            lineItem.add(comment);
-
-            return lineItem;
+            row.setLong(0, orderKey);
+            row.setLong(1, partKey);
+            row.setLong(2, supplierKey);
+            row.setLong(3, lineNumber + 1);
+            row.setDouble(4, quantity);
+            row.setDouble(5, (double) extendedPrice / 100.);
+            row.setDouble(6, (double) discount / 100.);
+            row.setDouble(7, (double) tax / 100.);
+            row.setString(8, returnedFlag);
+            row.setString(9, status);
+            row.setDate(10, shipDate);
+            row.setDate(11, commitDate);
+            row.setDate(12, receiptDate);
+            row.setString(13, shipInstructions);
+            row.setString(14, shipMode);
+            row.setString(15, comment);
+
+            return row;
         }
     }
 
@@ -16,13 +16,11 @@
 package com.oltpbenchmark.benchmarks.tpch.util;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
 
 import static java.util.Objects.requireNonNull;
 
 public class NationGenerator
-        implements Iterable<List<Object>> {
+        implements Iterable<TPCHRow> {
     private static final int COMMENT_AVERAGE_LENGTH = 72;
 
     private final Distributions distributions;
@@ -38,12 +36,14 @@ public class NationGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public Iterator<TPCHRow> iterator() {
         return new NationGeneratorIterator(distributions.getNations(), textPool);
     }
 
     private static class NationGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements Iterator<TPCHRow> {
+        private final TPCHRow row = new TPCHRow(4);
+
         private final Distribution nations;
         private final TPCHRandomText commentRandom;
 
@@ -60,17 +60,16 @@ public class NationGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> nation = new ArrayList<>();
-            nation.add((long) index);
-            nation.add(nations.getValue(index));
-            nation.add((long) nations.getWeight(index));
-            nation.add(commentRandom.nextValue());
+        public TPCHRow next() {
+            row.setLong(0, index);
+            row.setString(1, nations.getValue(index));
+            row.setLong(2, nations.getWeight(index));
+            row.setString(3, commentRandom.nextValue());
 
             commentRandom.rowFinished();
             index++;
 
-            return nation;
+            return row;
         }
     }
 }
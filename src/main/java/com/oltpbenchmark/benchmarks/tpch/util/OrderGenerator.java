@@ -16,8 +16,6 @@
 package com.oltpbenchmark.benchmarks.tpch.util;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
 
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 import com.oltpbenchmark.util.RowRandomBoundedLong;
@@ -26,7 +24,6 @@ import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.MIN_GENERATE_
 import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.TOTAL_DATE_RANGE;
 import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateRowCount;
 import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateStartIndex;
-import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.toEpochDate;
 import static com.oltpbenchmark.benchmarks.tpch.util.LineItemGenerator.ITEM_SHIP_DAYS;
 import static com.oltpbenchmark.benchmarks.tpch.util.LineItemGenerator.createDiscountRandom;
 import static com.oltpbenchmark.benchmarks.tpch.util.LineItemGenerator.createPartKeyRandom;
@@ -38,7 +35,7 @@ import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
 public class OrderGenerator
-        implements Iterable<List<Object>> {
+        implements Iterable<TPCHRow> {
     public static final int SCALE_BASE = 1_500_000;
 
     // portion with have no orders
@@ -77,7 +74,7 @@ public class OrderGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public Iterator<TPCHRow> iterator() {
         return new OrderGeneratorIterator(
                 distributions,
                 textPool,
@@ -87,7 +84,9 @@ public class OrderGenerator
     }
 
     private static class OrderGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements Iterator<TPCHRow> {
+        private final TPCHRow row = new TPCHRow(9);
+
         private final RowRandomBoundedInt orderDateRandom = createOrderDateRandom();
         private final RowRandomBoundedInt lineCountRandom = createLineCountRandom();
         private final RowRandomBoundedLong customerKeyRandom;
@@ -144,8 +143,8 @@ public class OrderGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> order = makeOrder(startIndex + index + 1);
+        public TPCHRow next() {
+            TPCHRow order = makeOrder(startIndex + index + 1);
 
             orderDateRandom.rowFinished();
             lineCountRandom.rowFinished();
@@ -165,7 +164,7 @@ public class OrderGenerator
             return order;
         }
 
-        private List<Object> makeOrder(long index) {
+        private TPCHRow makeOrder(long index) {
             long orderKey = makeOrderKey(index);
 
             int orderDate = orderDateRandom.nextValue();
@@ -211,18 +210,17 @@ public class OrderGenerator
                 orderStatus = 'O';
             }
 
-            List<Object> order = new ArrayList<>();
-            order.add(orderKey);
-            order.add(customerKey);
-            order.add(Character.valueOf(orderStatus).toString());
-            order.add((double) totalPrice / 100.);
-            order.add(toEpochDate(orderDate));
-            order.add(orderPriorityRandom.nextValue());
-            order.add(String.format(ENGLISH, "Clerk#%09d", clerkRandom.nextValue()));
-            order.add(0L);
-            order.add(commentRandom.nextValue());
-
-            return order;
+            row.setLong(0, orderKey);
+            row.setLong(1, customerKey);
+            row.setString(2, String.valueOf(orderStatus));
+            row.setDouble(3, (double) totalPrice / 100.);
+            row.setDate(4, orderDate);
+            row.setString(5, orderPriorityRandom.nextValue());
+            row.setString(6, String.format(ENGLISH, "Clerk#%09d", clerkRandom.nextValue()));
+            row.setLong(7, 0);
+            row.setString(8, commentRandom.nextValue());
+
+            return row;
         }
     }
 
@@ -16,8 +16,6 @@
 package com.oltpbenchmark.benchmarks.tpch.util;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
 
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 
@@ -27,7 +25,7 @@ import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
 public class PartGenerator
-        implements Iterable<List<Object>> {
+        implements Iterable<TPCHRow> {
     public static final int SCALE_BASE = 200_000;
 
     private static final int NAME_WORDS = 5;
@@ -60,7 +58,7 @@ public class PartGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public Iterator<TPCHRow> iterator() {
         return new PartGeneratorIterator(
                 distributions,
                 textPool,
@@ -69,7 +67,9 @@ public class PartGenerator
     }
 
     private static class PartGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements Iterator<TPCHRow> {
+        private final TPCHRow row = new TPCHRow(9);
+
         private final TPCHRandomStringSequence nameRandom;
         private final RowRandomBoundedInt manufacturerRandom;
         private final RowRandomBoundedInt brandRandom;
@@ -110,8 +110,8 @@ public class PartGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> part = makePart(startIndex + index + 1);
+        public TPCHRow next() {
+            TPCHRow part = makePart(startIndex + index + 1);
 
             nameRandom.rowFinished();
             manufacturerRandom.rowFinished();
@@ -126,24 +126,23 @@ public class PartGenerator
             return part;
         }
 
-        private List<Object> makePart(long partKey) {
+        private TPCHRow makePart(long partKey) {
             String name = nameRandom.nextValue();
 
             int manufacturer = manufacturerRandom.nextValue();
             int brand = manufacturer * 10 + brandRandom.nextValue();
 
-            List<Object> part = new ArrayList<Object>();
-            part.add(partKey);
-            part.add(name);
-            part.add(String.format(ENGLISH, "Manufacturer#%d", manufacturer));
-            part.add(String.format(ENGLISH, "Brand#%d", brand));
-            part.add(typeRandom.nextValue());
-            part.add((long) sizeRandom.nextValue());
-            part.add(containerRandom.nextValue());
-            part.add((double) calculatePartPrice(partKey) / 100.);
-            part.add(commentRandom.nextValue());
-
-            return part;
+            row.setLong(0, partKey);
+            row.setString(1, name);
+            row.setString(2, String.format(ENGLISH, "Manufacturer#%d", manufacturer));
+            row.setString(3, String.format(ENGLISH, "Brand#%d", brand));
+            row.setString(4, typeRandom.nextValue());
+            row.setLong(5, sizeRandom.nextValue());
+            row.setString(6, containerRandom.nextValue());
+            row.setDouble(7, (double) calculatePartPrice(partKey) / 100.);
+            row.setString(8, commentRandom.nextValue());
+
+            return row;
         }
     }
 
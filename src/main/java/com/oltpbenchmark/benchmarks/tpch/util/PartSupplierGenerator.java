@@ -16,8 +16,6 @@
 package com.oltpbenchmark.benchmarks.tpch.util;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
 
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 
@@ -26,7 +24,7 @@ import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.calculateStar
 import static java.util.Objects.requireNonNull;
 
 public class PartSupplierGenerator
-        implements Iterable<List<Object>> {
+        implements Iterable<TPCHRow> {
     private static final int SUPPLIERS_PER_PART = 4;
 
     private static final int AVAILABLE_QUANTITY_MIN = 1;
@@ -56,7 +54,7 @@ public class PartSupplierGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public Iterator<TPCHRow> iterator() {
         return new PartSupplierGeneratorIterator(
                 textPool,
                 scaleFactor,
@@ -65,7 +63,9 @@ public class PartSupplierGenerator
     }
 
     private static class PartSupplierGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements Iterator<TPCHRow> {
+        private final TPCHRow row = new TPCHRow(5);
+
         private final double scaleFactor;
         private final long startIndex;
         private final long rowCount;
@@ -99,8 +99,8 @@ public class PartSupplierGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> partSupplier = makePartSupplier(startIndex + index + 1);
+        public TPCHRow next() {
+            TPCHRow partSupplier = makePartSupplier(startIndex + index + 1);
             partSupplierNumber++;
 
             // advance next row only when all lines for the order have been produced
@@ -116,14 +116,13 @@ public class PartSupplierGenerator
             return partSupplier;
         }
 
-        private List<Object> makePartSupplier(long partKey) {
-            List<Object> partSupplier = new ArrayList<>();
-            partSupplier.add(partKey);
-            partSupplier.add(selectPartSupplier(partKey, partSupplierNumber, scaleFactor));
-            partSupplier.add((long) availableQuantityRandom.nextValue());
-            partSupplier.add((double) supplyCostRandom.nextValue() / 100.);
-            partSupplier.add(commentRandom.nextValue());
-            return partSupplier;
+        private TPCHRow makePartSupplier(long partKey) {
+            row.setLong(0, partKey);
+            row.setLong(1, selectPartSupplier(partKey, partSupplierNumber, scaleFactor));
+            row.setLong(2, availableQuantityRandom.nextValue());
+            row.setDouble(3, (double) supplyCostRandom.nextValue() / 100.);
+            row.setString(4, commentRandom.nextValue());
+            return row;
         }
     }
 
@@ -16,13 +16,11 @@
 package com.oltpbenchmark.benchmarks.tpch.util;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
 
 import static java.util.Objects.requireNonNull;
 
 public class RegionGenerator
-        implements Iterable<List<Object>> {
+        implements Iterable<TPCHRow> {
     private static final int COMMENT_AVERAGE_LENGTH = 72;
 
     private final Distributions distributions;
@@ -38,12 +36,14 @@ public class RegionGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public Iterator<TPCHRow> iterator() {
         return new RegionGeneratorIterator(distributions.getRegions(), textPool);
     }
 
     private static class RegionGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements Iterator<TPCHRow> {
+        private final TPCHRow row = new TPCHRow(3);
+
         private final Distribution regions;
         private final TPCHRandomText commentRandom;
 
@@ -60,16 +60,15 @@ public class RegionGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> region = new ArrayList<>();
-            region.add((long) index);
-            region.add(regions.getValue(index));
-            region.add(commentRandom.nextValue());
+        public TPCHRow next() {
+            row.setLong(0, index);
+            row.setString(1, regions.getValue(index));
+            row.setString(2, commentRandom.nextValue());
 
             commentRandom.rowFinished();
             index++;
 
-            return region;
+            return row;
         }
     }
 }
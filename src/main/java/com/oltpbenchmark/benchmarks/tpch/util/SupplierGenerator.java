@@ -16,8 +16,6 @@
 package com.oltpbenchmark.benchmarks.tpch.util;
 
 import java.util.Iterator;
-import java.util.List;
-import java.util.ArrayList;
 
 import com.oltpbenchmark.util.RowRandomBoundedInt;
 import com.oltpbenchmark.util.RowRandomInt;
@@ -28,7 +26,7 @@ import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
 
 public class SupplierGenerator
-        implements Iterable<List<Object>> {
+        implements Iterable<TPCHRow> {
     public static final int SCALE_BASE = 10_000;
 
     private static final int ACCOUNT_BALANCE_MIN = -99999;
@@ -65,7 +63,7 @@ public class SupplierGenerator
     }
 
     @Override
-    public Iterator<List<Object>> iterator() {
+    public Iterator<TPCHRow> iterator() {
         return new SupplierGeneratorIterator(
                 distributions,
                 textPool,
@@ -74,7 +72,9 @@ public class SupplierGenerator
     }
 
     private static class SupplierGeneratorIterator
-            implements Iterator<List<Object>> {
+            implements Iterator<TPCHRow> {
+        private final TPCHRow row = new TPCHRow(7);
+
         private final TPCHRandomAlphaNumeric addressRandom = new TPCHRandomAlphaNumeric(706178559L,
                 ADDRESS_AVERAGE_LENGTH);
         private final RowRandomBoundedInt nationKeyRandom;
@@ -117,8 +117,8 @@ public class SupplierGenerator
         }
 
         @Override
-        public List<Object> next() {
-            List<Object> supplier = makeSupplier(startIndex + index + 1);
+        public TPCHRow next() {
+            TPCHRow supplier = makeSupplier(startIndex + index + 1);
 
             addressRandom.rowFinished();
             nationKeyRandom.rowFinished();
@@ -135,7 +135,7 @@ public class SupplierGenerator
             return supplier;
         }
 
-        private List<Object> makeSupplier(long supplierKey) {
+        private TPCHRow makeSupplier(long supplierKey) {
             String comment = commentRandom.nextValue();
 
             // Add supplier complaints or commendation to the comment
@@ -169,16 +169,15 @@ public class SupplierGenerator
 
             long nationKey = nationKeyRandom.nextValue();
 
-            List<Object> supplier = new ArrayList<Object>();
-            supplier.add(supplierKey);
-            supplier.add(String.format(ENGLISH, "Supplier#%09d", supplierKey));
-            supplier.add(addressRandom.nextValue());
-            supplier.add(nationKey);
-            supplier.add(phoneRandom.nextValue(nationKey));
-            supplier.add((double) accountBalanceRandom.nextValue() / 100.);
-            supplier.add(comment);
+            row.setLong(0, supplierKey);
+            row.setString(1, String.format(ENGLISH, "Supplier#%09d", supplierKey));
+            row.setString(2, addressRandom.nextValue());
+            row.setLong(3, nationKey);
+            row.setString(4, phoneRandom.nextValue(nationKey));
+            row.setDouble(5, (double) accountBalanceRandom.nextValue() / 100.);
+            row.setString(6, comment);
 
-            return supplier;
+            return row;
         }
     }
 }
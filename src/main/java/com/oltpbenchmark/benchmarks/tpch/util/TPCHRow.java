@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.tpch.util;
+
+import java.sql.Date;
+
+import static com.oltpbenchmark.benchmarks.tpch.util.GenerateUtils.toEpochDate;
+
+/**
+ * A generated row, with each column kept in an array of its type so that the
+ * numbers are not boxed. The iterators of the generators fill and return the
+ * same row each time, which is only valid until the next call to next().
+ */
+public final class TPCHRow {
+
+    private final long[] longs;
+    private final double[] doubles;
+    private final String[] strings;
+
+    public TPCHRow(int columnCount) {
+        this.longs = new long[columnCount];
+        this.doubles = new double[columnCount];
+        this.strings = new String[columnCount];
+    }
+
+    public int getColumnCount() {
+        return longs.length;
+    }
+
+    public void setLong(int column, long value) {
+        longs[column] = value;
+    }
+
+    public void setDouble(int column, double value) {
+        doubles[column] = value;
+    }
+
+    public void setString(int column, String value) {
+        strings[column] = value;
+    }
+
+    /**
+     * @param generatedDate a date as drawn by the generators, see
+     *                      {@link GenerateUtils#toEpochDate(int)}
+     */
+    public void setDate(int column, int generatedDate) {
+        longs[column] = generatedDate;
+    }
+
+    public long getLong(int column) {
+        return longs[column];
+    }
+
+    public double getDouble(int column) {
+        return doubles[column];
+    }
+
+    public String getString(int column) {
+        return strings[column];
+    }
+
+    public Date getDate(int column) {
+        return toEpochDate((int) longs[column]);
+    }
+}
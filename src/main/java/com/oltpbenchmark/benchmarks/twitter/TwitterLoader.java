@@ -17,19 +17,17 @@
 
 package com.oltpbenchmark.benchmarks.twitter;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.twitter.util.NameHistogram;
 import com.oltpbenchmark.benchmarks.twitter.util.TweetHistogram;
-import com.oltpbenchmark.catalog.Table;
 import com.oltpbenchmark.distributions.ScrambledZipfianGenerator;
 import com.oltpbenchmark.distributions.ZipfianGenerator;
 import com.oltpbenchmark.util.RandomDistribution.FlatHistogram;
-import com.oltpbenchmark.util.SQLUtil;
 import com.oltpbenchmark.util.TextGenerator;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -140,48 +138,30 @@ public class TwitterLoader extends Loader<TwitterBenchmark> {
      * @author Djellel Load num_users users.
      */
     protected void loadUsers(Connection conn, int lo, int hi) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(TwitterConstants.TABLENAME_USER);
-
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-
         int total = 0;
 
-        try (PreparedStatement userInsert = conn.prepareStatement(sql)) {
-            int batchSize = 0;
-
+        try (BulkWriter userWriter = getBulkWriter(conn, TwitterConstants.TABLENAME_USER)) {
             NameHistogram name_h = new NameHistogram();
             FlatHistogram<Integer> name_len_rng = new FlatHistogram<>(this.rng(), name_h);
 
-
             for (int i = lo; i <= hi; i++) {
                 // Generate a random username for this user
                 int name_length = name_len_rng.nextValue();
                 String name = TextGenerator.randomStr(this.rng(), name_length);
 
-                userInsert.setInt(1, i); // ID
-                userInsert.setString(2, name); // NAME
-                userInsert.setString(3, name + "@tweeter.com"); // EMAIL
-                userInsert.setNull(4, java.sql.Types.INTEGER);
-                userInsert.setNull(5, java.sql.Types.INTEGER);
-                userInsert.setNull(6, java.sql.Types.INTEGER);
-                userInsert.addBatch();
+                userWriter.setInt(1, i); // ID
+                userWriter.setString(2, name); // NAME
+                userWriter.setString(3, name + "@tweeter.com"); // EMAIL
+                userWriter.setNull(4, java.sql.Types.INTEGER);
+                userWriter.setNull(5, java.sql.Types.INTEGER);
+                userWriter.setNull(6, java.sql.Types.INTEGER);
+                userWriter.addRow();
 
-                batchSize++;
                 total++;
-                if ((batchSize % workConf.getBatchSize()) == 0) {
-                    int[] result = userInsert.executeBatch();
-
-                    userInsert.clearBatch();
-                    batchSize = 0;
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("Users %d / %d", total, this.num_users));
-                    }
+                if (LOG.isDebugEnabled() && (total % workConf.getBatchSize()) == 0) {
+                    LOG.debug(String.format("Users %d / %d", total, this.num_users));
                 }
             }
-            if (batchSize > 0) {
-                userInsert.executeBatch();
-                userInsert.clearBatch();
-            }
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug(String.format("Users Loaded [%d]", total));
@@ -195,16 +175,9 @@ public class TwitterLoader extends Loader<TwitterBenchmark> {
      * tweet
      */
     protected void loadTweets(Connection conn, long lo, long hi) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(TwitterConstants.TABLENAME_TWEETS);
-
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-
         int total = 0;
 
-        try (PreparedStatement tweetInsert = conn.prepareStatement(sql)) {
-
-
-            int batchSize = 0;
+        try (BulkWriter tweetWriter = getBulkWriter(conn, TwitterConstants.TABLENAME_TWEETS)) {
             ScrambledZipfianGenerator zy = new ScrambledZipfianGenerator(1, this.num_users);
 
             TweetHistogram tweet_h = new TweetHistogram();
@@ -212,26 +185,17 @@ public class TwitterLoader extends Loader<TwitterBenchmark> {
 
             for (long i = lo; i <= hi; i++) {
                 int uid = zy.nextInt();
-                tweetInsert.setLong(1, i);
-                tweetInsert.setInt(2, uid);
-                tweetInsert.setString(3, TextGenerator.randomStr(this.rng(), tweet_len_rng.nextValue()));
-                tweetInsert.setNull(4, java.sql.Types.DATE);
-                tweetInsert.addBatch();
-                batchSize++;
+                tweetWriter.setLong(1, i);
+                tweetWriter.setInt(2, uid);
+                tweetWriter.setString(3, TextGenerator.randomStr(this.rng(), tweet_len_rng.nextValue()));
+                tweetWriter.setNull(4, java.sql.Types.DATE);
+                tweetWriter.addRow();
                 total++;
 
-                if ((batchSize % workConf.getBatchSize()) == 0) {
-                    tweetInsert.executeBatch();
-                    tweetInsert.clearBatch();
-                    batchSize = 0;
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("tweet % {}/{}", total, this.num_tweets);
-                    }
+                if (LOG.isDebugEnabled() && (total % workConf.getBatchSize()) == 0) {
+                    LOG.debug("tweet % {}/{}", total, this.num_tweets);
                 }
             }
-            if (batchSize > 0) {
-                tweetInsert.executeBatch();
-            }
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug("[Tweets Loaded] {}", this.num_tweets);
@@ -251,17 +215,8 @@ public class TwitterLoader extends Loader<TwitterBenchmark> {
 
         int total = 1;
 
-        Table followsTable = benchmark.getCatalog().getTable(TwitterConstants.TABLENAME_FOLLOWS);
-        Table followersTable = benchmark.getCatalog().getTable(TwitterConstants.TABLENAME_FOLLOWERS);
-
-        String followsTableSql = SQLUtil.getInsertSQL(followsTable, this.getDatabaseType());
-        String followersTableSql = SQLUtil.getInsertSQL(followersTable, this.getDatabaseType());
-
-        try (PreparedStatement followsInsert = conn.prepareStatement(followsTableSql);
-             PreparedStatement followersInsert = conn.prepareStatement(followersTableSql)) {
-
-
-            int batchSize = 0;
+        try (BulkWriter followsWriter = getBulkWriter(conn, TwitterConstants.TABLENAME_FOLLOWS);
+             BulkWriter followersWriter = getBulkWriter(conn, TwitterConstants.TABLENAME_FOLLOWERS)) {
 
             ZipfianGenerator zipfFollowee = new ZipfianGenerator(rng(),1, this.num_users, 1.75);
             ZipfianGenerator zipfFollows = new ZipfianGenerator(rng(), this.num_follows, 1.75);
@@ -275,39 +230,26 @@ public class TwitterLoader extends Loader<TwitterBenchmark> {
                 for (int f = 0; f < time; ) {
                     int followee = zipfFollowee.nextInt();
                     if (follower != followee && !followees.contains(followee)) {
-                        followsInsert.setInt(1, follower);
-                        followsInsert.setInt(2, followee);
-                        followsInsert.addBatch();
+                        followsWriter.setInt(1, follower);
+                        followsWriter.setInt(2, followee);
+                        followsWriter.addRow();
 
-                        followersInsert.setInt(1, followee);
-                        followersInsert.setInt(2, follower);
-                        followersInsert.addBatch();
+                        followersWriter.setInt(1, followee);
+                        followersWriter.setInt(2, follower);
+                        followersWriter.addRow();
 
                         followees.add(followee);
 
                         total++;
-                        batchSize++;
-
-
-                        if ((batchSize % workConf.getBatchSize()) == 0) {
-                            followsInsert.executeBatch();
-                            followersInsert.executeBatch();
-                            followsInsert.clearBatch();
-                            followersInsert.clearBatch();
-                            batchSize = 0;
-                            if (LOG.isDebugEnabled()) {
-                                LOG.debug("Follows  % {}", (int) (((double) follower / (double) this.num_users) * 100));
-                            }
+
+                        if (LOG.isDebugEnabled() && (total % workConf.getBatchSize()) == 0) {
+                            LOG.debug("Follows  % {}", (int) (((double) follower / (double) this.num_users) * 100));
                         }
                     }
 
                     f++;
                 }
             }
-            if (batchSize > 0) {
-                followsInsert.executeBatch();
-                followersInsert.executeBatch();
-            }
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug("[Follows Loaded] {}", total);
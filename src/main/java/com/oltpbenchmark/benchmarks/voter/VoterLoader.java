@@ -17,13 +17,11 @@
 
 package com.oltpbenchmark.benchmarks.voter;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
-import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -58,28 +56,22 @@ public class VoterLoader extends Loader<VoterBenchmark> {
     }
 
     private void loadContestants(Connection conn) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(VoterConstants.TABLENAME_CONTESTANTS);
-        try (PreparedStatement ps = conn.prepareStatement(SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType()))) {
-
+        try (BulkWriter writer = getBulkWriter(conn, VoterConstants.TABLENAME_CONTESTANTS)) {
             for (int i = 0; i < this.benchmark.numContestants; i++) {
-                ps.setInt(1, i + 1);
-                ps.setString(2, VoterConstants.CONTESTANT_NAMES[i]);
-                ps.addBatch();
+                writer.setInt(1, i + 1);
+                writer.setString(2, VoterConstants.CONTESTANT_NAMES[i]);
+                writer.addRow();
             }
-            ps.executeBatch();
         }
     }
 
     private void loadLocations(Connection conn) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable(VoterConstants.TABLENAME_LOCATIONS);
-        try (PreparedStatement ps = conn.prepareStatement(SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType()))) {
-
+        try (BulkWriter writer = getBulkWriter(conn, VoterConstants.TABLENAME_LOCATIONS)) {
             for (int i = 0; i < VoterConstants.AREA_CODES.length; i++) {
-                ps.setShort(1, VoterConstants.AREA_CODES[i]);
-                ps.setString(2, VoterConstants.STATE_CODES[i]);
-                ps.addBatch();
+                writer.setInt(1, VoterConstants.AREA_CODES[i]);
+                writer.setString(2, VoterConstants.STATE_CODES[i]);
+                writer.addRow();
             }
-            ps.executeBatch();
         }
     }
 }
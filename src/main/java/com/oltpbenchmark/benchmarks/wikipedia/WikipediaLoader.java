@@ -17,6 +17,7 @@
 
 package com.oltpbenchmark.benchmarks.wikipedia;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
 import com.oltpbenchmark.benchmarks.wikipedia.data.PageHistograms;
@@ -240,15 +241,12 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
     private void loadUsers(Connection conn, int lo, int hi) throws SQLException {
         Table catalog_tbl = benchmark.getCatalog().getTable(WikipediaConstants.TABLENAME_USER);
 
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-
-        try (PreparedStatement userInsert = conn.prepareStatement(sql)) {
+        try (BulkWriter userWriter = getBulkWriter(conn, catalog_tbl.getName())) {
             FlatHistogram<Integer> h_nameLength = new FlatHistogram<>(rng(), UserHistograms.NAME_LENGTH);
             FlatHistogram<Integer> h_realNameLength = new FlatHistogram<>(rng(), UserHistograms.REAL_NAME_LENGTH);
             FlatHistogram<Integer> h_revCount = new FlatHistogram<>(rng(), UserHistograms.REVISION_COUNT);
 
             int[] types = catalog_tbl.getColumnTypes();
-            int batchSize = 0;
             int lastPercent = -1;
             for (int i = lo; i <= hi; i++) {
                 // The name will be prefixed with their UserId. This increases
@@ -269,28 +267,24 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                 String touched = TimeUtil.getCurrentTimeString14();
 
                 int param = 1;
-                userInsert.setInt(param++, i); // user_id
-                userInsert.setString(param++, name); // user_name
-                userInsert.setString(param++, realName); // user_real_name
-                userInsert.setString(param++, password); // user_password
-                userInsert.setString(param++, password); // user_newpassword
-                userInsert.setString(param++, newPassTime); // user_newpass_time
-                userInsert.setString(param++, email); // user_email
-                userInsert.setString(param++, userOptions); // user_options
-                userInsert.setString(param++, touched); // user_touched
-                userInsert.setString(param++, token); // user_token
-                userInsert.setNull(param++, types[param - 2]); // user_email_authenticated
-                userInsert.setNull(param++, types[param - 2]); // user_email_token
-                userInsert.setNull(param++, types[param - 2]); // user_email_token_expires
-                userInsert.setNull(param++, types[param - 2]); // user_registration
-                userInsert.setInt(param++, revCount); // user_editcount
-                userInsert.addBatch();
-
-                if (++batchSize % workConf.getBatchSize() == 0) {
-                    userInsert.executeBatch();
-                    userInsert.clearBatch();
-                    this.addToTableCount(catalog_tbl.getName(), batchSize);
-                    batchSize = 0;
+                userWriter.setInt(param++, i); // user_id
+                userWriter.setString(param++, name); // user_name
+                userWriter.setString(param++, realName); // user_real_name
+                userWriter.setString(param++, password); // user_password
+                userWriter.setString(param++, password); // user_newpassword
+                userWriter.setString(param++, newPassTime); // user_newpass_time
+                userWriter.setString(param++, email); // user_email
+                userWriter.setString(param++, userOptions); // user_options
+                userWriter.setString(param++, touched); // user_touched
+                userWriter.setString(param++, token); // user_token
+                userWriter.setNull(param++, types[param - 2]); // user_email_authenticated
+                userWriter.setNull(param++, types[param - 2]); // user_email_token
+                userWriter.setNull(param++, types[param - 2]); // user_email_token_expires
+                userWriter.setNull(param++, types[param - 2]); // user_registration
+                userWriter.setInt(param++, revCount); // user_editcount
+                userWriter.addRow();
+
+                if (userWriter.getRowCount() % workConf.getBatchSize() == 0) {
                     if (LOG.isDebugEnabled()) {
                         int percent = (int) (((double) i / (double) this.benchmark.num_users) * 100);
                         if (percent != lastPercent) {
@@ -300,11 +294,7 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                     }
                 }
             }
-            if (batchSize > 0) {
-                this.addToTableCount(catalog_tbl.getName(), batchSize);
-                userInsert.executeBatch();
-                userInsert.clearBatch();
-            }
+            this.addToTableCount(catalog_tbl.getName(), (int) userWriter.getRowCount());
         }
         if (this.getDatabaseType() == DatabaseType.POSTGRES || this.getDatabaseType() == DatabaseType.COCKROACHDB) {
             this.updateAutoIncrement(conn, catalog_tbl.getColumn(0), this.benchmark.num_users);
@@ -320,12 +310,9 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
     private void loadPages(Connection conn, int lo, int hi) throws SQLException {
         Table catalog_tbl = benchmark.getCatalog().getTable(WikipediaConstants.TABLENAME_PAGE);
 
-
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        try (PreparedStatement pageInsert = conn.prepareStatement(sql)) {
+        try (BulkWriter pageWriter = getBulkWriter(conn, catalog_tbl.getName())) {
             FlatHistogram<String> h_restrictions = new FlatHistogram<>(rng(), PageHistograms.RESTRICTIONS);
 
-            int batchSize = 0;
             int lastPercent = -1;
 
             for (int i = lo; i <= hi; i++) {
@@ -336,24 +323,20 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                 String pageTouched = TimeUtil.getCurrentTimeString14();
 
                 int param = 1;
-                pageInsert.setInt(param++, i); // page_id
-                pageInsert.setInt(param++, namespace); // page_namespace
-                pageInsert.setString(param++, title); // page_title
-                pageInsert.setString(param++, restrictions);// page_restrictions
-                pageInsert.setInt(param++, 0); // page_counter
-                pageInsert.setInt(param++, 0); // page_is_redirect
-                pageInsert.setInt(param++, 0); // page_is_new
-                pageInsert.setDouble(param++, pageRandom); // page_random
-                pageInsert.setString(param++, pageTouched); // page_touched
-                pageInsert.setInt(param++, 0); // page_latest
-                pageInsert.setInt(param++, 0); // page_len
-                pageInsert.addBatch();
-
-                if (++batchSize % workConf.getBatchSize() == 0) {
-                    pageInsert.executeBatch();
-                    pageInsert.clearBatch();
-                    this.addToTableCount(catalog_tbl.getName(), batchSize);
-                    batchSize = 0;
+                pageWriter.setInt(param++, i); // page_id
+                pageWriter.setInt(param++, namespace); // page_namespace
+                pageWriter.setString(param++, title); // page_title
+                pageWriter.setString(param++, restrictions);// page_restrictions
+                pageWriter.setInt(param++, 0); // page_counter
+                pageWriter.setInt(param++, 0); // page_is_redirect
+                pageWriter.setInt(param++, 0); // page_is_new
+                pageWriter.setDouble(param++, pageRandom); // page_random
+                pageWriter.setString(param++, pageTouched); // page_touched
+                pageWriter.setInt(param++, 0); // page_latest
+                pageWriter.setInt(param++, 0); // page_len
+                pageWriter.addRow();
+
+                if (pageWriter.getRowCount() % workConf.getBatchSize() == 0) {
                     if (LOG.isDebugEnabled()) {
                         int percent = (int) (((double) i / (double) this.benchmark.num_pages) * 100);
                         if (percent != lastPercent) {
@@ -363,11 +346,7 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                     }
                 }
             }
-            if (batchSize > 0) {
-                pageInsert.executeBatch();
-                pageInsert.clearBatch();
-                this.addToTableCount(catalog_tbl.getName(), batchSize);
-            }
+            this.addToTableCount(catalog_tbl.getName(), (int) pageWriter.getRowCount());
         }
         if (this.getDatabaseType() == DatabaseType.POSTGRES || this.getDatabaseType() == DatabaseType.COCKROACHDB) {
             this.updateAutoIncrement(conn, catalog_tbl.getColumn(0), this.benchmark.num_pages);
@@ -383,17 +362,15 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
     private void loadWatchlist(Connection conn) throws SQLException {
         Table catalog_tbl = benchmark.getCatalog().getTable(WikipediaConstants.TABLENAME_WATCHLIST);
 
-
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        try (PreparedStatement watchInsert = conn.prepareStatement(sql)) {
+        try (BulkWriter watchWriter = getBulkWriter(conn, catalog_tbl.getName())) {
             int max_watches_per_user = Math.min(this.benchmark.num_pages, WikipediaConstants.MAX_WATCHES_PER_USER);
             Zipf h_numWatches = new Zipf(rng(), 0, max_watches_per_user, WikipediaConstants.NUM_WATCHES_PER_USER_SIGMA);
             Zipf h_pageId = new Zipf(rng(), 1, this.benchmark.num_pages, WikipediaConstants.WATCHLIST_PAGE_SIGMA);
 
-            // Use a large max batch size for tables with smaller tuples
-            int maxBatchSize = workConf.getBatchSize() * 5;
+            // Report the progress less often for tables with smaller tuples
+            int progressRows = workConf.getBatchSize() * 5;
 
-            int batchSize = 0;
+            long lastProgress = 0;
             int lastPercent = -1;
             Set<Integer> userPages = new HashSet<>();
 
@@ -425,19 +402,15 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                     String title = WikipediaUtil.generatePageTitle(rng(), pageId);
 
                     int param = 1;
-                    watchInsert.setInt(param++, user_id); // wl_user
-                    watchInsert.setInt(param++, namespace); // wl_namespace
-                    watchInsert.setString(param++, title); // wl_title
-                    watchInsert.setNull(param++, java.sql.Types.VARCHAR); // wl_notificationtimestamp
-                    watchInsert.addBatch();
-                    batchSize++;
+                    watchWriter.setInt(param++, user_id); // wl_user
+                    watchWriter.setInt(param++, namespace); // wl_namespace
+                    watchWriter.setString(param++, title); // wl_title
+                    watchWriter.setNull(param++, java.sql.Types.VARCHAR); // wl_notificationtimestamp
+                    watchWriter.addRow();
                 }
 
-                if (batchSize >= maxBatchSize) {
-                    watchInsert.executeBatch();
-                    watchInsert.clearBatch();
-                    this.addToTableCount(catalog_tbl.getName(), batchSize);
-                    batchSize = 0;
+                if (watchWriter.getRowCount() - lastProgress >= progressRows) {
+                    lastProgress = watchWriter.getRowCount();
                     if (LOG.isDebugEnabled()) {
                         int percent = (int) (((double) user_id / (double) this.benchmark.num_users) * 100);
                         if (percent != lastPercent) {
@@ -448,11 +421,7 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                 }
             }
 
-            if (batchSize > 0) {
-                watchInsert.executeBatch();
-                watchInsert.clearBatch();
-                this.addToTableCount(catalog_tbl.getName(), batchSize);
-            }
+            this.addToTableCount(catalog_tbl.getName(), (int) watchWriter.getRowCount());
         }
         if (LOG.isDebugEnabled()) {
             LOG.debug("Watchlist Loaded");
@@ -466,15 +435,11 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
 
         // TEXT
         Table textTable = benchmark.getCatalog().getTable(WikipediaConstants.TABLENAME_TEXT);
-        String textSQL = SQLUtil.getInsertSQL(textTable, this.getDatabaseType());
-
 
         // REVISION
         Table revTable = benchmark.getCatalog().getTable(WikipediaConstants.TABLENAME_REVISION);
-        String revSQL = SQLUtil.getInsertSQL(revTable, this.getDatabaseType());
 
         WikipediaBenchmark b = this.benchmark;
-        int batchSize = 1;
         Zipf h_users = new Zipf(rng(), 1, this.benchmark.num_users, WikipediaConstants.REVISION_USER_SIGMA);
         FlatHistogram<Integer> h_textLength = new FlatHistogram<>(rng(), TextHistograms.TEXT_LENGTH);
         FlatHistogram<Integer> h_commentLength = b.commentLength;
@@ -486,8 +451,9 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
         int rev_id = 1;
         int lastPercent = -1;
 
-        try (PreparedStatement textInsert = conn.prepareStatement(textSQL);
-             PreparedStatement revisionInsert = conn.prepareStatement(revSQL)) {
+        try (BulkWriter textWriter = getBulkWriter(conn, textTable.getName());
+             BulkWriter revisionWriter = getBulkWriter(conn, revTable.getName())) {
+            long lastProgress = 0;
 
             for (int page_id = 1; page_id <= this.benchmark.num_pages; page_id++) {
                 // There must be at least one revision per page
@@ -523,39 +489,34 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
 
                     // Insert the text
                     int col = 1;
-                    textInsert.setInt(col++, rev_id); // old_id
-                    textInsert.setString(col++, new String(old_text)); // old_text
-                    textInsert.setString(col++, "utf-8"); // old_flags
-                    textInsert.setInt(col++, page_id); // old_page
-                    textInsert.addBatch();
+                    textWriter.setInt(col++, rev_id); // old_id
+                    textWriter.setString(col++, new String(old_text)); // old_text
+                    textWriter.setString(col++, "utf-8"); // old_flags
+                    textWriter.setInt(col++, page_id); // old_page
+                    textWriter.addRow();
 
                     // Insert the revision
                     col = 1;
-                    revisionInsert.setInt(col++, rev_id); // rev_id
-                    revisionInsert.setInt(col++, page_id); // rev_page
-                    revisionInsert.setInt(col++, rev_id); // rev_text_id
-                    revisionInsert.setString(col++, rev_comment); // rev_comment
-                    revisionInsert.setInt(col++, user_id); // rev_user
-                    revisionInsert.setString(col++, user_text); // rev_user_text
-                    revisionInsert.setString(col++, TimeUtil.getCurrentTimeString14()); // rev_timestamp
-                    revisionInsert.setInt(col++, h_minorEdit.nextValue()); // rev_minor_edit
-                    revisionInsert.setInt(col++, 0); // rev_deleted
-                    revisionInsert.setInt(col++, 0); // rev_len
-                    revisionInsert.setInt(col++, 0); // rev_parent_id
-                    revisionInsert.addBatch();
+                    revisionWriter.setInt(col++, rev_id); // rev_id
+                    revisionWriter.setInt(col++, page_id); // rev_page
+                    revisionWriter.setInt(col++, rev_id); // rev_text_id
+                    revisionWriter.setString(col++, rev_comment); // rev_comment
+                    revisionWriter.setInt(col++, user_id); // rev_user
+                    revisionWriter.setString(col++, user_text); // rev_user_text
+                    revisionWriter.setString(col++, TimeUtil.getCurrentTimeString14()); // rev_timestamp
+                    revisionWriter.setInt(col++, h_minorEdit.nextValue()); // rev_minor_edit
+                    revisionWriter.setInt(col++, 0); // rev_deleted
+                    revisionWriter.setInt(col++, 0); // rev_len
+                    revisionWriter.setInt(col++, 0); // rev_parent_id
+                    revisionWriter.addRow();
 
                     // Update Last Revision Stuff
                     this.page_last_rev_id[page_id - 1] = rev_id;
                     this.page_last_rev_length[page_id - 1] = old_text_length;
                     rev_id++;
-                    batchSize++;
                 }
-                if (batchSize > workConf.getBatchSize()) {
-                    textInsert.executeBatch();
-                    revisionInsert.executeBatch();
-                    this.addToTableCount(textTable.getName(), batchSize);
-                    this.addToTableCount(revTable.getName(), batchSize);
-                    batchSize = 0;
+                if (revisionWriter.getRowCount() - lastProgress > workConf.getBatchSize()) {
+                    lastProgress = revisionWriter.getRowCount();
 
                     if (LOG.isDebugEnabled()) {
                         int percent = (int) (((double) page_id / (double) this.benchmark.num_pages) * 100);
@@ -566,6 +527,8 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                     }
                 }
             }
+            this.addToTableCount(textTable.getName(), (int) textWriter.getRowCount());
+            this.addToTableCount(revTable.getName(), (int) revisionWriter.getRowCount());
         }
         if (this.getDatabaseType() == DatabaseType.POSTGRES || this.getDatabaseType() == DatabaseType.COCKROACHDB) {
             this.updateAutoIncrement(conn, textTable.getColumn(0), rev_id);
@@ -579,7 +542,7 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
 
         String updateUserSql = "UPDATE " + revTableName + "   SET user_editcount = ?, " + "       user_touched = ? " + " WHERE user_id = ?";
         try (PreparedStatement userUpdate = conn.prepareStatement(updateUserSql)) {
-            batchSize = 0;
+            int batchSize = 0;
             for (int i = 0; i < this.benchmark.num_users; i++) {
                 int col = 1;
                 userUpdate.setInt(col++, this.user_revision_ctr[i]);
@@ -611,7 +574,7 @@ public class WikipediaLoader extends Loader<WikipediaBenchmark> {
                                "       page_len = ? " +
                                " WHERE page_id = ?";
         try (PreparedStatement pageUpdate = conn.prepareStatement(updatePageSql)) {
-            batchSize = 0;
+            int batchSize = 0;
             for (int i = 0; i < this.benchmark.num_pages; i++) {
                 if (this.page_last_rev_id[i] == -1) {
                     continue;
@@ -17,14 +17,12 @@
 
 package com.oltpbenchmark.benchmarks.ycsb;
 
+import com.oltpbenchmark.api.BulkWriter;
 import com.oltpbenchmark.api.Loader;
 import com.oltpbenchmark.api.LoaderThread;
-import com.oltpbenchmark.catalog.Table;
-import com.oltpbenchmark.util.SQLUtil;
 import com.oltpbenchmark.util.TextGenerator;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -62,38 +60,22 @@ class YCSBLoader extends Loader<YCSBBenchmark> {
     }
 
     private void loadRecords(Connection conn, int start, int stop) throws SQLException {
-        Table catalog_tbl = benchmark.getCatalog().getTable("USERTABLE");
-
-
-        String sql = SQLUtil.getInsertSQL(catalog_tbl, this.getDatabaseType());
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (BulkWriter writer = getBulkWriter(conn, YCSBConstants.TABLE_NAME)) {
             long total = 0;
-            int batch = 0;
             for (int i = start; i < stop; i++) {
-                stmt.setInt(1, i);
+                writer.setInt(1, i);
                 for (int j = 0; j < YCSBConstants.NUM_FIELDS; j++) {
-                    stmt.setString(j + 2, TextGenerator.randomStr(rng(), benchmark.fieldSize));
+                    writer.setString(j + 2, TextGenerator.randomStr(rng(), benchmark.fieldSize));
                 }
-                stmt.addBatch();
+                writer.addRow();
                 total++;
-                if (++batch >= workConf.getBatchSize()) {
-                    int[] result = stmt.executeBatch();
-
-                    batch = 0;
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(String.format("Records Loaded %d / %d", total, this.num_record));
-                    }
-                }
-            }
-            if (batch > 0) {
-                stmt.executeBatch();
-                if (LOG.isDebugEnabled()) {
+                if (LOG.isDebugEnabled() && (total % workConf.getBatchSize()) == 0) {
                     LOG.debug(String.format("Records Loaded %d / %d", total, this.num_record));
                 }
             }
         }
         if (LOG.isDebugEnabled()) {
-            LOG.debug("Finished loading {}", catalog_tbl.getName());
+            LOG.debug("Finished loading {}", YCSBConstants.TABLE_NAME);
         }
     }
 
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.distributed;
+
+import com.oltpbenchmark.BenchmarkControl;
+import com.oltpbenchmark.Results;
+import com.oltpbenchmark.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * One of the processes of a distributed run. It connects to the
+ * {@link Coordinator}, which tells it which share of the terminals to run,
+ * and then follows the coordinator's clock: the workers start, stop warming
+ * up and move to the next phase when the coordinator says so, so that all
+ * the agents switch at the same time. At the end, the agent sends its
+ * results to the coordinator instead of writing them.
+ */
+public final class Agent implements BenchmarkControl, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(Agent.class);
+
+    /**
+     * How long to keep trying to reach a coordinator that is not listening
+     * yet.
+     */
+    private static final long CONNECT_TIMEOUT_MS = 60000;
+
+    /**
+     * How often the main loop of ThreadBench checks for the coordinator's
+     * commands.
+     */
+    private static final long POLL_INTERVAL_NS = 1_000_000L;
+
+    private final Channel channel;
+    private final int index;
+    private final int count;
+    private final long seed;
+
+    // Updated by the reader thread from the coordinator's messages
+    private volatile long measureStart = -1;
+    private volatile int phasesEnded = 0;
+    private volatile boolean finished = false;
+
+    private Agent(Channel channel, int index, int count, long seed) {
+        this.channel = channel;
+        this.index = index;
+        this.count = count;
+        this.seed = seed;
+    }
+
+    /**
+     * Connect to the coordinator and wait until it assigns this agent its
+     * share of the work, i.e. until all the agents have connected.
+     *
+     * @param address the host:port of the coordinator
+     */
+    public static Agent connect(String address) throws IOException, InterruptedException {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Invalid coordinator address '" + address + "', expected host:port");
+        }
+        InetSocketAddress endpoint = new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+
+        long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+        Socket socket;
+        while (true) {
+            socket = new Socket();
+            try {
+                socket.connect(endpoint);
+                break;
+            } catch (IOException ex) {
+                socket.close();
+                if (System.currentTimeMillis() >= deadline) {
+                    throw ex;
+                }
+                LOG.debug("Coordinator {} is not listening yet: {}", endpoint, ex.getMessage());
+                Thread.sleep(1000);
+            }
+        }
+
+        Channel channel = new Channel(socket);
+        try {
+            channel.send(Message.of(Message.Type.HELLO));
+            LOG.info("Connected to coordinator {}, waiting for the other agents ..", channel.getRemoteAddress());
+            Message assignment = channel.receive(Message.Type.ASSIGN);
+            LOG.info("{} :: Running as agent {} of {}", StringUtil.bold("AGENT"), assignment.getIndex(), assignment.getCount());
+            return new Agent(channel, assignment.getIndex(), assignment.getCount(), assignment.getSeed());
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * The seed the coordinator gave all its agents, for what they must draw
+     * alike.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public void awaitStart() throws InterruptedException {
+        try {
+            channel.send(Message.of(Message.Type.READY));
+            channel.receive(Message.Type.GO);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Lost the coordinator before the start", ex);
+        }
+
+        Thread reader = new Thread(this::readCommands, Agent.class.getSimpleName() + "-" + index);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readCommands() {
+        try {
+            while (true) {
+                Message message = channel.receive();
+                switch (message.getType()) {
+                    case MEASURE:
+                        measureStart = System.nanoTime();
+                        break;
+                    case PHASE_END:
+                        phasesEnded = message.getIndex() + 1;
+                        break;
+                    default:
+                        throw new IOException("Unexpected " + message + " from the coordinator");
+                }
+            }
+        } catch (IOException ex) {
+            if (!finished) {
+                // Without the coordinator the phases of this agent would
+                // never end, and its results would be lost anyway
+                LOG.error("Lost the coordinator during the run", ex);
+                System.exit(-1);
+            }
+        }
+    }
+
+    @Override
+    public boolean isMeasureStarted(long now, long warmupEnd) {
+        return measureStart != -1;
+    }
+
+    @Override
+    public boolean isPhaseComplete(int phase, long now, long phaseEnd) {
+        return phasesEnded > phase;
+    }
+
+    @Override
+    public long getPollIntervalNanos() {
+        return POLL_INTERVAL_NS;
+    }
+
+    /**
+     * Send the results of this agent to the coordinator.
+     *
+     * @param workerOffset the number of workers of the agents before this one
+     */
+    public void sendResults(Results results, int workerOffset) throws IOException {
+        finished = true;
+        AgentReport report = new AgentReport(index, results, measureStart, workerOffset);
+        LOG.info("Sending {} samples to the coordinator", report.getSampleCount());
+        channel.send(Message.report(report));
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        channel.close();
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.distributed;
+
+import com.oltpbenchmark.DistributionStatistics;
+import com.oltpbenchmark.LatencyRecord;
+import com.oltpbenchmark.Results;
+import com.oltpbenchmark.api.StatementStatistics;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.util.Histogram;
+import com.oltpbenchmark.util.LatencyHistogram;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The {@link Results} of one agent, in a form that can be sent to the
+ * coordinator and merged with those of the other agents.
+ * <p>
+ * Transaction types are referred to by their ids, which are the same in
+ * every process running the same configuration. The start times of the
+ * samples are relative to when the agent started measuring, since the
+ * clocks of the agents are not comparable.
+ */
+public final class AgentReport implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int agentIndex;
+    private final int measuredRequests;
+
+    // Transaction type id -> count
+    private final Map<Integer, Integer> unknown;
+    private final Map<Integer, Integer> success;
+    private final Map<Integer, Integer> abort;
+    private final Map<Integer, Integer> retry;
+    private final Map<Integer, Integer> error;
+    private final Map<Integer, Integer> retryDifferent;
+    private final Map<Integer, Integer> attempts;
+    // Transaction type id -> user abort message -> count
+    private final Map<Integer, Map<String, Integer>> abortMessages;
+
+    // Transaction type id -> histogram
+    private final Map<Integer, LatencyHistogram> latencyHistograms;
+    private final Map<Integer, LatencyHistogram> responseTimeHistograms;
+    private final Map<Integer, LatencyHistogram> attemptHistograms;
+    private final Map<Integer, LatencyHistogram> commitHistograms;
+    private final Map<Integer, LatencyHistogram> rollbackHistograms;
+    // Label -> transaction type id -> histogram
+    private final Map<String, Map<Integer, LatencyHistogram>> labelHistograms;
+
+    private final StatementStatistics statementStatistics;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+    private final LatencyHistogram connectionWaitHistogram;
+    private final int connectionPoolSize;
+    private final long connectionsOpened;
+    private final long connectionValidationFailures;
+    private final long connectionTimeouts;
+    private final LatencyHistogram interArrivalHistogram;
+    private final LatencyHistogram dispatchLagHistogram;
+    private final int arrivalDispatchers;
+    private final int arrivalStreams;
+    private final long arrivals;
+    private final long droppedArrivals;
+    private final Map<String, Long> counters;
+
+    // The samples, column by column
+    private final long[] startOffsets;
+    private final int[] latencies;
+    private final int[] responseTimes;
+    private final int[] transactionTypes;
+    private final int[] workerIds;
+    private final int[] phaseIds;
+
+    /**
+     * @param measureStart when the agent started measuring, on its own clock
+     * @param workerOffset added to the worker ids of the samples, so that the
+     *                     workers of all the agents are numbered as in a
+     *                     standalone run
+     */
+    public AgentReport(int agentIndex, Results results, long measureStart, int workerOffset) {
+        this.agentIndex = agentIndex;
+        this.measuredRequests = results.getMeasuredRequests();
+
+        this.unknown = toMap(results.getUnknown());
+        this.success = toMap(results.getSuccess());
+        this.abort = toMap(results.getAbort());
+        this.retry = toMap(results.getRetry());
+        this.error = toMap(results.getError());
+        this.retryDifferent = toMap(results.getRetryDifferent());
+        this.attempts = toMap(results.getAttempts());
+        this.abortMessages = new HashMap<>();
+        for (Map.Entry<TransactionType, Histogram<String>> e : results.getAbortMessages().entrySet()) {
+            Map<String, Integer> messages = new HashMap<>();
+            for (String message : e.getValue().values()) {
+                messages.put(message, e.getValue().get(message, 0));
+            }
+            this.abortMessages.put(e.getKey().getId(), messages);
+        }
+
+        this.latencyHistograms = toMap(results.getLatencyHistograms());
+        this.responseTimeHistograms = toMap(results.getResponseTimeHistograms());
+        this.attemptHistograms = toMap(results.getAttemptHistograms());
+        this.commitHistograms = toMap(results.getCommitHistograms());
+        this.rollbackHistograms = toMap(results.getRollbackHistograms());
+        this.labelHistograms = new HashMap<>();
+        for (Map.Entry<String, Map<TransactionType, LatencyHistogram>> e : results.getLabelHistograms().entrySet()) {
+            this.labelHistograms.put(e.getKey(), toMap(e.getValue()));
+        }
+
+        this.statementStatistics = results.getStatementStatistics();
+        this.statementCacheHits = results.getStatementCacheHits();
+        this.statementCacheMisses = results.getStatementCacheMisses();
+        this.statementCacheEvictions = results.getStatementCacheEvictions();
+        this.connectionWaitHistogram = results.getConnectionWaitHistogram();
+        this.connectionPoolSize = results.getConnectionPoolSize();
+        this.connectionsOpened = results.getConnectionsOpened();
+        this.connectionValidationFailures = results.getConnectionValidationFailures();
+        this.connectionTimeouts = results.getConnectionTimeouts();
+        this.interArrivalHistogram = results.getInterArrivalHistogram();
+        this.dispatchLagHistogram = results.getDispatchLagHistogram();
+        this.arrivalDispatchers = results.getArrivalDispatchers();
+        this.arrivalStreams = results.getArrivalStreams();
+        this.arrivals = results.getArrivals();
+        this.droppedArrivals = results.getDroppedArrivals();
+        this.counters = new HashMap<>(results.getCounters());
+
+        int size = 0;
+        if (results.getLatencySamples() != null) {
+            for (LatencyRecord.Sample ignored : results.getLatencySamples()) {
+                size++;
+            }
+        }
+        this.startOffsets = new long[size];
+        this.latencies = new int[size];
+        this.responseTimes = new int[size];
+        this.transactionTypes = new int[size];
+        this.workerIds = new int[size];
+        this.phaseIds = new int[size];
+        if (size > 0) {
+            int i = 0;
+            for (LatencyRecord.Sample s : results.getLatencySamples()) {
+                this.startOffsets[i] = s.getStartNanosecond() - measureStart;
+                this.latencies[i] = s.getLatencyMicrosecond();
+                this.responseTimes[i] = s.getResponseMicrosecond();
+                this.transactionTypes[i] = s.getTransactionType();
+                this.workerIds[i] = s.getWorkerId() + workerOffset;
+                this.phaseIds[i] = s.getPhaseId();
+                i++;
+            }
+        }
+    }
+
+    public int getAgentIndex() {
+        return agentIndex;
+    }
+
+    public int getMeasuredRequests() {
+        return measuredRequests;
+    }
+
+    public int getSampleCount() {
+        return startOffsets.length;
+    }
+
+    /**
+     * Combine the reports of all the agents into the results of the whole
+     * run, as if it had been run by a single process.
+     *
+     * @param nanoseconds  how long the coordinator measured
+     * @param measureStart when the coordinator started measuring, to which
+     *                     the start times of the samples are rebased
+     * @param txnTypes     the transaction types of all the workloads
+     */
+    public static Results merge(List<AgentReport> reports, long nanoseconds, long measureStart, Collection<TransactionType> txnTypes) {
+        Map<Integer, TransactionType> types = new HashMap<>();
+        for (TransactionType type : txnTypes) {
+            types.put(type.getId(), type);
+        }
+        Set<TransactionType> measuredTypes = new HashSet<>(txnTypes);
+        measuredTypes.remove(TransactionType.INVALID);
+
+        // Each report's samples are ordered by start time, so they are
+        // merged lazily as the samples of the workers of a single process are
+        int requests = 0;
+        List<LatencyRecord> records = new ArrayList<>(reports.size());
+        Map<TransactionType, LatencyHistogram> latencyHistograms = new HashMap<>();
+        Map<TransactionType, LatencyHistogram> responseTimeHistograms = new HashMap<>();
+        for (AgentReport report : reports) {
+            requests += report.measuredRequests;
+            records.add(report.toLatencyRecord(measureStart));
+            mergeHistograms(latencyHistograms, report.latencyHistograms, types);
+            mergeHistograms(responseTimeHistograms, report.responseTimeHistograms, types);
+        }
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        latencyHistograms.values().forEach(latencies::add);
+        LatencyHistogram responseTimes = new LatencyHistogram();
+        responseTimeHistograms.values().forEach(responseTimes::add);
+
+        DistributionStatistics stats = DistributionStatistics.computeStatistics(latencies);
+        DistributionStatistics responseStats = DistributionStatistics.computeStatistics(responseTimes);
+
+        Results results = new Results(nanoseconds, requests, stats, responseStats, LatencyRecord.merge(records));
+        results.setMeasureStartNanosecond(measureStart);
+        results.getLatencyHistograms().putAll(latencyHistograms);
+        results.getResponseTimeHistograms().putAll(responseTimeHistograms);
+
+        results.getUnknown().putAll(measuredTypes, 0);
+        results.getSuccess().putAll(measuredTypes, 0);
+        results.getRetry().putAll(measuredTypes, 0);
+        results.getAbort().putAll(measuredTypes, 0);
+        results.getError().putAll(measuredTypes, 0);
+        results.getRetryDifferent().putAll(measuredTypes, 0);
+
+        long cacheHits = 0;
+        long cacheMisses = 0;
+        long cacheEvictions = 0;
+        int poolSize = 0;
+        long connectionsOpened = 0;
+        long validationFailures = 0;
+        long connectionTimeouts = 0;
+        int dispatchers = 0;
+        int streams = 0;
+        long arrivals = 0;
+        long dropped = 0;
+        for (AgentReport report : reports) {
+            mergeHistograms(results.getAttemptHistograms(), report.attemptHistograms, types);
+            mergeHistograms(results.getCommitHistograms(), report.commitHistograms, types);
+            mergeHistograms(results.getRollbackHistograms(), report.rollbackHistograms, types);
+            for (Map.Entry<String, Map<Integer, LatencyHistogram>> e : report.labelHistograms.entrySet()) {
+                mergeHistograms(results.getLabelHistograms().computeIfAbsent(e.getKey(), k -> new HashMap<>()), e.getValue(), types);
+            }
+
+            putCounts(results.getUnknown(), report.unknown, types);
+            putCounts(results.getSuccess(), report.success, types);
+            putCounts(results.getRetry(), report.retry, types);
+            putCounts(results.getAbort(), report.abort, types);
+            putCounts(results.getError(), report.error, types);
+            putCounts(results.getRetryDifferent(), report.retryDifferent, types);
+            putCounts(results.getAttempts(), report.attempts, types);
+            for (Map.Entry<Integer, Map<String, Integer>> e : report.abortMessages.entrySet()) {
+                TransactionType type = types.get(e.getKey());
+                if (type != null) {
+                    Histogram<String> messages = results.getAbortMessages().computeIfAbsent(type, k -> new Histogram<>());
+                    e.getValue().forEach(messages::put);
+                }
+            }
+
+            results.getStatementStatistics().add(report.statementStatistics);
+            cacheHits += report.statementCacheHits;
+            cacheMisses += report.statementCacheMisses;
+            cacheEvictions += report.statementCacheEvictions;
+
+            results.getConnectionWaitHistogram().add(report.connectionWaitHistogram);
+            poolSize += report.connectionPoolSize;
+            connectionsOpened += report.connectionsOpened;
+            validationFailures += report.connectionValidationFailures;
+            connectionTimeouts += report.connectionTimeouts;
+
+            results.getInterArrivalHistogram().add(report.interArrivalHistogram);
+            results.getDispatchLagHistogram().add(report.dispatchLagHistogram);
+            dispatchers += report.arrivalDispatchers;
+            streams += report.arrivalStreams;
+            arrivals += report.arrivals;
+            dropped += report.droppedArrivals;
+            report.counters.forEach((name, value) -> results.getCounters().merge(name, value, Long::sum));
+        }
+        results.setStatementCacheStatistics(cacheHits, cacheMisses, cacheEvictions);
+        results.setConnectionPoolStatistics(poolSize, connectionsOpened, validationFailures, connectionTimeouts);
+        results.setArrivalStatistics(dispatchers, streams, arrivals, dropped);
+
+        return results;
+    }
+
+    private LatencyRecord toLatencyRecord(long measureStart) {
+        LatencyRecord record = new LatencyRecord(measureStart);
+        for (int i = 0; i < startOffsets.length; i++) {
+            long start = measureStart + startOffsets[i];
+            long end = start + latencies[i] * 1000L;
+            long intendedStart = end - responseTimes[i] * 1000L;
+            record.addLatency(transactionTypes[i], intendedStart, start, end, workerIds[i], phaseIds[i]);
+        }
+        return record;
+    }
+
+    private static Map<Integer, Integer> toMap(Histogram<TransactionType> histogram) {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (TransactionType type : histogram.values()) {
+            map.put(type.getId(), histogram.get(type, 0));
+        }
+        return map;
+    }
+
+    private static Map<Integer, LatencyHistogram> toMap(Map<TransactionType, LatencyHistogram> histograms) {
+        Map<Integer, LatencyHistogram> map = new HashMap<>();
+        for (Map.Entry<TransactionType, LatencyHistogram> e : histograms.entrySet()) {
+            map.put(e.getKey().getId(), e.getValue());
+        }
+        return map;
+    }
+
+    private static void putCounts(Histogram<TransactionType> histogram, Map<Integer, Integer> counts, Map<Integer, TransactionType> types) {
+        for (Map.Entry<Integer, Integer> e : counts.entrySet()) {
+            TransactionType type = types.get(e.getKey());
+            if (type != null && e.getValue() > 0) {
+                histogram.put(type, e.getValue());
+            }
+        }
+    }
+
+    private static void mergeHistograms(Map<TransactionType, LatencyHistogram> merged, Map<Integer, LatencyHistogram> histograms, Map<Integer, TransactionType> types) {
+        for (Map.Entry<Integer, LatencyHistogram> e : histograms.entrySet()) {
+            TransactionType type = types.get(e.getKey());
+            if (type != null) {
+                merged.computeIfAbsent(type, k -> new LatencyHistogram()).add(e.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.distributed;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * A connection between the coordinator and one agent, over which they
+ * exchange serialized {@link Message}s.
+ */
+final class Channel implements Closeable {
+
+    /**
+     * Only the classes our messages are made of are deserialized, with
+     * bounds on how deeply they nest and on how many objects a stream holds.
+     * The samples of a report are kept in primitive arrays, so a large run
+     * does not need many objects.
+     */
+    static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(String.join(";",
+            "maxdepth=16",
+            "maxrefs=1000000",
+            Message.class.getName(),
+            Message.Type.class.getName(),
+            AgentReport.class.getName(),
+            "com.oltpbenchmark.util.LatencyHistogram",
+            "com.oltpbenchmark.api.StatementStatistics",
+            "com.oltpbenchmark.api.StatementStatistics$Entry",
+            "java.lang.Enum",
+            "java.lang.Number",
+            "java.lang.Integer",
+            "java.lang.Long",
+            "java.lang.String",
+            "java.util.HashMap",
+            "java.util.Map$Entry",
+            "java.util.TreeMap",
+            "!*"));
+
+    private final Socket socket;
+    private final ObjectOutputStream out;
+    private final ObjectInputStream in;
+
+    Channel(Socket socket) throws IOException {
+        this.socket = socket;
+        this.socket.setTcpNoDelay(true);
+        // Both sides write their stream header before reading the other one
+        this.out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.out.flush();
+        this.in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.in.setObjectInputFilter(FILTER);
+    }
+
+    synchronized void send(Message message) throws IOException {
+        out.writeObject(message);
+        // Do not keep references to what was sent, e.g. large reports
+        out.reset();
+        out.flush();
+    }
+
+    Message receive() throws IOException {
+        try {
+            return (Message) in.readObject();
+        } catch (SocketTimeoutException ex) {
+            // The stream cannot be read any further
+            SocketTimeoutException timeout = new SocketTimeoutException(String.format("No message from %s within %d ms", getRemoteAddress(), socket.getSoTimeout()));
+            timeout.initCause(ex);
+            throw timeout;
+        } catch (ClassNotFoundException | ClassCastException ex) {
+            throw new IOException("Invalid message from " + getRemoteAddress(), ex);
+        }
+    }
+
+    /**
+     * Receive the next message and fail unless it is of the given type.
+     */
+    Message receive(Message.Type type) throws IOException {
+        Message message = receive();
+        if (message.getType() != type) {
+            throw new IOException(String.format("Expected %s from %s, got %s", type, getRemoteAddress(), message));
+        }
+        return message;
+    }
+
+    String getRemoteAddress() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.distributed;
+
+import com.oltpbenchmark.Phase;
+import com.oltpbenchmark.Results;
+import com.oltpbenchmark.WorkloadConfiguration;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Runs a benchmark over several {@link Agent} processes, on the same host or
+ * on different ones, when a single process cannot drive the DBMS hard
+ * enough.
+ * <p>
+ * The coordinator does not run any workers itself. It splits the terminals
+ * and rates between the agents, tells all of them when to start, when the
+ * warmup ends and when each phase ends, and merges their results into a
+ * single {@link Results}, which is written as the results of a standalone
+ * run would be. Since the agents switch when they hear from the
+ * coordinator, the phases of different agents are apart by the network
+ * latency at most.
+ */
+public final class Coordinator implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(Coordinator.class);
+
+    /**
+     * How long to wait for each message of an agent, by default. The last
+     * one, its report, comes once its workers finished their transactions.
+     */
+    public static final int DEFAULT_READ_TIMEOUT_MS = 300000;
+
+    private final ServerSocket server;
+    private final int numAgents;
+    private final int readTimeoutMillis;
+    private final List<Channel> agents = new ArrayList<>();
+
+    /**
+     * Start listening for the agents on the loopback address, for agents on
+     * the same host.
+     */
+    public Coordinator(int port, int numAgents) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port, numAgents);
+    }
+
+    /**
+     * Start listening for the agents, which are only accepted once
+     * {@link #run(List)} is called, e.g. after the database is loaded. The
+     * agents are not authenticated, so the address should only be reachable
+     * from the hosts of the agents.
+     *
+     * @param bindAddress the address to listen on
+     */
+    public Coordinator(InetAddress bindAddress, int port, int numAgents) throws IOException {
+        this(bindAddress, port, numAgents, DEFAULT_READ_TIMEOUT_MS);
+    }
+
+    /**
+     * @param readTimeoutMillis how long to wait for each message of an
+     *                          agent before failing the run, 0 for ever
+     */
+    public Coordinator(InetAddress bindAddress, int port, int numAgents, int readTimeoutMillis) throws IOException {
+        if (numAgents < 1) {
+            throw new IllegalArgumentException("A distributed run needs at least one agent");
+        }
+        this.server = new ServerSocket(port, numAgents, bindAddress);
+        this.numAgents = numAgents;
+        this.readTimeoutMillis = readTimeoutMillis;
+        LOG.info("Coordinator listening on {} for {} agents", server.getLocalSocketAddress(), numAgents);
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Run the phases of the given workloads on the agents. The run fails if
+     * an agent is lost, or sends nothing within the read timeout when a
+     * message of it is expected.
+     */
+    public Results run(List<WorkloadConfiguration> workConfs) throws IOException, InterruptedException {
+        // Like ThreadBench, follow the phases of the last workload
+        List<Phase> phases = workConfs.get(workConfs.size() - 1).getPhases();
+        for (Phase phase : phases) {
+            if (phase.isSerial()) {
+                // Serial phases end when all their queries ran, not on a clock
+                throw new IllegalArgumentException("Serial phases cannot be run by a coordinator");
+            }
+            if (phase.isRateLimited() && !phase.isDisabled() && phase.getRate() < numAgents) {
+                // Each agent would still send at least one request per second
+                throw new IllegalArgumentException(String.format("The rate of phase %d is lower than the number of agents", phase.getId()));
+            }
+        }
+        Set<TransactionType> txnTypes = new HashSet<>();
+        for (WorkloadConfiguration workConf : workConfs) {
+            txnTypes.addAll(workConf.getTransTypes());
+        }
+
+        while (agents.size() < numAgents) {
+            Socket socket = server.accept();
+            // Also bounds the wait for the stream header
+            socket.setSoTimeout(readTimeoutMillis);
+            Channel agent = new Channel(socket);
+            agent.receive(Message.Type.HELLO);
+            agents.add(agent);
+            LOG.info("Agent {} connected from {} ({} of {})", agents.size() - 1, agent.getRemoteAddress(), agents.size(), numAgents);
+        }
+        // What the agents must draw alike, e.g. the GeoC hotspots, is drawn
+        // from this seed
+        int randomSeed = workConfs.get(0).getRandomSeed();
+        long seed = (randomSeed != -1 ? randomSeed : new Random().nextLong());
+        for (int i = 0; i < numAgents; i++) {
+            agents.get(i).send(Message.assign(i, numAgents, seed));
+        }
+
+        // Start once every agent has created its workers
+        for (Channel agent : agents) {
+            agent.receive(Message.Type.READY);
+        }
+        long start = System.nanoTime();
+        broadcast(Message.of(Message.Type.GO));
+        LOG.info("{} :: Started {} agents", StringUtil.bold("START"), numAgents);
+
+        sleepUntil(start + phases.get(0).getWarmupTime() * 1000000000L);
+        long measureStart = System.nanoTime();
+        broadcast(Message.of(Message.Type.MEASURE));
+        LOG.info("{} :: Warmup complete, starting measurements.", StringUtil.bold("MEASURE"));
+
+        long phaseEnd = measureStart;
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            LOG.info(phase.currentPhaseString());
+            phaseEnd += phase.getTime() * 1000000000L;
+            sleepUntil(phaseEnd);
+            broadcast(Message.phaseEnd(i));
+        }
+        long measureEnd = System.nanoTime();
+        LOG.info("{} :: Waiting for the results of all agents ..", StringUtil.bold("TERMINATE"));
+
+        List<AgentReport> reports = new ArrayList<>(numAgents);
+        for (Channel agent : agents) {
+            AgentReport report = agent.receive(Message.Type.REPORT).getReport();
+            LOG.info("Agent {}: {} measured requests, {} samples", report.getAgentIndex(), report.getMeasuredRequests(), report.getSampleCount());
+            reports.add(report);
+        }
+
+        return AgentReport.merge(reports, measureEnd - measureStart, measureStart, txnTypes);
+    }
+
+    private void broadcast(Message message) throws IOException {
+        for (Channel agent : agents) {
+            agent.send(message);
+        }
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long diff;
+        while ((diff = deadline - System.nanoTime()) > 0) {
+            Thread.sleep(diff / 1000000, (int) (diff % 1000000));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Channel agent : agents) {
+            agent.close();
+        }
+        server.close();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.distributed;
+
+import java.io.Serializable;
+
+/**
+ * What the coordinator and its agents tell each other. A run goes:
+ * <pre>
+ * agent                        coordinator
+ *   HELLO         --&gt;
+ *                 &lt;--  ASSIGN (index, count, seed)
+ *   READY         --&gt;
+ *                 &lt;--  GO
+ *                 &lt;--  MEASURE
+ *                 &lt;--  PHASE_END (once per phase)
+ *   REPORT        --&gt;
+ * </pre>
+ */
+final class Message implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    enum Type {
+        HELLO,
+        ASSIGN,
+        READY,
+        GO,
+        MEASURE,
+        PHASE_END,
+        REPORT
+    }
+
+    private final Type type;
+    private final int index;
+    private final int count;
+    private final long seed;
+    private final AgentReport report;
+
+    private Message(Type type, int index, int count, long seed, AgentReport report) {
+        this.type = type;
+        this.index = index;
+        this.count = count;
+        this.seed = seed;
+        this.report = report;
+    }
+
+    static Message of(Type type) {
+        return new Message(type, -1, -1, 0, null);
+    }
+
+    static Message assign(int index, int count, long seed) {
+        return new Message(Type.ASSIGN, index, count, seed, null);
+    }
+
+    static Message phaseEnd(int phase) {
+        return new Message(Type.PHASE_END, phase, -1, 0, null);
+    }
+
+    static Message report(AgentReport report) {
+        return new Message(Type.REPORT, report.getAgentIndex(), -1, 0, report);
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    /**
+     * The index of the agent, or of the phase that ended.
+     */
+    int getIndex() {
+        return index;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * The seed shared by all the agents of the run.
+     */
+    long getSeed() {
+        return seed;
+    }
+
+    AgentReport getReport() {
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        return type + (index >= 0 ? "(" + index + ")" : "");
+    }
+}
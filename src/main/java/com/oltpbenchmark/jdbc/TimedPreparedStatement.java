@@ -0,0 +1,649 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.Calendar;
+
+/**
+ * Wraps a PreparedStatement to measure how long each execution takes and
+ * how many rows it returns or modifies. Only the execute methods and
+ * {@link ResultSet#next()} are timed; every other call is delegated as is.
+ * <p>
+ * The time of a query includes fetching its rows, i.e. the calls to
+ * {@link ResultSet#next()}, but not what the caller does in between. An
+ * execution is reported when its ResultSet is closed, the statement is
+ * executed again or the statement is closed, whichever comes first.
+ */
+public class TimedPreparedStatement implements PreparedStatement {
+
+    /**
+     * Receives the measurements of each execution.
+     */
+    public interface Listener {
+        void executed(long nanos, long rows);
+    }
+
+    private final PreparedStatement stmt;
+    private final Listener listener;
+
+    // The query whose rows are being fetched, or null
+    private TimedResultSet resultSet = null;
+
+    public TimedPreparedStatement(PreparedStatement stmt, Listener listener) {
+        this.stmt = stmt;
+        this.listener = listener;
+    }
+
+    /**
+     * Report the execution whose rows were being fetched, if any.
+     */
+    private void finish() {
+        if (this.resultSet != null) {
+            TimedResultSet rs = this.resultSet;
+            this.resultSet = null;
+            this.listener.executed(rs.getNanos(), rs.getRows());
+        }
+    }
+
+    /**
+     * Report the execution of the given ResultSet, when it is closed, unless
+     * it was already reported.
+     */
+    void finish(TimedResultSet rs) {
+        if (this.resultSet == rs) {
+            finish();
+        }
+    }
+
+    private ResultSet query(ResultSet rs, long nanos) {
+        if (rs == null) {
+            this.listener.executed(nanos, 0);
+            return null;
+        }
+        this.resultSet = new TimedResultSet(this, rs, nanos);
+        return this.resultSet;
+    }
+
+    /**
+     * Report an execution with execute(): its rows are counted when it
+     * returned a ResultSet, which is fetched through
+     * {@link #getResultSet()}.
+     */
+    private boolean executed(boolean hasResultSet, long start) throws SQLException {
+        long nanos = System.nanoTime() - start;
+        if (hasResultSet) {
+            this.resultSet = new TimedResultSet(this, null, nanos);
+        } else {
+            this.listener.executed(nanos, Math.max(0, this.stmt.getUpdateCount()));
+        }
+        return hasResultSet;
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return this.stmt.getGeneratedKeys();
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        ResultSet rs = this.stmt.executeQuery(sql);
+        return query(rs, System.nanoTime() - start);
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        int rows = this.stmt.executeUpdate(sql);
+        this.listener.executed(System.nanoTime() - start, Math.max(0, rows));
+        return rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        finish();
+        this.stmt.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return this.stmt.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        this.stmt.setMaxFieldSize(max);
+
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return this.stmt.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        this.stmt.setMaxRows(max);
+
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        this.stmt.setEscapeProcessing(enable);
+
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return this.stmt.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        this.stmt.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        this.stmt.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return this.stmt.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        this.stmt.clearWarnings();
+
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        this.stmt.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        return executed(this.stmt.execute(sql), start);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        ResultSet rs = this.stmt.getResultSet();
+        return (this.resultSet != null && rs != null ? this.resultSet.wrap(rs) : rs);
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return this.stmt.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return this.stmt.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        this.stmt.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return this.stmt.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        this.stmt.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return this.stmt.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return this.stmt.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return this.stmt.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        this.stmt.addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        this.stmt.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        int[] counts = this.stmt.executeBatch();
+        long nanos = System.nanoTime() - start;
+        long rows = 0;
+        for (int count : counts) {
+            rows += Math.max(0, count);
+        }
+        this.listener.executed(nanos, rows);
+        return counts;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.stmt.getConnection();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return this.stmt.getMoreResults(current);
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        int rows = this.stmt.executeUpdate(sql, autoGeneratedKeys);
+        this.listener.executed(System.nanoTime() - start, Math.max(0, rows));
+        return rows;
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        int rows = this.stmt.executeUpdate(sql, columnIndexes);
+        this.listener.executed(System.nanoTime() - start, Math.max(0, rows));
+        return rows;
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        int rows = this.stmt.executeUpdate(sql, columnNames);
+        this.listener.executed(System.nanoTime() - start, Math.max(0, rows));
+        return rows;
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        return executed(this.stmt.execute(sql, autoGeneratedKeys), start);
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        return executed(this.stmt.execute(sql, columnIndexes), start);
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        return executed(this.stmt.execute(sql, columnNames), start);
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return this.stmt.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return this.stmt.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        this.stmt.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return this.stmt.isPoolable();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return this.stmt.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return this.stmt.isWrapperFor(iface);
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        ResultSet rs = this.stmt.executeQuery();
+        return query(rs, System.nanoTime() - start);
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        int rows = this.stmt.executeUpdate();
+        this.listener.executed(System.nanoTime() - start, Math.max(0, rows));
+        return rows;
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        this.stmt.setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        this.stmt.setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        this.stmt.setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        this.stmt.setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        this.stmt.setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        this.stmt.setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        this.stmt.setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        this.stmt.setDouble(parameterIndex, x);
+
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        this.stmt.setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        this.stmt.setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        this.stmt.setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        this.stmt.setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        this.stmt.setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        this.stmt.setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        this.stmt.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        this.stmt.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        this.stmt.clearParameters();
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        this.stmt.setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        this.stmt.setObject(parameterIndex, x);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        finish();
+        long start = System.nanoTime();
+        return executed(this.stmt.execute(), start);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        this.stmt.addBatch();
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        this.stmt.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        this.stmt.setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        this.stmt.setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        this.stmt.setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        this.stmt.setArray(parameterIndex, x);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return this.stmt.getMetaData();
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        this.stmt.setDate(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        this.stmt.setTime(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        this.stmt.setTimestamp(parameterIndex, x, cal);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        this.stmt.setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        this.stmt.setURL(parameterIndex, x);
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return this.stmt.getParameterMetaData();
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        this.stmt.setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        this.stmt.setNString(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        this.stmt.setNCharacterStream(parameterIndex, value, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        this.stmt.setNClob(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.stmt.setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        this.stmt.setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.stmt.setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        this.stmt.setSQLXML(parameterIndex, xmlObject);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        this.stmt.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        this.stmt.setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        this.stmt.setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        this.stmt.setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        this.stmt.setAsciiStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        this.stmt.setBinaryStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        this.stmt.setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        this.stmt.setNCharacterStream(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        this.stmt.setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        this.stmt.setBlob(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        this.stmt.setNClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        this.stmt.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return this.stmt.isCloseOnCompletion();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import com.oltpbenchmark.IntervalStatistics;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streams the per-interval statistics collected by the monitor while the
+ * benchmark is running, either as CSV or as one JSON object per line.
+ */
+public class IntervalResultWriter {
+
+    private static final String[] HEADER = {
+            "Time (seconds)",
+            "Transaction Type",
+            "Requests",
+            "Throughput (requests/second)",
+            "Median Latency (microseconds)",
+            "95th Percentile Latency (microseconds)",
+            "99th Percentile Latency (microseconds)",
+            "Maximum Latency (microseconds)",
+            "Aborts",
+            "Abort Rate",
+            "Retries",
+            "Retry Rate",
+            "Errors"
+    };
+
+    private final PrintStream out;
+    private final boolean json;
+
+    /**
+     * @param json write JSON lines instead of CSV
+     */
+    public IntervalResultWriter(PrintStream out, boolean json) {
+        this.out = out;
+        this.json = json;
+        if (!json) {
+            out.println(StringUtil.join(",", HEADER));
+        }
+    }
+
+    /**
+     * Returns true if a file with the given name should be written as JSON lines.
+     */
+    public static boolean isJson(String fileName) {
+        return fileName.endsWith(".json") || fileName.endsWith(".jsonl");
+    }
+
+    /**
+     * @param timeSeconds     time since the start of the run at the end of the interval
+     * @param intervalSeconds length of the interval
+     * @param transactionName the transaction type, or ALL for the whole workload
+     */
+    public void write(double timeSeconds, double intervalSeconds, String transactionName, IntervalStatistics stats) {
+        LatencyHistogram latencies = stats.getLatencies();
+        long requests = stats.getRequests();
+        double throughput = requests / intervalSeconds;
+        double abortRate = requests == 0 ? 0 : (double) stats.getAborts() / requests;
+        double retryRate = requests == 0 ? 0 : (double) stats.getRetries() / requests;
+
+        if (json) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put(HEADER[0], timeSeconds);
+            m.put(HEADER[1], transactionName);
+            m.put(HEADER[2], requests);
+            m.put(HEADER[3], throughput);
+            m.put(HEADER[4], latencies.getValueAtPercentile(0.5));
+            m.put(HEADER[5], latencies.getValueAtPercentile(0.95));
+            m.put(HEADER[6], latencies.getValueAtPercentile(0.99));
+            m.put(HEADER[7], latencies.getMaximum());
+            m.put(HEADER[8], stats.getAborts());
+            m.put(HEADER[9], abortRate);
+            m.put(HEADER[10], stats.getRetries());
+            m.put(HEADER[11], retryRate);
+            m.put(HEADER[12], stats.getErrors());
+            out.println(JSONUtil.toJSONString(m));
+        } else {
+            out.printf("%.3f,%s,%d,%.3f,%d,%d,%d,%d,%d,%.5f,%d,%.5f,%d\n",
+                    timeSeconds,
+                    transactionName,
+                    requests,
+                    throughput,
+                    latencies.getValueAtPercentile(0.5),
+                    latencies.getValueAtPercentile(0.95),
+                    latencies.getValueAtPercentile(0.99),
+                    latencies.getMaximum(),
+                    stats.getAborts(),
+                    abortRate,
+                    stats.getRetries(),
+                    retryRate,
+                    stats.getErrors());
+        }
+    }
+
+    /**
+     * Push the rows of the last interval to the file.
+     */
+    public void flush() {
+        out.flush();
+    }
+}
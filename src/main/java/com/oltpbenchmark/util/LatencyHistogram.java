@@ -0,0 +1,211 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Fixed-precision, mergeable histogram of latency values (in microseconds).
+ * <p>
+ * Buckets are laid out log-linearly in the style of HdrHistogram: values
+ * below {@link #SUB_BUCKET_COUNT} are counted exactly, larger values share a
+ * bucket with at most <code>1 / (SUB_BUCKET_COUNT / 2)</code> relative width.
+ * Recording a value is a couple of shifts and an array increment, and two
+ * histograms are merged by adding their bucket counts, so each worker can
+ * keep its own histograms and they can be combined at the end of the run.
+ * <p>
+ * The exact minimum, maximum, sum and sum of squares are tracked alongside
+ * the buckets, so the average and standard deviation are not approximated.
+ * <p>
+ * Not thread-safe: each instance must be written by a single thread.
+ */
+public class LatencyHistogram implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    /**
+     * Values are clamped to this, which is about 35 minutes.
+     */
+    public static final long MAX_VALUE = Integer.MAX_VALUE;
+
+    /**
+     * Counts per bucket. Grown on demand up to the bucket of MAX_VALUE, so a
+     * histogram of short latencies stays small.
+     */
+    private long[] counts = new long[SUB_BUCKET_COUNT];
+    private long count = 0;
+    private long minimum = Long.MAX_VALUE;
+    private long maximum = 0;
+    private double sum = 0;
+    private double sumOfSquares = 0;
+
+    public LatencyHistogram() {
+    }
+
+    /**
+     * Creates a copy of the given histogram.
+     */
+    public LatencyHistogram(LatencyHistogram other) {
+        this.counts = Arrays.copyOf(other.counts, other.counts.length);
+        this.count = other.count;
+        this.minimum = other.minimum;
+        this.maximum = other.maximum;
+        this.sum = other.sum;
+        this.sumOfSquares = other.sumOfSquares;
+    }
+
+    static int bucketIndex(long value) {
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift * SUB_BUCKET_HALF) + (int) (value >>> shift);
+    }
+
+    /**
+     * The largest value that falls into the bucket with the given index.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index / SUB_BUCKET_HALF) - 1;
+        long subBucket = index - (shift * SUB_BUCKET_HALF);
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Record a single value. Negative values are counted as 0 and values
+     * above {@link #MAX_VALUE} as MAX_VALUE.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+
+        int index = bucketIndex(value);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, index + 1);
+        }
+        counts[index]++;
+
+        count++;
+        if (value < minimum) {
+            minimum = value;
+        }
+        if (value > maximum) {
+            maximum = value;
+        }
+        sum += value;
+        sumOfSquares += (double) value * value;
+    }
+
+    /**
+     * Add all values recorded in <code>other</code> to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        minimum = Math.min(minimum, other.minimum);
+        maximum = Math.max(maximum, other.maximum);
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+    }
+
+    /**
+     * Remove all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        minimum = Long.MAX_VALUE;
+        maximum = 0;
+        sum = 0;
+        sumOfSquares = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getMinimum() {
+        return count == 0 ? 0 : minimum;
+    }
+
+    public long getMaximum() {
+        return maximum;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Sample standard deviation of the recorded values.
+     */
+    public double getStandardDeviation() {
+        if (count < 2) {
+            return 0;
+        }
+        double average = sum / count;
+        double variance = (sumOfSquares - count * average * average) / (count - 1);
+        return Math.sqrt(Math.max(0, variance));
+    }
+
+    /**
+     * Returns the value at the given percentile, selecting the closest
+     * recorded value the same way {@link com.oltpbenchmark.DistributionStatistics}
+     * does for raw samples. The result is the upper end of the bucket the
+     * value fell into, bounded by the exact minimum and maximum.
+     *
+     * @param percentile between 0.0 and 1.0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) (percentile * count);
+        if (rank >= count) {
+            rank = count - 1;
+        }
+
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return Math.max(minimum, Math.min(maximum, highestEquivalentValue(i)));
+            }
+        }
+        return maximum;
+    }
+}
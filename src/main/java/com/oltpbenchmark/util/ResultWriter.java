@@ -20,7 +20,7 @@ package com.oltpbenchmark.util;
 import com.oltpbenchmark.DistributionStatistics;
 import com.oltpbenchmark.LatencyRecord;
 import com.oltpbenchmark.Results;
-import com.oltpbenchmark.ThreadBench;
+import com.oltpbenchmark.api.StatementStatistics;
 import com.oltpbenchmark.api.TransactionType;
 import com.oltpbenchmark.api.collectors.DBParameterCollector;
 import com.oltpbenchmark.api.collectors.DBParameterCollectorGen;
@@ -37,6 +37,12 @@ public class ResultWriter {
 
     public static final double MILLISECONDS_FACTOR = 1e3;
 
+    /**
+     * The first window starts with the first sample, instead of at a given
+     * time.
+     */
+    public static final long FIRST_SAMPLE = Long.MIN_VALUE;
+
 
     private static final String[] IGNORE_CONF = {
             "type",
@@ -107,6 +113,90 @@ public class ResultWriter {
         summaryMap.put("DBMS Version", collector.collectVersion());
         summaryMap.put("Benchmark Type", benchType);
         summaryMap.put("Latency Distribution", results.getDistributionStatistics().toMap());
+        summaryMap.put("Response Time Distribution", results.getResponseTimeStatistics().toMap());
+        Map<String, Object> perTypeMap = new TreeMap<>();
+        for (Map.Entry<TransactionType, LatencyHistogram> e : results.getLatencyHistograms().entrySet()) {
+            perTypeMap.put(e.getKey().getName(), DistributionStatistics.computeStatistics(e.getValue()).toMap());
+        }
+        summaryMap.put("Latency Distribution By Transaction Type", perTypeMap);
+        Map<String, Object> attemptsMap = new TreeMap<>();
+        for (Map.Entry<TransactionType, LatencyHistogram> e : results.getAttemptHistograms().entrySet()) {
+            Map<String, Object> typeMap = new LinkedHashMap<>();
+            LatencyHistogram latencies = results.getLatencyHistograms().get(e.getKey());
+            typeMap.put("Transactions", latencies == null ? 0 : latencies.getCount());
+            typeMap.put("Attempts", results.getAttempts().get(e.getKey(), 0));
+            typeMap.put("Attempt Latency Distribution", DistributionStatistics.computeStatistics(e.getValue()).toMap());
+            attemptsMap.put(e.getKey().getName(), typeMap);
+        }
+        summaryMap.put("Attempts By Transaction Type", attemptsMap);
+        Map<String, Object> commitMap = new TreeMap<>();
+        for (Map.Entry<TransactionType, LatencyHistogram> e : results.getCommitHistograms().entrySet()) {
+            commitMap.put(e.getKey().getName(), DistributionStatistics.computeStatistics(e.getValue()).toMap());
+        }
+        summaryMap.put("Commit Time By Transaction Type", commitMap);
+        Map<String, Object> rollbackMap = new TreeMap<>();
+        for (Map.Entry<TransactionType, LatencyHistogram> e : results.getRollbackHistograms().entrySet()) {
+            rollbackMap.put(e.getKey().getName(), DistributionStatistics.computeStatistics(e.getValue()).toMap());
+        }
+        summaryMap.put("Rollback Time By Transaction Type", rollbackMap);
+        if (!results.getLabelHistograms().isEmpty()) {
+            Map<String, Object> labelsMap = new TreeMap<>();
+            for (Map.Entry<String, Map<TransactionType, LatencyHistogram>> label : results.getLabelHistograms().entrySet()) {
+                Map<String, Object> perLabelMap = new TreeMap<>();
+                for (Map.Entry<TransactionType, LatencyHistogram> e : label.getValue().entrySet()) {
+                    perLabelMap.put(e.getKey().getName(), DistributionStatistics.computeStatistics(e.getValue()).toMap());
+                }
+                labelsMap.put(label.getKey(), perLabelMap);
+            }
+            summaryMap.put("Latency Distribution By Label", labelsMap);
+        }
+        Map<String, Map<String, StatementStatistics.Entry>> procedures = results.getStatementStatistics().getProcedures();
+        if (!procedures.isEmpty()) {
+            Map<String, Object> proceduresMap = new TreeMap<>();
+            for (Map.Entry<String, Map<String, StatementStatistics.Entry>> proc : procedures.entrySet()) {
+                Map<String, Object> statementsMap = new TreeMap<>();
+                for (Map.Entry<String, StatementStatistics.Entry> stmt : proc.getValue().entrySet()) {
+                    StatementStatistics.Entry entry = stmt.getValue();
+                    Map<String, Object> stmtMap = new LinkedHashMap<>();
+                    stmtMap.put("Executions", entry.getExecutions());
+                    stmtMap.put("Rows", entry.getTotalRows());
+                    stmtMap.put("Maximum Rows", entry.getRows().getMaximum());
+                    stmtMap.put("Execute Time Distribution", DistributionStatistics.computeStatistics(entry.getExecuteTimes()).toMap());
+                    statementsMap.put(stmt.getKey(), stmtMap);
+                }
+                proceduresMap.put(proc.getKey(), statementsMap);
+            }
+            summaryMap.put("Statements By Procedure", proceduresMap);
+        }
+        Map<String, Long> statementCacheMap = new LinkedHashMap<>();
+        statementCacheMap.put("Hits", results.getStatementCacheHits());
+        statementCacheMap.put("Misses", results.getStatementCacheMisses());
+        statementCacheMap.put("Evictions", results.getStatementCacheEvictions());
+        summaryMap.put("Statement Cache", statementCacheMap);
+        if (results.getConnectionPoolSize() > 0) {
+            Map<String, Object> connectionPoolMap = new LinkedHashMap<>();
+            connectionPoolMap.put("Size", results.getConnectionPoolSize());
+            connectionPoolMap.put("Connections Opened", results.getConnectionsOpened());
+            connectionPoolMap.put("Validation Failures", results.getConnectionValidationFailures());
+            connectionPoolMap.put("Timeouts", results.getConnectionTimeouts());
+            connectionPoolMap.put("Wait Distribution", DistributionStatistics.computeStatistics(results.getConnectionWaitHistogram()).toMap());
+            summaryMap.put("Connection Pool", connectionPoolMap);
+        }
+        if (results.getArrivalDispatchers() > 0) {
+            Map<String, Object> arrivalsMap = new LinkedHashMap<>();
+            arrivalsMap.put("Dispatchers", results.getArrivalDispatchers());
+            arrivalsMap.put("Arrivals", results.getArrivals());
+            arrivalsMap.put("Dropped", results.getDroppedArrivals());
+            arrivalsMap.put("Offered Rate (requests/second)", results.requestsPerSecondOffered());
+            // Each agent and workload has its own stream of arrivals
+            arrivalsMap.put("Inter-Arrival Streams", results.getArrivalStreams());
+            arrivalsMap.put("Inter-Arrival Distribution", DistributionStatistics.computeStatistics(results.getInterArrivalHistogram()).toMap());
+            arrivalsMap.put("Dispatch Lag Distribution", DistributionStatistics.computeStatistics(results.getDispatchLagHistogram()).toMap());
+            summaryMap.put("Arrivals", arrivalsMap);
+        }
+        if (!results.getCounters().isEmpty()) {
+            summaryMap.put("Benchmark Counters", results.getCounters());
+        }
         summaryMap.put("Throughput (requests/second)", results.requestsPerSecondThroughput());
         summaryMap.put("Goodput (requests/second)", results.requestsPerSecondGoodput());
         for (String field : BENCHMARK_KEY_FIELD) {
@@ -115,42 +205,66 @@ public class ResultWriter {
         os.println(JSONUtil.format(JSONUtil.toJSONString(summaryMap)));
     }
 
+    private static final String[] RESULTS_HEADER = {
+            "Time (seconds)",
+            "Throughput (requests/second)",
+            "Average Latency (millisecond)",
+            "Minimum Latency (millisecond)",
+            "25th Percentile Latency (millisecond)",
+            "Median Latency (millisecond)",
+            "75th Percentile Latency (millisecond)",
+            "90th Percentile Latency (millisecond)",
+            "95th Percentile Latency (millisecond)",
+            "99th Percentile Latency (millisecond)",
+            "99.9th Percentile Latency (millisecond)",
+            "99.99th Percentile Latency (millisecond)",
+            "Maximum Latency (millisecond)",
+            "tp (req/s) scaled"
+    };
+
+    private static final String[] SAMPLES_HEADER = {
+            "Time (seconds)",
+            "Requests",
+            "Throughput (requests/second)",
+            "Minimum Latency (microseconds)",
+            "25th Percentile Latency (microseconds)",
+            "Median Latency (microseconds)",
+            "Average Latency (microseconds)",
+            "75th Percentile Latency (microseconds)",
+            "90th Percentile Latency (microseconds)",
+            "95th Percentile Latency (microseconds)",
+            "99th Percentile Latency (microseconds)",
+            "99.9th Percentile Latency (microseconds)",
+            "99.99th Percentile Latency (microseconds)",
+            "Maximum Latency (microseconds)"
+    };
+
     public void writeResults(int windowSizeSeconds, PrintStream out) {
         writeResults(windowSizeSeconds, out, TransactionType.INVALID);
     }
 
     public void writeResults(int windowSizeSeconds, PrintStream out, TransactionType txType) {
-        String[] header = {
-                "Time (seconds)",
-                "Throughput (requests/second)",
-                "Average Latency (millisecond)",
-                "Minimum Latency (millisecond)",
-                "25th Percentile Latency (millisecond)",
-                "Median Latency (millisecond)",
-                "75th Percentile Latency (millisecond)",
-                "90th Percentile Latency (millisecond)",
-                "95th Percentile Latency (millisecond)",
-                "99th Percentile Latency (millisecond)",
-                "Maximum Latency (millisecond)",
-                "tp (req/s) scaled"
-        };
-        out.println(StringUtil.join(",", header));
-        int i = 0;
-        for (DistributionStatistics s : new ThreadBench.TimeBucketIterable(results.getLatencySamples(), windowSizeSeconds, txType)) {
-            out.printf("%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n",
-                    i * windowSizeSeconds,
-                    (double) s.getCount() / windowSizeSeconds,
-                    s.getAverage() / MILLISECONDS_FACTOR,
-                    s.getMinimum() / MILLISECONDS_FACTOR,
-                    s.get25thPercentile() / MILLISECONDS_FACTOR,
-                    s.getMedian() / MILLISECONDS_FACTOR,
-                    s.get75thPercentile() / MILLISECONDS_FACTOR,
-                    s.get90thPercentile() / MILLISECONDS_FACTOR,
-                    s.get95thPercentile() / MILLISECONDS_FACTOR,
-                    s.get99thPercentile() / MILLISECONDS_FACTOR,
-                    s.getMaximum() / MILLISECONDS_FACTOR,
-                    MILLISECONDS_FACTOR / s.getAverage());
-            i += 1;
+        writeResults(results.getLatencySamples(), results.getMeasureStartNanosecond(), windowSizeSeconds, txType.getId(), out);
+    }
+
+    /**
+     * @param txType the id of the transaction type to write the results of,
+     *               or TransactionType.INVALID_ID for all
+     */
+    public static void writeResults(Iterable<LatencyRecord.Sample> samples, int windowSizeSeconds, int txType, PrintStream out) {
+        writeResults(samples, FIRST_SAMPLE, windowSizeSeconds, txType, out);
+    }
+
+    /**
+     * @param startNanosecond when the first window starts, or FIRST_SAMPLE
+     * @param txType          the id of the transaction type to write the
+     *                        results of, or TransactionType.INVALID_ID for all
+     */
+    public static void writeResults(Iterable<LatencyRecord.Sample> samples, long startNanosecond, int windowSizeSeconds, int txType, PrintStream out) {
+        if (txType == TransactionType.INVALID_ID) {
+            writeWindows(samples, startNanosecond, null, windowSizeSeconds, out, Collections.emptyMap());
+        } else {
+            writeWindows(samples, startNanosecond, null, windowSizeSeconds, null, Collections.singletonMap(txType, out));
         }
     }
 
@@ -159,38 +273,172 @@ public class ResultWriter {
     }
 
     public void writeSamples(int windowSizeSeconds, PrintStream out, TransactionType txType) {
-        String[] header = {
-                "Time (seconds)",
-                "Requests",
-                "Throughput (requests/second)",
-                "Minimum Latency (microseconds)",
-                "25th Percentile Latency (microseconds)",
-                "Median Latency (microseconds)",
-                "Average Latency (microseconds)",
-                "75th Percentile Latency (microseconds)",
-                "90th Percentile Latency (microseconds)",
-                "95th Percentile Latency (microseconds)",
-                "99th Percentile Latency (microseconds)",
-                "Maximum Latency (microseconds)"
-        };
-        out.println(StringUtil.join(",", header));
-        int i = 0;
-        for (DistributionStatistics s : new ThreadBench.TimeBucketIterable(results.getLatencySamples(), windowSizeSeconds, txType)) {
-            out.printf("%d,%d,%.3f,%d,%d,%d,%d,%d,%d,%d,%d,%d\n",
-                    i * windowSizeSeconds,
-                    s.getCount(),
-                    (double) s.getCount() / windowSizeSeconds,
-                    (int) s.getMinimum(),
-                    (int) s.get25thPercentile(),
-                    (int) s.getMedian(),
-                    (int) s.getAverage(),
-                    (int) s.get75thPercentile(),
-                    (int) s.get90thPercentile(),
-                    (int) s.get95thPercentile(),
-                    (int) s.get99thPercentile(),
-                    (int) s.getMaximum());
-            i += 1;
+        writeSamples(results.getLatencySamples(), results.getMeasureStartNanosecond(), windowSizeSeconds, txType.getId(), out);
+    }
+
+    /**
+     * @param txType the id of the transaction type to write the samples of,
+     *               or TransactionType.INVALID_ID for all
+     */
+    public static void writeSamples(Iterable<LatencyRecord.Sample> samples, int windowSizeSeconds, int txType, PrintStream out) {
+        writeSamples(samples, FIRST_SAMPLE, windowSizeSeconds, txType, out);
+    }
+
+    /**
+     * @param startNanosecond when the first window starts, or FIRST_SAMPLE
+     * @param txType          the id of the transaction type to write the
+     *                        samples of, or TransactionType.INVALID_ID for all
+     */
+    public static void writeSamples(Iterable<LatencyRecord.Sample> samples, long startNanosecond, int windowSizeSeconds, int txType, PrintStream out) {
+        out.println(StringUtil.join(",", SAMPLES_HEADER));
+        WindowedStatistics windows = newWindows(startNanosecond, windowSizeSeconds, (txType == TransactionType.INVALID_ID ? 0 : txType), (window, type, s) -> {
+            if (type == txType) {
+                printSamplesRow(out, window, windowSizeSeconds, s);
+            }
+        });
+        for (LatencyRecord.Sample sample : samples) {
+            windows.add(sample);
         }
+        windows.finish();
+    }
+
+    /**
+     * Write the samples (by second) and the results over all transactions
+     * and by transaction type with a single scan of the samples.
+     *
+     * @param resultsByType the results output of each transaction type id
+     */
+    public void writeWindows(PrintStream samplesOut, int windowSizeSeconds, PrintStream resultsOut, Map<Integer, PrintStream> resultsByType) {
+        writeWindows(results.getLatencySamples(), results.getMeasureStartNanosecond(), samplesOut, windowSizeSeconds, resultsOut, resultsByType);
+    }
+
+    /**
+     * Write the samples (by second) and the results over all transactions
+     * and by transaction type with a single scan of the samples, with the
+     * first window starting with the first sample.
+     */
+    public static void writeWindows(Iterable<LatencyRecord.Sample> samples, PrintStream samplesOut, int windowSizeSeconds,
+                                    PrintStream resultsOut, Map<Integer, PrintStream> resultsByType) {
+        writeWindows(samples, FIRST_SAMPLE, samplesOut, windowSizeSeconds, resultsOut, resultsByType);
+    }
+
+    /**
+     * Write the samples (by second) and the results over all transactions
+     * and by transaction type with a single scan of the samples.
+     *
+     * @param startNanosecond when the first window starts, usually the start
+     *                        of the measurements, or FIRST_SAMPLE
+     * @param samplesOut      where to write the samples, or null
+     * @param resultsOut      where to write the results of all transactions, or null
+     * @param resultsByType   the results output of each transaction type id
+     */
+    public static void writeWindows(Iterable<LatencyRecord.Sample> samples, long startNanosecond, PrintStream samplesOut, int windowSizeSeconds,
+                                    PrintStream resultsOut, Map<Integer, PrintStream> resultsByType) {
+        WindowedStatistics bySecond = null;
+        if (samplesOut != null) {
+            samplesOut.println(StringUtil.join(",", SAMPLES_HEADER));
+            bySecond = newWindows(startNanosecond, 1, 0, samplesPrinter(samplesOut));
+        }
+
+        if (resultsOut != null) {
+            resultsOut.println(StringUtil.join(",", RESULTS_HEADER));
+        }
+        int numTypes = 0;
+        for (Map.Entry<Integer, PrintStream> e : resultsByType.entrySet()) {
+            e.getValue().println(StringUtil.join(",", RESULTS_HEADER));
+            numTypes = Math.max(numTypes, e.getKey());
+        }
+        WindowedStatistics byWindow = null;
+        if (resultsOut != null || numTypes > 0) {
+            byWindow = newWindows(startNanosecond, windowSizeSeconds, numTypes, resultsPrinter(windowSizeSeconds, resultsOut, resultsByType));
+        }
+
+        for (LatencyRecord.Sample sample : samples) {
+            if (bySecond != null) {
+                bySecond.add(sample);
+            }
+            if (byWindow != null) {
+                byWindow.add(sample);
+            }
+        }
+        if (bySecond != null) {
+            bySecond.finish();
+        }
+        if (byWindow != null) {
+            byWindow.finish();
+        }
+    }
+
+    /**
+     * Write the samples (by second) and the results over all transactions
+     * and by transaction type from the windows the sample log computed while
+     * the benchmark was running. The log must be closed.
+     *
+     * @param resultsByType the results output of each transaction type id
+     */
+    public static void writeWindows(SampleLog sampleLog, PrintStream samplesOut, PrintStream resultsOut, Map<Integer, PrintStream> resultsByType) {
+        samplesOut.println(StringUtil.join(",", SAMPLES_HEADER));
+        resultsOut.println(StringUtil.join(",", RESULTS_HEADER));
+        for (PrintStream out : resultsByType.values()) {
+            out.println(StringUtil.join(",", RESULTS_HEADER));
+        }
+        sampleLog.finishWindows(samplesPrinter(samplesOut), resultsPrinter(sampleLog.getWindowSizeSeconds(), resultsOut, resultsByType));
+    }
+
+    private static WindowedStatistics newWindows(long startNanosecond, int windowSizeSeconds, int numTypes, WindowedStatistics.Listener listener) {
+        if (startNanosecond == FIRST_SAMPLE) {
+            return new WindowedStatistics(windowSizeSeconds, numTypes, listener);
+        }
+        return new WindowedStatistics(startNanosecond, windowSizeSeconds, numTypes, listener);
+    }
+
+    private static WindowedStatistics.Listener samplesPrinter(PrintStream out) {
+        return (window, type, s) -> printSamplesRow(out, window, 1, s);
+    }
+
+    private static WindowedStatistics.Listener resultsPrinter(int windowSizeSeconds, PrintStream resultsOut, Map<Integer, PrintStream> resultsByType) {
+        return (window, type, s) -> {
+            PrintStream out = (type == TransactionType.INVALID_ID ? resultsOut : resultsByType.get(type));
+            if (out != null) {
+                printResultsRow(out, window, windowSizeSeconds, s);
+            }
+        };
+    }
+
+    private static void printResultsRow(PrintStream out, int window, int windowSizeSeconds, DistributionStatistics s) {
+        out.printf("%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n",
+                window * windowSizeSeconds,
+                (double) s.getCount() / windowSizeSeconds,
+                s.getAverage() / MILLISECONDS_FACTOR,
+                s.getMinimum() / MILLISECONDS_FACTOR,
+                s.get25thPercentile() / MILLISECONDS_FACTOR,
+                s.getMedian() / MILLISECONDS_FACTOR,
+                s.get75thPercentile() / MILLISECONDS_FACTOR,
+                s.get90thPercentile() / MILLISECONDS_FACTOR,
+                s.get95thPercentile() / MILLISECONDS_FACTOR,
+                s.get99thPercentile() / MILLISECONDS_FACTOR,
+                s.get999thPercentile() / MILLISECONDS_FACTOR,
+                s.get9999thPercentile() / MILLISECONDS_FACTOR,
+                s.getMaximum() / MILLISECONDS_FACTOR,
+                MILLISECONDS_FACTOR / s.getAverage());
+    }
+
+    private static void printSamplesRow(PrintStream out, int window, int windowSizeSeconds, DistributionStatistics s) {
+        out.printf("%d,%d,%.3f,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d\n",
+                window * windowSizeSeconds,
+                s.getCount(),
+                (double) s.getCount() / windowSizeSeconds,
+                (int) s.getMinimum(),
+                (int) s.get25thPercentile(),
+                (int) s.getMedian(),
+                (int) s.getAverage(),
+                (int) s.get75thPercentile(),
+                (int) s.get90thPercentile(),
+                (int) s.get95thPercentile(),
+                (int) s.get99thPercentile(),
+                (int) s.get999thPercentile(),
+                (int) s.get9999thPercentile(),
+                (int) s.getMaximum());
     }
 
     public void writeRaw(List<TransactionType> activeTXTypes, PrintStream out) {
@@ -201,6 +449,18 @@ public class ResultWriter {
         double y = ((double) System.currentTimeMillis() / (double) 1000);
         double offset = x - y;
 
+        List<String> transactionNames = new ArrayList<>(activeTXTypes.size());
+        for (TransactionType type : activeTXTypes) {
+            transactionNames.add(type.getName());
+        }
+        writeRaw(results.getLatencySamples(), transactionNames, offset, out);
+    }
+
+    /**
+     * @param transactionNames the names of the transaction types, ordered by id starting at 1
+     * @param offset           System.nanoTime() - System.currentTimeMillis(), in seconds
+     */
+    public static void writeRaw(Iterable<LatencyRecord.Sample> samples, List<String> transactionNames, double offset, PrintStream out) {
         // long startNs = latencySamples.get(0).startNs;
         String[] header = {
                 "Transaction Type Index",
@@ -208,20 +468,22 @@ public class ResultWriter {
                 "Start Time (microseconds)",
                 "Latency (microseconds)",
                 "Worker Id (start number)",
-                "Phase Id (index in config file)"
+                "Phase Id (index in config file)",
+                "Response Time (microseconds)"
         };
         out.println(StringUtil.join(",", header));
-        for (LatencyRecord.Sample s : results.getLatencySamples()) {
+        for (LatencyRecord.Sample s : samples) {
             double startUs = ((double) s.getStartNanosecond() / (double) 1000000000);
             String[] row = {
                     Integer.toString(s.getTransactionType()),
                     // Important!
                     // The TxnType offsets start at 1!
-                    activeTXTypes.get(s.getTransactionType() - 1).getName(),
+                    transactionNames.get(s.getTransactionType() - 1),
                     String.format("%10.6f", startUs - offset),
                     Integer.toString(s.getLatencyMicrosecond()),
                     Integer.toString(s.getWorkerId()),
                     Integer.toString(s.getPhaseId()),
+                    Integer.toString(s.getResponseMicrosecond()),
             };
             out.println(StringUtil.join(",", row));
         }
@@ -402,6 +402,9 @@ public abstract class SQLUtil {
         // Values
         sb.append(" VALUES ");
         for (int i = 0; i < batchSize; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
             sb.append("(").append(values.toString()).append(")");
         }
 
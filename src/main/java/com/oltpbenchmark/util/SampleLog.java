@@ -0,0 +1,466 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.Deflater;
+
+/**
+ * A compact binary log of the raw samples, which the workers append to while
+ * the benchmark is running, so that writing the raw samples does not delay
+ * the end of the run. {@link SampleLogReader} converts it back to the CSV
+ * outputs.
+ * <p>
+ * Each worker has its own {@link Appender}, which encodes its samples into
+ * blocks: the start times are delta encoded and all the numbers are varints.
+ * Full blocks are handed to a writer thread, which deflates them, writes
+ * them to the file, and records their samples in the windows
+ * of the samples and results outputs, so that those are ready at the end of
+ * the run as well. The blocks of different workers are interleaved in the
+ * file, so the samples are only ordered by start time within the blocks of a
+ * worker.
+ * <p>
+ * The file starts with a header:
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * long   base nanoTime, the start times are relative to it
+ * double System.nanoTime() - System.currentTimeMillis(), in seconds
+ * long   when the first window of the outputs starts, in nanoTime
+ * int    number of transaction types, followed by their names (UTF),
+ *        ordered by transaction type id starting at 1
+ * </pre>
+ * followed by the blocks:
+ * <pre>
+ * int    worker id
+ * int    number of samples
+ * int    length of the samples once inflated
+ * int    length of the deflated samples, followed by them
+ * </pre>
+ * Within a block, each sample is encoded as the varints of the start time
+ * minus the one of the previous sample (minus the base nanoTime for the
+ * first one), the latency, the response time minus the latency, the
+ * transaction type and the phase id.
+ */
+public final class SampleLog implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(SampleLog.class);
+
+    static final int MAGIC = 0x42425331; // "BBS1"
+    static final int VERSION = 2;
+
+    /**
+     * The position of the start of the first window in the header.
+     */
+    private static final int WINDOW_START_POSITION = 24;
+
+    /**
+     * The number of samples of a full block.
+     */
+    static final int BLOCK_SAMPLES = 4096;
+
+    static final int BLOCK_HEADER_SIZE = 16;
+
+    /**
+     * The number of blocks waiting for the writer thread, beyond which the
+     * workers wait for it.
+     */
+    private static final int QUEUED_BLOCKS = 64;
+
+    private static final Block END = new Block(-1, 0, null, 0);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long baseNanosecond;
+    private final int windowSizeSeconds;
+    private final int numTypes;
+    private final List<Appender> appenders = new ArrayList<>();
+    private final BlockingQueue<Block> blocks = new ArrayBlockingQueue<>(QUEUED_BLOCKS);
+    private final ConcurrentLinkedQueue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+    private Thread writer;
+    private volatile IOException failure = null;
+    private volatile long windowStartNanosecond;
+
+    // Only used by the writer thread until it is done
+    private long samples = 0;
+    private long bytes = 0;
+    private WindowedStatistics secondWindows;
+    private WindowedStatistics windows;
+
+    // Where the windows go, once the log is closed
+    private WindowedStatistics.Listener secondListener;
+    private WindowedStatistics.Listener windowListener;
+
+    private SampleLog(Path path, FileChannel channel, long baseNanosecond, int windowSizeSeconds, int numTypes) {
+        this.path = path;
+        this.channel = channel;
+        this.baseNanosecond = baseNanosecond;
+        this.windowSizeSeconds = windowSizeSeconds;
+        this.numTypes = numTypes;
+        this.windowStartNanosecond = baseNanosecond;
+    }
+
+    /**
+     * A block of samples encoded by an appender.
+     */
+    private static final class Block {
+        private final int workerId;
+        private final int count;
+        private final byte[] raw;
+        private final int rawLength;
+
+        private Block(int workerId, int count, byte[] raw, int rawLength) {
+            this.workerId = workerId;
+            this.count = count;
+            this.raw = raw;
+            this.rawLength = rawLength;
+        }
+    }
+
+    /**
+     * Create the log, write its header and start its writer thread.
+     *
+     * @param transactionNames  the names of the transaction types, ordered by id starting at 1
+     * @param windowSizeSeconds the window size of the results outputs
+     */
+    public static SampleLog create(Path path, List<String> transactionNames, int windowSizeSeconds) throws IOException {
+        if (windowSizeSeconds <= 0) {
+            throw new IllegalArgumentException("Invalid window size " + windowSizeSeconds);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        // Same grounding of nanoTime as ResultWriter.writeRaw
+        long baseNanosecond = System.nanoTime();
+        double x = ((double) System.nanoTime() / (double) 1000000000);
+        double y = ((double) System.currentTimeMillis() / (double) 1000);
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(header)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(baseNanosecond);
+            out.writeDouble(x - y);
+            out.writeLong(baseNanosecond);
+            out.writeInt(transactionNames.size());
+            for (String name : transactionNames) {
+                out.writeUTF(name);
+            }
+        }
+
+        SampleLog log = new SampleLog(path, channel, baseNanosecond, windowSizeSeconds, transactionNames.size());
+        try {
+            log.write(ByteBuffer.wrap(header.toByteArray()));
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+        log.writer = new Thread(log::writeBlocks, "SampleLogWriter");
+        log.writer.setDaemon(true);
+        log.writer.start();
+        return log;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getWindowSizeSeconds() {
+        return windowSizeSeconds;
+    }
+
+    /**
+     * Start the windows of the outputs at the given time, the start of the
+     * measurements, instead of when the log was created. It is also written
+     * to the header, so that {@link SampleLogReader} starts its windows at
+     * the same time. Must be called before the workers append their first
+     * sample.
+     */
+    public void setWindowStart(long windowStartNanosecond) {
+        this.windowStartNanosecond = windowStartNanosecond;
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        buffer.putLong(windowStartNanosecond).flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, WINDOW_START_POSITION + buffer.position());
+            }
+        } catch (IOException ex) {
+            LOG.error("Failed to write the start of the windows to {}", path, ex);
+            failure = ex;
+        }
+    }
+
+    /**
+     * Pass the statistics of the windows of the samples output (by second)
+     * and of the results outputs (by window and transaction type) to the
+     * listeners. The windows were computed as the samples were written, so
+     * this must only be called once the log is closed.
+     */
+    public void finishWindows(WindowedStatistics.Listener bySecond, WindowedStatistics.Listener byWindow) {
+        if (windows == null) {
+            return;
+        }
+        this.secondListener = bySecond;
+        this.windowListener = byWindow;
+        secondWindows.finish();
+        windows.finish();
+    }
+
+    /**
+     * Create the appender of a worker, which must only be used by that
+     * worker's thread.
+     */
+    public synchronized Appender newAppender(int workerId) {
+        Appender appender = new Appender(workerId);
+        appenders.add(appender);
+        return appender;
+    }
+
+    private void enqueue(Block block) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                blocks.put(block);
+                break;
+            } catch (InterruptedException ex) {
+                // The workers are interrupted to wake them up, not to stop them
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The loop of the writer thread.
+     */
+    private void writeBlocks() {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] compressed = new byte[BLOCK_SAMPLES * 16];
+        try {
+            while (true) {
+                Block block = blocks.take();
+                if (block == END) {
+                    break;
+                }
+                addToWindows(block);
+                if (failure == null) {
+                    deflater.reset();
+                    deflater.setInput(block.raw, 0, block.rawLength);
+                    deflater.finish();
+                    int length = 0;
+                    while (!deflater.finished()) {
+                        if (length == compressed.length) {
+                            compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                        }
+                        length += deflater.deflate(compressed, length, compressed.length - length);
+                    }
+                    try {
+                        writeBlock(block.workerId, block.count, block.rawLength, compressed, length);
+                    } catch (IOException ex) {
+                        LOG.error("Failed to write the samples to {}, no more samples will be written", path, ex);
+                        failure = ex;
+                    }
+                }
+                freeBuffers.offer(block.raw);
+            }
+        } catch (InterruptedException ex) {
+            LOG.error("Interrupted while writing the samples to {}", path);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void addToWindows(Block block) {
+        if (windows == null) {
+            secondWindows = new WindowedStatistics(windowStartNanosecond, 1, 0, (window, type, s) -> secondListener.window(window, type, s));
+            windows = new WindowedStatistics(windowStartNanosecond, windowSizeSeconds, numTypes, (window, type, s) -> windowListener.window(window, type, s));
+        }
+        int[] position = {0};
+        long start = baseNanosecond;
+        for (int i = 0; i < block.count; i++) {
+            start += unZigZag(getVarLong(block.raw, position));
+            int latency = (int) getVarLong(block.raw, position);
+            // The response time and the phase
+            getVarLong(block.raw, position);
+            int type = (int) getVarLong(block.raw, position);
+            getVarLong(block.raw, position);
+            secondWindows.record(start, latency, type);
+            windows.record(start, latency, type);
+        }
+    }
+
+    private void writeBlock(int workerId, int count, int rawLength, byte[] data, int length) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        header.putInt(workerId).putInt(count).putInt(rawLength).putInt(length).flip();
+        write(header, ByteBuffer.wrap(data, 0, length));
+        samples += count;
+        bytes += BLOCK_HEADER_SIZE + length;
+    }
+
+    private void write(ByteBuffer... buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    /**
+     * Flush what is left in the appenders, once the workers are done, wait
+     * for the writer thread to write it, and close the file.
+     *
+     * @throws IOException if some samples could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            synchronized (this) {
+                for (Appender appender : appenders) {
+                    appender.flush();
+                }
+            }
+            enqueue(END);
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                throw new IOException("Interrupted while writing the samples to " + path, ex);
+            }
+            LOG.info("Wrote {} samples into {} ({} bytes)", samples, path, bytes);
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Encodes the samples of a single worker into blocks.
+     */
+    public final class Appender {
+        private final int workerId;
+        private byte[] raw = newBuffer();
+        private int rawLength = 0;
+        private int count = 0;
+        private long previousStart;
+
+        private Appender(int workerId) {
+            this.workerId = workerId;
+        }
+
+        /**
+         * Append a sample, with the same arguments as
+         * {@link com.oltpbenchmark.LatencyRecord#addLatency(int, long, long, long, int, int)}.
+         */
+        public void append(int transType, long intendedStartNanosecond, long startNanosecond, long endNanosecond, int phaseId) {
+            if (raw.length - rawLength < 5 * 10) {
+                raw = Arrays.copyOf(raw, raw.length * 2);
+            }
+            int latency = (int) ((endNanosecond - startNanosecond + 500) / 1000);
+            int response = (int) ((endNanosecond - intendedStartNanosecond + 500) / 1000);
+
+            long delta = startNanosecond - (count == 0 ? baseNanosecond : previousStart);
+            previousStart = startNanosecond;
+            rawLength = putVarLong(raw, rawLength, zigZag(delta));
+            rawLength = putVarLong(raw, rawLength, latency & 0xFFFFFFFFL);
+            rawLength = putVarLong(raw, rawLength, zigZag(response - latency));
+            rawLength = putVarLong(raw, rawLength, transType & 0xFFFFFFFFL);
+            rawLength = putVarLong(raw, rawLength, phaseId & 0xFFFFFFFFL);
+
+            if (++count == BLOCK_SAMPLES) {
+                flush();
+            }
+        }
+
+        /**
+         * Hand the samples of the current block to the writer thread, even if
+         * it is not full.
+         */
+        public void flush() {
+            if (count == 0) {
+                return;
+            }
+            enqueue(new Block(workerId, count, raw, rawLength));
+            raw = newBuffer();
+            rawLength = 0;
+            count = 0;
+        }
+    }
+
+    /**
+     * A buffer for the samples of a block, reused once the writer thread is
+     * done with it.
+     */
+    private byte[] newBuffer() {
+        byte[] buffer = freeBuffers.poll();
+        return (buffer != null ? buffer : new byte[BLOCK_SAMPLES * 16]);
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * @return the position after the value
+     */
+    static int putVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * @param position the position of the value, moved past it
+     */
+    static long getVarLong(byte[] buffer, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
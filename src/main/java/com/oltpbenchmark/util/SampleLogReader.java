@@ -0,0 +1,275 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import com.oltpbenchmark.DistributionStatistics;
+import com.oltpbenchmark.LatencyRecord;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a {@link SampleLog}, and converts it to the raw, samples and results
+ * CSV files and to the latency distributions of the summary, as if the
+ * samples had been written by {@link ResultWriter} at the end of the run:
+ *
+ * <pre>
+ * java -cp benchbase.jar com.oltpbenchmark.util.SampleLogReader [-s window] [-d directory] file.raw.bin
+ * </pre>
+ */
+public final class SampleLogReader {
+    private static final Logger LOG = LoggerFactory.getLogger(SampleLogReader.class);
+
+    private final List<String> transactionNames;
+    private final double offsetSeconds;
+    private final long windowStartNanosecond;
+    private final Map<Integer, LatencyRecord> records;
+    private final long sampleCount;
+
+    private SampleLogReader(List<String> transactionNames, double offsetSeconds, long windowStartNanosecond, Map<Integer, LatencyRecord> records, long sampleCount) {
+        this.transactionNames = transactionNames;
+        this.offsetSeconds = offsetSeconds;
+        this.windowStartNanosecond = windowStartNanosecond;
+        this.records = records;
+        this.sampleCount = sampleCount;
+    }
+
+    /**
+     * Read all the samples of a log. A log that ends in the middle of a
+     * block, e.g. because the benchmark was killed, is read up to its last
+     * complete block.
+     */
+    public static SampleLogReader read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != SampleLog.MAGIC) {
+                throw new IOException(path + " is not a sample log");
+            }
+            int version = in.readInt();
+            if (version != SampleLog.VERSION) {
+                throw new IOException("Unsupported sample log version " + version + " in " + path);
+            }
+            long baseNanosecond = in.readLong();
+            double offsetSeconds = in.readDouble();
+            long windowStartNanosecond = in.readLong();
+            int numTypes = in.readInt();
+            List<String> transactionNames = new ArrayList<>(numTypes);
+            for (int i = 0; i < numTypes; i++) {
+                transactionNames.add(in.readUTF());
+            }
+
+            Map<Integer, LatencyRecord> records = new TreeMap<>();
+            Inflater inflater = new Inflater();
+            byte[] compressed = new byte[0];
+            byte[] raw = new byte[0];
+            long sampleCount = 0;
+            try {
+                while (true) {
+                    int workerId;
+                    try {
+                        workerId = in.readInt();
+                    } catch (EOFException ex) {
+                        break;
+                    }
+                    int count;
+                    int rawLength;
+                    int length;
+                    try {
+                        count = in.readInt();
+                        rawLength = in.readInt();
+                        length = in.readInt();
+                        if (compressed.length < length) {
+                            compressed = new byte[length];
+                        }
+                        in.readFully(compressed, 0, length);
+                    } catch (EOFException ex) {
+                        LOG.warn("{} ends with an incomplete block, its last samples are lost", path);
+                        break;
+                    }
+
+                    if (raw.length < rawLength) {
+                        raw = new byte[rawLength];
+                    }
+                    inflater.reset();
+                    inflater.setInput(compressed, 0, length);
+                    try {
+                        if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+                            throw new IOException("Corrupt block of worker " + workerId + " in " + path);
+                        }
+                    } catch (DataFormatException ex) {
+                        throw new IOException("Corrupt block of worker " + workerId + " in " + path, ex);
+                    }
+
+                    LatencyRecord record = records.computeIfAbsent(workerId, k -> new LatencyRecord(baseNanosecond));
+                    decodeBlock(raw, count, baseNanosecond, workerId, record);
+                    sampleCount += count;
+                }
+            } finally {
+                inflater.end();
+            }
+            return new SampleLogReader(transactionNames, offsetSeconds, windowStartNanosecond, records, sampleCount);
+        }
+    }
+
+    private static void decodeBlock(byte[] raw, int count, long baseNanosecond, int workerId, LatencyRecord record) {
+        int[] position = {0};
+        long start = baseNanosecond;
+        for (int i = 0; i < count; i++) {
+            start += SampleLog.unZigZag(SampleLog.getVarLong(raw, position));
+            long latency = SampleLog.getVarLong(raw, position);
+            long response = latency + SampleLog.unZigZag(SampleLog.getVarLong(raw, position));
+            int type = (int) SampleLog.getVarLong(raw, position);
+            int phase = (int) SampleLog.getVarLong(raw, position);
+            long end = start + latency * 1000L;
+            record.addLatency(type, end - response * 1000L, start, end, workerId, phase);
+        }
+    }
+
+    /**
+     * The names of the transaction types, ordered by id starting at 1.
+     */
+    public List<String> getTransactionNames() {
+        return transactionNames;
+    }
+
+    /**
+     * System.nanoTime() - System.currentTimeMillis() when the log was
+     * created, in seconds.
+     */
+    public double getOffsetSeconds() {
+        return offsetSeconds;
+    }
+
+    /**
+     * When the first window of the outputs starts, in nanoTime: the start of
+     * the measurements.
+     */
+    public long getWindowStartNanosecond() {
+        return windowStartNanosecond;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * The samples of all the workers, ordered by start time.
+     */
+    public Iterable<LatencyRecord.Sample> getSamples() {
+        return LatencyRecord.merge(new ArrayList<>(records.values()));
+    }
+
+    /**
+     * Write the outputs ResultWriter would have written from these samples.
+     *
+     * @param baseFileName the path of the outputs, without their extensions
+     */
+    public void writeOutputs(String baseFileName, int windowSize) throws IOException {
+        try (PrintStream ps = new PrintStream(baseFileName + ".raw.csv")) {
+            LOG.info("Output Raw data into file: {}.raw.csv", baseFileName);
+            ResultWriter.writeRaw(getSamples(), transactionNames, offsetSeconds, ps);
+        }
+        Map<Integer, PrintStream> resultsByType = new HashMap<>();
+        try (PrintStream samplesPs = new PrintStream(baseFileName + ".samples.csv");
+             PrintStream resultsPs = new PrintStream(baseFileName + ".results.csv")) {
+            for (int i = 0; i < transactionNames.size(); i++) {
+                resultsByType.put(i + 1, new PrintStream(baseFileName + ".results." + transactionNames.get(i) + ".csv"));
+            }
+            LOG.info("Output samples into file: {}.samples.csv", baseFileName);
+            LOG.info("Output results into file: {}.results.csv with window size {}", baseFileName, windowSize);
+            ResultWriter.writeWindows(getSamples(), windowStartNanosecond, samplesPs, windowSize, resultsPs, resultsByType);
+        } finally {
+            for (PrintStream ps : resultsByType.values()) {
+                ps.close();
+            }
+        }
+
+        // The distributions of the summary
+        LatencyHistogram latencies = new LatencyHistogram();
+        LatencyHistogram responseTimes = new LatencyHistogram();
+        LatencyHistogram[] typeLatencies = new LatencyHistogram[transactionNames.size() + 1];
+        for (LatencyRecord record : records.values()) {
+            for (LatencyRecord.Sample s : record) {
+                latencies.record(s.getLatencyMicrosecond());
+                responseTimes.record(s.getResponseMicrosecond());
+                int type = s.getTransactionType();
+                if (type >= 1 && type < typeLatencies.length) {
+                    if (typeLatencies[type] == null) {
+                        typeLatencies[type] = new LatencyHistogram();
+                    }
+                    typeLatencies[type].record(s.getLatencyMicrosecond());
+                }
+            }
+        }
+        Map<String, Object> summaryMap = new TreeMap<>();
+        summaryMap.put("Latency Distribution", DistributionStatistics.computeStatistics(latencies).toMap());
+        summaryMap.put("Response Time Distribution", DistributionStatistics.computeStatistics(responseTimes).toMap());
+        Map<String, Object> perTypeMap = new TreeMap<>();
+        for (int type = 1; type < typeLatencies.length; type++) {
+            if (typeLatencies[type] != null) {
+                perTypeMap.put(transactionNames.get(type - 1), DistributionStatistics.computeStatistics(typeLatencies[type]).toMap());
+            }
+        }
+        summaryMap.put("Latency Distribution By Transaction Type", perTypeMap);
+        try (PrintStream ps = new PrintStream(baseFileName + ".latencies.json")) {
+            LOG.info("Output latency distributions into file: {}.latencies.json", baseFileName);
+            ps.println(JSONUtil.format(JSONUtil.toJSONString(summaryMap)));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options();
+        options.addOption("s", "sample", true, "Sampling window of the results, default is 5 seconds");
+        options.addOption("d", "directory", true, "Directory for the output files, default is the one of the log");
+        options.addOption("h", "help", false, "Print this help");
+
+        CommandLine argsLine = new DefaultParser().parse(options, args);
+        if (argsLine.hasOption("h") || argsLine.getArgList().isEmpty()) {
+            new HelpFormatter().printHelp(SampleLogReader.class.getSimpleName() + " [options] file.raw.bin ...", options);
+            return;
+        }
+        int windowSize = Integer.parseInt(argsLine.getOptionValue("s", "5"));
+
+        for (String fileName : argsLine.getArgList()) {
+            Path path = Paths.get(fileName);
+            SampleLogReader reader = read(path);
+            LOG.info("Read {} samples of {} workers from {}", reader.getSampleCount(), reader.records.size(), path);
+
+            String name = path.getFileName().toString();
+            for (String extension : new String[]{".raw.bin", ".bin"}) {
+                if (name.endsWith(extension)) {
+                    name = name.substring(0, name.length() - extension.length());
+                    break;
+                }
+            }
+            Path directory = (argsLine.hasOption("d") ? Paths.get(argsLine.getOptionValue("d")) : path.toAbsolutePath().getParent());
+            FileUtil.makeDirIfNotExists(directory.toString());
+            reader.writeOutputs(directory.resolve(name).toString(), windowSize);
+        }
+    }
+}
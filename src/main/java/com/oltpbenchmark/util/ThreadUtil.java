@@ -48,6 +48,9 @@ import com.oltpbenchmark.api.LoaderThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.*;
@@ -59,6 +62,52 @@ public abstract class ThreadUtil {
         return Math.max(1, Runtime.getRuntime().availableProcessors());
     }
 
+    /**
+     * Thread.ofVirtual().unstarted(Runnable), looked up at runtime since we
+     * are compiled for a Java release without virtual threads. Null if the
+     * running JVM does not support them.
+     */
+    private static final MethodHandle NEW_VIRTUAL_THREAD = findVirtualThreadFactory();
+
+    private static MethodHandle findVirtualThreadFactory() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual")));
+            MethodHandle unstarted = lookup.findVirtual(builderClass, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+            // Fails here on runtimes where virtual threads are a disabled preview feature
+            Object builder = ofVirtual.invoke();
+            return unstarted.bindTo(builder);
+        } catch (Throwable ex) {
+            LOG.debug("Virtual threads are not available: {}", ex.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Whether {@link #newThread(Runnable, boolean)} can create virtual threads.
+     */
+    public static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD != null;
+    }
+
+    /**
+     * Create an unstarted thread that runs the given Runnable.
+     *
+     * @param virtual create a virtual thread if the JVM supports them,
+     *                otherwise fall back to a platform thread
+     */
+    public static Thread newThread(Runnable r, boolean virtual) {
+        if (virtual && NEW_VIRTUAL_THREAD != null) {
+            try {
+                return (Thread) NEW_VIRTUAL_THREAD.invoke(r);
+            } catch (Throwable ex) {
+                throw new RuntimeException("Failed to create a virtual thread", ex);
+            }
+        }
+        return new Thread(r);
+    }
+
 
     /**
      * For a given list of threads, execute them all (up to max_concurrent at a
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import com.oltpbenchmark.DistributionStatistics;
+import com.oltpbenchmark.LatencyRecord;
+import com.oltpbenchmark.api.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits samples into fixed-size time windows, and computes the latency
+ * statistics of each window, both over all the transactions and for each
+ * transaction type. The first window starts at the given time, or with the
+ * first sample, and a window without samples still has its (empty)
+ * statistics.
+ * <p>
+ * Samples added in start time order with {@link #add(LatencyRecord.Sample)}
+ * complete the windows before them as they go, and only the histograms of
+ * the current window are kept, so the memory does not depend on the number
+ * of samples, and all the windowed outputs are computed with a single scan.
+ * Samples recorded in any order, e.g. by the workers of a running benchmark,
+ * with {@link #record(long, int, int)} keep the histograms of their windows
+ * until {@link #finish()}, so the memory depends on the number of windows.
+ * Either way, the same samples give the same windows.
+ */
+public final class WindowedStatistics {
+
+    /**
+     * Receives the statistics of each window once it is complete.
+     */
+    public interface Listener {
+        /**
+         * @param window the index of the window, starting at 0
+         * @param txType the id of the transaction type of the statistics, or
+         *               TransactionType.INVALID_ID for all the transactions
+         */
+        void window(int window, int txType, DistributionStatistics statistics);
+    }
+
+    private final long windowSizeNanoseconds;
+    private final int numTypes;
+    private final Listener listener;
+
+    private boolean started;
+    private long startNanosecond;
+
+    /**
+     * The index of the first window that is not complete yet.
+     */
+    private int window = 0;
+
+    /**
+     * The windows from the current one up to the last one with a sample. By
+     * window, the histogram of all the transactions followed by the one of
+     * each transaction type id; null for a window without samples yet.
+     */
+    private final List<LatencyHistogram[]> windows = new ArrayList<>();
+
+    /**
+     * The histograms of the completed windows, reset to be reused.
+     */
+    private final List<LatencyHistogram[]> free = new ArrayList<>();
+
+    private final LatencyHistogram empty = new LatencyHistogram();
+
+    /**
+     * The first window starts with the first sample.
+     *
+     * @param numTypes the number of transaction types to compute separate
+     *                 statistics for, with ids from 1 to numTypes, or 0 to
+     *                 only compute the statistics of all the transactions
+     */
+    public WindowedStatistics(int windowSizeSeconds, int numTypes, Listener listener) {
+        if (windowSizeSeconds <= 0) {
+            throw new IllegalArgumentException("Invalid window size " + windowSizeSeconds);
+        }
+        this.windowSizeNanoseconds = windowSizeSeconds * 1000000000L;
+        this.numTypes = Math.max(numTypes, 0);
+        this.listener = listener;
+    }
+
+    /**
+     * The first window starts at the given time, e.g. when the measurements
+     * started. The samples that start before it are counted in it.
+     */
+    public WindowedStatistics(long startNanosecond, int windowSizeSeconds, int numTypes, Listener listener) {
+        this(windowSizeSeconds, numTypes, listener);
+        this.started = true;
+        this.startNanosecond = startNanosecond;
+    }
+
+    /**
+     * Add the next sample, which must not start before the previous one.
+     * The windows before the one of the sample are complete.
+     */
+    public void add(LatencyRecord.Sample sample) {
+        int index = windowOf(sample.getStartNanosecond());
+        while (window < index) {
+            completeWindow();
+        }
+        record(index, sample.getLatencyMicrosecond(), sample.getTransactionType());
+    }
+
+    /**
+     * Record a sample, in any order. It must not start in a window that was
+     * completed by {@link #add(LatencyRecord.Sample)}.
+     */
+    public void record(long startNanosecond, int latencyMicrosecond, int txType) {
+        int index = windowOf(startNanosecond);
+        if (index < window) {
+            throw new IllegalArgumentException("The sample starts in window " + index + ", which is already complete");
+        }
+        record(index, latencyMicrosecond, txType);
+    }
+
+    private int windowOf(long startNanosecond) {
+        if (!started) {
+            started = true;
+            this.startNanosecond = startNanosecond;
+        }
+        return (int) (Math.max(0, startNanosecond - this.startNanosecond) / windowSizeNanoseconds);
+    }
+
+    private void record(int index, int latencyMicrosecond, int txType) {
+        while (windows.size() <= index - window) {
+            windows.add(null);
+        }
+        LatencyHistogram[] histograms = windows.get(index - window);
+        if (histograms == null) {
+            histograms = newHistograms();
+            windows.set(index - window, histograms);
+        }
+        histograms[0].record(latencyMicrosecond);
+        if (txType >= 1 && txType <= numTypes) {
+            histograms[txType].record(latencyMicrosecond);
+        }
+    }
+
+    private LatencyHistogram[] newHistograms() {
+        if (!free.isEmpty()) {
+            return free.remove(free.size() - 1);
+        }
+        LatencyHistogram[] histograms = new LatencyHistogram[numTypes + 1];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    /**
+     * Complete the remaining windows, once all the samples were added.
+     */
+    public void finish() {
+        while (!windows.isEmpty()) {
+            completeWindow();
+        }
+    }
+
+    private void completeWindow() {
+        LatencyHistogram[] histograms = (windows.isEmpty() ? null : windows.remove(0));
+        listener.window(window, TransactionType.INVALID_ID, DistributionStatistics.computeStatistics(histograms != null ? histograms[0] : empty));
+        for (int type = 1; type <= numTypes; type++) {
+            listener.window(window, type, DistributionStatistics.computeStatistics(histograms != null ? histograms[type] : empty));
+        }
+        if (histograms != null) {
+            for (LatencyHistogram histogram : histograms) {
+                histogram.reset();
+            }
+            free.add(histograms);
+        }
+        window++;
+    }
+}
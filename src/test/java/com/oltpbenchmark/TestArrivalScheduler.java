@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.util.LatencyHistogram;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TestArrivalScheduler extends TestCase {
+
+    // An arrival every 50 microseconds
+    private static final int RATE = 20000;
+
+    // The arrivals the work queue takes before it drops them
+    private static final int QUEUE_LIMIT = 10001;
+
+    private static WorkloadState makeWorkload(BenchmarkState state, Phase.Arrival arrival) {
+        Phase phase = new Phase("test", 0, 10, 0, RATE, Arrays.asList(1.0, 1.0), true, false, false, true, 1, arrival);
+        WorkloadState workState = new WorkloadState(state, Collections.singletonList(phase), 1, 1);
+        workState.switchToNextPhase();
+        return workState;
+    }
+
+    /**
+     * Dispatch the arrivals of a measured phase, nobody taking them, for
+     * about a second
+     *
+     * @return the nanoseconds the dispatchers ran
+     */
+    private static long dispatch(ArrivalScheduler scheduler) throws Exception {
+        long start = System.nanoTime();
+        scheduler.start();
+        Thread.sleep(1000);
+        scheduler.stop();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * testMeanRate
+     */
+    public void testMeanRate() throws Exception {
+        BenchmarkState state = new BenchmarkState(1);
+        state.startMeasure();
+        ArrivalScheduler scheduler = new ArrivalScheduler(state);
+        scheduler.add(makeWorkload(state, Phase.Arrival.POISSON), 2, 0, 1);
+        dispatch(scheduler);
+
+        // The gaps of the union of both streams, dropped arrivals included,
+        // however late the dispatchers were
+        long total = scheduler.getArrivals() + scheduler.getDropped();
+        LatencyHistogram gaps = scheduler.getInterArrivalTimes();
+        assertTrue(total > QUEUE_LIMIT);
+        assertEquals(total, gaps.getCount());
+        assertEquals(1e6 / RATE, gaps.getAverage(), 0.03 * 1e6 / RATE);
+        // Exponential gaps, rather than the Erlang ones of each dispatcher
+        assertEquals(1e6 / RATE, gaps.getStandardDeviation(), 0.05 * 1e6 / RATE);
+    }
+
+    /**
+     * testDroppedArrivals
+     */
+    public void testDroppedArrivals() throws Exception {
+        BenchmarkState state = new BenchmarkState(1);
+        state.startMeasure();
+        ArrivalScheduler scheduler = new ArrivalScheduler(state);
+        scheduler.add(makeWorkload(state, Phase.Arrival.REGULAR), 1, 0, 1);
+        long elapsed = dispatch(scheduler);
+
+        // Every arrival is either queued or dropped, and none is scheduled
+        // past the time the dispatcher ran
+        long total = scheduler.getArrivals() + scheduler.getDropped();
+        assertEquals(QUEUE_LIMIT, scheduler.getArrivals());
+        assertTrue(total <= RATE * elapsed / 1e9 + 1);
+        assertTrue(total > RATE * elapsed / 1e9 / 2);
+        assertEquals(scheduler.getArrivals(), scheduler.getDispatchLags().getCount());
+
+        LatencyHistogram gaps = scheduler.getInterArrivalTimes();
+        assertEquals(total, gaps.getCount());
+        assertEquals(1e6 / RATE, gaps.getMinimum(), 1);
+        assertEquals(1e6 / RATE, gaps.getMaximum(), 1);
+    }
+}
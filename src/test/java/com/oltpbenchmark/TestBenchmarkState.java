@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import com.oltpbenchmark.types.State;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestBenchmarkState extends TestCase {
+
+    /**
+     * testTransitions
+     */
+    public void testTransitions() throws Exception {
+        BenchmarkState state = new BenchmarkState(1);
+        BenchmarkState.Snapshot initial = state.getSnapshot();
+        assertEquals(State.WARMUP, initial.getState());
+        assertEquals(0, initial.getPhase());
+
+        assertFalse(state.startHotQuery());
+        assertSame(initial, state.getSnapshot());
+
+        assertTrue(state.startMeasure());
+        assertFalse(state.startMeasure());
+        assertEquals(State.MEASURE, state.getState());
+        assertEquals(initial.getEpoch() + 1, state.getSnapshot().getEpoch());
+
+        state.nextPhase();
+        assertEquals(State.MEASURE, state.getState());
+        assertEquals(1, state.getSnapshot().getPhase());
+
+        assertTrue(state.startColdQuery());
+        assertTrue(state.signalLatencyComplete());
+        assertTrue(state.ackLatencyComplete());
+        assertEquals(State.MEASURE, state.getState());
+    }
+
+    /**
+     * testDoneIsFinal
+     */
+    public void testDoneIsFinal() throws Exception {
+        BenchmarkState state = new BenchmarkState(2);
+        state.startMeasure();
+        state.startColdQuery();
+        state.startCoolDown();
+        assertEquals(State.DONE, state.getState());
+
+        // A worker finishing its cold query must not resume the run
+        assertFalse(state.startHotQuery());
+        assertFalse(state.startColdQuery());
+        assertEquals(State.DONE, state.getState());
+
+        assertEquals(0, state.signalDone());
+        assertEquals(State.EXIT, state.getState());
+    }
+
+    /**
+     * testConcurrentPhases
+     */
+    public void testConcurrentPhases() throws Exception {
+        int numThreads = 4;
+        int numPhases = 10000;
+        BenchmarkState state = new BenchmarkState(1);
+        AtomicInteger switched = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < numPhases; i++) {
+                    state.nextPhase();
+                    if (state.startColdQuery()) {
+                        switched.incrementAndGet();
+                    }
+                    state.startHotQuery();
+                }
+            });
+            threads.add(thread);
+        }
+        state.startMeasure();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // No phase switch is lost, and every transition bumped the epoch
+        BenchmarkState.Snapshot snapshot = state.getSnapshot();
+        assertEquals(numThreads * numPhases, snapshot.getPhase());
+        assertEquals(State.MEASURE, snapshot.getState());
+        assertEquals(1 + numThreads * numPhases + 2L * switched.get(), snapshot.getEpoch());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class TestTransactionMix extends TestCase {
+
+    private static final int NUM_DRAWS = 1000000;
+
+    private static int[] draw(TransactionMix mix, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        int[] counts = new int[mix.size() + 1];
+        for (int i = 0; i < NUM_DRAWS; i++) {
+            counts[mix.next(rng)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * testFrequencies
+     */
+    public void testFrequencies() throws Exception {
+        List<Double> weights = Arrays.asList(45.0, 43.0, 4.0, 4.0, 4.0);
+        int[] counts = draw(new TransactionMix(weights), 1);
+        assertEquals(0, counts[0]);
+        for (int i = 0; i < weights.size(); i++) {
+            double expected = weights.get(i) / 100.0;
+            assertEquals(expected, (double) counts[i + 1] / NUM_DRAWS, 0.005);
+        }
+    }
+
+    /**
+     * testZeroWeights
+     */
+    public void testZeroWeights() throws Exception {
+        // Weights that do not add up to 1 once scaled, with rounding errors
+        List<Double> weights = Arrays.asList(0.0, 1.0 / 3, 0.0, 1.0 / 3, 1.0 / 3, -1.0, 0.0);
+        int[] counts = draw(new TransactionMix(weights), 2);
+        for (int i = 0; i < weights.size(); i++) {
+            if (weights.get(i) <= 0) {
+                assertEquals("type " + (i + 1), 0, counts[i + 1]);
+            } else {
+                assertEquals(1.0 / 3, (double) counts[i + 1] / NUM_DRAWS, 0.005);
+            }
+        }
+    }
+
+    /**
+     * testManyTypes
+     */
+    public void testManyTypes() throws Exception {
+        List<Double> weights = Collections.nCopies(30, 100.0 / 30);
+        int[] counts = draw(new TransactionMix(weights), 3);
+        for (int i = 1; i <= 30; i++) {
+            assertEquals(1.0 / 30, (double) counts[i] / NUM_DRAWS, 0.002);
+        }
+    }
+
+    /**
+     * testReproducible
+     */
+    public void testReproducible() throws Exception {
+        TransactionMix mix = new TransactionMix(Arrays.asList(10.0, 20.0, 70.0));
+        assertTrue(Arrays.equals(draw(mix, 42), draw(mix, 42)));
+    }
+
+    /**
+     * testNoPositiveWeight
+     */
+    public void testNoPositiveWeight() throws Exception {
+        try {
+            new TransactionMix(Arrays.asList(0.0, 0.0));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+}
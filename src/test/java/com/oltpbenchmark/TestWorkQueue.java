@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class TestWorkQueue extends TestCase {
+
+    /**
+     * @return the number of entries offered before the queue was full
+     */
+    private static int fill(WorkQueue queue) {
+        int count = 0;
+        while (queue.offer(count, count)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * testCapacity
+     */
+    public void testCapacity() throws Exception {
+        assertEquals(2, fill(new WorkQueue(0)));
+        assertEquals(2, fill(new WorkQueue(2)));
+        assertEquals(8, fill(new WorkQueue(5)));
+        assertEquals(8, fill(new WorkQueue(8)));
+        assertEquals(16, fill(new WorkQueue(9)));
+    }
+
+    /**
+     * testFullAndEmpty
+     */
+    public void testFullAndEmpty() throws Exception {
+        WorkQueue queue = new WorkQueue(4);
+        SubmittedProcedure work = new SubmittedProcedure();
+        assertFalse(queue.poll(work));
+        assertEquals(0, queue.size());
+
+        assertEquals(4, fill(queue));
+        assertEquals(4, queue.size());
+        assertFalse(queue.offer(9, 9));
+
+        // A single free slot takes a single entry
+        assertTrue(queue.poll(work));
+        assertEquals(0, work.getType());
+        assertTrue(queue.offer(4, 40));
+        assertFalse(queue.offer(5, 50));
+
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(queue.poll(work));
+            assertEquals(i, work.getType());
+            assertEquals(i, work.getStartTime());
+        }
+        assertTrue(queue.poll(work));
+        assertEquals(4, work.getType());
+        assertEquals(40, work.getStartTime());
+        assertFalse(queue.poll(work));
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * testWraparound
+     */
+    public void testWraparound() throws Exception {
+        WorkQueue queue = new WorkQueue(4);
+        SubmittedProcedure work = new SubmittedProcedure();
+
+        // Go around the ring many times, with a varying number of queued
+        // entries, and keep the order of the entries
+        int offered = 0;
+        int polled = 0;
+        for (int round = 0; round < 1000; round++) {
+            int offers = 1 + round % 4;
+            for (int i = 0; i < offers; i++) {
+                if (queue.offer(offered, offered * 10L)) {
+                    offered++;
+                }
+            }
+            int polls = 1 + (round * 7) % 4;
+            for (int i = 0; i < polls && queue.poll(work); i++) {
+                assertEquals(polled, work.getType());
+                assertEquals(polled * 10L, work.getStartTime());
+                polled++;
+            }
+            assertEquals(offered - polled, queue.size());
+        }
+        assertTrue(offered > 1000);
+
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertFalse(queue.poll(work));
+        assertEquals(4, fill(queue));
+    }
+
+    /**
+     * testAwait
+     */
+    public void testAwait() throws Exception {
+        WorkQueue queue = new WorkQueue(4);
+        SubmittedProcedure work = new SubmittedProcedure();
+        assertFalse(queue.await(work, 10_000_000L));
+
+        queue.offer(1, 2);
+        assertTrue(queue.await(work, 10_000_000L));
+        assertEquals(1, work.getType());
+
+        // A parked consumer gets the work as soon as it is signalled
+        SubmittedProcedure parked = new SubmittedProcedure();
+        AtomicInteger result = new AtomicInteger(-1);
+        Thread consumer = new Thread(() -> result.set(queue.await(parked, 10_000_000_000L) ? 1 : 0));
+        consumer.start();
+        Thread.sleep(100);
+        queue.offer(3, 4);
+        queue.signal(1);
+        consumer.join(5000);
+        assertFalse(consumer.isAlive());
+        assertEquals(1, result.get());
+        assertEquals(3, parked.getType());
+    }
+
+    /**
+     * testConcurrent
+     */
+    public void testConcurrent() throws Exception {
+        int producers = 3;
+        int consumers = 3;
+        int perProducer = 100000;
+        WorkQueue queue = new WorkQueue(64);
+
+        // The entry of each producer and sequence number, by who consumed it
+        AtomicReferenceArray<Integer> consumedBy = new AtomicReferenceArray<>(producers * perProducer);
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CyclicBarrier barrier = new CyclicBarrier(producers + consumers);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads.add(new Thread(() -> {
+                await(barrier);
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(producer, i)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            int consumer = c;
+            threads.add(new Thread(() -> {
+                SubmittedProcedure work = new SubmittedProcedure();
+                // Each consumer sees the entries of a producer in their order
+                long[] last = new long[producers];
+                Arrays.fill(last, -1);
+                await(barrier);
+                while (consumed.get() < producers * perProducer) {
+                    if (!queue.poll(work)) {
+                        Thread.yield();
+                        continue;
+                    }
+                    int producer = work.getType();
+                    long sequence = work.getStartTime();
+                    if (sequence <= last[producer]) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    last[producer] = sequence;
+                    if (!consumedBy.compareAndSet(producer * perProducer + (int) sequence, null, consumer)) {
+                        duplicates.incrementAndGet();
+                    }
+                    consumed.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(60000);
+            assertFalse(thread.isAlive());
+        }
+
+        assertEquals(0, duplicates.get());
+        assertEquals(0, outOfOrder.get());
+        assertEquals(producers * perProducer, consumed.get());
+        for (int i = 0; i < consumedBy.length(); i++) {
+            assertNotNull("Lost entry " + i, consumedBy.get(i));
+        }
+        assertEquals(0, queue.size());
+        assertFalse(queue.poll(new SubmittedProcedure()));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
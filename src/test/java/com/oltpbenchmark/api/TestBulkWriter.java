@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.catalog.Column;
+import com.oltpbenchmark.catalog.Table;
+import com.oltpbenchmark.types.DatabaseType;
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class TestBulkWriter extends TestCase {
+
+    /**
+     * Keeps the encoded rows instead of sending them
+     */
+    private static class CapturingWriter extends TextBulkWriter {
+        private final StringBuilder rows = new StringBuilder();
+
+        CapturingWriter(Table table) {
+            super(table);
+        }
+
+        @Override
+        protected void rowEncoded() {
+            rows.append(new String(buffer, 0, length, StandardCharsets.UTF_8));
+            length = 0;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static Table makeTable(int... types) {
+        Table table = new Table("T", "");
+        for (int i = 0; i < types.length; i++) {
+            table.addColumn(new Column("C" + i, "", table, types[i], null, true));
+        }
+        return table;
+    }
+
+    /**
+     * testTextEncoding
+     */
+    public void testTextEncoding() throws Exception {
+        Table table = makeTable(Types.BIGINT, Types.DOUBLE, Types.BOOLEAN, Types.VARCHAR, Types.VARCHAR,
+                Types.VARCHAR, Types.INTEGER, Types.DATE, Types.TIMESTAMP);
+        CapturingWriter writer = new CapturingWriter(table);
+        byte[] utf8 = "xé€😀\\".getBytes(StandardCharsets.UTF_8);
+
+        writer.setLong(1, -42);
+        writer.setDouble(2, 1.5);
+        writer.setBoolean(3, true);
+        writer.setString(4, "a\tb\\c\nd\re");
+        writer.setString(5, "é€😀");
+        writer.setUtf8(6, utf8, 1, utf8.length - 1);
+        writer.setNull(7, Types.INTEGER);
+        writer.setDate(8, Date.valueOf(LocalDate.of(2020, 1, 2)));
+        writer.setTimestamp(9, Timestamp.valueOf(LocalDateTime.of(2020, 1, 2, 3, 4, 5, 123456000)));
+        writer.addRow();
+
+        writer.setLong(1, Long.MIN_VALUE);
+        writer.setDouble(2, -0.25);
+        writer.setBoolean(3, false);
+        writer.setString(4, "");
+        writer.setString(5, null);
+        writer.setUtf8(6, utf8, 0, 0);
+        writer.setInt(7, 0);
+        writer.setDate(8, 1998, 12, 31);
+        writer.setTimestamp(9, Timestamp.valueOf(LocalDateTime.of(1999, 12, 31, 23, 59, 0)));
+        writer.addRow();
+
+        assertEquals("-42\t1.5\t1\ta\\tb\\\\c\\nd\\re\té€😀\té€😀\\\\\t\\N\t2020-01-02\t2020-01-02 03:04:05.123456\n"
+                        + Long.MIN_VALUE + "\t-0.25\t0\t\t\\N\t\t0\t1998-12-31\t1999-12-31 23:59:00\n",
+                writer.rows.toString());
+        assertEquals(2, writer.getRowCount());
+    }
+
+    /**
+     * testSetObject
+     */
+    public void testSetObject() throws Exception {
+        Table table = makeTable(Types.BIGINT, Types.INTEGER, Types.DOUBLE, Types.VARCHAR, Types.VARCHAR,
+                Types.BOOLEAN, Types.TIMESTAMP, Types.TIMESTAMP);
+        CapturingWriter writer = new CapturingWriter(table);
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.of(2020, 1, 2, 3, 4, 5));
+
+        writer.setObject(1, 7);
+        writer.setObject(2, 3.0);
+        writer.setObject(3, 2);
+        writer.setObject(4, "a");
+        writer.setObject(5, null);
+        writer.setObject(6, Boolean.TRUE);
+        writer.setObject(7, timestamp);
+        writer.setObject(8, new java.util.Date(timestamp.getTime()));
+        writer.addRow();
+
+        assertEquals("7\t3\t2.0\ta\t\\N\t1\t2020-01-02 03:04:05\t2020-01-02 03:04:05\n", writer.rows.toString());
+
+        try {
+            writer.setObject(4, new Object());
+            fail("Object of an unsupported type set");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    /**
+     * testUnsetColumn
+     */
+    public void testUnsetColumn() throws Exception {
+        CapturingWriter writer = new CapturingWriter(makeTable(Types.BIGINT, Types.VARCHAR));
+        writer.setLong(1, 1);
+        try {
+            writer.addRow();
+            fail("Row with an unset column added");
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+        writer.clearRow();
+        writer.setLong(1, 1);
+        writer.setString(2, "a");
+        writer.addRow();
+        assertEquals("1\ta\n", writer.rows.toString());
+    }
+
+    /**
+     * testRowsPerStatement
+     */
+    public void testRowsPerStatement() throws Exception {
+        assertEquals(128, InsertBulkWriter.getRowsPerStatement(DatabaseType.HSQLDB, 10, 128));
+        assertEquals(Short.MAX_VALUE / 1000, InsertBulkWriter.getRowsPerStatement(DatabaseType.POSTGRES, 1000, 128));
+        assertEquals(1000, InsertBulkWriter.getRowsPerStatement(DatabaseType.SQLSERVER, 1, 5000));
+        assertEquals(999 / 10, InsertBulkWriter.getRowsPerStatement(DatabaseType.SQLITE, 10, 5000));
+        assertEquals(1, InsertBulkWriter.getRowsPerStatement(DatabaseType.ORACLE, 10, 128));
+        assertEquals(1, InsertBulkWriter.getRowsPerStatement(DatabaseType.HSQLDB, 10, 0));
+    }
+
+    /**
+     * testInsert
+     */
+    public void testInsert() throws Exception {
+        Table table = makeTable(Types.INTEGER, Types.VARCHAR, Types.DATE);
+        try (Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:testBulkWriter", "SA", "")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE T (C0 INTEGER PRIMARY KEY, C1 VARCHAR(16), C2 DATE)");
+            }
+
+            // Two full statements of three rows, then one of a single row
+            byte[] utf8 = "été".getBytes(StandardCharsets.UTF_8);
+            try (InsertBulkWriter writer = new InsertBulkWriter(conn, table, DatabaseType.HSQLDB, 3)) {
+                for (int i = 1; i <= 7; i++) {
+                    writer.setInt(1, i);
+                    if (i % 2 == 0) {
+                        writer.setUtf8(2, utf8, 0, utf8.length);
+                    } else {
+                        writer.setNull(2, Types.VARCHAR);
+                    }
+                    writer.setDate(3, 2020, 1, i);
+                    writer.addRow();
+                }
+            }
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT C0, C1, C2 FROM T ORDER BY C0")) {
+                for (int i = 1; i <= 7; i++) {
+                    assertTrue(rs.next());
+                    assertEquals(i, rs.getInt(1));
+                    assertEquals(i % 2 == 0 ? "été" : null, rs.getString(2));
+                    assertEquals(LocalDate.of(2020, 1, i), rs.getDate(3).toLocalDate());
+                }
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    /**
+     * testLoadAfter
+     */
+    public void testLoadAfter() throws Exception {
+        Table parentTable = new Table("P", "");
+        parentTable.addColumn(new Column("ID", "", parentTable, Types.INTEGER, null, false));
+        Table childTable = new Table("C", "");
+        childTable.addColumn(new Column("ID", "", childTable, Types.INTEGER, null, false));
+        childTable.addColumn(new Column("P_ID", "", childTable, Types.INTEGER, null, false));
+        try (Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:testLoadAfter", "SA", "")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE P (ID INTEGER PRIMARY KEY)");
+                stmt.execute("CREATE TABLE C (ID INTEGER PRIMARY KEY, P_ID INTEGER NOT NULL REFERENCES P (ID))");
+            }
+
+            // The child rows are inserted three at a time, while the parent
+            // rows would only be once ten are buffered
+            try (InsertBulkWriter parent = new InsertBulkWriter(conn, parentTable, DatabaseType.HSQLDB, 10);
+                 InsertBulkWriter child = new InsertBulkWriter(conn, childTable, DatabaseType.HSQLDB, 3)) {
+                child.loadAfter(parent);
+                for (int i = 1; i <= 7; i++) {
+                    parent.setInt(1, i);
+                    parent.addRow();
+                    child.setInt(1, i);
+                    child.setInt(2, i);
+                    child.addRow();
+                }
+
+                try {
+                    parent.loadAfter(child);
+                    fail("Tables loaded after each other");
+                } catch (IllegalArgumentException ex) {
+                    // Expected
+                }
+            }
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT (SELECT COUNT(*) FROM P), (SELECT COUNT(*) FROM C) FROM (VALUES (0))")) {
+                assertTrue(rs.next());
+                assertEquals(7, rs.getInt(1));
+                assertEquals(7, rs.getInt(2));
+            }
+        }
+    }
+}
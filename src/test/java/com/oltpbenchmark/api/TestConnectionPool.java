@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package com.oltpbenchmark.api;
+
+import com.oltpbenchmark.WorkloadConfiguration;
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestConnectionPool extends TestCase {
+
+    private static final String URL = "jdbc:hsqldb:mem:testConnectionPool";
+
+    private ConnectionPool pool;
+
+    @Override
+    protected void setUp() throws Exception {
+        WorkloadConfiguration workConf = new WorkloadConfiguration();
+        workConf.setUrl(URL);
+        workConf.setUsername("SA");
+        workConf.setPassword("");
+        workConf.setConnectionPoolSize(2);
+        workConf.setConnectionPoolTimeoutMillis(200);
+        pool = new ConnectionPool(new MockBenchmark(workConf), URL);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        pool.close();
+    }
+
+    /**
+     * testBorrow
+     */
+    public void testBorrow() throws Exception {
+        Connection first = pool.acquire(null);
+        assertFalse(first.getAutoCommit());
+        Connection second = pool.acquire(null);
+        assertNotSame(first, second);
+        assertEquals(2, pool.getOpenConnections());
+        assertEquals(0, pool.getIdleConnections());
+
+        // The preferred connection is handed out if it is idle
+        pool.release(first);
+        pool.release(second);
+        assertEquals(2, pool.getIdleConnections());
+        assertSame(first, pool.acquire(first));
+        assertSame(second, pool.acquire(null));
+        pool.release(second);
+        pool.release(first);
+
+        // Otherwise the one released last
+        assertSame(first, pool.acquire(null));
+        assertEquals(2, pool.getConnectionsOpened());
+        pool.release(first);
+    }
+
+    /**
+     * testPrewarm
+     */
+    public void testPrewarm() throws Exception {
+        pool.prewarm();
+        assertEquals(2, pool.getOpenConnections());
+        assertEquals(2, pool.getIdleConnections());
+        assertEquals(2, pool.getConnectionsOpened());
+        pool.release(pool.acquire(null));
+        assertEquals(2, pool.getConnectionsOpened());
+    }
+
+    /**
+     * testTimeout
+     */
+    public void testTimeout() throws Exception {
+        Connection first = pool.acquire(null);
+        Connection second = pool.acquire(null);
+        long start = System.nanoTime();
+        try {
+            pool.acquire(null);
+            fail("Borrowed more connections than the size of the pool");
+        } catch (SQLTransientConnectionException ex) {
+            // Expected
+        }
+        assertTrue(System.nanoTime() - start >= 150000000L);
+        assertEquals(1, pool.getTimeouts());
+
+        // A waiting borrower gets the connection released meanwhile
+        AtomicReference<Connection> borrowed = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                borrowed.set(pool.acquire(null));
+            } catch (SQLException ex) {
+                // Left null
+            }
+            done.countDown();
+        });
+        waiter.start();
+        pool.release(second);
+        done.await();
+        assertSame(second, borrowed.get());
+        assertEquals(1, pool.getTimeouts());
+        pool.release(first);
+        pool.release(second);
+    }
+
+    /**
+     * testValidation
+     */
+    public void testValidation() throws Exception {
+        Connection first = pool.acquire(null);
+        pool.release(first);
+
+        // A connection that died while idle is replaced once it is validated
+        first.close();
+        Thread.sleep(1100);
+        Connection replacement = pool.acquire(first);
+        assertNotSame(first, replacement);
+        assertFalse(replacement.isClosed());
+        assertEquals(1, pool.getValidationFailures());
+        assertEquals(1, pool.getOpenConnections());
+        assertEquals(2, pool.getConnectionsOpened());
+        pool.release(replacement);
+    }
+
+    /**
+     * testRelease
+     */
+    public void testRelease() throws Exception {
+        Connection first = pool.acquire(null);
+        Connection second = pool.acquire(null);
+
+        // A discarded connection is closed and frees its slot
+        pool.discard(first);
+        assertTrue(first.isClosed());
+        assertEquals(1, pool.getOpenConnections());
+        assertEquals(1, pool.getDiscarded());
+
+        // So does a connection released once closed
+        second.close();
+        pool.release(second);
+        assertEquals(0, pool.getOpenConnections());
+        assertEquals(0, pool.getIdleConnections());
+
+        Connection third = pool.acquire(null);
+        Connection fourth = pool.acquire(null);
+        assertEquals(4, pool.getConnectionsOpened());
+        pool.release(third);
+
+        // Closing the pool closes the idle connections, and the borrowed
+        // ones when they are released
+        pool.close();
+        assertTrue(third.isClosed());
+        assertEquals(1, pool.getOpenConnections());
+        pool.release(fourth);
+        assertTrue(fourth.isClosed());
+        assertEquals(0, pool.getOpenConnections());
+        try {
+            pool.acquire(null);
+            fail("Borrowed from a closed pool");
+        } catch (SQLException ex) {
+            // Expected
+        }
+    }
+}
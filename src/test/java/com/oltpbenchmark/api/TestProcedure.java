@@ -20,6 +20,9 @@ import com.oltpbenchmark.benchmarks.tatp.procedures.DeleteCallForwarding;
 import com.oltpbenchmark.types.DatabaseType;
 import junit.framework.TestCase;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.util.Map;
 
 public class TestProcedure extends TestCase {
@@ -70,4 +73,141 @@ public class TestProcedure extends TestCase {
 
     }
 
+    /**
+     * testStatementCache
+     */
+    public void testStatementCache() throws Exception {
+        Procedure proc = new DeleteCallForwarding();
+        proc.initialize(DatabaseType.HSQLDB);
+        proc.setStatementCacheSize(1);
+
+        SQLStmt stmt0 = new SQLStmt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES");
+        SQLStmt stmt1 = new SQLStmt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS");
+
+        try (Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:testStatementCache", "SA", "")) {
+            PreparedStatement first;
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn, stmt0)) {
+                first = pStmt;
+                pStmt.executeQuery().close();
+
+                // Requesting a statement that is still open must not share it
+                try (PreparedStatement nested = proc.getPreparedStatement(conn, stmt0)) {
+                    assertNotSame(first, nested);
+                }
+            }
+            assertTrue(first.isClosed());
+
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn, stmt0)) {
+                assertSame(first, pStmt);
+                assertFalse(pStmt.isClosed());
+                pStmt.executeQuery().close();
+            }
+            assertEquals(1, proc.getStatementCacheHits());
+            assertEquals(2, proc.getStatementCacheMisses());
+
+            // Only one statement fits, so the first one is evicted
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn, stmt1)) {
+                pStmt.executeQuery().close();
+            }
+            assertEquals(1, proc.getStatementCacheEvictions());
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn, stmt0)) {
+                assertNotSame(first, pStmt);
+            }
+        }
+
+        // A new connection invalidates everything prepared on the old one
+        try (Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:testStatementCache", "SA", "")) {
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn, stmt0)) {
+                pStmt.executeQuery().close();
+            }
+            assertEquals(1, proc.getStatementCacheHits());
+            assertEquals(5, proc.getStatementCacheMisses());
+        }
+    }
+
+    /**
+     * testStatementCacheConnections
+     */
+    public void testStatementCacheConnections() throws Exception {
+        Procedure proc = new DeleteCallForwarding();
+        proc.initialize(DatabaseType.HSQLDB);
+        proc.setStatementCacheSize(4);
+
+        SQLStmt stmt = new SQLStmt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES");
+
+        try (Connection conn0 = DriverManager.getConnection("jdbc:hsqldb:mem:testStatementCacheConnections", "SA", "")) {
+            PreparedStatement first;
+            PreparedStatement second;
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn0, stmt)) {
+                first = pStmt;
+            }
+            try (Connection conn1 = DriverManager.getConnection("jdbc:hsqldb:mem:testStatementCacheConnections", "SA", "")) {
+                try (PreparedStatement pStmt = proc.getPreparedStatement(conn1, stmt)) {
+                    second = pStmt;
+                }
+
+                // Switching connections keeps what was prepared on each of them
+                try (PreparedStatement pStmt = proc.getPreparedStatement(conn0, stmt)) {
+                    assertSame(first, pStmt);
+                    assertFalse(pStmt.isClosed());
+                    pStmt.executeQuery().close();
+                }
+                try (PreparedStatement pStmt = proc.getPreparedStatement(conn1, stmt)) {
+                    assertSame(second, pStmt);
+                }
+                assertEquals(2, proc.getStatementCacheHits());
+                assertEquals(2, proc.getStatementCacheMisses());
+            }
+
+            // A replacement connection drops the statements of the closed one
+            try (Connection conn2 = DriverManager.getConnection("jdbc:hsqldb:mem:testStatementCacheConnections", "SA", "")) {
+                try (PreparedStatement pStmt = proc.getPreparedStatement(conn2, stmt)) {
+                    pStmt.executeQuery().close();
+                }
+            }
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn0, stmt)) {
+                assertSame(first, pStmt);
+                pStmt.executeQuery().close();
+            }
+            assertEquals(3, proc.getStatementCacheHits());
+            assertEquals(3, proc.getStatementCacheMisses());
+        }
+    }
+
+    /**
+     * testStatementStatistics
+     */
+    public void testStatementStatistics() throws Exception {
+        Procedure proc = new DeleteCallForwarding();
+        proc.initialize(DatabaseType.HSQLDB);
+        StatementStatistics statistics = new StatementStatistics();
+        statistics.setEnabled(true);
+        proc.setStatementStatistics(statistics);
+
+        // Statements built at run time are reported under their name, not
+        // their SQL, which may differ from one execution to the next
+        SQLStmt padded1 = new SQLStmt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME IN (??)", 1);
+        SQLStmt padded2 = new SQLStmt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME IN (??)", 2);
+        padded1.setName("GetTables");
+        padded2.setName("GetTables");
+        SQLStmt unnamed = new SQLStmt("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS");
+
+        try (Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:testStatementStatistics", "SA", "")) {
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn, padded1, "T")) {
+                pStmt.executeQuery().close();
+            }
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn, padded2, "T", "U")) {
+                pStmt.executeQuery().close();
+            }
+            try (PreparedStatement pStmt = proc.getPreparedStatement(conn, unnamed)) {
+                pStmt.executeQuery().close();
+            }
+        }
+
+        Map<String, StatementStatistics.Entry> entries = statistics.getProcedures().get(proc.getProcedureName());
+        assertEquals(2, entries.size());
+        assertEquals(2, entries.get("GetTables").getExecutions());
+        assertEquals(1, entries.get(Procedure.UNNAMED_STATEMENT).getExecutions());
+    }
+
 }
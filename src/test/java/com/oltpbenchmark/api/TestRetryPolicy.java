@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.api;
+
+import junit.framework.TestCase;
+
+import java.sql.SQLException;
+
+public class TestRetryPolicy extends TestCase {
+
+    private static final SQLException SERIALIZATION_FAILURE = new SQLException("could not serialize access", "40001");
+
+    /**
+     * An exception that carries a retry delay, like the ones of the Spanner client
+     */
+    public static class HintException extends RuntimeException {
+        public long getRetryDelayInMillis() {
+            return 42;
+        }
+    }
+
+    /**
+     * testImmediate
+     */
+    public void testImmediate() throws Exception {
+        RetryPolicy policy = RetryPolicy.get("immediate", 5, 1000);
+        for (int retry = 1; retry < 10; retry++) {
+            assertEquals(0, policy.getBackoffMillis(retry, SERIALIZATION_FAILURE));
+        }
+    }
+
+    /**
+     * testExponentialIsCapped
+     */
+    public void testExponentialIsCapped() throws Exception {
+        RetryPolicy policy = RetryPolicy.get("exponential", 5, 100);
+        for (int retry = 1; retry < 100; retry++) {
+            long cap = Math.min(100, 5L << Math.min(retry - 1, 30));
+            for (int i = 0; i < 100; i++) {
+                long backoff = policy.getBackoffMillis(retry, SERIALIZATION_FAILURE);
+                assertTrue(backoff >= 0);
+                assertTrue(backoff + " > " + cap, backoff <= cap);
+            }
+        }
+    }
+
+    /**
+     * testServerHint
+     */
+    public void testServerHint() throws Exception {
+        RetryPolicy policy = RetryPolicy.get("hint", 5, 5);
+        SQLException hinted = new SQLException("aborted", "40001", new HintException());
+        assertEquals(42, policy.getBackoffMillis(1, hinted));
+        assertTrue(policy.getBackoffMillis(1, SERIALIZATION_FAILURE) <= 5);
+    }
+
+    /**
+     * testUnknownPolicy
+     */
+    public void testUnknownPolicy() throws Exception {
+        try {
+            RetryPolicy.get("linear", 5, 1000);
+            fail("Unknown policy accepted");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+}
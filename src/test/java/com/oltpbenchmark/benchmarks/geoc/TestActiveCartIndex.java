@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.geoc;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestActiveCartIndex extends TestCase {
+
+    private static final int DISTRICTS = GeoCConfig.configDistPerWhse;
+    private static final int CUSTOMERS = GeoCConfig.configCustPerDist;
+
+    /**
+     * Check the index against the carts that are open in a warehouse, by
+     * district
+     */
+    private static void assertCarts(ActiveCartIndex index, int w_id, List<Set<Integer>> open, Random gen) {
+        int total = 0;
+        for (Set<Integer> carts : open) {
+            total += carts.size();
+        }
+        assertEquals(total, index.size(w_id));
+
+        for (int d_lower = 1; d_lower <= DISTRICTS; d_lower += 3) {
+            int d_upper = Math.min(d_lower + 2, DISTRICTS);
+            Set<List<Integer>> expected = new HashSet<>();
+            for (int d = d_lower; d <= d_upper; d++) {
+                for (int c : open.get(d - 1)) {
+                    expected.add(Arrays.asList(d, c));
+                }
+            }
+            // Every pick is an open cart, and every open cart gets picked
+            Set<List<Integer>> picked = new HashSet<>();
+            for (int i = 0; i < expected.size() * 20; i++) {
+                int[] cart = index.choose(w_id, d_lower, d_upper, gen);
+                List<Integer> key = Arrays.asList(cart[0], cart[1]);
+                assertTrue("Closed cart " + key + " picked", expected.contains(key));
+                picked.add(key);
+            }
+            assertEquals(expected, picked);
+            if (expected.isEmpty()) {
+                assertNull(index.choose(w_id, d_lower, d_upper, gen));
+            }
+        }
+    }
+
+    private static List<Set<Integer>> noCarts() {
+        List<Set<Integer>> open = new ArrayList<>();
+        for (int d = 0; d < DISTRICTS; d++) {
+            open.add(new HashSet<>());
+        }
+        return open;
+    }
+
+    /**
+     * testAddRemoveChoose
+     */
+    public void testAddRemoveChoose() throws Exception {
+        ActiveCartIndex index = new ActiveCartIndex(2);
+        Random gen = new Random(1);
+        List<Set<Integer>> open = noCarts();
+        assertCarts(index, 1, open, gen);
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 100; i++) {
+                int d_id = 1 + gen.nextInt(DISTRICTS);
+                int c_id = 1 + gen.nextInt(CUSTOMERS);
+                // More additions than removals at first, then the other way
+                if (gen.nextInt(20) < 20 - round) {
+                    index.add(1, d_id, c_id);
+                    open.get(d_id - 1).add(c_id);
+                } else {
+                    index.remove(1, d_id, c_id);
+                    open.get(d_id - 1).remove(c_id);
+                }
+            }
+            assertCarts(index, 1, open, gen);
+        }
+
+        // Adding an open cart or removing a closed one changes nothing, nor
+        // does another warehouse
+        int c_id = open.get(0).isEmpty() ? 1 : open.get(0).iterator().next();
+        index.add(1, 1, c_id);
+        open.get(0).add(c_id);
+        index.add(1, 1, c_id);
+        index.remove(1, 2, CUSTOMERS + 1);
+        index.add(2, 1, c_id);
+        assertCarts(index, 1, open, gen);
+        assertEquals(1, index.size(2));
+    }
+
+    /**
+     * testCustomerIdsBeyondConfig
+     */
+    public void testCustomerIdsBeyondConfig() throws Exception {
+        ActiveCartIndex index = new ActiveCartIndex(1);
+        Random gen = new Random(1);
+        List<Set<Integer>> open = noCarts();
+        for (int c_id = 1; c_id <= CUSTOMERS * 3; c_id += 7) {
+            index.add(1, 4, c_id);
+            open.get(3).add(c_id);
+        }
+        assertCarts(index, 1, open, gen);
+        for (int c_id = CUSTOMERS * 3; c_id > 0; c_id -= 2) {
+            index.remove(1, 4, c_id);
+            open.get(3).remove(c_id);
+        }
+        assertCarts(index, 1, open, gen);
+    }
+
+    /**
+     * testConcurrentRemoval
+     */
+    public void testConcurrentRemoval() throws Exception {
+        int numThreads = 4;
+        ActiveCartIndex index = new ActiveCartIndex(1);
+        List<Set<Integer>> open = new ArrayList<>();
+        for (int d = 1; d <= DISTRICTS; d++) {
+            open.add(ConcurrentHashMap.newKeySet());
+            for (int c = 1; c <= CUSTOMERS; c++) {
+                index.add(1, d, c);
+                open.get(d - 1).add(c);
+            }
+        }
+
+        // Each terminal empties the carts it picks, as DecreaseCartLine does
+        // with the last line of a cart, and opens two random ones.
+        // Several terminals may pick and remove the same cart at once. The
+        // locks only keep the expected carts in step with the index.
+        Object[] locks = new Object[64];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        CyclicBarrier barrier = new CyclicBarrier(numThreads);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            Random gen = new Random(t);
+            threads.add(new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i = 0; i < 20000; i++) {
+                        int[] cart = index.choose(1, 1, DISTRICTS, gen);
+                        if (cart != null) {
+                            assertTrue(cart[0] >= 1 && cart[0] <= DISTRICTS);
+                            assertTrue(cart[1] >= 1 && cart[1] <= CUSTOMERS);
+                            synchronized (locks[(cart[0] * 31 + cart[1]) % locks.length]) {
+                                index.remove(1, cart[0], cart[1]);
+                                open.get(cart[0] - 1).remove(cart[1]);
+                            }
+                        }
+                        for (int j = 0; j < 2; j++) {
+                            int d_id = 1 + gen.nextInt(DISTRICTS);
+                            int c_id = 1 + gen.nextInt(CUSTOMERS);
+                            synchronized (locks[(d_id * 31 + c_id) % locks.length]) {
+                                index.add(1, d_id, c_id);
+                                open.get(d_id - 1).add(c_id);
+                            }
+                        }
+                    }
+                } catch (Throwable ex) {
+                    error.compareAndSet(null, ex);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(60000);
+            assertFalse(thread.isAlive());
+        }
+        if (error.get() != null) {
+            throw new AssertionError(error.get());
+        }
+
+        // About half the carts are left open
+        assertTrue(index.size(1) > 0);
+        assertTrue(index.size(1) < DISTRICTS * CUSTOMERS);
+        assertCarts(index, 1, open, new Random(1));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.geoc;
+
+import junit.framework.TestCase;
+import org.apache.commons.configuration2.XMLConfiguration;
+import org.apache.commons.configuration2.io.FileHandler;
+import org.apache.commons.configuration2.tree.xpath.XPathExpressionEngine;
+
+import java.io.StringReader;
+
+public class TestGeoCRegions extends TestCase {
+
+    private static final String DEFAULT_URL = "jdbc:postgresql://localhost:5432/benchbase";
+
+    private static XMLConfiguration makeConfig(String regions) throws Exception {
+        XMLConfiguration xmlConfig = new XMLConfiguration();
+        xmlConfig.setExpressionEngine(new XPathExpressionEngine());
+        new FileHandler(xmlConfig).load(new StringReader("<parameters><regions>" + regions + "</regions></parameters>"));
+        return xmlConfig;
+    }
+
+    private static String region(String name, String warehouses, String url) {
+        return "<region>" + (name == null ? "" : "<name>" + name + "</name>")
+                + "<warehouses>" + warehouses + "</warehouses>"
+                + (url == null ? "" : "<url>" + url + "</url>") + "</region>";
+    }
+
+    private static void assertInvalid(String regions, int numWarehouses, String defaultUrl) throws Exception {
+        XMLConfiguration xmlConfig = makeConfig(regions);
+        try {
+            GeoCRegions.parse(xmlConfig, numWarehouses, defaultUrl);
+            fail("Invalid regions parsed: " + regions);
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    /**
+     * testParse
+     */
+    public void testParse() throws Exception {
+        XMLConfiguration xmlConfig = makeConfig(region("eu", "1-2, 5", "jdbc:postgresql://eu:26257/benchbase")
+                + region(null, "3,8-12", null));
+        GeoCRegions regions = GeoCRegions.parse(xmlConfig, 9, DEFAULT_URL);
+        assertFalse(regions.isEmpty());
+        assertTrue(regions.hasUrls());
+
+        assertEquals("eu", regions.getName(1));
+        assertEquals("eu", regions.getName(5));
+        assertEquals("jdbc:postgresql://eu:26257/benchbase", regions.getUrl(2));
+        assertEquals("region1", regions.getName(3));
+        assertEquals("region1", regions.getName(9));
+        assertNull(regions.getUrl(3));
+        assertNull(regions.getName(4));
+        assertNull(regions.getUrl(4));
+
+        assertTrue(regions.isSameRegion(1, 5));
+        assertTrue(regions.isSameRegion(3, 8));
+        assertTrue(regions.isSameRegion(4, 6));
+        assertFalse(regions.isSameRegion(1, 3));
+        assertFalse(regions.isSameRegion(3, 4));
+    }
+
+    /**
+     * testNoRegions
+     */
+    public void testNoRegions() throws Exception {
+        GeoCRegions regions = GeoCRegions.parse(null, 4, DEFAULT_URL);
+        assertTrue(regions.isEmpty());
+        assertFalse(regions.hasUrls());
+        assertNull(regions.getUrl(4));
+        assertTrue(regions.isSameRegion(1, 4));
+
+        regions = GeoCRegions.parse(makeConfig(""), 4, null);
+        assertTrue(regions.isEmpty());
+    }
+
+    /**
+     * testMalformedRanges
+     */
+    public void testMalformedRanges() throws Exception {
+        for (String warehouses : new String[]{"a-b", "1-x", "3-1", "0", "0-2", "-1", "1-", "-", "1-2-3", "1.5"}) {
+            assertInvalid(region("eu", warehouses, null), 4, DEFAULT_URL);
+        }
+
+        // Empty entries are skipped
+        GeoCRegions regions = GeoCRegions.parse(makeConfig(region("eu", " 1, ,2,", null)), 4, DEFAULT_URL);
+        assertEquals("eu", regions.getName(2));
+        assertNull(regions.getName(3));
+    }
+
+    /**
+     * testDuplicateRegions
+     */
+    public void testDuplicateRegions() throws Exception {
+        assertInvalid(region("eu", "1", null) + region("eu", "2", null), 4, DEFAULT_URL);
+        assertInvalid(region("eu", "1-3", null) + region("us", "3-4", null), 4, DEFAULT_URL);
+        assertInvalid(region("eu", "1,2,1", null), 4, DEFAULT_URL);
+
+        // Overlaps beyond the scale factor are ignored
+        GeoCRegions regions = GeoCRegions.parse(makeConfig(region("eu", "1-6", null) + region("us", "5-8", null)), 4, DEFAULT_URL);
+        assertEquals("eu", regions.getName(4));
+    }
+
+    /**
+     * testMissingDefaultUrl
+     */
+    public void testMissingDefaultUrl() throws Exception {
+        // Warehouse 4 is in the default region, and us has no URL
+        assertInvalid(region("eu", "1-3", "jdbc:postgresql://eu:26257/benchbase"), 4, null);
+        assertInvalid(region("eu", "1-2", "jdbc:postgresql://eu:26257/benchbase") + region("us", "3-4", null), 4, null);
+        assertInvalid(region("eu", "1-2", "jdbc:postgresql://eu:26257/benchbase") + region("us", "3-4", " "), 4, "");
+
+        // Not needed when every region has its own URL
+        GeoCRegions regions = GeoCRegions.parse(makeConfig(region("eu", "1-2", "jdbc:postgresql://eu:26257/benchbase")
+                + region("us", "3-4", "jdbc:postgresql://us:26257/benchbase")), 4, null);
+        assertEquals("jdbc:postgresql://us:26257/benchbase", regions.getUrl(4));
+
+        // A blank URL is no URL
+        regions = GeoCRegions.parse(makeConfig(region("eu", "1-2", "") + region("us", "3-4", null)), 4, DEFAULT_URL);
+        assertFalse(regions.hasUrls());
+        assertNull(regions.getUrl(1));
+        assertFalse(regions.isSameRegion(1, 3));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.geoc;
+
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+public class TestReferenceDataCache extends TestCase {
+
+    private static final int NUM_WAREHOUSES = 2;
+
+    private ReferenceDataCache cache;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        // Without regular names, HSQLDB takes the names starting with an
+        // underscore, like _C_IND_ID
+        try (Connection conn = DriverManager.getConnection("jdbc:hsqldb:mem:testReferenceDataCache;sql.regular_names=false", "SA", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP SCHEMA PUBLIC CASCADE");
+            stmt.execute("CREATE TABLE item (I_ID INT, I_PRICE REAL)");
+            stmt.execute("CREATE TABLE warehouse (W_ID INT, W_TAX REAL)");
+            stmt.execute("CREATE TABLE customer (C_W_ID INT, C_D_ID INT, C_ID INT, _C_IND_ID INT)");
+
+            // Ids out of the configured ranges are either kept, for the
+            // items, or skipped
+            int bigItem = GeoCConfig.configItemCount * 3;
+            stmt.execute("INSERT INTO item VALUES (0, 9.5), (1, 1.5), (2, 2.25), (" + bigItem + ", 3.0)");
+            stmt.execute("INSERT INTO warehouse VALUES (1, 0.125), (2, 0.0), (3, 0.5)");
+            stmt.execute("INSERT INTO customer VALUES (1, 1, 1, 7), (2, " + GeoCConfig.configDistPerWhse + ", "
+                    + GeoCConfig.configCustPerDist + ", 9), (1, 1, " + (GeoCConfig.configCustPerDist + 1) + ", 5), (3, 1, 1, 5)");
+
+            cache = ReferenceDataCache.load(conn, NUM_WAREHOUSES);
+        }
+    }
+
+    /**
+     * testItems
+     */
+    public void testItems() throws Exception {
+        assertEquals(1.5f, cache.getItemPrice(1));
+        assertEquals(2.25f, cache.getItemPrice(2));
+        assertEquals(3.0f, cache.getItemPrice(GeoCConfig.configItemCount * 3));
+        assertTrue(Float.isNaN(cache.getItemPrice(0)));
+        assertTrue(Float.isNaN(cache.getItemPrice(3)));
+        assertTrue(Float.isNaN(cache.getItemPrice(GeoCConfig.INVALID_ITEM_ID)));
+        assertTrue(Float.isNaN(cache.getItemPrice(Integer.MAX_VALUE)));
+        assertEquals(3, cache.getItemCount());
+    }
+
+    /**
+     * testWarehouses
+     */
+    public void testWarehouses() throws Exception {
+        assertEquals(0.125f, cache.getWarehouseTax(1));
+        assertEquals(0.0f, cache.getWarehouseTax(2));
+        assertTrue(Float.isNaN(cache.getWarehouseTax(0)));
+        assertTrue(Float.isNaN(cache.getWarehouseTax(3)));
+    }
+
+    /**
+     * testCustomers
+     */
+    public void testCustomers() throws Exception {
+        assertEquals(7, cache.getCustomerSupervisor(1, 1, 1));
+        assertEquals(9, cache.getCustomerSupervisor(2, GeoCConfig.configDistPerWhse, GeoCConfig.configCustPerDist));
+        assertTrue(cache.hasCustomer(1, 1, 1));
+
+        // Customers that were not loaded or cannot be
+        assertFalse(cache.hasCustomer(1, 1, 2));
+        assertFalse(cache.hasCustomer(1, 1, GeoCConfig.configCustPerDist + 1));
+        assertFalse(cache.hasCustomer(3, 1, 1));
+        assertFalse(cache.hasCustomer(1, 0, 1));
+        assertFalse(cache.hasCustomer(1, GeoCConfig.configDistPerWhse + 1, 1));
+        assertEquals(ReferenceDataCache.NO_CUSTOMER, cache.getCustomerSupervisor(0, 1, 1));
+    }
+}
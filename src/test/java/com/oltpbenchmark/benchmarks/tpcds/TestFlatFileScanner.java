@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.tpcds;
+
+import junit.framework.TestCase;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestFlatFileScanner extends TestCase {
+
+    private static FlatFileScanner scanner(String contents, boolean csv) {
+        return new FlatFileScanner(ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8)), csv);
+    }
+
+    /**
+     * @return the fields of each line
+     */
+    private static List<List<String>> fields(FlatFileScanner scanner) {
+        List<List<String>> lines = new ArrayList<>();
+        while (scanner.nextLine()) {
+            List<String> fields = new ArrayList<>();
+            while (scanner.nextField()) {
+                fields.add(scanner.getString());
+            }
+            lines.add(fields);
+        }
+        return lines;
+    }
+
+    /**
+     * testCsv
+     */
+    public void testCsv() throws Exception {
+        List<List<String>> lines = fields(scanner("1,\"a,b\", \"c\" ,d\r\n\n2,,\"\",é\n", true));
+        assertEquals(List.of(List.of("1", "a,b", "c", "d"), List.of("2", "", "", "é")), lines);
+    }
+
+    /**
+     * testTbl
+     */
+    public void testTbl() throws Exception {
+        // Each field is followed by a '|', and the last line has no line break
+        FlatFileScanner scanner = scanner("1|a, b||2000-01-02|\n2|\"x|y\"|3.5||", false);
+        assertTrue(scanner.nextLine());
+        assertTrue(scanner.nextField());
+        assertEquals(1, scanner.getLong());
+        assertTrue(scanner.nextField());
+        assertEquals("a, b", scanner.getString());
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.isEmpty());
+        assertTrue(scanner.nextField());
+        assertEquals(20000102, scanner.getDate());
+        assertEquals("1|a, b||2000-01-02|", scanner.getLine());
+
+        assertTrue(scanner.nextLine());
+        assertTrue(scanner.nextField());
+        assertEquals(2, scanner.getLong());
+        assertTrue(scanner.nextField());
+        assertEquals("x|y", scanner.getString());
+        assertTrue(scanner.nextField());
+        assertEquals(3.5, scanner.getDouble());
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.isEmpty());
+        assertFalse(scanner.nextLine());
+    }
+
+    /**
+     * testCopyField
+     */
+    public void testCopyField() throws Exception {
+        FlatFileScanner scanner = scanner("ab|été|", false);
+        assertTrue(scanner.nextLine());
+        byte[] target = new byte[16];
+        scanner.nextField();
+        int length = scanner.copyField(target, 0);
+        scanner.nextField();
+        assertEquals("été".getBytes(StandardCharsets.UTF_8).length, scanner.getFieldLength());
+        length = scanner.copyField(target, length);
+        assertEquals("abété", new String(target, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * testNumbers
+     */
+    public void testNumbers() throws Exception {
+        FlatFileScanner scanner = scanner(" 42 |-7|+0|9223372036854775807|", false);
+        scanner.nextLine();
+        long[] expected = {42, -7, 0, Long.MAX_VALUE};
+        for (long value : expected) {
+            assertTrue(scanner.nextField());
+            assertEquals(value, scanner.getLong());
+        }
+
+        String[] doubles = {"0", "-0", "1234.56", " 0.07 ", "-99999.99", "1.", ".5", "1e3", "-1.5E-3", "123456789012345",
+                "1234567890.123456789", "0.1000000000000000055511151231257827", "1e300", "4.9e-324", "12345678901234567890123",
+                "+2.5e+2"};
+        for (String value : doubles) {
+            scanner = scanner(value + "|", false);
+            scanner.nextLine();
+            scanner.nextField();
+            assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value.trim())), Double.doubleToLongBits(scanner.getDouble()));
+        }
+
+        String[] invalid = {"", "-", "1.2.3", "1e", "12a", "."};
+        for (String value : invalid) {
+            scanner = scanner(value + "|", false);
+            scanner.nextLine();
+            scanner.nextField();
+            try {
+                scanner.getDouble();
+                fail("Parsed \"" + value + "\"");
+            } catch (NumberFormatException ex) {
+                // Expected
+            }
+            try {
+                scanner.getLong();
+                fail("Parsed \"" + value + "\"");
+            } catch (NumberFormatException ex) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * testDates
+     */
+    public void testDates() throws Exception {
+        FlatFileScanner scanner = scanner("1998-12-31,19981231,12/31/1998,31.12.1998, 2000-01-02 ,1998/12/31,98-12-31,1998-1a-31", true);
+        scanner.nextLine();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(scanner.nextField());
+            assertEquals(i < 4 ? 19981231 : 20000102, scanner.getDate());
+        }
+        while (scanner.nextField()) {
+            try {
+                scanner.getDate();
+                fail("Parsed \"" + scanner.getString() + "\"");
+            } catch (IllegalArgumentException ex) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * testChunks
+     */
+    public void testChunks() throws Exception {
+        Path path = Files.createTempFile("flat", ".tbl");
+        try {
+            // Lines of various lengths, so that the boundaries of the chunks
+            // fall in the middle of lines, and no line break at the end
+            StringBuilder contents = new StringBuilder();
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                String line = i + "|" + "x".repeat(i % 7) + "|";
+                expected.add(line);
+                contents.append(line).append(i < 99 ? "\n" : "");
+            }
+            Files.writeString(path, contents);
+
+            for (int maxChunks = 1; maxChunks <= 8; maxChunks++) {
+                List<ByteBuffer> chunks = FlatFileScanner.map(path, maxChunks, 16);
+                assertEquals(maxChunks, chunks.size());
+                List<String> lines = new ArrayList<>();
+                for (ByteBuffer chunk : chunks) {
+                    assertTrue(chunk.limit() > 0);
+                    FlatFileScanner scanner = new FlatFileScanner(chunk, false);
+                    while (scanner.nextLine()) {
+                        lines.add(scanner.getLine());
+                    }
+                }
+                assertEquals(expected, lines);
+            }
+
+            // Not split into chunks smaller than the minimum
+            assertEquals(1, FlatFileScanner.map(path, 8, contents.length()).size());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.benchmarks.tpch.util;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public class TestGeneratorParts extends TestCase {
+
+    private static final double SCALE_FACTOR = 0.01;
+
+    /**
+     * The rows of a generator, copied out of the reused row.
+     */
+    private static List<String> rows(Iterable<TPCHRow> generator) {
+        List<String> rows = new ArrayList<>();
+        for (TPCHRow row : generator) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < row.getColumnCount(); i++) {
+                sb.append(row.getLong(i)).append('|')
+                        .append(row.getDouble(i)).append('|')
+                        .append(row.getString(i)).append('|');
+            }
+            rows.add(sb.toString());
+        }
+        return rows;
+    }
+
+    private static void checkParts(IntFunction<Iterable<TPCHRow>> generators, int partCount, Iterable<TPCHRow> whole) {
+        List<String> expected = rows(whole);
+        List<String> actual = new ArrayList<>();
+        for (int part = 1; part <= partCount; part++) {
+            actual.addAll(rows(generators.apply(part)));
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * testLineItemParts
+     */
+    public void testLineItemParts() throws Exception {
+        checkParts(part -> new LineItemGenerator(SCALE_FACTOR, part, 3), 3, new LineItemGenerator(SCALE_FACTOR, 1, 1));
+    }
+
+    /**
+     * testOrderParts
+     */
+    public void testOrderParts() throws Exception {
+        checkParts(part -> new OrderGenerator(SCALE_FACTOR, part, 4), 4, new OrderGenerator(SCALE_FACTOR, 1, 1));
+    }
+
+    /**
+     * testPartSupplierParts
+     */
+    public void testPartSupplierParts() throws Exception {
+        checkParts(part -> new PartSupplierGenerator(SCALE_FACTOR, part, 2), 2, new PartSupplierGenerator(SCALE_FACTOR, 1, 1));
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.distributed;
+
+import com.oltpbenchmark.DistributionStatistics;
+import com.oltpbenchmark.LatencyRecord;
+import com.oltpbenchmark.Phase;
+import com.oltpbenchmark.Results;
+import com.oltpbenchmark.WorkloadConfiguration;
+import com.oltpbenchmark.api.TransactionType;
+import com.oltpbenchmark.api.TransactionTypes;
+import com.oltpbenchmark.benchmarks.geoc.procedures.Payment;
+import com.oltpbenchmark.util.Histogram;
+import com.oltpbenchmark.util.LatencyHistogram;
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TestCoordinator extends TestCase {
+
+    private static final TransactionType PAYMENT = new TransactionType(Payment.class, 1, false, 0, 0) {
+    };
+
+    /**
+     * Build the results of an agent whose samples start at the given times
+     * and take 1 ms each, with 2 ms of response time.
+     */
+    private static Results makeResults(long... starts) {
+        LatencyRecord record = new LatencyRecord(0);
+        LatencyHistogram latencies = new LatencyHistogram();
+        LatencyHistogram responseTimes = new LatencyHistogram();
+        for (long start : starts) {
+            record.addLatency(PAYMENT.getId(), start - 1000000, start, start + 1000000, 0, 1);
+            latencies.record(1000);
+            responseTimes.record(2000);
+        }
+        Results results = new Results(1000000000L, starts.length, DistributionStatistics.computeStatistics(latencies),
+                DistributionStatistics.computeStatistics(responseTimes), record);
+        results.getLatencyHistograms().put(PAYMENT, latencies);
+        results.getResponseTimeHistograms().put(PAYMENT, responseTimes);
+        results.getSuccess().put(PAYMENT, starts.length);
+        results.getAbort().put(PAYMENT, 1);
+        results.getAbortMessages().computeIfAbsent(PAYMENT, k -> new Histogram<>()).put("Invalid customer", 1);
+        results.getLabelHistograms().computeIfAbsent("local", k -> new HashMap<>()).put(PAYMENT, latencies);
+        results.getStatementStatistics().get("Payment", "stmtUpdateWhseSQL").executed(1000, 1);
+        results.getCounters().put("Round Trips", 1L);
+        return results;
+    }
+
+    private static AgentReport roundTrip(AgentReport report) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(report);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            // As the coordinator reads it
+            in.setObjectInputFilter(Channel.FILTER);
+            return (AgentReport) in.readObject();
+        }
+    }
+
+    /**
+     * testMerge
+     */
+    public void testMerge() throws Exception {
+        // The agents' clocks start at unrelated times
+        AgentReport first = roundTrip(new AgentReport(0, makeResults(5000000000L, 5200000000L), 5000000000L, 0));
+        AgentReport second = roundTrip(new AgentReport(1, makeResults(900100000000L), 900000000000L, 4));
+
+        Results merged = AgentReport.merge(Arrays.asList(first, second), 1000000000L, 70000000000L, Arrays.asList(TransactionType.INVALID, PAYMENT));
+
+        assertEquals(3, merged.getMeasuredRequests());
+        assertEquals(3, merged.getSuccess().get(PAYMENT).intValue());
+        assertEquals(2, merged.getAbort().get(PAYMENT).intValue());
+        assertEquals(2, merged.getAbortMessages().get(PAYMENT).get("Invalid customer", 0));
+        assertEquals(3, merged.getLatencyHistograms().get(PAYMENT).getCount());
+        assertEquals(3, merged.getDistributionStatistics().getCount());
+        assertEquals(2, merged.getStatementStatistics().get("Payment", "stmtUpdateWhseSQL").getExecutions());
+        assertEquals(2L, merged.getCounters().get("Round Trips").longValue());
+
+        // Rebased on the coordinator's clock and ordered over the agents
+        List<LatencyRecord.Sample> samples = new ArrayList<>();
+        merged.getLatencySamples().forEach(samples::add);
+        assertEquals(3, samples.size());
+        assertEquals(70000000000L, samples.get(0).getStartNanosecond());
+        assertEquals(0, samples.get(0).getWorkerId());
+        assertEquals(70100000000L, samples.get(1).getStartNanosecond());
+        assertEquals(4, samples.get(1).getWorkerId());
+        assertEquals(70200000000L, samples.get(2).getStartNanosecond());
+        for (LatencyRecord.Sample s : samples) {
+            assertEquals(1000, s.getLatencyMicrosecond());
+            assertEquals(2000, s.getResponseMicrosecond());
+            assertEquals(PAYMENT.getId(), s.getTransactionType());
+        }
+    }
+
+    /**
+     * testFilter
+     */
+    public void testFilter() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ArrayList<>(List.of(1)));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            in.setObjectInputFilter(Channel.FILTER);
+            in.readObject();
+            fail("Only the classes of the messages may be deserialized");
+        } catch (InvalidClassException ex) {
+            // Expected
+        }
+    }
+
+    /**
+     * testLoopback
+     */
+    public void testLoopback() throws Exception {
+        WorkloadConfiguration workConf = new WorkloadConfiguration();
+        workConf.setBenchmarkName("geoc");
+        workConf.setTerminals(5);
+        workConf.setTransTypes(new TransactionTypes(Arrays.asList(TransactionType.INVALID, PAYMENT)));
+        workConf.addPhase(1, 1, 0, 100, Collections.singletonList(100.0), true, false, false, true, 5, Phase.Arrival.REGULAR);
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (Coordinator coordinator = new Coordinator(0, 2)) {
+            Future<Results> merged = executor.submit(() -> coordinator.run(Collections.singletonList(workConf)));
+
+            Set<Long> seeds = Collections.synchronizedSet(new HashSet<>());
+            List<Future<Integer>> agents = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                agents.add(executor.submit(() -> {
+                    try (Agent agent = Agent.connect("localhost:" + coordinator.getPort())) {
+                        WorkloadConfiguration share = new WorkloadConfiguration();
+                        share.setTerminals(5);
+                        share.setAgent(agent.getIndex(), agent.getCount(), agent.getSeed());
+                        seeds.add(share.getSharedSeed());
+
+                        agent.awaitStart();
+                        while (!agent.isMeasureStarted(System.nanoTime(), Long.MAX_VALUE)) {
+                            Thread.sleep(1);
+                        }
+                        long measureStart = System.nanoTime();
+                        while (!agent.isPhaseComplete(0, System.nanoTime(), Long.MAX_VALUE)) {
+                            Thread.sleep(1);
+                        }
+                        agent.sendResults(makeResults(measureStart + 1000), share.getTerminalOffset());
+                        return share.getTerminals();
+                    }
+                }));
+            }
+
+            int terminals = 0;
+            for (Future<Integer> agent : agents) {
+                terminals += agent.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(5, terminals);
+            // Both agents draw what they must agree on from the same seed
+            assertEquals(1, seeds.size());
+
+            Results results = merged.get(30, TimeUnit.SECONDS);
+            assertEquals(2, results.getMeasuredRequests());
+            assertEquals(2, results.getSuccess().get(PAYMENT).intValue());
+            assertTrue(results.getNanoseconds() >= 1000000000L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * testAgentTimeout
+     */
+    public void testAgentTimeout() throws Exception {
+        WorkloadConfiguration workConf = new WorkloadConfiguration();
+        workConf.setBenchmarkName("geoc");
+        workConf.setTerminals(1);
+        workConf.setTransTypes(new TransactionTypes(Arrays.asList(TransactionType.INVALID, PAYMENT)));
+        workConf.addPhase(1, 1, 0, 100, Collections.singletonList(100.0), true, false, false, true, 1, Phase.Arrival.REGULAR);
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (Coordinator coordinator = new Coordinator(InetAddress.getLoopbackAddress(), 0, 1, 500)) {
+            Future<Results> merged = executor.submit(() -> coordinator.run(Collections.singletonList(workConf)));
+
+            // An agent that runs its phase but never reports
+            try (Agent agent = Agent.connect("localhost:" + coordinator.getPort())) {
+                agent.awaitStart();
+                long start = System.nanoTime();
+                try {
+                    merged.get(30, TimeUnit.SECONDS);
+                    fail("Run without the report of its agent");
+                } catch (ExecutionException ex) {
+                    assertTrue(String.valueOf(ex.getCause()), ex.getCause() instanceof SocketTimeoutException);
+                }
+                // The phase, then the timeout
+                assertTrue(System.nanoTime() - start >= 1500000000L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
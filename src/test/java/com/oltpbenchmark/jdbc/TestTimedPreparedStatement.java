@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.jdbc;
+
+import junit.framework.TestCase;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestTimedPreparedStatement extends TestCase {
+
+    private Connection conn;
+
+    // The rows of each execution reported, in order
+    private final List<Long> executions = new ArrayList<>();
+    private long nanos = 0;
+
+    private final TimedPreparedStatement.Listener listener = (nanos, rows) -> {
+        this.nanos += nanos;
+        this.executions.add(rows);
+    };
+
+    @Override
+    protected void setUp() throws Exception {
+        conn = DriverManager.getConnection("jdbc:hsqldb:mem:testTimedPreparedStatement", "SA", "");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE T IF EXISTS");
+            stmt.execute("CREATE TABLE T (ID INTEGER PRIMARY KEY, V VARCHAR(16))");
+            stmt.execute("INSERT INTO T VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        conn.close();
+    }
+
+    private TimedPreparedStatement prepare(String sql) throws SQLException {
+        return new TimedPreparedStatement(conn.prepareStatement(sql), listener);
+    }
+
+    /**
+     * testQuery
+     */
+    public void testQuery() throws Exception {
+        try (PreparedStatement stmt = prepare("SELECT ID, V FROM T WHERE ID >= ? ORDER BY ID")) {
+            stmt.setInt(1, 2);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertSame(stmt, rs.getStatement());
+                assertTrue(rs.next());
+                assertEquals(2, rs.getInt(1));
+                assertEquals("b", rs.getString("V"));
+
+                // Only reported once its rows are fetched
+                assertTrue(executions.isEmpty());
+                assertTrue(rs.next());
+                assertFalse(rs.next());
+            }
+            assertEquals(List.of(2L), executions);
+            assertTrue(nanos > 0);
+
+            // Executing again reports a query whose ResultSet is still open
+            stmt.setInt(1, 1);
+            ResultSet rs = stmt.executeQuery();
+            assertTrue(rs.next());
+            stmt.setInt(1, 3);
+            try (ResultSet other = stmt.executeQuery()) {
+                assertEquals(List.of(2L, 1L), executions);
+
+                // Closing the first ResultSet late does not report the second one
+                rs.close();
+                assertEquals(List.of(2L, 1L), executions);
+                assertTrue(other.next());
+            }
+            assertEquals(List.of(2L, 1L, 1L), executions);
+
+            // Nor does closing the statement report anything twice
+            stmt.executeQuery();
+        }
+        assertEquals(List.of(2L, 1L, 1L, 0L), executions);
+    }
+
+    /**
+     * testUpdate
+     */
+    public void testUpdate() throws Exception {
+        try (PreparedStatement stmt = prepare("UPDATE T SET V = ? WHERE ID <= ?")) {
+            stmt.setString(1, "x");
+            stmt.setInt(2, 2);
+            assertEquals(2, stmt.executeUpdate());
+
+            stmt.setString(1, "y");
+            stmt.setInt(2, 1);
+            assertFalse(stmt.execute());
+        }
+        try (PreparedStatement stmt = prepare("INSERT INTO T VALUES (?, ?)")) {
+            for (int i = 4; i <= 6; i++) {
+                stmt.setInt(1, i);
+                stmt.setString(2, "z");
+                stmt.addBatch();
+            }
+            assertEquals(3, stmt.executeBatch().length);
+        }
+        assertEquals(List.of(2L, 1L, 3L), executions);
+    }
+
+    /**
+     * testExecuteQuery
+     */
+    public void testExecuteQuery() throws Exception {
+        try (PreparedStatement stmt = prepare("SELECT ID FROM T")) {
+            assertTrue(stmt.execute());
+            try (ResultSet rs = stmt.getResultSet()) {
+                assertSame(stmt, rs.getStatement());
+                int count = 0;
+                while (rs.next()) {
+                    count++;
+                }
+                assertEquals(3, count);
+            }
+            assertEquals(List.of(3L), executions);
+
+            // Reported with the statement when its rows are not fetched
+            assertTrue(stmt.execute());
+        }
+        assertEquals(List.of(3L, 0L), executions);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import com.oltpbenchmark.DistributionStatistics;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestLatencyHistogram extends TestCase {
+
+    private static final int NUM_SAMPLES = 100000;
+    private static final double[] PERCENTILES = {0.0, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 0.9999, 1.0};
+
+    private final Random rand = new Random(1);
+
+    /**
+     * testBucketBoundaries
+     */
+    public void testBucketBoundaries() throws Exception {
+        long previous = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(value <= highest);
+            assertEquals(index, LatencyHistogram.bucketIndex(highest));
+            assertTrue(index >= previous);
+            previous = index;
+        }
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(LatencyHistogram.MAX_VALUE)));
+    }
+
+    /**
+     * testSmallValuesAreExact
+     */
+    public void testSmallValuesAreExact() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            h.record(i);
+        }
+        assertEquals(100, h.getCount());
+        assertEquals(1, h.getMinimum());
+        assertEquals(100, h.getMaximum());
+        assertEquals(50.5, h.getAverage(), 0.0001);
+        assertEquals(51, h.getValueAtPercentile(0.5));
+        assertEquals(100, h.getValueAtPercentile(0.99));
+        assertEquals(100, h.getValueAtPercentile(1.0));
+    }
+
+    /**
+     * testPercentilesMatchSortedSamples
+     */
+    public void testPercentilesMatchSortedSamples() throws Exception {
+        int[] values = new int[NUM_SAMPLES];
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal around one millisecond with a long tail
+            values[i] = (int) Math.exp(7 + rand.nextGaussian() * 1.5);
+            h.record(values[i]);
+        }
+
+        DistributionStatistics fromHistogram = DistributionStatistics.computeStatistics(h);
+        DistributionStatistics fromSamples = DistributionStatistics.computeStatistics(Arrays.copyOf(values, values.length));
+        assertEquals(fromSamples.getCount(), fromHistogram.getCount());
+        assertEquals(fromSamples.getMinimum(), fromHistogram.getMinimum());
+        assertEquals(fromSamples.getMaximum(), fromHistogram.getMaximum());
+        assertEquals(fromSamples.getAverage(), fromHistogram.getAverage(), 0.0001);
+        assertEquals(fromSamples.getStandardDeviation(), fromHistogram.getStandardDeviation(), 0.01);
+
+        Arrays.sort(values);
+        for (double p : PERCENTILES) {
+            int index = Math.min(values.length - 1, (int) (p * values.length));
+            long expected = values[index];
+            long actual = h.getValueAtPercentile(p);
+            assertTrue(p + ": " + actual + " < " + expected, actual >= expected);
+            assertTrue(p + ": " + actual + " too far from " + expected, actual - expected <= expected / 64 + 1);
+        }
+    }
+
+    /**
+     * testMerge
+     */
+    public void testMerge() throws Exception {
+        LatencyHistogram all = new LatencyHistogram();
+        LatencyHistogram[] parts = new LatencyHistogram[4];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            long value = rand.nextInt(1000000);
+            all.record(value);
+            parts[i % parts.length].record(value);
+        }
+
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram part : parts) {
+            merged.add(part);
+        }
+        assertEquals(all.getCount(), merged.getCount());
+        assertEquals(all.getMinimum(), merged.getMinimum());
+        assertEquals(all.getMaximum(), merged.getMaximum());
+        for (double p : PERCENTILES) {
+            assertEquals(all.getValueAtPercentile(p), merged.getValueAtPercentile(p));
+        }
+
+        LatencyHistogram copy = new LatencyHistogram(merged);
+        merged.reset();
+        assertTrue(merged.isEmpty());
+        assertEquals(all.getCount(), copy.getCount());
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import com.oltpbenchmark.DistributionStatistics;
+import com.oltpbenchmark.LatencyRecord;
+import com.oltpbenchmark.api.TransactionType;
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TestSampleLog extends TestCase {
+
+    private static final long SECOND = 1000000000L;
+
+    /**
+     * testVarLongRoundTrip
+     */
+    public void testVarLongRoundTrip() throws Exception {
+        long[] values = {0, 1, -1, 63, -64, 64, 127, 128, 300, -300, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                1L << 35, -(1L << 35), Long.MAX_VALUE, Long.MIN_VALUE};
+        byte[] buffer = new byte[values.length * 10];
+        int length = 0;
+        for (long value : values) {
+            length = SampleLog.putVarLong(buffer, length, SampleLog.zigZag(value));
+        }
+
+        int[] position = {0};
+        for (long value : values) {
+            assertEquals(value, SampleLog.unZigZag(SampleLog.getVarLong(buffer, position)));
+        }
+        assertEquals(length, position[0]);
+
+        // Small magnitudes take a single byte either way
+        assertEquals(1, SampleLog.putVarLong(buffer, 0, SampleLog.zigZag(-64)));
+        assertEquals(1, SampleLog.putVarLong(buffer, 0, SampleLog.zigZag(63)));
+        assertEquals(10, SampleLog.putVarLong(buffer, 0, SampleLog.zigZag(Long.MIN_VALUE)));
+    }
+
+    /**
+     * testWriteAndRead
+     */
+    public void testWriteAndRead() throws Exception {
+        Path path = Files.createTempFile("samples", ".raw.bin");
+        try {
+            SampleLog log = SampleLog.create(path, Arrays.asList("A", "B"), 2);
+            long start = System.nanoTime();
+            log.setWindowStart(start);
+
+            // More than a block for the first worker, a single sample for the second
+            SampleLog.Appender first = log.newAppender(0);
+            SampleLog.Appender second = log.newAppender(1);
+            int count = SampleLog.BLOCK_SAMPLES + 10;
+            for (int i = 0; i < count; i++) {
+                long sampleStart = start + i * (SECOND / 1000);
+                first.append(1 + i % 2, sampleStart - 1000, sampleStart, sampleStart + 5000, 1);
+            }
+            second.append(2, start + 3 * SECOND, start + 3 * SECOND, start + 3 * SECOND + 7000, 2);
+            log.close();
+
+            SampleLogReader reader = SampleLogReader.read(path);
+            assertEquals(Arrays.asList("A", "B"), reader.getTransactionNames());
+            assertEquals(count + 1, reader.getSampleCount());
+            List<LatencyRecord.Sample> samples = new ArrayList<>();
+            reader.getSamples().forEach(samples::add);
+            assertEquals(count + 1, samples.size());
+            assertEquals(5, samples.get(0).getLatencyMicrosecond());
+            assertEquals(6, samples.get(0).getResponseMicrosecond());
+            LatencyRecord.Sample other = samples.stream().filter(x -> x.getWorkerId() == 1).findFirst().get();
+            assertEquals(start + 3 * SECOND, other.getStartNanosecond());
+            assertEquals(2, other.getPhaseId());
+            assertEquals(7, other.getLatencyMicrosecond());
+
+            assertEquals(start, reader.getWindowStartNanosecond());
+
+            // The windows were computed while the samples were written
+            List<DistributionStatistics> seconds = new ArrayList<>();
+            List<int[]> windows = new ArrayList<>();
+            List<DistributionStatistics> statistics = new ArrayList<>();
+            log.finishWindows((window, type, s) -> seconds.add(s), (window, type, s) -> {
+                windows.add(new int[]{window, type});
+                statistics.add(s);
+            });
+            assertEquals(5, seconds.size());
+            assertEquals(1000, seconds.get(0).getCount());
+            assertEquals(1001, seconds.get(3).getCount());
+            assertEquals(count - 4000, seconds.get(4).getCount());
+
+            assertEquals(3 * 3, windows.size());
+            assertEquals(TransactionType.INVALID_ID, windows.get(0)[1]);
+            assertEquals(2000, statistics.get(0).getCount());
+            assertEquals(1000, statistics.get(1).getCount());
+            assertEquals(1000, statistics.get(2).getCount());
+            assertEquals(1, windows.get(3)[0]);
+            assertEquals(2001, statistics.get(3).getCount());
+            assertEquals(7.0, statistics.get(3).getMaximum(), 0.0001);
+            assertEquals(count - 4000, statistics.get(6).getCount());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * testSameOutputs
+     */
+    public void testSameOutputs() throws Exception {
+        Path dir = Files.createTempDirectory("samples");
+        try {
+            Path path = dir.resolve("live.raw.bin");
+            SampleLog log = SampleLog.create(path, Arrays.asList("A", "B"), 3);
+            long start = System.nanoTime() + SECOND;
+            log.setWindowStart(start);
+
+            // The samples of the workers interleave, and some start before the
+            // measurements or leave windows without samples
+            List<LatencyRecord> records = new ArrayList<>();
+            Random random = new Random(1);
+            for (int workerId = 0; workerId < 3; workerId++) {
+                SampleLog.Appender appender = log.newAppender(workerId);
+                LatencyRecord record = new LatencyRecord(start - SECOND);
+                long sampleStart = start - SECOND / 2 + workerId * 1000;
+                for (int i = 0; i < SampleLog.BLOCK_SAMPLES + 500; i++) {
+                    int type = 1 + random.nextInt(2);
+                    long end = sampleStart + 1000 + random.nextInt(50000000);
+                    appender.append(type, sampleStart, sampleStart, end, 1);
+                    record.addLatency(type, sampleStart, sampleStart, end, workerId, 1);
+                    sampleStart += random.nextInt(workerId == 2 && i == 100 ? 10 * (int) SECOND : 5000000);
+                }
+                records.add(record);
+            }
+            log.close();
+
+            Map<String, String> live = writeOutputs(dir, "live", (samplesPs, resultsPs, resultsByType) ->
+                    ResultWriter.writeWindows(log, samplesPs, resultsPs, resultsByType));
+            Map<String, String> memory = writeOutputs(dir, "memory", (samplesPs, resultsPs, resultsByType) ->
+                    ResultWriter.writeWindows(LatencyRecord.merge(records), start, samplesPs, 3, resultsPs, resultsByType));
+            SampleLogReader.read(path).writeOutputs(dir.resolve("read").toString(), 3);
+            Map<String, String> read = new TreeMap<>();
+            for (String output : live.keySet()) {
+                read.put(output, Files.readString(dir.resolve("read" + output)));
+            }
+
+            assertEquals(4, live.size());
+            assertTrue(live.get(".samples.csv").split("\n").length > 10);
+            assertEquals(live, memory);
+            assertEquals(live, read);
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private interface OutputWriter {
+        void write(PrintStream samplesPs, PrintStream resultsPs, Map<Integer, PrintStream> resultsByType) throws Exception;
+    }
+
+    /**
+     * @return the contents of the windowed outputs, by the suffix of their
+     * file name
+     */
+    private static Map<String, String> writeOutputs(Path dir, String name, OutputWriter writer) throws Exception {
+        String[] outputs = {".samples.csv", ".results.csv", ".results.A.csv", ".results.B.csv"};
+        Map<Integer, PrintStream> resultsByType = new HashMap<>();
+        try (PrintStream samplesPs = new PrintStream(dir.resolve(name + outputs[0]).toFile());
+             PrintStream resultsPs = new PrintStream(dir.resolve(name + outputs[1]).toFile())) {
+            resultsByType.put(1, new PrintStream(dir.resolve(name + outputs[2]).toFile()));
+            resultsByType.put(2, new PrintStream(dir.resolve(name + outputs[3]).toFile()));
+            writer.write(samplesPs, resultsPs, resultsByType);
+        } finally {
+            for (PrintStream ps : resultsByType.values()) {
+                ps.close();
+            }
+        }
+        Map<String, String> contents = new TreeMap<>();
+        for (String output : outputs) {
+            contents.put(output, Files.readString(dir.resolve(name + output)));
+        }
+        return contents;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 by OLTPBenchmark Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.oltpbenchmark.util;
+
+import com.oltpbenchmark.DistributionStatistics;
+import com.oltpbenchmark.LatencyRecord;
+import com.oltpbenchmark.api.TransactionType;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestWindowedStatistics extends TestCase {
+
+    private static final long SECOND = 1000000000L;
+
+    private final List<int[]> windows = new ArrayList<>();
+    private final List<DistributionStatistics> statistics = new ArrayList<>();
+
+    private WindowedStatistics create(int windowSizeSeconds, int numTypes) {
+        return new WindowedStatistics(windowSizeSeconds, numTypes, (window, txType, s) -> {
+            windows.add(new int[]{window, txType});
+            statistics.add(s);
+        });
+    }
+
+    private static LatencyRecord.Sample sample(int txType, long startNanosecond, int latencyMicrosecond) {
+        return new LatencyRecord.Sample(txType, startNanosecond, latencyMicrosecond, 0, 0);
+    }
+
+    /**
+     * testWindowsByType
+     */
+    public void testWindowsByType() throws Exception {
+        WindowedStatistics ws = create(2, 2);
+        long base = 100 * SECOND;
+        ws.add(sample(1, base, 10));
+        ws.add(sample(2, base + SECOND, 20));
+        ws.add(sample(1, base + 2 * SECOND, 30));
+        ws.finish();
+
+        // Two windows, each with the statistics of all and of both types
+        assertEquals(6, windows.size());
+        assertEquals(0, windows.get(0)[0]);
+        assertEquals(TransactionType.INVALID_ID, windows.get(0)[1]);
+        assertEquals(2, statistics.get(0).getCount());
+        assertEquals(15.0, statistics.get(0).getAverage(), 0.0001);
+        assertEquals(1, statistics.get(1).getCount());
+        assertEquals(10.0, statistics.get(1).getMaximum(), 0.0001);
+        assertEquals(1, statistics.get(2).getCount());
+        assertEquals(20.0, statistics.get(2).getMaximum(), 0.0001);
+
+        assertEquals(1, windows.get(3)[0]);
+        assertEquals(1, statistics.get(3).getCount());
+        assertEquals(1, statistics.get(4).getCount());
+        assertEquals(0, statistics.get(5).getCount());
+    }
+
+    /**
+     * testEmptyWindows
+     */
+    public void testEmptyWindows() throws Exception {
+        WindowedStatistics ws = create(1, 0);
+        ws.add(sample(1, 0, 10));
+        ws.add(sample(1, 3 * SECOND + 1, 10));
+        ws.finish();
+
+        assertEquals(4, windows.size());
+        assertEquals(1, statistics.get(0).getCount());
+        assertEquals(0, statistics.get(1).getCount());
+        assertEquals(0, statistics.get(2).getCount());
+        assertEquals(1, statistics.get(3).getCount());
+        assertEquals(3, windows.get(3)[0]);
+    }
+
+    /**
+     * testStartTime
+     */
+    public void testStartTime() throws Exception {
+        WindowedStatistics ws = new WindowedStatistics(10 * SECOND, 2, 0, (window, txType, s) -> {
+            windows.add(new int[]{window, txType});
+            statistics.add(s);
+        });
+        // Before the start, then in the second window
+        ws.add(sample(1, 9 * SECOND, 10));
+        ws.add(sample(1, 12 * SECOND, 10));
+        ws.finish();
+
+        assertEquals(2, windows.size());
+        assertEquals(1, statistics.get(0).getCount());
+        assertEquals(1, statistics.get(1).getCount());
+        assertEquals(1, windows.get(1)[0]);
+    }
+
+    /**
+     * testRecordInAnyOrder
+     */
+    public void testRecordInAnyOrder() throws Exception {
+        long[] starts = {4 * SECOND, SECOND, 7 * SECOND, 0, 2 * SECOND, 7 * SECOND + 1};
+        int[] latencies = {40, 10, 70, 5, 20, 80};
+
+        WindowedStatistics ordered = create(2, 2);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < starts.length; i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Long.compare(starts[a], starts[b]));
+        for (int i : order) {
+            ordered.add(sample(1 + i % 2, starts[i], latencies[i]));
+        }
+        ordered.finish();
+        List<int[]> orderedWindows = new ArrayList<>(windows);
+        List<DistributionStatistics> orderedStatistics = new ArrayList<>(statistics);
+        windows.clear();
+        statistics.clear();
+
+        WindowedStatistics any = new WindowedStatistics(0, 2, 2, (window, txType, s) -> {
+            windows.add(new int[]{window, txType});
+            statistics.add(s);
+        });
+        for (int i = 0; i < starts.length; i++) {
+            any.record(starts[i], latencies[i], 1 + i % 2);
+        }
+        any.finish();
+
+        assertEquals(4 * 3, windows.size());
+        assertEquals(orderedWindows.size(), windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            assertEquals(orderedWindows.get(i)[0], windows.get(i)[0]);
+            assertEquals(orderedWindows.get(i)[1], windows.get(i)[1]);
+            assertEquals(orderedStatistics.get(i).toMap(), statistics.get(i).toMap());
+        }
+    }
+
+    /**
+     * testRecordInCompleteWindow
+     */
+    public void testRecordInCompleteWindow() throws Exception {
+        WindowedStatistics ws = create(1, 0);
+        ws.add(sample(1, 0, 10));
+        ws.add(sample(1, 2 * SECOND, 10));
+        try {
+            ws.record(SECOND, 10, 1);
+            fail("Sample recorded in a complete window");
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    /**
+     * testNoSamples
+     */
+    public void testNoSamples() throws Exception {
+        WindowedStatistics ws = create(5, 3);
+        ws.finish();
+        assertTrue(windows.isEmpty());
+    }
+}